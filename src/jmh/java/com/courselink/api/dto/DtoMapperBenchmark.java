@@ -0,0 +1,65 @@
+package com.courselink.api.dto;
+
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.TaskCategory;
+import com.courselink.api.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private BookingSlot bookingSlot;
+
+    private DefenceSession defenceSession;
+
+    @Setup
+    public void setUp() {
+        defenceSession = DefenceSession.builder()
+                .defenceSessionId(1L)
+                .description("Benchmark session")
+                .defenseDate(LocalDate.of(2026, 1, 15))
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(18, 0))
+                .taskCategory(new TaskCategory())
+                .build();
+
+        bookingSlot = new BookingSlot();
+        bookingSlot.setBookingSlotId(1L);
+        bookingSlot.setStartTime(LocalTime.of(8, 0));
+        bookingSlot.setEndTime(LocalTime.of(8, 20));
+        bookingSlot.setBooked(true);
+        bookingSlot.setUser(User.builder().userId(1L).role(Role.STUDENT).build());
+        bookingSlot.setDefenceSession(defenceSession);
+    }
+
+    @Benchmark
+    public BookingSlotDTO toBookingSlotDTO() {
+        return BookingSlotDTO.toBookingSlotDTO(bookingSlot);
+    }
+
+    @Benchmark
+    public DefenceSessionDTO toDefenceSessionDTO() {
+        return DefenceSessionDTO.toDefenceSessionDTO(defenceSession);
+    }
+
+}
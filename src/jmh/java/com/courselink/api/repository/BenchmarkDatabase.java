@@ -0,0 +1,74 @@
+package com.courselink.api.repository;
+
+import org.flywaydb.core.Flyway;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * The Postgres database of the benchmarks that measure SQL. The database given by the {@code BENCHMARK_JDBC_URL},
+ * {@code BENCHMARK_JDBC_USERNAME} and {@code BENCHMARK_JDBC_PASSWORD} environment variables is used if set,
+ * otherwise a container is started, which requires Docker. Every trial migrates a schema of its own from scratch,
+ * so an existing database only loses the {@value #SCHEMA} schema.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final String SCHEMA = "benchmark";
+
+    private final PostgreSQLContainer<?> postgreSQLContainer;
+
+    private final String url;
+
+    private final String username;
+
+    private final String password;
+
+    private BenchmarkDatabase(PostgreSQLContainer<?> postgreSQLContainer, String url, String username, String password) {
+        this.postgreSQLContainer = postgreSQLContainer;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    static BenchmarkDatabase start() {
+        String url = System.getenv("BENCHMARK_JDBC_URL");
+        BenchmarkDatabase benchmarkDatabase;
+        if (url != null) {
+            benchmarkDatabase = new BenchmarkDatabase(null, url, System.getenv("BENCHMARK_JDBC_USERNAME"), System.getenv("BENCHMARK_JDBC_PASSWORD"));
+        } else {
+            PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+            postgreSQLContainer.start();
+            benchmarkDatabase = new BenchmarkDatabase(postgreSQLContainer,
+                    postgreSQLContainer.getJdbcUrl(), postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword());
+        }
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(benchmarkDatabase.url, benchmarkDatabase.username, benchmarkDatabase.password)
+                .schemas(SCHEMA)
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+        return benchmarkDatabase;
+    }
+
+    /**
+     * @return a connection whose unqualified names resolve to the migrated schema.
+     */
+    Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, username, password);
+        connection.setSchema(SCHEMA);
+        return connection;
+    }
+
+    @Override
+    public void close() {
+        if (postgreSQLContainer != null) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.courselink.api.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating the booking slots of a defence session. {@code SAVE_ALL} issues the statements of the former
+ * generator: a lookup of the session and its existing slots, then a {@code nextval} round trip and an insert per slot,
+ * as {@code allocationSize = 1} dictates. {@code INSERT_SELECT} is {@link BookingSlotRepositoryImpl#generate}: one
+ * statement that checks, computes, inserts and returns all slots. Runs against the {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingSlotGenerationBenchmark {
+
+    private static final String FIND_DEFENCE_SESSION = "select start_time, end_time from defence_sessions where defence_session_id = ?";
+
+    private static final String EXISTS_BOOKING_SLOTS = "select exists (select 1 from booking_slots where defence_session_id = ?)";
+
+    private static final String NEXTVAL = "select nextval('booking_slot_id_seq')";
+
+    private static final String INSERT =
+            "insert into booking_slots (booking_slot_id, start_time, end_time, is_booked, defence_session_id) values (?, ?, ?, false, ?)";
+
+    public enum GenerationStrategy {
+        SAVE_ALL,
+        INSERT_SELECT
+    }
+
+    @Param({"10", "100", "500"})
+    private int bookingSlotsCount;
+
+    @Param({"SAVE_ALL", "INSERT_SELECT"})
+    private GenerationStrategy strategy;
+
+    private BenchmarkDatabase benchmarkDatabase;
+
+    private Connection connection;
+
+    private BookingSlotRepositoryImpl bookingSlotRepository;
+
+    private long defenceSessionId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        benchmarkDatabase = BenchmarkDatabase.start();
+
+        connection = benchmarkDatabase.connect();
+        connection.setAutoCommit(false);
+        bookingSlotRepository = new BookingSlotRepositoryImpl(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "insert into defence_sessions (description, defense_date, start_time, end_time, task_category_id) " +
+                     "select 'Benchmark session', date '2026-01-15', time '08:00', time '16:00', min(task_category_id) from task_categories " +
+                     "returning defence_session_id")) {
+            resultSet.next();
+            defenceSessionId = resultSet.getLong(1);
+        }
+        connection.commit();
+    }
+
+    /**
+     * Truncating instead of deleting keeps the slot deletions from piling up as tombstones.
+     */
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("truncate table booking_slots, booking_slot_deletions cascade");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        benchmarkDatabase.close();
+    }
+
+    @Benchmark
+    public int generateBookingSlots() throws SQLException {
+        int generated = strategy == GenerationStrategy.INSERT_SELECT
+                ? bookingSlotRepository.generate(defenceSessionId, bookingSlotsCount).size()
+                : saveAll();
+        connection.commit();
+        return generated;
+    }
+
+    private int saveAll() throws SQLException {
+        LocalTime startTime;
+        LocalTime endTime;
+        try (PreparedStatement findDefenceSession = connection.prepareStatement(FIND_DEFENCE_SESSION)) {
+            findDefenceSession.setLong(1, defenceSessionId);
+            try (ResultSet resultSet = findDefenceSession.executeQuery()) {
+                resultSet.next();
+                startTime = resultSet.getTime(1).toLocalTime();
+                endTime = resultSet.getTime(2).toLocalTime();
+            }
+        }
+        try (PreparedStatement existsBookingSlots = connection.prepareStatement(EXISTS_BOOKING_SLOTS)) {
+            existsBookingSlots.setLong(1, defenceSessionId);
+            try (ResultSet resultSet = existsBookingSlots.executeQuery()) {
+                resultSet.next();
+                if (resultSet.getBoolean(1)) {
+                    return 0;
+                }
+            }
+        }
+
+        Duration slotDuration = Duration.between(startTime, endTime).dividedBy(bookingSlotsCount);
+        int inserted = 0;
+        try (PreparedStatement nextval = connection.prepareStatement(NEXTVAL);
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (int i = 0; i < bookingSlotsCount; i++) {
+                LocalTime slotStartTime = startTime.plus(slotDuration.multipliedBy(i));
+                insert.setLong(1, nextId(nextval));
+                insert.setTime(2, Time.valueOf(slotStartTime));
+                insert.setTime(3, Time.valueOf(slotStartTime.plus(slotDuration)));
+                insert.setLong(4, defenceSessionId);
+                inserted += insert.executeUpdate();
+            }
+        }
+        return inserted;
+    }
+
+    private static long nextId(PreparedStatement nextval) throws SQLException {
+        try (ResultSet resultSet = nextval.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.courselink.api.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures inserting defence sessions with the statements Hibernate issues for them. {@code SEQUENCE_PER_ROW} is the
+ * former {@code allocationSize = 1} without JDBC batching: a {@code nextval} round trip and an insert per row, with the
+ * sequence incremented by 1 as before V14. {@code POOLED_BATCHED} is the pooled-lo optimizer with
+ * {@code hibernate.jdbc.batch_size}: one {@code nextval} and one batch per 50 rows, with the sequence incremented by 50.
+ * Runs against the {@link BenchmarkDatabase}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityInsertBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String NEXTVAL = "select nextval('defence_session_id_seq')";
+
+    private static final String INSERT =
+            "insert into defence_sessions (defence_session_id, description, defense_date, start_time, end_time, task_category_id) " +
+            "values (?, ?, ?, ?, ?, ?)";
+
+    public enum InsertStrategy {
+        SEQUENCE_PER_ROW,
+        POOLED_BATCHED
+    }
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    @Param({"SEQUENCE_PER_ROW", "POOLED_BATCHED"})
+    private InsertStrategy strategy;
+
+    private BenchmarkDatabase benchmarkDatabase;
+
+    private Connection connection;
+
+    private long taskCategoryId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        benchmarkDatabase = BenchmarkDatabase.start();
+
+        connection = benchmarkDatabase.connect();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select min(task_category_id) from task_categories")) {
+            resultSet.next();
+            taskCategoryId = resultSet.getLong(1);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter sequence defence_session_id_seq increment by " + (strategy == InsertStrategy.POOLED_BATCHED ? ALLOCATION_SIZE : 1));
+        }
+        connection.commit();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("truncate table defence_sessions cascade");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        benchmarkDatabase.close();
+    }
+
+    @Benchmark
+    public int insertDefenceSessions() throws SQLException {
+        int inserted = strategy == InsertStrategy.POOLED_BATCHED ? insertPooledBatched() : insertSequencePerRow();
+        connection.commit();
+        return inserted;
+    }
+
+    private int insertSequencePerRow() throws SQLException {
+        int inserted = 0;
+        try (PreparedStatement nextval = connection.prepareStatement(NEXTVAL);
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (int i = 0; i < rows; i++) {
+                bind(insert, nextId(nextval), i);
+                inserted += insert.executeUpdate();
+            }
+        }
+        return inserted;
+    }
+
+    private int insertPooledBatched() throws SQLException {
+        int inserted = 0;
+        try (PreparedStatement nextval = connection.prepareStatement(NEXTVAL);
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (int i = 0; i < rows; i += ALLOCATION_SIZE) {
+                long lo = nextId(nextval);
+                for (int j = i; j < Math.min(rows, i + ALLOCATION_SIZE); j++) {
+                    bind(insert, lo + j - i, j);
+                    insert.addBatch();
+                }
+                for (int count : insert.executeBatch()) {
+                    inserted += count;
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private static long nextId(PreparedStatement nextval) throws SQLException {
+        try (ResultSet resultSet = nextval.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private void bind(PreparedStatement insert, long defenceSessionId, int row) throws SQLException {
+        insert.setLong(1, defenceSessionId);
+        insert.setString(2, "Benchmark session " + row);
+        insert.setDate(3, Date.valueOf(LocalDate.of(2026, 1, 1).plusDays(row % 365)));
+        insert.setTime(4, Time.valueOf(LocalTime.of(8 + row % 8, 0)));
+        insert.setTime(5, Time.valueOf(LocalTime.of(9 + row % 8, 0)));
+        insert.setLong(6, taskCategoryId);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.courselink.api.security;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Map;
+
+final class BenchmarkKeys {
+
+    private BenchmarkKeys() {
+    }
+
+    static JwtService jwtService() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        JwtSigningKeys.KeyPair signingKey = new JwtSigningKeys.KeyPair();
+        signingKey.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        signingKey.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+
+        JwtSigningKeys jwtSigningKeys = new JwtSigningKeys();
+        jwtSigningKeys.setActiveKeyId("benchmark");
+        jwtSigningKeys.setKeys(Map.of("benchmark", signingKey));
+
+        JwtService jwtService = new JwtService(jwtSigningKeys);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 900_000L);
+        jwtService.init();
+        return jwtService;
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.Status;
+import com.courselink.api.entity.User;
+import com.courselink.api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the filter on an authenticated request whose token is already in the verified-token cache,
+ * which is the steady state for every API call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private FilterChain filterChain;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtService jwtService = BenchmarkKeys.jwtService();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtService, meterRegistry);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maximumSize", 10_000L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maximumTtl", 600_000L);
+        verifiedTokenCache.init();
+
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findSecurityVersionByUserId(anyLong())).thenReturn(Optional.of(0));
+        SecurityVersionCache securityVersionCache = new SecurityVersionCache(userRepository, meterRegistry);
+        ReflectionTestUtils.setField(securityVersionCache, "maximumSize", 10_000L);
+        ReflectionTestUtils.setField(securityVersionCache, "expireAfterWrite", 300_000L);
+        securityVersionCache.init();
+
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(verifiedTokenCache, securityVersionCache, new RequestAttributeSecurityContextRepository());
+
+        User user = User.builder()
+                .userId(1L)
+                .username("alice.johnson")
+                .role(Role.STUDENT)
+                .status(Status.ACTIVE)
+                .build();
+        request = new MockHttpServletRequest("GET", "/api/booking-slots");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+        response = new MockHttpServletResponse();
+        filterChain = (servletRequest, servletResponse) -> {
+        };
+    }
+
+    @Benchmark
+    public Authentication doFilterInternal() throws Exception {
+        try {
+            jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
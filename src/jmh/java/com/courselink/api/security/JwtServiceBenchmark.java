@@ -0,0 +1,63 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.Status;
+import com.courselink.api.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+
+    private User user;
+
+    private String token;
+
+    private VerifiedToken verifiedToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtService = BenchmarkKeys.jwtService();
+        user = User.builder()
+                .userId(1L)
+                .username("alice.johnson")
+                .role(Role.STUDENT)
+                .status(Status.ACTIVE)
+                .build();
+        token = jwtService.generateToken(user);
+        verifiedToken = jwtService.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(verifiedToken, user);
+    }
+
+}
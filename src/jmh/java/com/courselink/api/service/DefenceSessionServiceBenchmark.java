@@ -0,0 +1,83 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.DefenceSessionDTO;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.TaskCategory;
+import com.courselink.api.repository.DefenceSessionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures {@link DefenceSessionService#createDefenceSession} for a session that does not overlap any existing one,
+ * so the overlap check walks every stored session. The repository is an in-memory stub, so the numbers cover
+ * the mapping of all sessions to DTOs and the overlap loop, not the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefenceSessionServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int existingSessions;
+
+    private DefenceSessionService defenceSessionService;
+
+    private DefenceSessionDTO newSession;
+
+    @Setup
+    public void setUp() {
+        TaskCategory taskCategory = new TaskCategory();
+        List<DefenceSession> sessions = IntStream.range(0, existingSessions)
+                .mapToObj(i -> DefenceSession.builder()
+                        .defenceSessionId(i + 1)
+                        .description("Session " + i)
+                        .defenseDate(LocalDate.of(2026, 1, 1).plusDays(i % 365))
+                        .startTime(LocalTime.of(8 + i % 8, 0))
+                        .endTime(LocalTime.of(9 + i % 8, 0))
+                        .taskCategory(taskCategory)
+                        .build())
+                .toList();
+
+        DefenceSessionRepository defenceSessionRepository = mock(DefenceSessionRepository.class, withSettings().stubOnly());
+        when(defenceSessionRepository.findAll()).thenReturn(sessions);
+        when(defenceSessionRepository.save(any(DefenceSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        defenceSessionService = new DefenceSessionService(defenceSessionRepository, null);
+        newSession = DefenceSessionDTO.builder()
+                .description("New session")
+                .defenseDate(LocalDate.of(2026, 1, 1))
+                .startTime(LocalTime.of(17, 0))
+                .endTime(LocalTime.of(18, 0))
+                .taskCategory(taskCategory)
+                .build();
+    }
+
+    @Benchmark
+    public DefenceSessionDTO createDefenceSession() {
+        return defenceSessionService.createDefenceSession(newSession);
+    }
+
+}
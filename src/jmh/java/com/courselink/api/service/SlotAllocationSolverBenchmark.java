@@ -0,0 +1,74 @@
+package com.courselink.api.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SlotAllocationSolver#solve} for as many slots as students, each ranking ten slots.
+ * With a skew of 1 the ranked slots are uniformly random; higher skews crowd the rankings onto the first slots
+ * of the session, which is the contended case a booking rush turns into.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotAllocationSolverBenchmark {
+
+    private static final int RANKED_SLOTS = 10;
+
+    @Param({"1000", "5000"})
+    private int students;
+
+    @Param({"1", "4"})
+    private double skew;
+
+    private SlotAllocationSolver slotAllocationSolver;
+
+    private int[][] rankings;
+
+    @Setup
+    public void setUp() {
+        slotAllocationSolver = new SlotAllocationSolver();
+        ReflectionTestUtils.setField(slotAllocationSolver, "parallelism", 0);
+        slotAllocationSolver.init();
+
+        Random random = new Random(42);
+        rankings = new int[students][];
+        for (int student = 0; student < students; student++) {
+            Set<Integer> ranking = new LinkedHashSet<>();
+            while (ranking.size() < RANKED_SLOTS) {
+                ranking.add((int) (students * Math.pow(random.nextDouble(), skew)));
+            }
+            rankings[student] = ranking.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        slotAllocationSolver.shutdown();
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return slotAllocationSolver.solve(students, rankings);
+    }
+
+}
@@ -1,24 +1,25 @@
 package com.courselink.api.config;
 
-import com.courselink.api.repository.UserRepository;
+import com.courselink.api.security.ApiKeyAuthenticationFilter;
+import com.courselink.api.security.CalibratedBCryptPasswordEncoder;
+import io.swagger.v3.oas.annotations.enums.SecuritySchemeIn;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.servers.Server;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @SecurityScheme(
@@ -27,33 +28,54 @@ import java.util.List;
         bearerFormat = "JWT",
         scheme = "bearer"
 )
-@RequiredArgsConstructor
+@SecurityScheme(
+        name = "apiKeyAuth",
+        type = SecuritySchemeType.APIKEY,
+        in = SecuritySchemeIn.HEADER,
+        paramName = ApiKeyAuthenticationFilter.API_KEY_HEADER
+)
 public class ApplicationConfig {
 
-    private final UserRepository userRepository;
+    @Value("${application.security.password-encoder.default-id}")
+    private String passwordEncoderDefaultId;
+    @Value("${application.security.password-encoder.bcrypt.strength}")
+    private int bcryptStrength;
+    @Value("${application.security.password-encoder.bcrypt.target-latency}")
+    private long bcryptTargetLatency;
+    @Value("${application.security.password-encoder.bcrypt.min-strength}")
+    private int bcryptMinStrength;
+    @Value("${application.security.password-encoder.bcrypt.max-strength}")
+    private int bcryptMaxStrength;
 
+    /**
+     * Encodes new passwords with the configured default algorithm and verifies any supported {@code {id}}-prefixed hash.
+     * Hashes without a prefix were stored by the former plain BCrypt encoder and are verified as BCrypt.
+     * A strength of 0 calibrates the BCrypt cost to the host at startup.
+     */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
-        daoAuthenticationProvider.setUserDetailsService(userDetailsService());
-        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
-        return daoAuthenticationProvider;
-    }
+    public PasswordEncoder passwordEncoder() {
+        CalibratedBCryptPasswordEncoder bcrypt = bcryptStrength > 0
+                ? new CalibratedBCryptPasswordEncoder(bcryptStrength)
+                : CalibratedBCryptPasswordEncoder.calibrate(bcryptTargetLatency, bcryptMinStrength, bcryptMaxStrength);
 
-    @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User with username: " + username + " not found"));
-    }
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
 
-    @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
-        return configuration.getAuthenticationManager();
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(passwordEncoderDefaultId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 
+    /**
+     * Keeps the authentication of a request for its async dispatches, which the authentication filters
+     * don't run on again.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public SecurityContextRepository securityContextRepository() {
+        return new RequestAttributeSecurityContextRepository();
     }
 
     @Bean
@@ -0,0 +1,105 @@
+package com.courselink.api.controller;
+
+import com.courselink.api.dto.ApiKeyDTO;
+import com.courselink.api.dto.ApiKeyRequestDTO;
+import com.courselink.api.exception.ApiError;
+import com.courselink.api.service.ApiKeyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for managing the API keys of machine clients.
+ * Provides endpoints for creating, listing, and revoking API keys.
+ */
+@Tag(name = "API Key Module", description = "Endpoints for managing the scoped API keys of machine clients.")
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class ApiKeyRestController {
+
+    private final ApiKeyService apiKeyService;
+
+    /**
+     * Creates a new API key.
+     *
+     * @param apiKeyRequestDTO the name, scopes and optional expiration of the key.
+     * @return the created API key, including the plain text key which is not shown again.
+     */
+    @Operation(
+            summary = "Create an API key",
+            description = "Creates a scoped API key for a machine client. The key is sent in the X-API-Key header and is only returned in this response.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "API key successfully created",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiKeyDTO.class))}),
+            @ApiResponse(responseCode = "422", description = "Invalid name, scopes or expiration",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/api-keys")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ApiKeyDTO createApiKey(
+            @Parameter(description = "API key to be created") @RequestBody @Valid ApiKeyRequestDTO apiKeyRequestDTO) {
+        return apiKeyService.createApiKey(apiKeyRequestDTO);
+    }
+
+    /**
+     * Retrieves all API keys.
+     *
+     * @return a list of all API keys, without the plain text keys.
+     */
+    @Operation(
+            summary = "Retrieve all API keys",
+            description = "Fetches all API keys, including revoked ones.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "API keys successfully retrieved",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiKeyDTO.class))})
+    })
+    @GetMapping("/api-keys")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ApiKeyDTO> getAll() {
+        return apiKeyService.getAll();
+    }
+
+    /**
+     * Revokes an API key.
+     *
+     * @param apiKeyId the ID of the API key to revoke.
+     */
+    @Operation(
+            summary = "Revoke an API key",
+            description = "Revokes an API key. Requests with the key are rejected immediately on this instance and within the refresh interval on the others.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "API key successfully revoked"),
+            @ApiResponse(responseCode = "404", description = "API key with the specified ID not found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class))})
+    })
+    @DeleteMapping("/api-keys/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeById(
+            @Parameter(description = "The ID of the API key to revoke")
+            @PathVariable("id") long apiKeyId) {
+        apiKeyService.revokeById(apiKeyId);
+    }
+
+}
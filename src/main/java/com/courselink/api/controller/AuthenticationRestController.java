@@ -2,6 +2,7 @@ package com.courselink.api.controller;
 
 import com.courselink.api.dto.AuthenticationRequestDTO;
 import com.courselink.api.dto.AuthenticationResponseDTO;
+import com.courselink.api.dto.RefreshTokenRequestDTO;
 import com.courselink.api.dto.RegistrationRequestDTO;
 import com.courselink.api.exception.ApiError;
 import com.courselink.api.service.AuthenticationService;
@@ -76,4 +77,27 @@ public class AuthenticationRestController {
                                                   @RequestBody @Valid AuthenticationRequestDTO registrationRequestDTO) {
         return authenticationService.authenticate(registrationRequestDTO);
     }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * The presented refresh token can't be used again.
+     *
+     * @param refreshTokenRequestDTO The refresh token issued by a previous authentication or refresh.
+     * @return A DTO containing a new access token and a new refresh token.
+     */
+    @Operation(summary = "Refresh an access token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Access token successfully refreshed",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AuthenticationResponseDTO.class))}),
+            @ApiResponse(responseCode = "422", description = "Refresh token is invalid, expired, reused or the user is banned",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/refresh")
+    @ResponseStatus(HttpStatus.OK)
+    public AuthenticationResponseDTO refresh(@Parameter(description = "Refresh token details")
+                                             @RequestBody @Valid RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        return authenticationService.refresh(refreshTokenRequestDTO);
+    }
 }
@@ -0,0 +1,117 @@
+package com.courselink.api.controller;
+
+import com.courselink.api.dto.BookingPreferenceWindowDTO;
+import com.courselink.api.dto.BookingPreferencesDTO;
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.exception.ApiError;
+import com.courselink.api.service.BookingPreferenceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for allocating booking slots by student preferences.
+ * Provides endpoints for opening a preference window, submitting ranked preferences and allocating the slots.
+ */
+@Tag(name = "Booking Preferences Module", description = "APIs for allocating booking slots by ranked student preferences")
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class BookingPreferenceRestController {
+
+    private final BookingPreferenceService bookingPreferenceService;
+
+    /**
+     * Opens a preference window for a defence session.
+     *
+     * @param bookingPreferenceWindowDTO the defence session and the closing time of the window.
+     * @return the opened preference window.
+     */
+    @Operation(
+            summary = "Open a preference window",
+            description = "Opens a preference window in which students rank the booking slots of a defence session. " +
+                    "The slots can't be booked directly until they are allocated when the window closes.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Preference window successfully opened",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingPreferenceWindowDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Defence session or its booking slots not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "422", description = "Preference window already exists or closing time is not in the future",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/booking-preferences/windows")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookingPreferenceWindowDTO openPreferenceWindow(
+            @Parameter(description = "Preference window to be opened") @RequestBody @Valid BookingPreferenceWindowDTO bookingPreferenceWindowDTO) {
+        return bookingPreferenceService.openPreferenceWindow(bookingPreferenceWindowDTO);
+    }
+
+    /**
+     * Submits the ranked preferences of a student.
+     *
+     * @param bookingPreferencesDTO the student, the defence session and the ranked booking slots.
+     * @return the submitted preferences.
+     */
+    @Operation(
+            summary = "Submit booking preferences",
+            description = "Ranks booking slots of a defence session whose preference window is open, most preferred first. " +
+                    "Replaces the previously submitted ranking of the student.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Preferences successfully submitted",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingPreferencesDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "User with specified ID not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "422", description = "User is not a student, the preference window is not open or the ranking is invalid",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))})
+    })
+    @PutMapping("/booking-preferences")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingPreferencesDTO submitPreferences(
+            @Parameter(description = "Ranked preferences of the student") @RequestBody @Valid BookingPreferencesDTO bookingPreferencesDTO) {
+        return bookingPreferenceService.submitPreferences(bookingPreferencesDTO);
+    }
+
+    /**
+     * Closes the preference window of a defence session and allocates its booking slots.
+     *
+     * @param defenceSessionId the ID of the defence session.
+     * @return the allocated booking slots.
+     */
+    @Operation(
+            summary = "Allocate booking slots by preferences",
+            description = "Closes the preference window of a defence session, even before its closing time, " +
+                    "and allocates the booking slots to the students by their preferences in one batch.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Booking slots successfully allocated",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingSlotDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Preference window for the specified defence session ID not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "422", description = "Booking slots are already allocated",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/booking-preferences/windows/{defenceSessionId}/allocate")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BookingSlotDTO> allocate(
+            @Parameter(description = "The ID of the defence session to allocate booking slots of")
+            @PathVariable("defenceSessionId") long defenceSessionId) {
+        return bookingPreferenceService.allocate(defenceSessionId);
+    }
+
+}
@@ -1,8 +1,13 @@
 package com.courselink.api.controller;
 
+import com.courselink.api.dto.BookingSlotChangesDTO;
 import com.courselink.api.dto.BookingSlotDTO;
 import com.courselink.api.exception.ApiError;
+import com.courselink.api.security.ActingUserResolver;
+import com.courselink.api.service.BookingSlotBroadcaster;
 import com.courselink.api.service.BookingSlotService;
+import com.courselink.api.service.IdempotencyService;
+import com.courselink.api.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,14 +17,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST API controller for managing booking slots in the system.
- * Provides endpoints for generating, choosing, deleting, and retrieving booking slots for defence sessions.
+ * Provides endpoints for generating, choosing, deleting, retrieving, syncing and streaming booking slots for defence sessions.
  */
 @Tag(name = "Booking Slots Module", description = "APIs for managing booking slots in the system")
 @RestController
@@ -29,6 +40,14 @@ public class BookingSlotsRestController {
 
     private final BookingSlotService bookingSlotService;
 
+    private final IdempotencyService idempotencyService;
+
+    private final BookingSlotBroadcaster bookingSlotBroadcaster;
+
+    private final ResourceVersions resourceVersions;
+
+    private final ActingUserResolver actingUserResolver;
+
     /**
      * Generates booking slots for a specific defence session.
      *
@@ -69,18 +88,23 @@ public class BookingSlotsRestController {
     /**
      * Allows a user to choose a booking slot.
      *
-     * @param userId The ID of the user who is choosing a booking slot.
+     * @param userId The ID of the user who is choosing a booking slot; defaults to the caller, and only
+     *               teachers and admins may name another user.
      * @param bookingSlotId The ID of the booking slot being chosen.
+     * @param idempotencyKey The optional key that makes a retry of the request replay its first response.
      * @return The chosen booking slot.
      */
     @Operation(
             summary = "Choose a booking slot",
-            description = "Allows a user to choose a booking slot based on the provided user and slot IDs.",
+            description = "Allows a user to choose a booking slot based on the provided user and slot IDs. " +
+                    "A retry with the same Idempotency-Key header replays the first successful response.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Booking slot successfully chosen",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingSlotDTO.class))}),
+            @ApiResponse(responseCode = "403", description = "Caller may not choose a booking slot for the specified user",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
             @ApiResponse(responseCode = "404", description = "User with specified ID not found",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
             @ApiResponse(responseCode = "404", description = "Booking slot with specified ID not found",
@@ -98,11 +122,47 @@ public class BookingSlotsRestController {
     })
     @PutMapping("/booking-slots/choose-booking-slot")
     @ResponseStatus(HttpStatus.OK)
-    public BookingSlotDTO chooseBookingSlot(
-            @Parameter(description = "User ID for choosing a booking slot") @RequestParam long userId,
-            @Parameter(description = "Booking slot ID to choose") @RequestParam long bookingSlotId
+    public CompletableFuture<BookingSlotDTO> chooseBookingSlot(
+            @Parameter(description = "User ID for choosing a booking slot, the caller if omitted") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Booking slot ID to choose") @RequestParam long bookingSlotId,
+            @Parameter(description = "Key that makes a retry of the request replay its first response")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
-        return bookingSlotService.chooseBookingSlot(userId, bookingSlotId);
+        long actingUserId = actingUserResolver.resolve(userId);
+        return idempotencyService.executeAsync(idempotencyKey, "choose-booking-slot", List.of(actingUserId, bookingSlotId), BookingSlotDTO.class,
+                () -> bookingSlotService.chooseBookingSlotAsync(actingUserId, bookingSlotId));
+    }
+
+    /**
+     * Allows a user to release a booking slot they booked.
+     *
+     * @param userId The ID of the user who is releasing the booking slot; defaults to the caller, and only
+     *               teachers and admins may name another user.
+     * @param bookingSlotId The ID of the booking slot being released.
+     * @return The booking slot after the release.
+     */
+    @Operation(
+            summary = "Release a booking slot",
+            description = "Returns a booking slot booked by the user to the free pool. The release is idempotent: " +
+                    "releasing a slot the user doesn't hold, e.g. when retrying, changes nothing and returns the slot as it is. " +
+                    "Students can only release their own slots.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Booking slot released or not held by the user",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingSlotDTO.class))}),
+            @ApiResponse(responseCode = "403", description = "Caller may not release a booking slot of the specified user",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "404", description = "Booking slot with specified ID not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+    })
+    @PutMapping("/booking-slots/release-booking-slot")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingSlotDTO releaseBookingSlot(
+            @Parameter(description = "User ID for releasing a booking slot, the caller if omitted") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Booking slot ID to release") @RequestParam long bookingSlotId
+    ) {
+        return bookingSlotService.releaseBookingSlot(actingUserResolver.resolve(userId), bookingSlotId);
     }
 
     /**
@@ -133,25 +193,94 @@ public class BookingSlotsRestController {
      * Retrieves all booking slots for a specified defence session.
      *
      * @param defenceSessionId The ID of the defence session to retrieve booking slots for.
-     * @return A list of booking slots for the specified defence session.
+     * @param webRequest The request, answered with 304 if its If-None-Match header matches the current ETag.
+     * @return A list of booking slots for the specified defence session, or null if not modified.
      */
     @Operation(
             summary = "Retrieve booking slots by defence session ID",
-            description = "Retrieves all booking slots for the given defence session.",
+            description = "Retrieves all booking slots for the given defence session. The response carries an ETag; " +
+                    "a request with a matching If-None-Match header is answered with 304.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Booking slots successfully retrieved",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingSlotDTO.class))}),
+            @ApiResponse(responseCode = "304", description = "Booking slots not modified since the ETag given in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Booking slots for the specified defence session ID not found",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
     })
     @GetMapping("/booking-slots")
+    public ResponseEntity<List<BookingSlotDTO>> getAllByDefenceSessionId(
+            @Parameter(description = "Defence session ID to retrieve booking slots for") @RequestParam long defenceSessionId,
+            WebRequest webRequest
+    ) {
+        if (webRequest.checkNotModified(resourceVersions.bookingSlotsETag(defenceSessionId))) {
+            return null;
+        }
+        // Clients may keep the response but have to revalidate it, which the ETag makes cheap.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(bookingSlotService.getAllByDefenceSessionId(defenceSessionId));
+    }
+
+    /**
+     * Retrieves the booking slots changed and deleted since a version returned by a previous call.
+     *
+     * @param since The version returned by the previous call, or 0 to retrieve all booking slots.
+     * @param limit The number of changes per page, or null for the configured page size.
+     * @return The changed booking slots, the IDs of the deleted ones and the version to pass on the next call.
+     */
+    @Operation(
+            summary = "Retrieve booking slot changes since a version",
+            description = "Retrieves the booking slots of all defence sessions that were created or changed since the given " +
+                    "version, and the IDs of those that were deleted. Pass the returned version as 'since' on the next call, " +
+                    "right away while 'hasMore' is true. A page ends with a whole transaction, so it may hold a few more " +
+                    "changes than the limit. A change may be returned again on the next call, so apply the booking slots as " +
+                    "upserts. Deletions are only kept for a limited time: a version below 'minVersion' is answered with 410, " +
+                    "and the client has to drop its copy and start over with version 0.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Booking slot changes successfully retrieved",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingSlotChangesDTO.class))}),
+            @ApiResponse(responseCode = "410", description = "Deletions since the version were pruned, start over with version 0",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "422", description = "Number of changes per page is not positive",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+    })
+    @GetMapping("/booking-slots/changes")
     @ResponseStatus(HttpStatus.OK)
-    public List<BookingSlotDTO> getAllByDefenceSessionId(
-            @Parameter(description = "Defence session ID to retrieve booking slots for") @RequestParam long defenceSessionId
+    public BookingSlotChangesDTO getChangesSince(
+            @Parameter(description = "Version returned by the previous call, 0 for all booking slots") @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Number of changes per page, capped at the configured maximum") @RequestParam(required = false) Integer limit
+    ) {
+        return bookingSlotService.getChangesSince(since, limit);
+    }
+
+    /**
+     * Streams the booking slot changes of a specified defence session as Server-Sent Events.
+     *
+     * @param defenceSessionId The ID of the defence session to stream booking slot changes for.
+     * @return The event stream, starting with all booking slots of the defence session.
+     */
+    @Operation(
+            summary = "Stream booking slot changes by defence session ID",
+            description = "Opens a Server-Sent Events stream that starts with a 'slots' event carrying all booking slots " +
+                    "of the given defence session. A booked slot is then pushed as a 'slot' event and any other change as " +
+                    "a new 'slots' event. Clients that fall behind are disconnected and get a new snapshot when they reconnect.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Booking slot stream successfully opened",
+                    content = {@Content(mediaType = "text/event-stream", schema = @Schema(implementation = BookingSlotDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Defence session with specified ID not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+    })
+    @GetMapping(value = "/booking-slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamByDefenceSessionId(
+            @Parameter(description = "Defence session ID to stream booking slot changes for") @RequestParam long defenceSessionId
     ) {
-        return bookingSlotService.getAllByDefenceSessionId(defenceSessionId);
+        return bookingSlotBroadcaster.subscribe(defenceSessionId);
     }
 
 }
@@ -0,0 +1,149 @@
+package com.courselink.api.controller;
+
+import com.courselink.api.dto.BookingWaitlistEntryDTO;
+import com.courselink.api.exception.ApiError;
+import com.courselink.api.security.ActingUserResolver;
+import com.courselink.api.service.BookingWaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * REST controller for the waitlists of fully booked defence sessions.
+ * Provides endpoints for joining and leaving a waitlist, checking the position on it and waiting for a promotion.
+ * Students act for themselves; teachers and admins may act for the student they name.
+ */
+@Tag(name = "Booking Waitlist Module", description = "APIs for waiting for a booking slot of a fully booked defence session")
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class BookingWaitlistRestController {
+
+    private final BookingWaitlistService bookingWaitlistService;
+
+    private final ActingUserResolver actingUserResolver;
+
+    /**
+     * Adds a student to the waitlist of a defence session.
+     *
+     * @param userId           the ID of the student, the caller if omitted.
+     * @param defenceSessionId the ID of the defence session.
+     * @return the waitlist entry, with the booking slot if the student was promoted right away.
+     */
+    @Operation(
+            summary = "Join a waitlist",
+            description = "Adds a student to the waitlist of a defence session. Waiting students are booked into slots " +
+                    "that free up in the order they joined; a student is booked right away if a slot is already free.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Student successfully joined the waitlist",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingWaitlistEntryDTO.class))}),
+            @ApiResponse(responseCode = "403", description = "Caller may not act for the specified user",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "404", description = "User or defence session with specified ID not found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "422", description = "User is not a student or already booked a slot of the defence session",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/booking-waitlist")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookingWaitlistEntryDTO joinWaitlist(
+            @Parameter(description = "User ID of the student joining the waitlist, the caller if omitted") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Defence session ID of the waitlist") @RequestParam long defenceSessionId) {
+        return bookingWaitlistService.joinWaitlist(actingUserResolver.resolve(userId), defenceSessionId);
+    }
+
+    /**
+     * Retrieves the position of a student on the waitlist of a defence session.
+     *
+     * @param userId           the ID of the student, the caller if omitted.
+     * @param defenceSessionId the ID of the defence session.
+     * @return the waitlist entry.
+     */
+    @Operation(
+            summary = "Get a waitlist entry",
+            description = "Retrieves the position of a student on the waitlist of a defence session.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Waitlist entry successfully retrieved",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingWaitlistEntryDTO.class))}),
+            @ApiResponse(responseCode = "403", description = "Caller may not act for the specified user",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "404", description = "Student is not on the waitlist",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/booking-waitlist")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingWaitlistEntryDTO getWaitlistEntry(
+            @Parameter(description = "User ID of the waiting student, the caller if omitted") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Defence session ID of the waitlist") @RequestParam long defenceSessionId) {
+        return bookingWaitlistService.getWaitlistEntry(actingUserResolver.resolve(userId), defenceSessionId);
+    }
+
+    /**
+     * Waits until a student on the waitlist of a defence session is promoted.
+     *
+     * @param userId           the ID of the student, the caller if omitted.
+     * @param defenceSessionId the ID of the defence session.
+     * @return the waitlist entry, with the booking slot once the student is promoted.
+     */
+    @Operation(
+            summary = "Wait for a promotion",
+            description = "Long-polls until a student on the waitlist of a defence session is booked into a slot. " +
+                    "Responds with the current position if the student is still waiting when the request times out.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Student was promoted or is still waiting",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BookingWaitlistEntryDTO.class))}),
+            @ApiResponse(responseCode = "403", description = "Caller may not act for the specified user",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "404", description = "Student is not on the waitlist",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/booking-waitlist/promotion")
+    @ResponseStatus(HttpStatus.OK)
+    public DeferredResult<BookingWaitlistEntryDTO> awaitPromotion(
+            @Parameter(description = "User ID of the waiting student, the caller if omitted") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Defence session ID of the waitlist") @RequestParam long defenceSessionId) {
+        return bookingWaitlistService.awaitPromotion(actingUserResolver.resolve(userId), defenceSessionId);
+    }
+
+    /**
+     * Removes a student from the waitlist of a defence session.
+     *
+     * @param userId           the ID of the student, the caller if omitted.
+     * @param defenceSessionId the ID of the defence session.
+     */
+    @Operation(
+            summary = "Leave a waitlist",
+            description = "Removes a student from the waitlist of a defence session.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Student successfully left the waitlist"),
+            @ApiResponse(responseCode = "403", description = "Caller may not act for the specified user",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "404", description = "Student is not on the waitlist",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))})
+    })
+    @DeleteMapping("/booking-waitlist")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void leaveWaitlist(
+            @Parameter(description = "User ID of the student leaving the waitlist, the caller if omitted") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Defence session ID of the waitlist") @RequestParam long defenceSessionId) {
+        bookingWaitlistService.leaveWaitlist(actingUserResolver.resolve(userId), defenceSessionId);
+    }
+
+}
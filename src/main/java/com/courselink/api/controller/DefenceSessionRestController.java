@@ -4,6 +4,8 @@ import com.courselink.api.dto.BookingSlotDTO;
 import com.courselink.api.dto.DefenceSessionDTO;
 import com.courselink.api.exception.ApiError;
 import com.courselink.api.service.DefenceSessionService;
+import com.courselink.api.service.IdempotencyService;
+import com.courselink.api.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,8 +16,11 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,21 +36,30 @@ public class DefenceSessionRestController {
 
     private final DefenceSessionService defenceSessionService;
 
+    private final IdempotencyService idempotencyService;
+
+    private final ResourceVersions resourceVersions;
+
     /**
      * Creates a new defence session.
      *
      * @param defenceSessionDTO the defence session data to create
+     * @param idempotencyKey the optional key that makes a retry of the request replay its first response
      * @return the created DefenceSessionDTO
      */
-    @Operation(summary = "Create a new defence session", description = "Creates a defence session with the provided details.", security = @SecurityRequirement(name = "bearerAuth"))
+    @Operation(summary = "Create a new defence session", description = "Creates a defence session with the provided details. " +
+            "A retry with the same Idempotency-Key header replays the first successful response.", security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Defence session successfully created", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DefenceSessionDTO.class))),
             @ApiResponse(responseCode = "422", description = "Invalid input or time conflict", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
     })
     @PostMapping("/defence-sessions")
     @ResponseStatus(HttpStatus.CREATED)
-    public DefenceSessionDTO createDefenceSession(@Parameter(description = "Defence session to be created") @RequestBody @Valid DefenceSessionDTO defenceSessionDTO) {
-        return defenceSessionService.createDefenceSession(defenceSessionDTO);
+    public DefenceSessionDTO createDefenceSession(@Parameter(description = "Defence session to be created") @RequestBody @Valid DefenceSessionDTO defenceSessionDTO,
+                                                  @Parameter(description = "Key that makes a retry of the request replay its first response")
+                                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "create-defence-session", defenceSessionDTO, DefenceSessionDTO.class,
+                () -> defenceSessionService.createDefenceSession(defenceSessionDTO));
     }
 
     /**
@@ -68,16 +82,24 @@ public class DefenceSessionRestController {
     /**
      * Retrieves all defence sessions.
      *
-     * @return a list of DefenceSessionDTO
+     * @param webRequest the request, answered with 304 if its If-None-Match header matches the current ETag
+     * @return a list of DefenceSessionDTO, or null if not modified
      */
-    @Operation(summary = "Retrieve all defence sessions", description = "Fetches all defence sessions.", security = @SecurityRequirement(name = "bearerAuth"))
+    @Operation(summary = "Retrieve all defence sessions", description = "Fetches all defence sessions. " +
+            "The response carries an ETag; a request with a matching If-None-Match header is answered with 304.", security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Defence sessions successfully retrieved", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DefenceSessionDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Defence sessions successfully retrieved", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DefenceSessionDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Defence sessions not modified since the ETag given in If-None-Match")
     })
     @GetMapping("/defence-sessions")
-    @ResponseStatus(HttpStatus.OK)
-    public List<DefenceSessionDTO> getAll() {
-        return defenceSessionService.getAll();
+    public ResponseEntity<List<DefenceSessionDTO>> getAll(WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.defenceSessionsETag())) {
+            return null;
+        }
+        // Clients may keep the response but have to revalidate it, which the ETag makes cheap.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(defenceSessionService.getAll());
     }
 
     /**
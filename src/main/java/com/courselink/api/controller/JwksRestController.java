@@ -0,0 +1,49 @@
+package com.courselink.api.controller;
+
+import com.courselink.api.security.JwtService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * REST controller publishing the public keys that access tokens are signed with,
+ * so other services can verify tokens locally instead of calling back to this API.
+ */
+@Tag(name = "JWKS Module", description = "Endpoint for publishing token verification keys")
+@RestController
+@RequiredArgsConstructor
+public class JwksRestController {
+
+    private final JwtService jwtService;
+
+    @Value("${application.security.jwt.jwks.max-age}")
+    private long maxAge;
+
+    /**
+     * Retrieves the public keys accepted for access-token verification.
+     * Clients may cache the response for the advertised max-age and refetch it when they see an unknown key id.
+     *
+     * @return The JSON Web Key Set.
+     */
+    @Operation(summary = "Get the JSON Web Key Set used to verify access tokens")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "JSON Web Key Set successfully retrieved")
+    })
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwkSet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMillis(maxAge)).cachePublic())
+                .body(jwtService.getJwkSet());
+    }
+
+}
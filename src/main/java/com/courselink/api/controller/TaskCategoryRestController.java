@@ -2,6 +2,7 @@ package com.courselink.api.controller;
 
 import com.courselink.api.dto.TaskCategoryDTO;
 import com.courselink.api.exception.ApiError;
+import com.courselink.api.service.ResourceVersions;
 import com.courselink.api.service.TaskCategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,8 +14,11 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -30,6 +34,8 @@ public class TaskCategoryRestController {
 
     private final TaskCategoryService taskCategoryService;
 
+    private final ResourceVersions resourceVersions;
+
     /**
      * Creates a new task category.
      *
@@ -93,22 +99,30 @@ public class TaskCategoryRestController {
     /**
      * Retrieves all task categories.
      *
-     * @return a list of all task categories.
+     * @param webRequest the request, answered with 304 if its If-None-Match header matches the current ETag.
+     * @return a list of all task categories, or null if not modified.
      */
     @Operation(
             summary = "Retrieve all task categories",
-            description = "Fetches a list of all task categories available in the system.",
+            description = "Fetches a list of all task categories available in the system. The response carries an ETag; " +
+                    "a request with a matching If-None-Match header is answered with 304.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task categories successfully retrieved",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = TaskCategoryDTO.class))})
+                            schema = @Schema(implementation = TaskCategoryDTO.class))}),
+            @ApiResponse(responseCode = "304", description = "Task categories not modified since the ETag given in If-None-Match")
     })
     @GetMapping("/task-categories")
-    @ResponseStatus(HttpStatus.OK)
-    public List<TaskCategoryDTO> getAll() {
-        return taskCategoryService.getAll();
+    public ResponseEntity<List<TaskCategoryDTO>> getAll(WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.taskCategoriesETag())) {
+            return null;
+        }
+        // Clients may keep the response but have to revalidate it, which the ETag makes cheap.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(taskCategoryService.getAll());
     }
 
     /**
@@ -3,7 +3,10 @@ package com.courselink.api.controller;
 import com.courselink.api.dto.UpdateRoleDTO;
 import com.courselink.api.dto.UpdateStatusDTO;
 import com.courselink.api.dto.UserDTO;
+import com.courselink.api.dto.UserImportReportDTO;
 import com.courselink.api.exception.ApiError;
+import com.courselink.api.service.ResourceVersions;
+import com.courselink.api.service.UserImportService;
 import com.courselink.api.service.UserManagementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,14 +17,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
  * REST controller for managing user-related operations in the admin panel.
- * Provides endpoints for retrieving users, updating user statuses, and updating user roles.
+ * Provides endpoints for retrieving users, updating user statuses, updating user roles, and importing users in bulk.
  */
 @Tag(name = "User Management Module", description = "Endpoints for managing users in the admin panel.")
 @RestController
@@ -31,25 +40,37 @@ public class UserManagementRestController {
 
     private final UserManagementService userManagementService;
 
+    private final UserImportService userImportService;
+
+    private final ResourceVersions resourceVersions;
+
     /**
      * Retrieves all users.
      *
-     * @return a list of all users in the system.
+     * @param webRequest the request, answered with 304 if its If-None-Match header matches the current ETag.
+     * @return a list of all users in the system, or null if not modified.
      */
     @Operation(
             summary = "Retrieve all users",
-            description = "Fetches a list of all users from the system.",
+            description = "Fetches a list of all users from the system. The response carries an ETag; " +
+                    "a request with a matching If-None-Match header is answered with 304.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Users successfully retrieved",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = UserDTO.class))})
+                            schema = @Schema(implementation = UserDTO.class))}),
+            @ApiResponse(responseCode = "304", description = "Users not modified since the ETag given in If-None-Match")
     })
     @GetMapping("/users")
-    @ResponseStatus(HttpStatus.OK)
-    public List<UserDTO> getAll() {
-        return userManagementService.getAll();
+    public ResponseEntity<List<UserDTO>> getAll(WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.usersETag())) {
+            return null;
+        }
+        // Clients may keep the response but have to revalidate it, which the ETag makes cheap.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(userManagementService.getAll());
     }
 
     /**
@@ -117,4 +138,36 @@ public class UserManagementRestController {
             @RequestBody UpdateRoleDTO updateRoleDTO) {
         return userManagementService.updateRole(updateRoleDTO);
     }
+
+    /**
+     * Imports students and teachers in bulk.
+     * The body is read as a stream of rows, either CSV with a header line or newline-delimited JSON,
+     * each row having the fields of a registration request. Rows are numbered from 1, not counting the CSV header.
+     *
+     * @param inputStream the CSV or NDJSON body.
+     * @param contentType the media type of the body.
+     * @return a report with the number of processed and imported rows, an error for every row that was not imported,
+     * and whether rows beyond the import limit were ignored.
+     * @throws IOException if the body cannot be read.
+     */
+    @Operation(
+            summary = "Import users",
+            description = "Imports students and teachers from CSV (text/csv) or NDJSON (application/x-ndjson) and reports every row that could not be imported.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, see the report for rejected rows",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserImportReportDTO.class))}),
+            @ApiResponse(responseCode = "415", description = "Body is neither CSV nor NDJSON",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping(value = "/users/import", consumes = {UserImportService.CSV_MEDIA_TYPE, UserImportService.NDJSON_MEDIA_TYPE})
+    @ResponseStatus(HttpStatus.OK)
+    public UserImportReportDTO importUsers(
+            @Parameter(hidden = true) InputStream inputStream,
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        return userImportService.importUsers(inputStream, contentType);
+    }
 }
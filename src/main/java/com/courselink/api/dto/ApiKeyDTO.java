@@ -0,0 +1,51 @@
+package com.courselink.api.dto;
+
+import com.courselink.api.entity.ApiKey;
+import com.courselink.api.entity.Role;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Set;
+
+@Data
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiKeyDTO {
+
+    private long apiKeyId;
+
+    private String name;
+
+    private String prefix;
+
+    private Set<Role> scopes;
+
+    private Instant createdAt;
+
+    private Instant expiresAt;
+
+    private boolean isRevoked;
+
+    /**
+     * The plain text key. Only returned once, in the response to the creation of the key.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String key;
+
+    public static ApiKeyDTO toApiKeyDTO(ApiKey apiKey) {
+        return ApiKeyDTO.builder()
+                .apiKeyId(apiKey.getApiKeyId())
+                .name(apiKey.getName())
+                .prefix(apiKey.getPrefix())
+                .scopes(Set.copyOf(apiKey.getScopes()))
+                .createdAt(apiKey.getCreatedAt())
+                .expiresAt(apiKey.getExpiresAt())
+                .isRevoked(apiKey.isRevoked())
+                .build();
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.courselink.api.dto;
+
+import com.courselink.api.entity.Role;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Set;
+
+@Data
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiKeyRequestDTO {
+
+    @NotBlank(message = "message.api.key.should.contains.name")
+    private String name;
+
+    @NotEmpty(message = "message.api.key.should.contains.scopes")
+    private Set<Role> scopes;
+
+    @Future(message = "message.api.key.expiration.should.be.in.future")
+    private Instant expiresAt;
+
+}
@@ -13,4 +13,6 @@ public class AuthenticationResponseDTO {
 
     private String token;
 
+    private String refreshToken;
+
 }
@@ -0,0 +1,34 @@
+package com.courselink.api.dto;
+
+import com.courselink.api.entity.BookingPreferenceWindow;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingPreferenceWindowDTO {
+
+    private long defenceSessionId;
+
+    @NotNull(message = "message.booking.preference.window.should.contains.closes.at")
+    @Future(message = "message.booking.preference.window.closes.at.should.be.in.future")
+    private Instant closesAt;
+
+    private boolean isAllocated;
+
+    public static BookingPreferenceWindowDTO toBookingPreferenceWindowDTO(BookingPreferenceWindow bookingPreferenceWindow) {
+        return BookingPreferenceWindowDTO.builder()
+                .defenceSessionId(bookingPreferenceWindow.getDefenceSessionId())
+                .closesAt(bookingPreferenceWindow.getClosesAt())
+                .isAllocated(bookingPreferenceWindow.isAllocated())
+                .build();
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.courselink.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingPreferencesDTO {
+
+    private long userId;
+
+    private long defenceSessionId;
+
+    /**
+     * The IDs of the ranked booking slots, most preferred first.
+     */
+    @NotEmpty(message = "message.booking.preferences.should.contains.booking.slots")
+    private List<Long> bookingSlotIds;
+
+}
@@ -0,0 +1,39 @@
+package com.courselink.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSlotChangesDTO {
+
+    private long version;
+
+    /**
+     * Whether more changes follow the version; clients call again right away until it is {@code false}.
+     */
+    private boolean hasMore;
+
+    /**
+     * The lowest version other than 0 the feed still serves; older deletions may have been pruned.
+     */
+    private long minVersion;
+
+    @Builder.Default
+    private List<BookingSlotDTO> bookingSlots = new ArrayList<>();
+
+    @Builder.Default
+    private List<Long> deletedBookingSlotIds = new ArrayList<>();
+
+}
@@ -0,0 +1,29 @@
+package com.courselink.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Data
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingWaitlistEntryDTO {
+
+    private long defenceSessionId;
+
+    private long userId;
+
+    /**
+     * The 1-based position of the user on the waitlist, or 0 once they were promoted.
+     */
+    private int position;
+
+    /**
+     * The booking slot the user was promoted to. Only present once they were promoted.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BookingSlotDTO bookingSlot;
+
+}
@@ -0,0 +1,18 @@
+package com.courselink.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenRequestDTO {
+
+    @NotNull(message = "message.refresh.token.should.contains.token")
+    private String refreshToken;
+
+}
@@ -0,0 +1,24 @@
+package com.courselink.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportErrorDTO {
+
+    private long row;
+
+    private String username;
+
+    private String message;
+
+}
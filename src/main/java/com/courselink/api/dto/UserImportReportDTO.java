@@ -0,0 +1,35 @@
+package com.courselink.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportReportDTO {
+
+    private long totalRows;
+
+    private long importedRows;
+
+    private long failedRows;
+
+    /**
+     * Whether the input had more rows than an import accepts, so the rows after {@link #totalRows} were ignored.
+     */
+    private boolean truncated;
+
+    @Builder.Default
+    private List<UserImportErrorDTO> errors = new ArrayList<>();
+
+}
@@ -0,0 +1,49 @@
+package com.courselink.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Set;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "api_keys")
+public class ApiKey implements Serializable {
+
+    @Id
+    @Column(name = "api_key_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "api_key_id_generator")
+    @SequenceGenerator(name = "api_key_id_generator", initialValue = 1, allocationSize = 1, sequenceName = "api_key_id_seq")
+    private long apiKeyId;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "prefix", unique = true, nullable = false)
+    private String prefix;
+
+    @Column(name = "key_hash", nullable = false)
+    private String keyHash;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "api_key_scopes", joinColumns = @JoinColumn(name = "api_key_id"))
+    @Column(name = "scope", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Set<Role> scopes;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    @Column(name = "is_revoked", nullable = false)
+    private boolean isRevoked;
+
+}
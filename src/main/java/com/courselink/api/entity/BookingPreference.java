@@ -0,0 +1,39 @@
+package com.courselink.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_preferences")
+public class BookingPreference implements Serializable {
+
+    @Id
+    @Column(name = "booking_preference_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_preference_id_generator")
+    @SequenceGenerator(name = "booking_preference_id_generator", initialValue = 1, allocationSize = 50, sequenceName = "booking_preference_id_seq")
+    private long bookingPreferenceId;
+
+    @Column(name = "defence_session_id", nullable = false)
+    private long defenceSessionId;
+
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    @Column(name = "booking_slot_id", nullable = false)
+    private long bookingSlotId;
+
+    @Column(name = "rank", nullable = false)
+    private int rank;
+
+    @Column(name = "submitted_at", nullable = false)
+    private Instant submittedAt;
+
+}
@@ -0,0 +1,32 @@
+package com.courselink.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_preference_windows")
+public class BookingPreferenceWindow implements Serializable {
+
+    @Id
+    @Column(name = "defence_session_id")
+    private long defenceSessionId;
+
+    @Column(name = "closes_at", nullable = false)
+    private Instant closesAt;
+
+    @Column(name = "is_allocated", nullable = false)
+    private boolean isAllocated;
+
+    public boolean isOpen(Instant now) {
+        return !isAllocated && closesAt.isAfter(now);
+    }
+
+}
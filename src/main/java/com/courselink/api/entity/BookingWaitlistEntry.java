@@ -0,0 +1,33 @@
+package com.courselink.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_waitlist_entries")
+public class BookingWaitlistEntry implements Serializable {
+
+    @Id
+    @Column(name = "booking_waitlist_entry_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_waitlist_entry_id_generator")
+    @SequenceGenerator(name = "booking_waitlist_entry_id_generator", initialValue = 1, allocationSize = 1, sequenceName = "booking_waitlist_entry_id_seq")
+    private long bookingWaitlistEntryId;
+
+    @Column(name = "defence_session_id", nullable = false)
+    private long defenceSessionId;
+
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+}
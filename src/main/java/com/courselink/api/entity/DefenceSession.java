@@ -24,7 +24,7 @@ public class DefenceSession implements Serializable {
     @Id
     @Column(name = "defence_session_id")
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "defence_session_id_generator")
-    @SequenceGenerator(name = "defence_session_id_generator", initialValue = 1, allocationSize = 1, sequenceName = "defence_session_id_seq")
+    @SequenceGenerator(name = "defence_session_id_generator", initialValue = 1, allocationSize = 50, sequenceName = "defence_session_id_seq")
     private long defenceSessionId;
 
     @Column(name = "description", nullable = false)
@@ -0,0 +1,37 @@
+package com.courselink.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotent_responses")
+public class IdempotentResponse implements Serializable {
+
+    /**
+     * SHA-256 digest of the principal and the {@code Idempotency-Key} header.
+     */
+    @Id
+    @Column(name = "key_hash")
+    private String keyHash;
+
+    /**
+     * SHA-256 digest of the operation and its arguments, to detect a key reused for a different request.
+     */
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "response_body", nullable = false)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+}
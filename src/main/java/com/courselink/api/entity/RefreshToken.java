@@ -0,0 +1,48 @@
+package com.courselink.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "refresh_tokens")
+public class RefreshToken implements Serializable {
+
+    @Id
+    @Column(name = "refresh_token_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_id_generator")
+    @SequenceGenerator(name = "refresh_token_id_generator", initialValue = 1, allocationSize = 50, sequenceName = "refresh_token_id_seq")
+    private long refreshTokenId;
+
+    @Column(name = "token_hash", unique = true, nullable = false)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @JoinColumn(name = "user_id", nullable = false)
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User user;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "is_used", nullable = false)
+    private boolean isUsed;
+
+    @Column(name = "is_revoked", nullable = false)
+    private boolean isRevoked;
+
+    public boolean isExpired() {
+        return expiresAt.isBefore(Instant.now());
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.courselink.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Counts the statements that wrote the table of a list, to answer conditional GET requests without reading the list.
+ * The counters are incremented by database triggers.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "resource_versions")
+public class ResourceVersion implements Serializable {
+
+    /**
+     * The name of the table.
+     */
+    @Id
+    @Column(name = "resource")
+    private String resource;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+}
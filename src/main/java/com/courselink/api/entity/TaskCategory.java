@@ -22,7 +22,7 @@ public class TaskCategory {
     @Id
     @Column(name = "task_category_id")
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_category_id_generator")
-    @SequenceGenerator(name = "task_category_id_generator", initialValue = 1, allocationSize = 1, sequenceName = "task_category_id_seq")
+    @SequenceGenerator(name = "task_category_id_generator", initialValue = 1, allocationSize = 50, sequenceName = "task_category_id_seq")
     private long taskCategoryId;
 
     @Column(name = "task_category_name", unique = true, nullable = false)
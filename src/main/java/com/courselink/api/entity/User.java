@@ -45,6 +45,10 @@ public class User implements UserDetails, Serializable {
 
     @Enumerated(EnumType.STRING)
     private Status status;
+
+    @Column(name = "security_version", nullable = false)
+    private int securityVersion;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(role.name()));
@@ -0,0 +1,18 @@
+package com.courselink.api.event;
+
+import com.courselink.api.dto.BookingSlotDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published whenever a student books a single booking slot.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingSlotBookedEvent {
+
+    private final BookingSlotDTO bookingSlot;
+
+}
@@ -0,0 +1,17 @@
+package com.courselink.api.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published whenever the booking slots of a defence session are generated or removed.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingSlotsChangedEvent {
+
+    private final long defenceSessionId;
+
+}
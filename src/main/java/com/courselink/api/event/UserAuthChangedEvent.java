@@ -0,0 +1,19 @@
+package com.courselink.api.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published whenever data used to authenticate a user (status, role, credentials) changes.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserAuthChangedEvent {
+
+    private final long userId;
+
+    private final String username;
+
+}
@@ -0,0 +1,8 @@
+package com.courselink.api.exception;
+
+public class ApiKeyNotFoundException extends RuntimeException {
+    public ApiKeyNotFoundException(String message) {
+        super(message);
+    }
+
+}
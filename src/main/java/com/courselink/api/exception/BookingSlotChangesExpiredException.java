@@ -0,0 +1,7 @@
+package com.courselink.api.exception;
+
+public class BookingSlotChangesExpiredException extends RuntimeException {
+    public BookingSlotChangesExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.courselink.api.exception;
+
+public class BookingWaitlistEntryNotFoundException extends RuntimeException {
+    public BookingWaitlistEntryNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -6,7 +6,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -52,6 +54,12 @@ public class GlobalExceptionHandler {
         return new ApiError(HttpStatus.NOT_FOUND.value(), e.getMessage());
     }
     @ResponseBody
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(ApiKeyNotFoundException.class)
+    public ApiError handleApiKeyNotFoundException(ApiKeyNotFoundException e) {
+        return new ApiError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+    }
+    @ResponseBody
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     @ExceptionHandler(DefenceSessionException.class)
     public ApiError handleDefenceSessionException(DefenceSessionException e) {
@@ -85,6 +93,41 @@ public class GlobalExceptionHandler {
         return new ApiError(HttpStatus.NOT_FOUND.value(), e.getMessage());
     }
 
+    @ResponseBody
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(BookingWaitlistEntryNotFoundException.class)
+    public ApiError handleBookingWaitlistEntryNotFoundException(BookingWaitlistEntryNotFoundException e) {
+        return new ApiError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    @ExceptionHandler(AccessDeniedException.class)
+    public ApiError handleAccessDeniedException(AccessDeniedException e) {
+        return new ApiError(HttpStatus.FORBIDDEN.value(), e.getMessage());
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.GONE)
+    @ExceptionHandler(BookingSlotChangesExpiredException.class)
+    public ApiError handleBookingSlotChangesExpiredException(BookingSlotChangesExpiredException e) {
+        return new ApiError(HttpStatus.GONE.value(), e.getMessage());
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ApiError handleIdempotencyKeyException(IdempotencyKeyException e) {
+        return new ApiError(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ApiError handlePasswordHashingUnavailableException(PasswordHashingUnavailableException e) {
+        return new ApiError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+    }
+
     @ResponseBody
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     @ExceptionHandler(IllegalArgumentException.class)
@@ -92,6 +135,13 @@ public class GlobalExceptionHandler {
         return new ApiError(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
     }
 
+    @ResponseBody
+    @ResponseStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ApiError handleHttpMediaTypeNotSupportedException(HttpMediaTypeNotSupportedException e) {
+        return new ApiError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), e.getMessage());
+    }
+
     @ResponseBody
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ExceptionHandler(Throwable.class)
@@ -0,0 +1,19 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
+    @Query("select distinct k from ApiKey k left join fetch k.scopes where k.isRevoked = false")
+    List<ApiKey> findAllActive();
+    @Transactional
+    @Modifying
+    @Query("update ApiKey k set k.isRevoked = true where k.apiKeyId = :apiKeyId")
+    int revoke(@Param("apiKeyId") long apiKeyId);
+}
@@ -0,0 +1,19 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.BookingPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface BookingPreferenceRepository extends JpaRepository<BookingPreference, Long> {
+    @Query("select p from BookingPreference p where p.defenceSessionId = :defenceSessionId order by p.submittedAt, p.userId, p.rank")
+    List<BookingPreference> findAllInSubmissionOrder(@Param("defenceSessionId") long defenceSessionId);
+    @Transactional
+    @Modifying
+    @Query("delete from BookingPreference p where p.defenceSessionId = :defenceSessionId and p.userId = :userId")
+    int deleteByDefenceSessionIdAndUserId(@Param("defenceSessionId") long defenceSessionId, @Param("userId") long userId);
+}
@@ -0,0 +1,26 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.BookingPreferenceWindow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface BookingPreferenceWindowRepository extends JpaRepository<BookingPreferenceWindow, Long> {
+    @Query("select w from BookingPreferenceWindow w where w.isAllocated = false and w.closesAt <= :now")
+    List<BookingPreferenceWindow> findAllDueForAllocation(@Param("now") Instant now);
+    @Query("select count(w) > 0 from BookingPreferenceWindow w where w.isAllocated = false " +
+            "and w.defenceSessionId = (select s.defenceSession.defenceSessionId from BookingSlot s where s.bookingSlotId = :bookingSlotId)")
+    boolean existsUnallocatedByBookingSlotId(@Param("bookingSlotId") long bookingSlotId);
+    /**
+     * Marks the window as allocated unless another instance already did, so that each window is allocated once.
+     */
+    @Transactional
+    @Modifying
+    @Query("update BookingPreferenceWindow w set w.isAllocated = true where w.defenceSessionId = :defenceSessionId and w.isAllocated = false")
+    int markAllocated(@Param("defenceSessionId") long defenceSessionId);
+}
@@ -3,13 +3,17 @@ package com.courselink.api.repository;
 import com.courselink.api.entity.BookingSlot;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingSlotRepository extends JpaRepository<BookingSlot, Long> {
+public interface BookingSlotRepository extends JpaRepository<BookingSlot, Long>, BookingSlotRepositoryCustom {
     boolean existsByDefenceSession_DefenceSessionId(long defenceSessionId);
     @Transactional
     void deleteByDefenceSession_DefenceSessionId(long defenceSessionId);
     List<BookingSlot> findAllByDefenceSession_DefenceSessionId(long defenceSessionId);
+    @Query("select count(s) > 0 from BookingSlot s where s.defenceSession.defenceSessionId = :defenceSessionId and s.user.userId = :userId and s.isBooked = true")
+    boolean existsBookedByDefenceSessionIdAndUserId(@Param("defenceSessionId") long defenceSessionId, @Param("userId") long userId);
 }
\ No newline at end of file
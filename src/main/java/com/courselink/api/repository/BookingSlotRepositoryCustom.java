@@ -0,0 +1,85 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.dto.BookingSlotChangesDTO;
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.Role;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingSlotRepositoryCustom {
+
+    /**
+     * Splits the time of the defence session into equal free slots and inserts them in a single statement,
+     * which only succeeds if the session exists and has no slots yet. Slot boundaries are truncated to microseconds.
+     *
+     * @return the generated slots in chronological order, or empty if the session doesn't exist or already has slots.
+     * The returned slots are not managed; their defence session only carries its ID.
+     */
+    List<BookingSlot> generate(long defenceSessionId, int bookingSlotsCount);
+
+    /**
+     * Books the slot for the user in a single conditional update, which only succeeds if the slot is still free
+     * and the user has one of the given roles. Concurrent claims of the same slot can't both succeed.
+     * Slots of a defence session whose preference window isn't allocated yet can't be claimed.
+     *
+     * @return the claimed slot, or empty if the slot doesn't exist, is already booked, is allocated by preferences
+     * or the user isn't allowed to book it.
+     * The returned slot is not managed; its user and defence session only carry their IDs.
+     */
+    Optional<BookingSlot> claim(long bookingSlotId, long userId, Collection<Role> allowedRoles);
+
+    /**
+     * Persists already decided claims in JDBC batches. A slot is only updated if it is still free in the database.
+     *
+     * @param bookingSlots the claimed slots, each carrying the ID of the user who booked it.
+     * @return for each slot, the number of updated rows: 0 if the slot was deleted or booked by someone else meanwhile.
+     */
+    int[] batchClaim(List<BookingSlot> bookingSlots);
+
+    /**
+     * Frees the slot in a single conditional update, which only succeeds if the slot is booked by the user.
+     * A release racing with a claim of the same slot is serialized by the row lock, so the slot is never left
+     * booked without a user or freed with one.
+     *
+     * @return the released slot, or empty if the slot doesn't exist or isn't booked by the user.
+     * The returned slot is not managed; its defence session only carries its ID.
+     */
+    Optional<BookingSlot> release(long bookingSlotId, long userId);
+
+    /**
+     * Reads the slots written and deleted by the transactions with an ID of at least {@code since}, together with
+     * the version to pass as {@code since} next time. Everything is read in a single statement, so the version and
+     * the changes come from the same snapshot.
+     * <p>
+     * Once all changes are read, the version is the oldest transaction that may still be running. A change that
+     * commits later is therefore never skipped, at the cost of returning a change committed meanwhile again.
+     * At most {@code limit} changes are read. A transaction is never split across pages: when the {@code limit}-th
+     * change is not the last of its transaction, the page ends before that transaction, unless it is the first one,
+     * which is then read whole. If the page ends below the oldest running transaction, the version follows the page
+     * and {@code hasMore} is set; otherwise the changes left over are read again once that transaction has finished.
+     *
+     * @return the changed slots and the IDs of the deleted slots, in the order of their changes, and the lowest
+     * version the feed can still serve completely.
+     */
+    BookingSlotChangesDTO findChangesSince(long since, int limit);
+
+    /**
+     * Reads a version of the slots of the defence session that changes whenever one of them is written or deleted:
+     * the latest change version of the session, or the lowest version the feed still serves if that is higher, since
+     * pruned tombstones would otherwise lower it. While a transaction below that version may still be running, its
+     * commit wouldn't raise the version, so the transactions the snapshot still sees running are part of it then.
+     */
+    String findVersionByDefenceSessionId(long defenceSessionId);
+
+    /**
+     * Deletes the tombstones of the slots deleted before the given instant, together with all older ones, and raises
+     * the lowest version the feed can serve completely above them, in a single statement.
+     *
+     * @return the number of deleted tombstones.
+     */
+    int pruneDeletions(Instant deletedBefore);
+
+}
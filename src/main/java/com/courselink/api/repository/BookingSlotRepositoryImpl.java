@@ -0,0 +1,188 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.dto.BookingSlotChangesDTO;
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class BookingSlotRepositoryImpl implements BookingSlotRepositoryCustom {
+
+    private static final String GENERATE =
+            "insert into booking_slots (start_time, end_time, is_booked, defence_session_id) " +
+            "select s.start_time + interval '1 microsecond' * (s.slot_micros * i), " +
+            "s.start_time + interval '1 microsecond' * (s.slot_micros * (i + 1)), false, s.defence_session_id " +
+            "from (select defence_session_id, start_time, " +
+            "(extract(epoch from end_time - start_time) * 1000000)::bigint / ? as slot_micros " +
+            "from defence_sessions where defence_session_id = ?) s " +
+            "cross join generate_series(0, ? - 1) i " +
+            "where not exists (select 1 from booking_slots b where b.defence_session_id = s.defence_session_id) " +
+            "order by i " +
+            "returning booking_slot_id, start_time, end_time, defence_session_id";
+
+    private static final String CLAIM =
+            "update booking_slots set user_id = ?, is_booked = true " +
+            "where booking_slot_id = ? and is_booked = false " +
+            "and exists (select 1 from users where user_id = ? and role = any (?)) " +
+            "and not exists (select 1 from booking_preference_windows w " +
+            "where w.defence_session_id = booking_slots.defence_session_id and w.is_allocated = false) " +
+            "returning booking_slot_id, start_time, end_time, defence_session_id";
+
+    private static final String BATCH_CLAIM =
+            "update booking_slots set user_id = ?, is_booked = true where booking_slot_id = ? and is_booked = false";
+
+    private static final String RELEASE =
+            "update booking_slots set user_id = null, is_booked = false " +
+            "where booking_slot_id = ? and user_id = ? and is_booked = true " +
+            "returning booking_slot_id, start_time, end_time, defence_session_id";
+
+    private static final String FIND_CHANGES_SINCE =
+            "with snapshot as (select txid_snapshot_xmin(txid_current_snapshot()) as xmin, " +
+            "(select min_version from booking_slot_change_horizon) as min_version), " +
+            "changes as (select booking_slot_id, start_time, end_time, is_booked, user_id, defence_session_id, change_version, false as deleted " +
+            "from booking_slots where change_version >= ? " +
+            "union all " +
+            "select booking_slot_id, null, null, null, null, defence_session_id, change_version, true " +
+            "from booking_slot_deletions where change_version >= ?), " +
+            "ranked as (select c.*, row_number() over (order by c.change_version, c.booking_slot_id, c.deleted) as position from changes c), " +
+            "boundary as (select r.change_version as version, " +
+            "case when r.change_version = (select min(change_version) from changes) " +
+            "or not exists (select 1 from ranked n where n.change_version = r.change_version and n.position > r.position) " +
+            "then r.change_version + 1 else r.change_version end as next_version " +
+            "from ranked r where r.position = ?) " +
+            "select s.xmin as version, s.min_version, b.next_version, " +
+            "b.next_version < s.xmin and exists (select 1 from changes c where c.change_version >= b.next_version) as has_more, " +
+            "r.booking_slot_id, r.start_time, r.end_time, r.is_booked, r.user_id, r.defence_session_id, r.deleted " +
+            "from snapshot s " +
+            "left join boundary b on true " +
+            "left join ranked r on b.next_version is null or r.change_version < b.next_version " +
+            "order by r.position";
+
+    private static final String FIND_VERSION_BY_DEFENCE_SESSION_ID =
+            "with snapshot as (select txid_current_snapshot() as snapshot), " +
+            "versions as (select greatest(" +
+            "(select max(change_version) from booking_slots where defence_session_id = ?), " +
+            "(select max(change_version) from booking_slot_deletions where defence_session_id = ?), " +
+            "(select min_version from booking_slot_change_horizon)) as version) " +
+            "select case when v.version < txid_snapshot_xmin(s.snapshot) then v.version::text " +
+            "else v.version || '-' || translate(s.snapshot::text, ':,', '--') end " +
+            "from versions v, snapshot s";
+
+    private static final String PRUNE_DELETIONS =
+            "with cutoff as (select max(change_version) as version from booking_slot_deletions where deleted_at < ?), " +
+            "horizon as (update booking_slot_change_horizon h set min_version = greatest(h.min_version, c.version + 1) " +
+            "from cutoff c where c.version is not null returning h.min_version), " +
+            "pruned as (delete from booking_slot_deletions d using cutoff c where d.change_version <= c.version returning 1) " +
+            "select count(*) from pruned";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<BookingSlot> generate(long defenceSessionId, int bookingSlotsCount) {
+        return jdbcTemplate.query(GENERATE, (resultSet, rowNum) -> BookingSlot.builder()
+                .bookingSlotId(resultSet.getLong("booking_slot_id"))
+                .startTime(resultSet.getObject("start_time", LocalTime.class))
+                .endTime(resultSet.getObject("end_time", LocalTime.class))
+                .isBooked(false)
+                .defenceSession(DefenceSession.builder().defenceSessionId(resultSet.getLong("defence_session_id")).build())
+                .build(), bookingSlotsCount, defenceSessionId, bookingSlotsCount);
+    }
+
+    @Override
+    public Optional<BookingSlot> claim(long bookingSlotId, long userId, Collection<Role> allowedRoles) {
+        return jdbcTemplate.query(CLAIM, preparedStatement -> {
+            preparedStatement.setLong(1, userId);
+            preparedStatement.setLong(2, bookingSlotId);
+            preparedStatement.setLong(3, userId);
+            preparedStatement.setArray(4, preparedStatement.getConnection().createArrayOf("varchar",
+                    allowedRoles.stream().map(Role::name).toArray()));
+        }, (resultSet, rowNum) -> BookingSlot.builder()
+                .bookingSlotId(resultSet.getLong("booking_slot_id"))
+                .startTime(resultSet.getObject("start_time", LocalTime.class))
+                .endTime(resultSet.getObject("end_time", LocalTime.class))
+                .isBooked(true)
+                .user(User.builder().userId(userId).build())
+                .defenceSession(DefenceSession.builder().defenceSessionId(resultSet.getLong("defence_session_id")).build())
+                .build()
+        ).stream().findFirst();
+    }
+
+    @Override
+    public int[] batchClaim(List<BookingSlot> bookingSlots) {
+        return jdbcTemplate.batchUpdate(BATCH_CLAIM, bookingSlots, bookingSlots.size(), (preparedStatement, bookingSlot) -> {
+            preparedStatement.setLong(1, bookingSlot.getUser().getUserId());
+            preparedStatement.setLong(2, bookingSlot.getBookingSlotId());
+        })[0];
+    }
+
+    @Override
+    public Optional<BookingSlot> release(long bookingSlotId, long userId) {
+        return jdbcTemplate.query(RELEASE, (resultSet, rowNum) -> BookingSlot.builder()
+                .bookingSlotId(resultSet.getLong("booking_slot_id"))
+                .startTime(resultSet.getObject("start_time", LocalTime.class))
+                .endTime(resultSet.getObject("end_time", LocalTime.class))
+                .isBooked(false)
+                .defenceSession(DefenceSession.builder().defenceSessionId(resultSet.getLong("defence_session_id")).build())
+                .build(), bookingSlotId, userId
+        ).stream().findFirst();
+    }
+
+    @Override
+    public BookingSlotChangesDTO findChangesSince(long since, int limit) {
+        return jdbcTemplate.query(FIND_CHANGES_SINCE, resultSet -> {
+            BookingSlotChangesDTO changes = new BookingSlotChangesDTO();
+            long nextVersion = 0L;
+            while (resultSet.next()) {
+                changes.setVersion(resultSet.getLong("version"));
+                changes.setMinVersion(resultSet.getLong("min_version"));
+                nextVersion = resultSet.getLong("next_version");
+                changes.setHasMore(resultSet.getBoolean("has_more"));
+                long bookingSlotId = resultSet.getLong("booking_slot_id");
+                if (resultSet.wasNull()) {
+                    continue;
+                }
+                if (resultSet.getBoolean("deleted")) {
+                    changes.getDeletedBookingSlotIds().add(bookingSlotId);
+                    continue;
+                }
+                Long userId = resultSet.getObject("user_id", Long.class);
+                changes.getBookingSlots().add(BookingSlotDTO.builder()
+                        .bookingSlotId(bookingSlotId)
+                        .startTime(resultSet.getObject("start_time", LocalTime.class))
+                        .endTime(resultSet.getObject("end_time", LocalTime.class))
+                        .isBooked(resultSet.getBoolean("is_booked"))
+                        .userId(userId)
+                        .defenceSessionId(resultSet.getLong("defence_session_id"))
+                        .build());
+            }
+            if (changes.isHasMore()) {
+                // The next version is below the snapshot xmin, so nothing below it can still commit.
+                changes.setVersion(nextVersion);
+            }
+            return changes;
+        }, since, since, limit);
+    }
+
+    @Override
+    public String findVersionByDefenceSessionId(long defenceSessionId) {
+        return jdbcTemplate.queryForObject(FIND_VERSION_BY_DEFENCE_SESSION_ID, String.class, defenceSessionId, defenceSessionId);
+    }
+
+    @Override
+    public int pruneDeletions(Instant deletedBefore) {
+        Integer pruned = jdbcTemplate.queryForObject(PRUNE_DELETIONS, Integer.class, Timestamp.from(deletedBefore));
+        return pruned != null ? pruned : 0;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.BookingWaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface BookingWaitlistRepository extends JpaRepository<BookingWaitlistEntry, Long>, BookingWaitlistRepositoryCustom {
+    List<BookingWaitlistEntry> findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(long defenceSessionId);
+    @Transactional
+    @Modifying
+    @Query("delete from BookingWaitlistEntry e where e.defenceSessionId = :defenceSessionId and e.userId = :userId")
+    int deleteByDefenceSessionIdAndUserId(@Param("defenceSessionId") long defenceSessionId, @Param("userId") long userId);
+}
@@ -0,0 +1,35 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.BookingSlot;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingWaitlistRepositoryCustom {
+
+    /**
+     * Appends the user to the waitlist of the defence session, unless they are already on it.
+     *
+     * @return {@code true} if the user was added, {@code false} if they were already waiting.
+     */
+    boolean enqueue(long defenceSessionId, long userId);
+
+    /**
+     * Removes the entries of users who meanwhile booked a slot of the defence session.
+     *
+     * @return the IDs of the removed users.
+     */
+    List<Long> removeBooked(long defenceSessionId);
+
+    /**
+     * Books the first free slot of the defence session for the first user on its waitlist and removes the user
+     * from the waitlist, in a single statement. Both rows are locked with {@code skip locked}, so concurrent
+     * promotions of the same session never pick the same user or slot, and a concurrent claim of the slot
+     * can't succeed as well. Slots of a session whose preference window isn't allocated yet are not promoted to.
+     *
+     * @return the booked slot, or empty if there is no free slot or nobody is waiting.
+     * The returned slot is not managed; its user and defence session only carry their IDs.
+     */
+    Optional<BookingSlot> promoteNext(long defenceSessionId);
+
+}
@@ -0,0 +1,74 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class BookingWaitlistRepositoryImpl implements BookingWaitlistRepositoryCustom {
+
+    private static final String ENQUEUE =
+            "insert into booking_waitlist_entries (defence_session_id, user_id, created_at) " +
+            "values (?, ?, now()) on conflict do nothing";
+
+    private static final String REMOVE_BOOKED =
+            "delete from booking_waitlist_entries w " +
+            "where w.defence_session_id = ? " +
+            "and exists (select 1 from booking_slots b " +
+            "where b.defence_session_id = w.defence_session_id and b.user_id = w.user_id and b.is_booked = true) " +
+            "returning w.user_id";
+
+    private static final String PROMOTE_NEXT =
+            "with next_entry as (" +
+            "select w.booking_waitlist_entry_id from booking_waitlist_entries w " +
+            "where w.defence_session_id = ? " +
+            "and not exists (select 1 from booking_slots b " +
+            "where b.defence_session_id = w.defence_session_id and b.user_id = w.user_id and b.is_booked = true) " +
+            "order by w.booking_waitlist_entry_id limit 1 for update skip locked" +
+            "), free_slot as (" +
+            "select s.booking_slot_id from booking_slots s " +
+            "where s.defence_session_id = ? and s.is_booked = false " +
+            "and not exists (select 1 from booking_preference_windows p " +
+            "where p.defence_session_id = s.defence_session_id and p.is_allocated = false) " +
+            "order by s.start_time, s.booking_slot_id limit 1 for update skip locked" +
+            "), promoted as (" +
+            "delete from booking_waitlist_entries w using next_entry, free_slot " +
+            "where w.booking_waitlist_entry_id = next_entry.booking_waitlist_entry_id " +
+            "returning w.user_id, free_slot.booking_slot_id" +
+            ") " +
+            "update booking_slots s set user_id = promoted.user_id, is_booked = true from promoted " +
+            "where s.booking_slot_id = promoted.booking_slot_id " +
+            "returning s.booking_slot_id, s.start_time, s.end_time, s.defence_session_id, s.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean enqueue(long defenceSessionId, long userId) {
+        return jdbcTemplate.update(ENQUEUE, defenceSessionId, userId) > 0;
+    }
+
+    @Override
+    public List<Long> removeBooked(long defenceSessionId) {
+        return jdbcTemplate.queryForList(REMOVE_BOOKED, Long.class, defenceSessionId);
+    }
+
+    @Override
+    public Optional<BookingSlot> promoteNext(long defenceSessionId) {
+        return jdbcTemplate.query(PROMOTE_NEXT, (resultSet, rowNum) -> BookingSlot.builder()
+                .bookingSlotId(resultSet.getLong("booking_slot_id"))
+                .startTime(resultSet.getObject("start_time", LocalTime.class))
+                .endTime(resultSet.getObject("end_time", LocalTime.class))
+                .isBooked(true)
+                .user(User.builder().userId(resultSet.getLong("user_id")).build())
+                .defenceSession(DefenceSession.builder().defenceSessionId(resultSet.getLong("defence_session_id")).build())
+                .build(), defenceSessionId, defenceSessionId
+        ).stream().findFirst();
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.IdempotentResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotentResponseRepository extends JpaRepository<IdempotentResponse, String> {
+    Optional<IdempotentResponse> findByKeyHashAndCreatedAtAfter(String keyHash, Instant createdAfter);
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotent_responses (key_hash, request_hash, response_body, created_at) " +
+            "values (:#{#response.keyHash}, :#{#response.requestHash}, :#{#response.responseBody}, :#{#response.createdAt}) " +
+            "on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("response") IdempotentResponse response);
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotentResponse r where r.createdAt < :createdBefore")
+    int deleteAllCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
@@ -0,0 +1,29 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.RefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    @Modifying
+    @Query("update RefreshToken r set r.isUsed = true where r.refreshTokenId = :refreshTokenId and r.isUsed = false")
+    int markAsUsed(@Param("refreshTokenId") long refreshTokenId);
+    @Modifying
+    @Query("update RefreshToken r set r.isRevoked = true where r.familyId = :familyId and r.isRevoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId);
+    @Modifying
+    @Query("update RefreshToken r set r.isRevoked = true where r.user.userId = :userId and r.isRevoked = false")
+    int revokeAllByUserId(@Param("userId") long userId);
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :expiresBefore")
+    int deleteAllExpiredBefore(@Param("expiresBefore") Instant expiresBefore);
+}
@@ -0,0 +1,11 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.ResourceVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersion, String> {
+    @Query("select v.version from ResourceVersion v where v.resource = :resource")
+    long findVersionByResource(@Param("resource") String resource);
+}
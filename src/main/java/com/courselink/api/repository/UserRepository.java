@@ -1,15 +1,39 @@
 package com.courselink.api.repository;
 
+import com.courselink.api.entity.Role;
 import com.courselink.api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByPassword(String password);
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    @Query("select u.role from User u where u.userId = :userId")
+    Optional<Role> findRoleByUserId(@Param("userId") long userId);
+    @Query("select u.securityVersion from User u where u.userId = :userId")
+    Optional<Integer> findSecurityVersionByUserId(@Param("userId") long userId);
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.userId = :userId and u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("userId") long userId, @Param("currentPassword") String currentPassword, @Param("newPassword") String newPassword);
+    @Transactional
+    @Query(value = "insert into users (username, email, password, firstname, lastname, role, status) " +
+            "values (:#{#user.username}, :#{#user.email}, :#{#user.password}, :#{#user.firstname}, :#{#user.lastname}, :#{#user.role.name()}, :#{#user.status.name()}) " +
+            "returning user_id", nativeQuery = true)
+    long insertUser(@Param("user") User user);
 
 }
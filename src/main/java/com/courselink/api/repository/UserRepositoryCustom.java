@@ -0,0 +1,16 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Inserts the users in JDBC batches, skipping any user whose username or email is already taken.
+     *
+     * @return for each user, the number of inserted rows: 0 if it was skipped because of a conflict
+     */
+    int[] batchInsertIgnoringConflicts(List<User> users);
+
+}
@@ -0,0 +1,31 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String INSERT_IGNORING_CONFLICTS =
+            "insert into users (username, email, password, firstname, lastname, role, status) " +
+            "values (?, ?, ?, ?, ?, ?, ?) on conflict do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] batchInsertIgnoringConflicts(List<User> users) {
+        return jdbcTemplate.batchUpdate(INSERT_IGNORING_CONFLICTS, users, users.size(), (preparedStatement, user) -> {
+            preparedStatement.setString(1, user.getUsername());
+            preparedStatement.setString(2, user.getEmail());
+            preparedStatement.setString(3, user.getPassword());
+            preparedStatement.setString(4, user.getFirstname());
+            preparedStatement.setString(5, user.getLastname());
+            preparedStatement.setString(6, user.getRole().name());
+            preparedStatement.setString(7, user.getStatus().name());
+        })[0];
+    }
+
+}
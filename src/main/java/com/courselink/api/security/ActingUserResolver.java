@@ -0,0 +1,64 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the user a request acts on behalf of. Students always act for themselves: their ID is taken from
+ * the verified token, and a request naming another user is refused. Teachers and admins may act for the user
+ * the request names.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActingUserResolver {
+
+    private static final Set<String> STAFF_AUTHORITIES = EnumSet.of(Role.TEACHER, Role.ADMIN_TEACHER, Role.ADMIN).stream()
+            .map(Role::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final MessageSource messageSource;
+
+    /**
+     * @param requestedUserId The user ID given with the request, or {@code null} to act for the caller.
+     * @return the ID of the user the request acts for.
+     * @throws AccessDeniedException If the caller may not act for the requested user, or no user is given
+     * and the caller isn't a user.
+     */
+    public long resolve(Long requestedUserId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long callerUserId = authentication != null && authentication.getPrincipal() instanceof VerifiedToken verifiedToken
+                ? verifiedToken.getUserId()
+                : null;
+
+        if (requestedUserId == null && callerUserId != null) {
+            return callerUserId;
+        }
+        if (requestedUserId != null && (requestedUserId.equals(callerUserId) || isStaff(authentication))) {
+            return requestedUserId;
+        }
+
+        log.warn("Caller {} may not act on behalf of User with ID {}", authentication != null ? authentication.getName() : null, requestedUserId);
+        String errorMsg = messageSource.getMessage("message.acting.user.forbidden", new Object[]{requestedUserId}, LocaleContextHolder.getLocale());
+        throw new AccessDeniedException(errorMsg);
+    }
+
+    private static boolean isStaff(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(STAFF_AUTHORITIES::contains);
+    }
+
+}
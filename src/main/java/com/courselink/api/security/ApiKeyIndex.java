@@ -0,0 +1,186 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.ApiKey;
+import com.courselink.api.repository.ApiKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the active API keys, keyed by their public lookup prefix.
+ * An API key has the form {@code clk_<prefix>_<secret>}; only the SHA-256 digest of the whole key is stored.
+ * Verifying a key is a map lookup, one SHA-256 and a constant-time comparison of the digests, so machine clients
+ * are authenticated without touching the database. The index is reloaded periodically to pick up keys created
+ * or revoked on other instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiKeyIndex {
+
+    public static final String KEY_MARKER = "clk";
+
+    private static final char SEPARATOR = '_';
+
+    private static final int PREFIX_BYTES = 6;
+
+    private static final int SECRET_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final ApiKeyRepository apiKeyRepository;
+
+    private final Object lock = new Object();
+
+    private volatile Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Keys created or revoked on this instance while a reload is running, a {@code null} value marking a revoked key.
+     * {@code null} while no reload is running.
+     */
+    private Map<String, Entry> changesDuringReload;
+
+    /**
+     * Replaces the index with the active keys of the database. Keys created or revoked while the keys are loaded
+     * are applied to the loaded index again before it replaces the current one, so a load that started before
+     * the change can't bring a revoked key back or drop a new one.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${application.security.api-key.refresh-interval}",
+            fixedDelayString = "${application.security.api-key.refresh-interval}")
+    public synchronized void reload() {
+        synchronized (lock) {
+            changesDuringReload = new HashMap<>();
+        }
+        Map<String, Entry> reloaded = new ConcurrentHashMap<>();
+        try {
+            for (ApiKey apiKey : apiKeyRepository.findAllActive()) {
+                reloaded.put(apiKey.getPrefix(), Entry.of(apiKey));
+            }
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                changesDuringReload = null;
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            changesDuringReload.forEach((prefix, entry) -> {
+                if (entry != null) {
+                    reloaded.put(prefix, entry);
+                } else {
+                    reloaded.remove(prefix);
+                }
+            });
+            changesDuringReload = null;
+            entries = reloaded;
+        }
+        log.debug("Loaded {} active API keys", reloaded.size());
+    }
+
+    public void put(ApiKey apiKey) {
+        Entry entry = Entry.of(apiKey);
+        synchronized (lock) {
+            entries.put(apiKey.getPrefix(), entry);
+            if (changesDuringReload != null) {
+                changesDuringReload.put(apiKey.getPrefix(), entry);
+            }
+        }
+    }
+
+    public void remove(String prefix) {
+        synchronized (lock) {
+            entries.remove(prefix);
+            if (changesDuringReload != null) {
+                changesDuringReload.put(prefix, null);
+            }
+        }
+    }
+
+    /**
+     * Verifies a presented API key.
+     *
+     * @param presentedKey The API key as sent by the client.
+     * @return The principal of the key, or {@code null} if the key is malformed, unknown, revoked or expired.
+     */
+    public ApiKeyPrincipal verify(String presentedKey) {
+        String prefix = prefixOf(presentedKey);
+        if (prefix == null) {
+            return null;
+        }
+        Entry entry = entries.get(prefix);
+        if (entry == null) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(digest(presentedKey), entry.keyHash())) {
+            return null;
+        }
+        if (entry.expiresAt() != null && entry.expiresAt().isBefore(Instant.now())) {
+            return null;
+        }
+        return entry.principal();
+    }
+
+    /**
+     * Generates a new random API key. The key is returned to the client once and never stored in plain text.
+     */
+    public String generateKey() {
+        byte[] prefix = new byte[PREFIX_BYTES];
+        byte[] secret = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(prefix);
+        secureRandom.nextBytes(secret);
+        return KEY_MARKER + SEPARATOR + HexFormat.of().formatHex(prefix)
+                + SEPARATOR + Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
+
+    /**
+     * @return The lookup prefix of the key, or {@code null} if the key is not of the form {@code clk_<prefix>_<secret>}.
+     */
+    public static String prefixOf(String key) {
+        int prefixStart = KEY_MARKER.length() + 1;
+        int prefixEnd = prefixStart + PREFIX_BYTES * 2;
+        if (key.length() <= prefixEnd + 1 || !key.startsWith(KEY_MARKER) || key.charAt(prefixStart - 1) != SEPARATOR
+                || key.charAt(prefixEnd) != SEPARATOR) {
+            return null;
+        }
+        return key.substring(prefixStart, prefixEnd);
+    }
+
+    public static String hash(String key) {
+        return HexFormat.of().formatHex(digest(key));
+    }
+
+    private static byte[] digest(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    private record Entry(byte[] keyHash, Instant expiresAt, ApiKeyPrincipal principal) {
+
+        static Entry of(ApiKey apiKey) {
+            return new Entry(
+                    HexFormat.of().parseHex(apiKey.getKeyHash()),
+                    apiKey.getExpiresAt(),
+                    new ApiKeyPrincipal(apiKey.getApiKeyId(), apiKey.getName(), Set.copyOf(apiKey.getScopes()))
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The stateless principal of a request authenticated with an API key.
+ * The scopes of the key are granted as authorities, so a key can only reach the endpoints its scopes allow.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class ApiKeyPrincipal implements Principal {
+
+    private final long apiKeyId;
+
+    private final String name;
+
+    private final Set<Role> scopes;
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return scopes.stream()
+                .map(scope -> new SimpleGrantedAuthority(scope.name()))
+                .toList();
+    }
+
+}
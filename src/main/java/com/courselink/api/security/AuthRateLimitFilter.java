@@ -0,0 +1,134 @@
+package com.courselink.api.security;
+
+import com.courselink.api.exception.ApiError;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles login and registration per client IP and per username before any user lookup or password hashing runs.
+ * Requests over the limit are rejected with 429 and a Retry-After header.
+ * The body is buffered to read the username, so bodies over a small size limit are rejected with 413 instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> RATE_LIMITED_PATHS = Set.of("/api/auth/authenticate", "/api/auth/register");
+
+    private final ObjectMapper objectMapper;
+
+    private final MessageSource messageSource;
+
+    @Value("${application.security.rate-limit.stripes}")
+    private int stripes;
+    @Value("${application.security.rate-limit.ip.capacity}")
+    private int ipCapacity;
+    @Value("${application.security.rate-limit.ip.refill-interval}")
+    private long ipRefillInterval;
+    @Value("${application.security.rate-limit.username.capacity}")
+    private int usernameCapacity;
+    @Value("${application.security.rate-limit.username.refill-interval}")
+    private long usernameRefillInterval;
+    @Value("${application.security.rate-limit.max-body-size}")
+    private int maxBodySize;
+
+    private RateLimiter ipRateLimiter;
+
+    private RateLimiter usernameRateLimiter;
+
+    @PostConstruct
+    void init() {
+        ipRateLimiter = new RateLimiter(stripes, ipCapacity, TimeUnit.MILLISECONDS.toNanos(ipRefillInterval), System::nanoTime);
+        usernameRateLimiter = new RateLimiter(stripes, usernameCapacity, TimeUnit.MILLISECONDS.toNanos(usernameRefillInterval), System::nanoTime);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod()) || !RATE_LIMITED_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        long retryAfter = ipRateLimiter.tryAcquire(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            log.warn("Rate limit exceeded for client {} on {}", request.getRemoteAddr(), request.getRequestURI());
+            reject(response, retryAfter);
+            return;
+        }
+
+        CachedBodyHttpServletRequest cachedRequest;
+        try {
+            cachedRequest = new CachedBodyHttpServletRequest(request, maxBodySize);
+        } catch (CachedBodyHttpServletRequest.BodyTooLargeException e) {
+            log.warn("Rejected body of client {} on {}: {}", request.getRemoteAddr(), request.getRequestURI(), e.getMessage());
+            String errorMsg = messageSource.getMessage("message.request.body.too.large", new Object[]{e.getMaxBodySize()}, LocaleContextHolder.getLocale());
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, errorMsg);
+            return;
+        }
+        String username = extractUsername(cachedRequest.getBody());
+        if (username != null) {
+            retryAfter = usernameRateLimiter.tryAcquire(username.toLowerCase(Locale.ROOT));
+            if (retryAfter > 0) {
+                log.warn("Rate limit exceeded for username {} on {}", username, request.getRequestURI());
+                reject(response, retryAfter);
+                return;
+            }
+        }
+
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    private String extractUsername(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            return username.isTextual() && !username.asText().isBlank() ? username.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        String errorMsg = messageSource.getMessage("message.too.many.requests", new Object[]{retryAfterSeconds}, LocaleContextHolder.getLocale());
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, errorMsg);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String errorMsg) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ApiError(status.value(), errorMsg));
+    }
+
+}
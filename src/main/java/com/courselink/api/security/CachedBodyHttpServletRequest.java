@@ -0,0 +1,105 @@
+package com.courselink.api.security;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request wrapper that reads the body once so a filter can inspect it and the controller can still read it.
+ * Bodies larger than the given limit are refused before more than the limit is buffered.
+ */
+public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    /**
+     * @throws BodyTooLargeException If the declared or actual length of the body exceeds {@code maxBodySize}.
+     */
+    public CachedBodyHttpServletRequest(HttpServletRequest request, int maxBodySize) throws IOException {
+        super(request);
+        if (request.getContentLengthLong() > maxBodySize) {
+            throw new BodyTooLargeException(maxBodySize);
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body.length > maxBodySize) {
+            throw new BodyTooLargeException(maxBodySize);
+        }
+        this.body = body;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return inputStream.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            /**
+             * The whole body is already in memory, so the listener is told right away that it can be read
+             * without blocking, and that all of it has been read once it has.
+             */
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    if (!isFinished()) {
+                        readListener.onDataAvailable();
+                    }
+                    readListener.onAllDataRead();
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() {
+                return inputStream.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return inputStream.read(b, off, len);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    public static class BodyTooLargeException extends IOException {
+
+        private final int maxBodySize;
+
+        BodyTooLargeException(int maxBodySize) {
+            super("Request body exceeds " + maxBodySize + " bytes");
+            this.maxBodySize = maxBodySize;
+        }
+
+        public int getMaxBodySize() {
+            return maxBodySize;
+        }
+
+    }
+
+}
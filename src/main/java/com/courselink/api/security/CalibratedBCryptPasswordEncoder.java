@@ -0,0 +1,83 @@
+package com.courselink.api.security;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose cost is chosen at startup by timing hashes on the current host,
+ * so that one verification takes roughly the configured target latency.
+ * Stored hashes of a lower cost are upgraded when users log in, but never lowered: hosts of different
+ * speeds calibrate different costs, and a downgrade would rehash the same password back and forth
+ * as logins alternate between them.
+ */
+@Slf4j
+@Getter
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    public static final int MIN_STRENGTH = 4;
+
+    public static final int MAX_STRENGTH = 31;
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Picks the highest cost within the given bounds whose verification time stays within the target latency.
+     * The cost never drops below {@code minStrength}, even on hosts that are too slow to meet the target.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(long targetLatencyMillis, int minStrength, int maxStrength) {
+        if (minStrength < MIN_STRENGTH || maxStrength > MAX_STRENGTH || minStrength > maxStrength) {
+            throw new IllegalArgumentException("Invalid BCrypt strength bounds: " + minStrength + ".." + maxStrength);
+        }
+
+        long nanos = measure(minStrength);
+        long targetNanos = targetLatencyMillis * 1_000_000L;
+
+        int strength = minStrength;
+        while (strength < maxStrength && nanos * 2 <= targetNanos) {
+            strength++;
+            nanos *= 2;
+        }
+
+        log.info("Calibrated BCrypt strength {} (~{} ms per hash, target {} ms)", strength, nanos / 1_000_000L, targetLatencyMillis);
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode("calibration");
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoder.matches("calibration", hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return true;
+        }
+        return Integer.parseInt(matcher.group(2)) < strength;
+    }
+
+}
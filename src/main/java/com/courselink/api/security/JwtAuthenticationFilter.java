@@ -1,27 +1,33 @@
 package com.courselink.api.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final SecurityVersionCache securityVersionCache;
 
-    private final UserDetailsService userDetailsService;
+    private final SecurityContextRepository securityContextRepository;
 
     @Override
     protected void doFilterInternal(
@@ -32,7 +38,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authenticationHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final VerifiedToken verifiedToken;
 
         if(authenticationHeader == null || !authenticationHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -40,24 +46,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authenticationHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
-
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if(jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                userDetails,
-               null,
-                userDetails.getAuthorities()
-                );
-                authenticationToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+        try {
+            verifiedToken = verifiedTokenCache.verify(jwt);
+        } catch (JwtException e) {
+            log.debug("Rejected invalid token: {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        if(SecurityContextHolder.getContext().getAuthentication() == null && isAuthenticatable(verifiedToken)) {
+            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                    verifiedToken,
+                    null,
+                    verifiedToken.getAuthorities()
+            );
+            authenticationToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+            SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            securityContext.setAuthentication(authenticationToken);
+            SecurityContextHolder.setContext(securityContext);
+            securityContextRepository.saveContext(securityContext, request, response);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private boolean isAuthenticatable(VerifiedToken verifiedToken) {
+        if (!verifiedToken.hasUserClaims()) {
+            log.debug("Token of user {} doesn't contain user claims.", verifiedToken.getUsername());
+            return false;
+        }
+        if (!securityVersionCache.isCurrent(verifiedToken.getUserId(), verifiedToken.getSecurityVersion())) {
+            log.debug("Token of user {} has been revoked.", verifiedToken.getUsername());
+            return false;
+        }
+        return true;
+    }
+
 }
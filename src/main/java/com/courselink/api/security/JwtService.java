@@ -1,46 +1,142 @@
 package com.courselink.api.security;
 
+import com.courselink.api.entity.User;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    private final JwtSigningKeys jwtSigningKeys;
+
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
 
-    public String extractUsername(String token) {
-        log.debug("Extracting username from token.");
-        return extractClaim(token, Claims::getSubject);
+    private String signingKeyId;
+
+    private PrivateKey signingKey;
+
+    private Map<String, ECPublicKey> verificationKeys;
+
+    private Map<String, Object> jwkSet;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        log.debug("Initializing signing keys and JWT parser.");
+        Map<String, ECPublicKey> publicKeys = new HashMap<>();
+        List<JWK> jwks = new ArrayList<>();
+
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            for (Map.Entry<String, JwtSigningKeys.KeyPair> entry : jwtSigningKeys.getKeys().entrySet()) {
+                String keyId = entry.getKey();
+                ECPublicKey publicKey = (ECPublicKey) keyFactory.generatePublic(
+                        new X509EncodedKeySpec(Decoders.BASE64.decode(entry.getValue().getPublicKey())));
+                if (Curve.forECParameterSpec(publicKey.getParams()) != Curve.P_256) {
+                    throw new IllegalStateException("JWT signing key " + keyId + " is not a P-256 key");
+                }
+                publicKeys.put(keyId, publicKey);
+                jwks.add(new ECKey.Builder(Curve.P_256, publicKey)
+                        .keyID(keyId)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .algorithm(JWSAlgorithm.ES256)
+                        .build());
+
+                if (keyId.equals(jwtSigningKeys.getActiveKeyId())) {
+                    String privateKey = entry.getValue().getPrivateKey();
+                    if (privateKey == null || privateKey.isBlank()) {
+                        throw new IllegalStateException("Active JWT signing key " + keyId + " has no private key");
+                    }
+                    signingKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(privateKey)));
+                }
+            }
+        } catch (GeneralSecurityException | ClassCastException e) {
+            throw new IllegalStateException("Invalid JWT signing key", e);
+        }
+
+        if (signingKey == null) {
+            throw new IllegalStateException("Active JWT signing key " + jwtSigningKeys.getActiveKeyId() + " is not configured");
+        }
+
+        signingKeyId = jwtSigningKeys.getActiveKeyId();
+        verificationKeys = Collections.unmodifiableMap(publicKeys);
+        jwkSet = Collections.unmodifiableMap(new JWKSet(jwks).toJSONObject(true));
+        jwtParser = Jwts
+                .parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header);
+                    }
+                })
+                .build();
+        log.info("Signing tokens with key {}, accepting keys {}", signingKeyId, verificationKeys.keySet());
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        log.debug("Extracting claim from token.");
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Public keys accepted for verification as a JSON Web Key Set, so other services can verify tokens locally.
+     */
+    public Map<String, Object> getJwkSet() {
+        return jwkSet;
+    }
+
+    /**
+     * Verifies the signature and expiration of the token exactly once.
+     *
+     * @param token The compact JWT.
+     * @return The verified claims of the token.
+     * @throws io.jsonwebtoken.JwtException If the token is malformed, tampered with or expired.
+     */
+    public VerifiedToken verify(String token) {
+        log.debug("Verifying token.");
+        return VerifiedToken.fromClaims(extractAllClaims(token));
     }
 
     public String generateToken(UserDetails userDetails) {
         log.info("Generating token for user: {}", userDetails.getUsername());
-        String token = generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(VerifiedToken.USER_ID_CLAIM, user.getUserId());
+            claims.put(VerifiedToken.ROLE_CLAIM, user.getRole().name());
+            claims.put(VerifiedToken.SECURITY_VERSION_CLAIM, user.getSecurityVersion());
+        }
+        String token = generateToken(claims, userDetails);
         log.debug("Generated Token: {}", token);
         return token;
     }
@@ -59,47 +155,41 @@ public class JwtService {
             long expiration
     ) {
         log.debug("Building token for user: {}", userDetails.getUsername());
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
+                .signWith(signingKey, SignatureAlgorithm.ES256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
+    public boolean isTokenValid(VerifiedToken verifiedToken, UserDetails userDetails) {
         log.debug("Validating token for user: {}", userDetails.getUsername());
-        final String username = extractUsername(token);
-        boolean isValid = username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        boolean isValid = verifiedToken.getUsername().equals(userDetails.getUsername()) && !verifiedToken.isExpired();
         log.debug("Is token valid? {}", isValid);
         return isValid;
     }
 
-    private boolean isTokenExpired(String token) {
-        log.debug("Checking if token is expired.");
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        log.debug("Extracting expiration date from token.");
-        return extractClaim(token, Claims::getExpiration);
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        if (!SignatureAlgorithm.ES256.getValue().equals(header.getAlgorithm())) {
+            throw new SignatureException("Unsupported token signature algorithm: " + header.getAlgorithm());
+        }
+        ECPublicKey publicKey = header.getKeyId() != null ? verificationKeys.get(header.getKeyId()) : null;
+        if (publicKey == null) {
+            throw new SignatureException("Unknown token signing key: " + header.getKeyId());
+        }
+        return publicKey;
     }
 
     private Claims extractAllClaims(String token) {
         log.debug("Extracting all claims from token.");
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Key getSignInKey() {
-        log.debug("Getting signing key.");
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
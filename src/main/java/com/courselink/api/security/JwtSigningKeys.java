@@ -0,0 +1,42 @@
+package com.courselink.api.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * EC P-256 key pairs used to sign and verify access tokens, keyed by key id ({@code kid}).
+ * Only the active key needs a private key; keys that were rotated out keep just their public key,
+ * so tokens they signed stay verifiable until they expire.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.security.jwt.signing")
+public class JwtSigningKeys {
+
+    private String activeKeyId;
+
+    private Map<String, KeyPair> keys = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class KeyPair {
+
+        /**
+         * Base64 encoded PKCS#8 private key.
+         */
+        private String privateKey;
+
+        /**
+         * Base64 encoded X.509 public key.
+         */
+        private String publicKey;
+
+    }
+
+}
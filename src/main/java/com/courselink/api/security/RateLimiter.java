@@ -0,0 +1,75 @@
+package com.courselink.api.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm over a fixed array of striped counters.
+ * Each key is hashed onto one stripe that stores its theoretical arrival time, so memory stays bounded
+ * regardless of the number of distinct keys. Keys that share a stripe share its budget,
+ * which can only make the limit stricter for them, never looser.
+ */
+public class RateLimiter {
+
+    private final AtomicLongArray theoreticalArrivalTimes;
+
+    private final int mask;
+
+    private final int seed;
+
+    private final long emissionInterval;
+
+    private final long burstTolerance;
+
+    private final long origin;
+
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param stripes        number of counters, rounded up to a power of two
+     * @param capacity       number of requests a key may make in a burst
+     * @param refillInterval nanoseconds after which one more request is allowed
+     */
+    public RateLimiter(int stripes, int capacity, long refillInterval, LongSupplier nanoClock) {
+        if (stripes <= 0 || capacity <= 0 || refillInterval <= 0) {
+            throw new IllegalArgumentException("Rate limiter stripes, capacity and refill interval must be positive");
+        }
+        int size = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.theoreticalArrivalTimes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.seed = ThreadLocalRandom.current().nextInt();
+        this.emissionInterval = refillInterval;
+        this.burstTolerance = refillInterval * (capacity - 1);
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    /**
+     * Consumes one request for the key.
+     *
+     * @return 0 if the request is allowed, otherwise the number of nanoseconds until it would be
+     */
+    public long tryAcquire(String key) {
+        int stripe = stripe(key);
+        long now = nanoClock.getAsLong() - origin;
+
+        while (true) {
+            long theoreticalArrivalTime = theoreticalArrivalTimes.get(stripe);
+            long allowedAt = theoreticalArrivalTime - burstTolerance;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            long next = Math.max(theoreticalArrivalTime, now) + emissionInterval;
+            if (theoreticalArrivalTimes.compareAndSet(stripe, theoreticalArrivalTime, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int stripe(String key) {
+        int hash = (key.hashCode() ^ seed) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+}
@@ -3,13 +3,13 @@ package com.courselink.api.security;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -22,7 +22,11 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
-    private final AuthenticationProvider authenticationProvider;
+    private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
+
+    private final AuthRateLimitFilter authRateLimitFilter;
+
+    private final SecurityContextRepository securityContextRepository;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
@@ -32,17 +36,29 @@ public class SecurityConfig {
                         .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAnyAuthority("ADMIN")
                 .requestMatchers("/api/task-categories/**").hasAnyAuthority("TEACHER", "ADMIN_TEACHER")
                 .requestMatchers("/api/defence-sessions/**").hasAnyAuthority("TEACHER", "ADMIN_TEACHER")
                 .requestMatchers("/api/booking-slots/generate-booking-slots").hasAnyAuthority("TEACHER", "ADMIN_TEACHER")
                 .requestMatchers("/api/booking-slots").hasAnyAuthority("TEACHER", "ADMIN_TEACHER", "STUDENT", "ADMIN_STUDENT")
+                .requestMatchers("/api/booking-slots/stream").hasAnyAuthority("TEACHER", "ADMIN_TEACHER", "STUDENT", "ADMIN_STUDENT")
+                .requestMatchers("/api/booking-slots/changes").hasAnyAuthority("TEACHER", "ADMIN_TEACHER", "STUDENT", "ADMIN_STUDENT")
                 .requestMatchers("/api/booking-slots/generate-booking-slots").hasAnyAuthority("TEACHER", "ADMIN_TEACHER")
-                .requestMatchers("/api/booking-slots/choose-booking-slot").hasAnyAuthority("STUDENT", "ADMIN_STUDENT")
+                .requestMatchers("/api/booking-slots/choose-booking-slot").hasAnyAuthority("STUDENT", "ADMIN_STUDENT", "TEACHER", "ADMIN_TEACHER", "ADMIN")
+                .requestMatchers("/api/booking-slots/release-booking-slot").hasAnyAuthority("STUDENT", "ADMIN_STUDENT", "TEACHER", "ADMIN_TEACHER", "ADMIN")
+                .requestMatchers("/api/booking-preferences/windows/**").hasAnyAuthority("TEACHER", "ADMIN_TEACHER")
+                .requestMatchers("/api/booking-preferences").hasAnyAuthority("STUDENT", "ADMIN_STUDENT")
+                .requestMatchers("/api/booking-waitlist/**").hasAnyAuthority("STUDENT", "ADMIN_STUDENT", "TEACHER", "ADMIN_TEACHER", "ADMIN")
+                .requestMatchers("/api/api-keys/**").hasAnyAuthority("ADMIN")
                 .requestMatchers("/api/users/**").hasAnyAuthority("ADMIN", "ADMIN_TEACHER", "ADMIN_STUDENT")
                 .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(STATELESS))
-                .authenticationProvider(authenticationProvider)
+                .securityContext(securityContext -> securityContext.securityContextRepository(securityContextRepository))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(apiKeyAuthenticationFilter, JwtAuthenticationFilter.class)
+                .addFilterBefore(authRateLimitFilter, JwtAuthenticationFilter.class)
                 .build();
     }
 
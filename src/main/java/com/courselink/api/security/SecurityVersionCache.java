@@ -0,0 +1,72 @@
+package com.courselink.api.security;
+
+import com.courselink.api.event.UserAuthChangedEvent;
+import com.courselink.api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Cache of the current security version of each user.
+ * A token is only accepted while the version embedded in it matches the cached one, so bumping the version
+ * of a user revokes all tokens issued to them without loading the user on every request.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityVersionCache {
+
+    private static final int UNKNOWN_USER_VERSION = -1;
+
+    private final UserRepository userRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.security.jwt.security-version-cache.maximum-size}")
+    private long maximumSize;
+    @Value("${application.security.jwt.security-version-cache.expire-after-write}")
+    private long expireAfterWrite;
+
+    private LoadingCache<Long, Integer> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWrite))
+                .recordStats()
+                .build(userId -> userRepository.findSecurityVersionByUserId(userId).orElse(UNKNOWN_USER_VERSION));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.security-versions");
+    }
+
+    public boolean isCurrent(long userId, int securityVersion) {
+        boolean isCurrent = cache.get(userId) == securityVersion;
+        log.debug("Is security version {} of user with ID {} current? {}", securityVersion, userId, isCurrent);
+        return isCurrent;
+    }
+
+    public void evict(long userId) {
+        log.debug("Evicting security version of user with ID {}", userId);
+        cache.invalidate(userId);
+    }
+
+    /**
+     * Evicts the version only once the change has committed, so that a concurrent request can't reload and
+     * re-cache the version from before the change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserAuthChanged(UserAuthChangedEvent event) {
+        evict(event.getUserId());
+    }
+
+}
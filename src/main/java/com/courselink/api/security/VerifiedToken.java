@@ -0,0 +1,90 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable result of a single signature verification of a JWT.
+ * Holds the claims the application relies on so the token never has to be parsed again for the same request,
+ * and serves as the stateless principal of the authenticated request.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class VerifiedToken implements Principal {
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    public static final String ROLE_CLAIM = "role";
+
+    public static final String SECURITY_VERSION_CLAIM = "ver";
+
+    private final String username;
+
+    private final Long userId;
+
+    private final Role role;
+
+    private final Integer securityVersion;
+
+    private final Instant issuedAt;
+
+    private final Instant expiresAt;
+
+    /**
+     * @throws MalformedJwtException If the role claim names a role this application doesn't know.
+     */
+    public static VerifiedToken fromClaims(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                role(claims.get(ROLE_CLAIM, String.class)),
+                claims.get(SECURITY_VERSION_CLAIM, Integer.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant()
+        );
+    }
+
+    private static Role role(String role) {
+        if (role == null) {
+            return null;
+        }
+        try {
+            return Role.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Unknown role claim: " + role, e);
+        }
+    }
+
+    /**
+     * Tokens issued before the user id, role and security version were embedded cannot be authenticated statelessly.
+     */
+    public boolean hasUserClaims() {
+        return username != null && userId != null && role != null && securityVersion != null;
+    }
+
+    public boolean isExpired() {
+        return expiresAt.isBefore(Instant.now());
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.courselink.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Size-bounded cache of bearer tokens whose signature has already been verified.
+ * Entries are keyed by the SHA-256 digest of the token and never outlive the token's expiration.
+ * Hit and miss counters are published as the {@code cache.*} metrics with {@code cache=jwt.verified-tokens}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.security.jwt.cache.maximum-size}")
+    private long maximumSize;
+    @Value("${application.security.jwt.cache.maximum-ttl}")
+    private long maximumTtl;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(Duration.ofMillis(maximumTtl)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Returns the verified claims of the token, verifying the signature only when the token has not been seen before.
+     *
+     * @param token The compact JWT.
+     * @return The verified claims of the token.
+     * @throws io.jsonwebtoken.JwtException If the token is not cached and fails verification.
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken verifiedToken = cache.get(key, digest -> jwtService.verify(token));
+        if (verifiedToken.isExpired()) {
+            log.debug("Cached token has expired.");
+            cache.invalidate(key);
+            return jwtService.verify(token);
+        }
+        return verifiedToken;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        private final Duration maximumTtl;
+
+        TokenExpiry(Duration maximumTtl) {
+            this.maximumTtl = maximumTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken verifiedToken, long currentTime) {
+            Duration untilExpiration = Duration.between(Instant.now(), verifiedToken.getExpiresAt());
+            if (untilExpiration.isNegative()) {
+                return 0;
+            }
+            return untilExpiration.compareTo(maximumTtl) < 0 ? untilExpiration.toNanos() : maximumTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
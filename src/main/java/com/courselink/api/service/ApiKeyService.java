@@ -0,0 +1,82 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.ApiKeyDTO;
+import com.courselink.api.dto.ApiKeyRequestDTO;
+import com.courselink.api.entity.ApiKey;
+import com.courselink.api.exception.ApiKeyNotFoundException;
+import com.courselink.api.repository.ApiKeyRepository;
+import com.courselink.api.security.ApiKeyIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Manages the API keys of machine clients.
+ * The plain text key is returned only once, when the key is created; afterwards only its prefix is shown.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApiKeyService {
+
+    private final ApiKeyRepository apiKeyRepository;
+
+    private final ApiKeyIndex apiKeyIndex;
+
+    private final MessageSource messageSource;
+
+    public ApiKeyDTO createApiKey(ApiKeyRequestDTO apiKeyRequestDTO) {
+        log.info("Creating API key: {}", apiKeyRequestDTO.getName());
+
+        String key = apiKeyIndex.generateKey();
+
+        ApiKey apiKey = apiKeyRepository.save(ApiKey.builder()
+                .name(apiKeyRequestDTO.getName())
+                .prefix(ApiKeyIndex.prefixOf(key))
+                .keyHash(ApiKeyIndex.hash(key))
+                .scopes(new HashSet<>(apiKeyRequestDTO.getScopes()))
+                .createdAt(Instant.now())
+                .expiresAt(apiKeyRequestDTO.getExpiresAt())
+                .isRevoked(false)
+                .build());
+        apiKeyIndex.put(apiKey);
+        log.info("Created API key with ID: {}", apiKey.getApiKeyId());
+
+        ApiKeyDTO apiKeyDTO = ApiKeyDTO.toApiKeyDTO(apiKey);
+        apiKeyDTO.setKey(key);
+        return apiKeyDTO;
+    }
+
+    public List<ApiKeyDTO> getAll() {
+        log.info("Fetching all API keys");
+
+        List<ApiKeyDTO> apiKeys = apiKeyRepository.findAll().stream()
+                .map(ApiKeyDTO::toApiKeyDTO)
+                .toList();
+
+        log.info("Fetched {} API keys", apiKeys.size());
+        return apiKeys;
+    }
+
+    public void revokeById(long apiKeyId) {
+        log.info("Revoking API key with ID: {}", apiKeyId);
+
+        ApiKey apiKey = apiKeyRepository.findById(apiKeyId)
+                .orElseThrow(() -> {
+                    log.warn("API key with ID {} not found", apiKeyId);
+                    String errorMsg = messageSource.getMessage("message.api.key.not.found.with.id", new Object[]{apiKeyId}, LocaleContextHolder.getLocale());
+                    return new ApiKeyNotFoundException(errorMsg);
+                });
+
+        apiKeyRepository.revoke(apiKeyId);
+        apiKeyIndex.remove(apiKey.getPrefix());
+        log.info("Revoked API key with ID: {}", apiKeyId);
+    }
+
+}
@@ -2,20 +2,21 @@ package com.courselink.api.service;
 
 import com.courselink.api.dto.AuthenticationRequestDTO;
 import com.courselink.api.dto.AuthenticationResponseDTO;
+import com.courselink.api.dto.RefreshTokenRequestDTO;
 import com.courselink.api.dto.RegistrationRequestDTO;
 import com.courselink.api.entity.Status;
 import com.courselink.api.entity.User;
 import com.courselink.api.repository.UserRepository;
 import com.courselink.api.security.JwtService;
+import com.courselink.api.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 
@@ -24,38 +25,33 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class AuthenticationService {
 
+    private static final String USERNAME_UNIQUE_CONSTRAINT = "users_username_key";
+    private static final String EMAIL_UNIQUE_CONSTRAINT = "users_email_key";
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
     private final MessageSource messageSource;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthenticationResponseDTO register(RegistrationRequestDTO registrationRequestDTO) {
         log.info("Attempting to register user with username: {}", registrationRequestDTO.getUsername());
 
-        if (userRepository.existsByUsername(registrationRequestDTO.getUsername())) {
-            String errorMsg = messageSource.getMessage("message.user.already.exists.with.username", new Object[]{registrationRequestDTO.getUsername()}, LocaleContextHolder.getLocale());
-            log.error(errorMsg);
-            throw new BadCredentialsException(errorMsg);
-        }
-
-        if (userRepository.existsByEmail(registrationRequestDTO.getEmail())) {
-            String errorMsg = messageSource.getMessage("message.user.already.exists.with.email", new Object[]{registrationRequestDTO.getEmail()}, LocaleContextHolder.getLocale());
-            log.error(errorMsg);
-            throw new BadCredentialsException(errorMsg);
-        }
-
         User user = User.builder()
                 .username(registrationRequestDTO.getUsername())
                 .email(registrationRequestDTO.getEmail())
-                .password(passwordEncoder.encode(registrationRequestDTO.getPassword()))
+                .password(passwordHasher.encode(registrationRequestDTO.getPassword()))
                 .firstname(registrationRequestDTO.getFirstname())
                 .lastname(registrationRequestDTO.getLastname())
                 .role(registrationRequestDTO.getRole())
                 .status(Status.ACTIVE)
                 .build();
 
-        userRepository.save(user);
+        try {
+            user.setUserId(userRepository.insertUser(user));
+        } catch (DataIntegrityViolationException e) {
+            throw translateConstraintViolation(e, registrationRequestDTO);
+        }
         log.info("User {} successfully registered.", user.getUsername());
 
         String jwt = jwtService.generateToken(user);
@@ -63,9 +59,33 @@ public class AuthenticationService {
 
         return AuthenticationResponseDTO.builder()
                 .token(jwt)
+                .refreshToken(refreshTokenService.issueRefreshToken(user))
                 .build();
     }
 
+    /**
+     * Maps a violated unique constraint of the users table to the localized message for the duplicate field.
+     */
+    private RuntimeException translateConstraintViolation(DataIntegrityViolationException e, RegistrationRequestDTO registrationRequestDTO) {
+        String constraintName = null;
+        for (Throwable cause = e.getCause(); cause != null && constraintName == null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolationException) {
+                constraintName = constraintViolationException.getConstraintName();
+            }
+        }
+
+        String errorMsg;
+        if (USERNAME_UNIQUE_CONSTRAINT.equals(constraintName)) {
+            errorMsg = messageSource.getMessage("message.user.already.exists.with.username", new Object[]{registrationRequestDTO.getUsername()}, LocaleContextHolder.getLocale());
+        } else if (EMAIL_UNIQUE_CONSTRAINT.equals(constraintName)) {
+            errorMsg = messageSource.getMessage("message.user.already.exists.with.email", new Object[]{registrationRequestDTO.getEmail()}, LocaleContextHolder.getLocale());
+        } else {
+            return e;
+        }
+        log.error(errorMsg);
+        return new BadCredentialsException(errorMsg);
+    }
+
     public AuthenticationResponseDTO authenticate(AuthenticationRequestDTO authenticationRequestDTO) {
         log.info("Attempting to authenticate user with username: {}", authenticationRequestDTO.getUsername());
 
@@ -81,25 +101,50 @@ public class AuthenticationService {
             throw new BadCredentialsException(errorMsg);
         }
 
-        if (!passwordEncoder.matches(authenticationRequestDTO.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(authenticationRequestDTO.getPassword(), user.getPassword())) {
             String errorMsg = messageSource.getMessage("message.user.invalid.password", new Object[]{authenticationRequestDTO.getUsername()}, LocaleContextHolder.getLocale());
             log.error(errorMsg);
             throw new BadCredentialsException(errorMsg);
         }
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        authenticationRequestDTO.getUsername(),
-                        authenticationRequestDTO.getPassword()
-                )
-        );
         log.info("User {} successfully authenticated.", user.getUsername());
 
+        if (passwordHasher.upgradeEncoding(user.getPassword())) {
+            rehashPassword(user, authenticationRequestDTO.getPassword());
+        }
+
         String jwt = jwtService.generateToken(user);
         log.info("Generated JWT token for user: {}", user.getUsername());
 
         return AuthenticationResponseDTO.builder()
                 .token(jwt)
+                .refreshToken(refreshTokenService.issueRefreshToken(user))
                 .build();
     }
+
+    /**
+     * Re-encodes the password with the current algorithm and work factor in the background,
+     * so the login that triggered it does not wait for a second hash.
+     * The stored hash is only replaced if it was not changed in the meantime.
+     */
+    private void rehashPassword(User user, String rawPassword) {
+        long userId = user.getUserId();
+        String currentPassword = user.getPassword();
+
+        passwordHasher.encodeAsync(rawPassword)
+                .thenAccept(newPassword -> {
+                    if (userRepository.updatePasswordIfUnchanged(userId, currentPassword, newPassword) > 0) {
+                        log.info("Rehashed password of user {}.", user.getUsername());
+                    }
+                })
+                .exceptionally(e -> {
+                    log.warn("Could not rehash password of user {}: {}", user.getUsername(), e.getMessage());
+                    return null;
+                });
+    }
+
+    public AuthenticationResponseDTO refresh(RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        log.info("Attempting to refresh access token.");
+        return refreshTokenService.rotate(refreshTokenRequestDTO.getRefreshToken());
+    }
 }
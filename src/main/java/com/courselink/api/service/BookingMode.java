@@ -0,0 +1,26 @@
+package com.courselink.api.service;
+
+/**
+ * How {@link BookingSlotService#chooseBookingSlot} claims a booking slot.
+ */
+public enum BookingMode {
+
+    /**
+     * Every claim is a conditional update in the database.
+     */
+    DIRECT,
+
+    /**
+     * Claims are decided in memory by {@link BookingSlotInventory} and persisted in batches afterwards;
+     * the winner of a slot is answered once its batch has been persisted.
+     * Only efficient while a single instance serves the booking endpoints.
+     */
+    INVENTORY,
+
+    /**
+     * Claims are queued per defence session and committed in batches by {@link BookingSlotWriteQueue}.
+     * Only {@link BookingSlotService#chooseBookingSlotAsync} uses the queue.
+     */
+    QUEUE
+
+}
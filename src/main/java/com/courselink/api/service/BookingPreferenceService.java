@@ -0,0 +1,319 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.BookingPreferenceWindowDTO;
+import com.courselink.api.dto.BookingPreferencesDTO;
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.entity.BookingPreference;
+import com.courselink.api.entity.BookingPreferenceWindow;
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.User;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.exception.BookingSlotNotFoundException;
+import com.courselink.api.exception.DefenceSessionException;
+import com.courselink.api.exception.DefenceSessionNotFoundException;
+import com.courselink.api.exception.UserNotFoundException;
+import com.courselink.api.repository.BookingPreferenceRepository;
+import com.courselink.api.repository.BookingPreferenceWindowRepository;
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.DefenceSessionRepository;
+import com.courselink.api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Allocates the booking slots of a defence session by student preferences instead of first come, first served.
+ * While the preference window of a session is open, students rank its slots and the slots can't be booked directly.
+ * When the window closes, all slots are allocated in one batch with {@link SlotAllocationSolver};
+ * students who get none of their ranked slots get one of the slots that are left, in the order they submitted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingPreferenceService {
+
+    private static final Set<Role> STUDENT_ROLES = EnumSet.of(Role.STUDENT, Role.ADMIN_STUDENT);
+
+    private final BookingPreferenceWindowRepository bookingPreferenceWindowRepository;
+
+    private final BookingPreferenceRepository bookingPreferenceRepository;
+
+    private final BookingSlotRepository bookingSlotRepository;
+
+    private final DefenceSessionRepository defenceSessionRepository;
+
+    private final UserRepository userRepository;
+
+    private final SlotAllocationSolver slotAllocationSolver;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final MessageSource messageSource;
+
+    @Value("${application.booking.preferences.max-ranked-slots}")
+    private int maxRankedSlots;
+
+    public BookingPreferenceWindowDTO openPreferenceWindow(BookingPreferenceWindowDTO bookingPreferenceWindowDTO) {
+        long defenceSessionId = bookingPreferenceWindowDTO.getDefenceSessionId();
+        log.info("Opening preference window for DefenceSession with ID: {}", defenceSessionId);
+
+        if (!defenceSessionRepository.existsById(defenceSessionId)) {
+            log.warn("Defence session with ID {} not found", defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.defence.session.not.found.with.id", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
+            throw new DefenceSessionNotFoundException(errorMsg);
+        }
+
+        if (!bookingSlotRepository.existsByDefenceSession_DefenceSessionId(defenceSessionId)) {
+            log.warn("Booking slots with defence session ID {} not found", defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.no.booking.slots.with.defence.session.id", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
+            throw new BookingSlotNotFoundException(errorMsg);
+        }
+
+        if (bookingPreferenceWindowRepository.existsById(defenceSessionId)) {
+            log.warn("Preference window for DefenceSession with ID {} already exists", defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.booking.preference.window.already.exists", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
+            throw new DefenceSessionException(errorMsg);
+        }
+
+        BookingPreferenceWindow bookingPreferenceWindow = bookingPreferenceWindowRepository.save(BookingPreferenceWindow.builder()
+                .defenceSessionId(defenceSessionId)
+                .closesAt(bookingPreferenceWindowDTO.getClosesAt())
+                .isAllocated(false)
+                .build());
+        log.info("Opened preference window for DefenceSession with ID {} until {}", defenceSessionId, bookingPreferenceWindow.getClosesAt());
+
+        return BookingPreferenceWindowDTO.toBookingPreferenceWindowDTO(bookingPreferenceWindow);
+    }
+
+    /**
+     * Replaces the ranking the student submitted for the defence session, if any.
+     */
+    public BookingPreferencesDTO submitPreferences(BookingPreferencesDTO bookingPreferencesDTO) {
+        long userId = bookingPreferencesDTO.getUserId();
+        long defenceSessionId = bookingPreferencesDTO.getDefenceSessionId();
+        List<Long> bookingSlotIds = bookingPreferencesDTO.getBookingSlotIds();
+        log.info("Submitting preferences of User with ID {} for DefenceSession with ID {}", userId, defenceSessionId);
+
+        Role role = userRepository.findRoleByUserId(userId).orElseThrow(() -> {
+            log.warn("User with ID {} not found", userId);
+            String errorMsg = messageSource.getMessage("message.user.not.found.with.id", new Object[]{userId}, LocaleContextHolder.getLocale());
+            return new UserNotFoundException(errorMsg);
+        });
+
+        if (!STUDENT_ROLES.contains(role)) {
+            log.warn("User with ID {} is not a student", userId);
+            String errorMsg = messageSource.getMessage("message.user.not.student", new Object[]{userId}, LocaleContextHolder.getLocale());
+            throw new BadCredentialsException(errorMsg);
+        }
+
+        Instant now = Instant.now();
+        BookingPreferenceWindow bookingPreferenceWindow = bookingPreferenceWindowRepository.findById(defenceSessionId)
+                .filter(window -> window.isOpen(now))
+                .orElseThrow(() -> {
+                    log.warn("Preference window for DefenceSession with ID {} is not open", defenceSessionId);
+                    String errorMsg = messageSource.getMessage("message.booking.preference.window.not.open", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
+                    return new DefenceSessionException(errorMsg);
+                });
+
+        if (bookingSlotIds.size() > maxRankedSlots) {
+            String errorMsg = messageSource.getMessage("message.booking.preferences.too.many", new Object[]{maxRankedSlots}, LocaleContextHolder.getLocale());
+            throw new IllegalArgumentException(errorMsg);
+        }
+
+        Set<Long> sessionBookingSlotIds = bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId).stream()
+                .map(BookingSlot::getBookingSlotId)
+                .collect(Collectors.toSet());
+        Set<Long> rankedBookingSlotIds = new HashSet<>();
+        for (Long bookingSlotId : bookingSlotIds) {
+            if (!sessionBookingSlotIds.contains(bookingSlotId)) {
+                String errorMsg = messageSource.getMessage("message.booking.preferences.invalid.slot", new Object[]{bookingSlotId, defenceSessionId}, LocaleContextHolder.getLocale());
+                throw new IllegalArgumentException(errorMsg);
+            }
+            if (!rankedBookingSlotIds.add(bookingSlotId)) {
+                String errorMsg = messageSource.getMessage("message.booking.preferences.duplicate.slot", new Object[]{bookingSlotId}, LocaleContextHolder.getLocale());
+                throw new IllegalArgumentException(errorMsg);
+            }
+        }
+
+        List<BookingPreference> bookingPreferences = new ArrayList<>(bookingSlotIds.size());
+        for (int rank = 0; rank < bookingSlotIds.size(); rank++) {
+            bookingPreferences.add(BookingPreference.builder()
+                    .defenceSessionId(bookingPreferenceWindow.getDefenceSessionId())
+                    .userId(userId)
+                    .bookingSlotId(bookingSlotIds.get(rank))
+                    .rank(rank)
+                    .submittedAt(now)
+                    .build());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingPreferenceRepository.deleteByDefenceSessionIdAndUserId(defenceSessionId, userId);
+            bookingPreferenceRepository.saveAll(bookingPreferences);
+        });
+        log.info("Submitted {} ranked booking slots of User with ID {}", bookingPreferences.size(), userId);
+
+        return bookingPreferencesDTO;
+    }
+
+    /**
+     * Closes the preference window of the defence session, even if its closing time hasn't come yet,
+     * and allocates its slots.
+     *
+     * @return the booking slots that were allocated.
+     */
+    public List<BookingSlotDTO> allocate(long defenceSessionId) {
+        log.info("Allocating booking slots of DefenceSession with ID: {}", defenceSessionId);
+
+        BookingPreferenceWindow bookingPreferenceWindow = bookingPreferenceWindowRepository.findById(defenceSessionId).orElseThrow(() -> {
+            log.warn("Preference window for DefenceSession with ID {} not found", defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.booking.preference.window.not.found", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
+            return new DefenceSessionNotFoundException(errorMsg);
+        });
+
+        List<BookingSlot> allocatedBookingSlots = transactionTemplate.execute(status -> allocateWindow(bookingPreferenceWindow));
+
+        if (allocatedBookingSlots == null) {
+            log.warn("Booking slots of DefenceSession with ID {} are already allocated", defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.booking.preference.window.already.allocated", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
+            throw new DefenceSessionException(errorMsg);
+        }
+
+        return allocatedBookingSlots.stream()
+                .map(BookingSlotDTO::toBookingSlotDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${application.booking.preferences.allocation-interval}")
+    public void allocateClosedWindows() {
+        for (BookingPreferenceWindow bookingPreferenceWindow : bookingPreferenceWindowRepository.findAllDueForAllocation(Instant.now())) {
+            try {
+                transactionTemplate.execute(status -> allocateWindow(bookingPreferenceWindow));
+            } catch (RuntimeException e) {
+                log.error("Failed to allocate booking slots of DefenceSession with ID {}", bookingPreferenceWindow.getDefenceSessionId(), e);
+            }
+        }
+    }
+
+    /**
+     * Must run in a transaction, so that the window is only marked as allocated if the slots are written.
+     *
+     * @return the allocated booking slots, or {@code null} if the window was already allocated.
+     */
+    private List<BookingSlot> allocateWindow(BookingPreferenceWindow bookingPreferenceWindow) {
+        long defenceSessionId = bookingPreferenceWindow.getDefenceSessionId();
+
+        if (bookingPreferenceWindowRepository.markAllocated(defenceSessionId) == 0) {
+            return null;
+        }
+
+        List<BookingSlot> bookingSlots = bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId);
+        List<BookingSlot> freeBookingSlots = bookingSlots.stream()
+                .filter(bookingSlot -> !bookingSlot.isBooked())
+                .sorted(Comparator.comparing(BookingSlot::getStartTime))
+                .toList();
+        Set<Long> bookedUserIds = bookingSlots.stream()
+                .filter(bookingSlot -> bookingSlot.isBooked() && bookingSlot.getUser() != null)
+                .map(bookingSlot -> bookingSlot.getUser().getUserId())
+                .collect(Collectors.toSet());
+
+        Map<Long, Integer> slotIndexes = new HashMap<>();
+        for (int i = 0; i < freeBookingSlots.size(); i++) {
+            slotIndexes.put(freeBookingSlots.get(i).getBookingSlotId(), i);
+        }
+
+        Map<Long, List<Integer>> rankingsByUserId = new LinkedHashMap<>();
+        for (BookingPreference bookingPreference : bookingPreferenceRepository.findAllInSubmissionOrder(defenceSessionId)) {
+            Integer slotIndex = slotIndexes.get(bookingPreference.getBookingSlotId());
+            if (!bookedUserIds.contains(bookingPreference.getUserId())) {
+                List<Integer> ranking = rankingsByUserId.computeIfAbsent(bookingPreference.getUserId(), userId -> new ArrayList<>());
+                if (slotIndex != null) {
+                    ranking.add(slotIndex);
+                }
+            }
+        }
+
+        long[] userIds = rankingsByUserId.keySet().stream().mapToLong(Long::longValue).toArray();
+        int[][] rankings = rankingsByUserId.values().stream()
+                .map(ranking -> ranking.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+
+        int[] assignments = slotAllocationSolver.solve(freeBookingSlots.size(), rankings);
+
+        boolean[] assignedSlots = new boolean[freeBookingSlots.size()];
+        for (int assignment : assignments) {
+            if (assignment != SlotAllocationSolver.UNASSIGNED) {
+                assignedSlots[assignment] = true;
+            }
+        }
+        int leftoverSlot = 0;
+        for (int student = 0; student < assignments.length; student++) {
+            if (assignments[student] == SlotAllocationSolver.UNASSIGNED) {
+                while (leftoverSlot < assignedSlots.length && assignedSlots[leftoverSlot]) {
+                    leftoverSlot++;
+                }
+                if (leftoverSlot == assignedSlots.length) {
+                    log.warn("{} students of DefenceSession with ID {} got no booking slot", assignments.length - student, defenceSessionId);
+                    break;
+                }
+                assignments[student] = leftoverSlot;
+                assignedSlots[leftoverSlot] = true;
+            }
+        }
+
+        List<BookingSlot> claims = new ArrayList<>(userIds.length);
+        for (int student = 0; student < assignments.length; student++) {
+            if (assignments[student] != SlotAllocationSolver.UNASSIGNED) {
+                BookingSlot bookingSlot = freeBookingSlots.get(assignments[student]);
+                claims.add(BookingSlot.builder()
+                        .bookingSlotId(bookingSlot.getBookingSlotId())
+                        .startTime(bookingSlot.getStartTime())
+                        .endTime(bookingSlot.getEndTime())
+                        .isBooked(true)
+                        .user(User.builder().userId(userIds[student]).build())
+                        .defenceSession(DefenceSession.builder().defenceSessionId(defenceSessionId).build())
+                        .build());
+            }
+        }
+
+        List<BookingSlot> allocatedBookingSlots = new ArrayList<>(claims.size());
+        if (!claims.isEmpty()) {
+            int[] updatedRows = bookingSlotRepository.batchClaim(claims);
+            for (int i = 0; i < updatedRows.length; i++) {
+                if (updatedRows[i] == 0) {
+                    log.warn("Booking slot with ID {} was booked before it could be allocated", claims.get(i).getBookingSlotId());
+                } else {
+                    allocatedBookingSlots.add(claims.get(i));
+                }
+            }
+        }
+
+        applicationEventPublisher.publishEvent(new BookingSlotsChangedEvent(defenceSessionId));
+        log.info("Allocated {} booking slots of DefenceSession with ID {} to {} students",
+                allocatedBookingSlots.size(), defenceSessionId, userIds.length);
+        return allocatedBookingSlots;
+    }
+
+}
@@ -0,0 +1,258 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.event.BookingSlotBookedEvent;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.exception.DefenceSessionNotFoundException;
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.DefenceSessionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Pushes the booking slot changes of a defence session to its Server-Sent Events subscribers.
+ * A new subscriber first gets all slots of the session as a {@code slots} event. After that, a booked slot is
+ * pushed as a {@code slot} event, and any other change, e.g. generation, removal or a release, as a new
+ * {@code slots} event. Each change is read and serialized once and then fanned out to the bounded buffers of
+ * the subscribers, which a pool of sender threads drains. A subscriber whose buffer overflows can't keep up and
+ * is disconnected; it gets a fresh snapshot when it reconnects.
+ * Only the changes made through this instance are pushed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingSlotBroadcaster {
+
+    static final String SLOTS_EVENT = "slots";
+
+    static final String SLOT_EVENT = "slot";
+
+    private final BookingSlotRepository bookingSlotRepository;
+
+    private final DefenceSessionRepository defenceSessionRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final MessageSource messageSource;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.booking.stream.buffer-size}")
+    private int bufferSize;
+    @Value("${application.booking.stream.timeout}")
+    private long timeout;
+    @Value("${application.booking.stream.sender-threads}")
+    private int senderThreads;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private ExecutorService sender;
+
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        int threads = senderThreads > 0 ? senderThreads : Runtime.getRuntime().availableProcessors();
+        sender = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("booking-stream-")), "booking.stream");
+        evictions = Counter.builder("booking.stream.evictions")
+                .description("Booking slot stream subscribers disconnected because their buffer overflowed")
+                .register(meterRegistry);
+        Gauge.builder("booking.stream.subscribers", subscribers, map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Open booking slot streams")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(sessionSubscribers -> sessionSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    /**
+     * Opens a stream of the booking slot changes of the defence session, starting with all its slots.
+     *
+     * @throws DefenceSessionNotFoundException if the defence session doesn't exist.
+     */
+    public SseEmitter subscribe(long defenceSessionId) {
+        if (!defenceSessionRepository.existsById(defenceSessionId)) {
+            log.warn("Defence session with ID {} not found", defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.defence.session.not.found.with.id", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
+            throw new DefenceSessionNotFoundException(errorMsg);
+        }
+
+        Subscriber subscriber = new Subscriber(defenceSessionId, newEmitter());
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(subscriber.emitter::complete);
+        subscriber.emitter.onError(error -> unsubscribe(subscriber));
+        subscribers.compute(defenceSessionId, (id, sessionSubscribers) -> {
+            Set<Subscriber> result = sessionSubscribers != null ? sessionSubscribers : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+
+        // Read after subscribing, so that a change made in between is either in the snapshot or pushed after it.
+        subscriber.offer(new Message(SLOTS_EVENT, write(findSlots(defenceSessionId))));
+        log.info("Opened booking slot stream for DefenceSession with ID {}", defenceSessionId);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingSlotBooked(BookingSlotBookedEvent event) {
+        BookingSlotDTO bookingSlot = event.getBookingSlot();
+        broadcast(bookingSlot.getDefenceSessionId(), () -> new Message(SLOT_EVENT, write(bookingSlot)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingSlotsChanged(BookingSlotsChangedEvent event) {
+        broadcast(event.getDefenceSessionId(), () -> new Message(SLOTS_EVENT, write(findSlots(event.getDefenceSessionId()))));
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout);
+    }
+
+    private void broadcast(long defenceSessionId, Supplier<Message> message) {
+        Set<Subscriber> sessionSubscribers = subscribers.get(defenceSessionId);
+        if (sessionSubscribers == null || sessionSubscribers.isEmpty()) {
+            return;
+        }
+        Message sharedMessage = message.get();
+        sessionSubscribers.forEach(subscriber -> subscriber.offer(sharedMessage));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscriber.buffer.clear();
+        subscribers.computeIfPresent(subscriber.defenceSessionId, (id, sessionSubscribers) -> {
+            sessionSubscribers.remove(subscriber);
+            return sessionSubscribers.isEmpty() ? null : sessionSubscribers;
+        });
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        unsubscribe(subscriber);
+        evictions.increment();
+        log.warn("Disconnected a slow booking slot stream of DefenceSession with ID {}", subscriber.defenceSessionId);
+        // Completing waits for a send in progress, which must not hold up the thread that published the change.
+        try {
+            sender.execute(subscriber.emitter::complete);
+        } catch (RejectedExecutionException e) {
+            log.debug("Sender is shut down, the stream is completed on shutdown");
+        }
+    }
+
+    private List<BookingSlotDTO> findSlots(long defenceSessionId) {
+        return bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId).stream()
+                .map(BookingSlotDTO::toBookingSlotDTO)
+                .toList();
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private record Message(String name, String data) {
+    }
+
+    private final class Subscriber {
+
+        private final long defenceSessionId;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Message> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(long defenceSessionId, SseEmitter emitter) {
+            this.defenceSessionId = defenceSessionId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Message message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(message)) {
+                evict(this);
+                return;
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::send);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void send() {
+            try {
+                Message message;
+                while (!closed.get() && (message = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(message.name())
+                            .data(message.data(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream has completed.
+                log.debug("Failed to send to a booking slot stream of DefenceSession with ID {}", defenceSessionId, e);
+                unsubscribe(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A message offered after the last poll, while this send still counted as draining, is sent now.
+            if (!closed.get() && !buffer.isEmpty()) {
+                drain();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,308 @@
+package com.courselink.api.service;
+
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.User;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.repository.BookingSlotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory inventory of the booking slots of the defence sessions that are being booked.
+ * The slots of a session are loaded from the database on first access, so the inventory recovers its state
+ * from the database after a restart, and a changed session is evicted as a whole and reloaded on next access.
+ * A slot is claimed with a single compare-and-set, and claims of an already booked slot are rejected without
+ * touching the database.
+ * Won claims are persisted asynchronously in batches (write-behind) and only acknowledged once the database
+ * accepted them: a claim made on a slot that was changed in the database meanwhile is rejected by the conditional
+ * update, and the session is reloaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingSlotInventory {
+
+    private static final long FREE = 0L;
+
+    private static final long BOOKED_BY_UNKNOWN_USER = -1L;
+
+    private final BookingSlotRepository bookingSlotRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.booking.inventory.batch-size}")
+    private int batchSize;
+    @Value("${application.booking.inventory.max-attempts}")
+    private int maxAttempts;
+
+    /**
+     * Slots of each loaded defence session by their ID. A session is only ever replaced or removed as a whole.
+     */
+    private final Map<Long, Map<Long, Slot>> defenceSessions = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> defenceSessionIdsByBookingSlotId = new ConcurrentHashMap<>();
+
+    private final BlockingDeque<PendingClaim> pendingClaims = new LinkedBlockingDeque<>();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("booking.inventory.pending-claims", pendingClaims, BlockingDeque::size)
+                .description("Claims decided in memory and not yet persisted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the slot with the given ID, or {@code null} if it doesn't exist.
+     */
+    public Slot find(long bookingSlotId) {
+        Long defenceSessionId = defenceSessionIdsByBookingSlotId.get(bookingSlotId);
+        if (defenceSessionId != null) {
+            Map<Long, Slot> slots = defenceSessions.get(defenceSessionId);
+            Slot slot = slots != null ? slots.get(bookingSlotId) : null;
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return bookingSlotRepository.findById(bookingSlotId)
+                .map(bookingSlot -> {
+                    long loadedDefenceSessionId = bookingSlot.getDefenceSession().getDefenceSessionId();
+                    Slot slot = load(loadedDefenceSessionId).get(bookingSlotId);
+                    if (slot != null) {
+                        // An eviction of the session's previous slots may have removed the entry after the load.
+                        defenceSessionIdsByBookingSlotId.put(bookingSlotId, loadedDefenceSessionId);
+                    }
+                    return slot;
+                })
+                .orElse(null);
+    }
+
+    /**
+     * @return the free slots of the defence session, earliest first.
+     */
+    public List<Slot> findFree(long defenceSessionId) {
+        return load(defenceSessionId).values().stream()
+                .filter(slot -> !slot.isBooked())
+                .sorted(Comparator.comparing(Slot::getStartTime).thenComparingLong(Slot::getBookingSlotId))
+                .toList();
+    }
+
+    /**
+     * Claims the slot for the user and schedules the claim to be persisted.
+     *
+     * @return {@code null} if the slot was already booked, otherwise a future that completes with {@code true}
+     * once the claim was persisted, or with {@code false} if the database rejected it because the slot was booked
+     * or deleted meanwhile; completed exceptionally if persisting the claim failed on every attempt.
+     */
+    public CompletableFuture<Boolean> claim(Slot slot, long userId) {
+        if (!slot.bookedBy.compareAndSet(FREE, userId)) {
+            return null;
+        }
+        PendingClaim pendingClaim = new PendingClaim(slot.toBookingSlot(), new CompletableFuture<>(), 0);
+        pendingClaims.add(pendingClaim);
+        return pendingClaim.result();
+    }
+
+    /**
+     * Persists the pending claims and completes them. Once a call returns, every claim made before it was
+     * persisted, rejected, failed or put back for a retry, even if a scheduled flush drained it.
+     * The claims are completed after the lock is released, so their callbacks can't hold up other flushes.
+     */
+    @Scheduled(fixedDelayString = "${application.booking.inventory.flush-interval}")
+    public void flush() {
+        List<Runnable> completions = new ArrayList<>();
+        persistPendingClaims(completions);
+        completions.forEach(Runnable::run);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        PendingClaim pendingClaim;
+        while ((pendingClaim = pendingClaims.poll()) != null) {
+            pendingClaim.result().completeExceptionally(
+                    new IllegalStateException("Booking slot inventory was shut down before the claim was persisted"));
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingSlotsChanged(BookingSlotsChangedEvent event) {
+        // The session is reloaded from the database, so its claims must be there first; the other listeners
+        // of the event read the slots from the database as well, hence this one runs first.
+        flush();
+        evict(event.getDefenceSessionId());
+    }
+
+    /**
+     * If a batch fails, its claims are written one by one, so a single failing claim doesn't fail the others.
+     * A claim that fails on its own is put back at the end of the queue for the next flush, so it doesn't hold up
+     * the claims queued behind it, and fails once it used up its attempts.
+     */
+    private synchronized void persistPendingClaims(List<Runnable> completions) {
+        List<PendingClaim> retries = new ArrayList<>();
+        List<PendingClaim> batch = new ArrayList<>(batchSize);
+        while (pendingClaims.drainTo(batch, batchSize) > 0) {
+            try {
+                persist(batch, completions);
+                log.debug("Persisted {} booking slot claims", batch.size());
+            } catch (DataAccessException e) {
+                if (batch.size() == 1) {
+                    retryOrFail(batch.get(0), e, completions, retries);
+                } else {
+                    log.warn("Failed to persist {} booking slot claims, retrying them one by one", batch.size(), e);
+                    for (PendingClaim pendingClaim : batch) {
+                        try {
+                            persist(List.of(pendingClaim), completions);
+                        } catch (DataAccessException claimException) {
+                            retryOrFail(pendingClaim, claimException, completions, retries);
+                        }
+                    }
+                }
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+        pendingClaims.addAll(retries);
+    }
+
+    private void retryOrFail(PendingClaim pendingClaim, DataAccessException e, List<Runnable> completions, List<PendingClaim> retries) {
+        BookingSlot bookingSlot = pendingClaim.bookingSlot();
+        int attempts = pendingClaim.attempts() + 1;
+        if (attempts < maxAttempts) {
+            log.warn("Failed to persist claim of booking slot with ID {} by User with ID {}, retrying on the next flush",
+                    bookingSlot.getBookingSlotId(), bookingSlot.getUser().getUserId(), e);
+            retries.add(new PendingClaim(bookingSlot, pendingClaim.result(), attempts));
+            return;
+        }
+        log.error("Failed to persist claim of booking slot with ID {} by User with ID {} after {} attempts",
+                bookingSlot.getBookingSlotId(), bookingSlot.getUser().getUserId(), attempts, e);
+        // The claim only exists in memory, so the session is reloaded with the slot as the database has it.
+        evict(bookingSlot.getDefenceSession().getDefenceSessionId());
+        completions.add(() -> pendingClaim.result().completeExceptionally(e));
+    }
+
+    private void persist(List<PendingClaim> batch, List<Runnable> completions) {
+        int[] updatedRows = bookingSlotRepository.batchClaim(batch.stream().map(PendingClaim::bookingSlot).toList());
+        for (int i = 0; i < updatedRows.length; i++) {
+            BookingSlot bookingSlot = batch.get(i).bookingSlot();
+            if (updatedRows[i] == 0) {
+                log.warn("Booking slot with ID {} claimed by User with ID {} was deleted or booked by someone else before it was persisted",
+                        bookingSlot.getBookingSlotId(), bookingSlot.getUser().getUserId());
+                evict(bookingSlot.getDefenceSession().getDefenceSessionId());
+            }
+            CompletableFuture<Boolean> result = batch.get(i).result();
+            boolean isPersisted = updatedRows[i] != 0;
+            completions.add(() -> result.complete(isPersisted));
+        }
+    }
+
+    private Map<Long, Slot> load(long defenceSessionId) {
+        return defenceSessions.computeIfAbsent(defenceSessionId, id -> {
+            List<BookingSlot> bookingSlots = bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(id);
+            Map<Long, Slot> slots = new HashMap<>();
+            for (BookingSlot bookingSlot : bookingSlots) {
+                slots.put(bookingSlot.getBookingSlotId(), Slot.of(bookingSlot));
+                defenceSessionIdsByBookingSlotId.put(bookingSlot.getBookingSlotId(), id);
+            }
+            log.info("Loaded {} booking slots of DefenceSession with ID {} into the inventory", bookingSlots.size(), id);
+            return Collections.unmodifiableMap(slots);
+        });
+    }
+
+    /**
+     * Removes the session in one step, so a concurrent {@link #find} either still gets the old slots, whose claims
+     * are checked by the database, or loads the session anew.
+     */
+    private void evict(long defenceSessionId) {
+        Map<Long, Slot> slots = defenceSessions.remove(defenceSessionId);
+        if (slots != null) {
+            log.info("Evicting booking slots of DefenceSession with ID {} from the inventory", defenceSessionId);
+            slots.keySet().forEach(bookingSlotId -> defenceSessionIdsByBookingSlotId.remove(bookingSlotId, defenceSessionId));
+        }
+    }
+
+    private record PendingClaim(BookingSlot bookingSlot, CompletableFuture<Boolean> result, int attempts) {
+    }
+
+    @Getter
+    public static final class Slot {
+
+        private final long bookingSlotId;
+
+        private final LocalTime startTime;
+
+        private final LocalTime endTime;
+
+        private final long defenceSessionId;
+
+        @Getter(AccessLevel.NONE)
+        private final AtomicLong bookedBy;
+
+        private Slot(long bookingSlotId, LocalTime startTime, LocalTime endTime, long defenceSessionId, long bookedBy) {
+            this.bookingSlotId = bookingSlotId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.defenceSessionId = defenceSessionId;
+            this.bookedBy = new AtomicLong(bookedBy);
+        }
+
+        static Slot of(BookingSlot bookingSlot) {
+            return new Slot(
+                    bookingSlot.getBookingSlotId(),
+                    bookingSlot.getStartTime(),
+                    bookingSlot.getEndTime(),
+                    bookingSlot.getDefenceSession().getDefenceSessionId(),
+                    !bookingSlot.isBooked() ? FREE
+                            : bookingSlot.getUser() != null ? bookingSlot.getUser().getUserId() : BOOKED_BY_UNKNOWN_USER
+            );
+        }
+
+        public boolean isBooked() {
+            return bookedBy.get() != FREE;
+        }
+
+        /**
+         * @return a detached copy of the slot; its user and defence session only carry their IDs.
+         */
+        public BookingSlot toBookingSlot() {
+            long userId = bookedBy.get();
+            return BookingSlot.builder()
+                    .bookingSlotId(bookingSlotId)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .isBooked(userId != FREE)
+                    .user(userId != FREE && userId != BOOKED_BY_UNKNOWN_USER ? User.builder().userId(userId).build() : null)
+                    .defenceSession(DefenceSession.builder().defenceSessionId(defenceSessionId).build())
+                    .build();
+        }
+
+    }
+
+}
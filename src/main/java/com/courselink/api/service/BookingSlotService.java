@@ -1,44 +1,79 @@
 package com.courselink.api.service;
 
+import com.courselink.api.dto.BookingSlotChangesDTO;
 import com.courselink.api.dto.BookingSlotDTO;
 import com.courselink.api.entity.BookingSlot;
-import com.courselink.api.entity.DefenceSession;
 import com.courselink.api.entity.Role;
-import com.courselink.api.entity.User;
+import com.courselink.api.event.BookingSlotBookedEvent;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.exception.BookingSlotChangesExpiredException;
 import com.courselink.api.exception.BookingSlotNotFoundException;
 import com.courselink.api.exception.DefenceSessionException;
 import com.courselink.api.exception.DefenceSessionNotFoundException;
 import com.courselink.api.exception.UserNotFoundException;
+import com.courselink.api.repository.BookingPreferenceWindowRepository;
 import com.courselink.api.repository.BookingSlotRepository;
 import com.courselink.api.repository.DefenceSessionRepository;
 import com.courselink.api.repository.UserRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
-import java.time.LocalTime;
+import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingSlotService {
 
+    private static final Set<Role> STUDENT_ROLES = EnumSet.of(Role.STUDENT, Role.ADMIN_STUDENT);
+
     private final BookingSlotRepository bookingSlotRepository;
 
     private final UserRepository userRepository;
 
     private final DefenceSessionRepository defenceSessionRepository;
 
+    private final BookingPreferenceWindowRepository bookingPreferenceWindowRepository;
+
     private final MessageSource messageSource;
 
+    private final BookingSlotInventory bookingSlotInventory;
+
+    private final BookingSlotWriteQueue bookingSlotWriteQueue;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${application.booking.mode}")
+    private BookingMode bookingMode;
+
+    @Value("${application.booking.changes.page-size}")
+    private int changesPageSize;
+
+    @Value("${application.booking.changes.max-page-size}")
+    private int changesMaxPageSize;
+
+    @Value("${application.booking.changes.deletion-retention}")
+    private long deletionRetention;
+
+    /**
+     * Generates the slots in a single insert that is computed by the database and skipped if the session
+     * already has slots. The reason of a failed generation is only looked up afterwards.
+     */
     public List<BookingSlotDTO> generateBookingSlots(long defenceSessionId, int bookingSlotsCount) {
         log.info("Generating booking slots for DefenceSession with ID: {}", defenceSessionId);
 
@@ -47,20 +82,13 @@ public class BookingSlotService {
             throw new IllegalArgumentException(errorMsg);
         }
 
-        DefenceSession defenceSession = defenceSessionRepository.findById(defenceSessionId).orElseThrow(() -> {
-           log.warn("Defence session with ID {} not found", defenceSessionId);
-           String errorMsg = messageSource.getMessage("message.defence.session.not.found.with.id", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
-           throw new DefenceSessionNotFoundException(errorMsg);
-        });
+        List<BookingSlot> bookingSlots = bookingSlotRepository.generate(defenceSessionId, bookingSlotsCount);
 
-        if (bookingSlotRepository.existsByDefenceSession_DefenceSessionId(defenceSessionId)) {
-            log.warn("Booking slots for DefenceSession with ID {} already exist!", defenceSessionId);
-            String errorMsg = messageSource.getMessage("message.booking.slots.already.exist.with.defence.session.id", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
-            throw new DefenceSessionException(errorMsg);
+        if (bookingSlots.isEmpty()) {
+            throw generateFailure(defenceSessionId, LocaleContextHolder.getLocale());
         }
 
-        List<BookingSlot> bookingSlots = createBookingSlots(defenceSession, bookingSlotsCount);
-        bookingSlotRepository.saveAll(bookingSlots);
+        applicationEventPublisher.publishEvent(new BookingSlotsChangedEvent(defenceSessionId));
 
         log.info("Generated {} booking slots.", bookingSlots.size());
         return bookingSlots.stream()
@@ -69,39 +97,82 @@ public class BookingSlotService {
     }
 
 
-    @Transactional
+    /**
+     * Books the slot for the student with one conditional update, so that of several concurrent requests
+     * for the same free slot exactly one succeeds. The reason of a failed claim is only looked up afterwards.
+     */
     public BookingSlotDTO chooseBookingSlot(long userId, long bookingSlotId) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.warn("User with ID {} not found", userId);
-                    String errorMsg = messageSource.getMessage("message.user.not.found.with.id", new Object[]{userId}, LocaleContextHolder.getLocale());
-                    return new UserNotFoundException(errorMsg);
-                });
+        if (bookingMode == BookingMode.INVENTORY) {
+            return join(chooseFromInventory(userId, bookingSlotId));
+        }
+
+        Optional<BookingSlot> claimedBookingSlot = bookingSlotRepository.claim(bookingSlotId, userId, STUDENT_ROLES);
+
+        if (claimedBookingSlot.isEmpty()) {
+            throw claimFailure(userId, bookingSlotId, LocaleContextHolder.getLocale());
+        }
 
-        BookingSlot bookingSlot = bookingSlotRepository.findById(bookingSlotId)
-                .orElseThrow(() -> {
-                    log.warn("Booking slot with ID {} not found", bookingSlotId);
-                    String errorMsg = messageSource.getMessage("message.booking.slot.not.found.with.id", new Object[]{bookingSlotId}, LocaleContextHolder.getLocale());
-                    return new BookingSlotNotFoundException(errorMsg);
+        log.info("User with ID {} successfully booked on booking slot with ID {}", userId, bookingSlotId);
+
+        return booked(claimedBookingSlot.get());
+    }
+
+    /**
+     * Books the slot like {@link #chooseBookingSlot}. In {@link BookingMode#QUEUE} mode the claim is handed to
+     * the single writer of the slot's defence session and the returned future completes once its batch has committed;
+     * in {@link BookingMode#INVENTORY} mode it completes once the claim won in memory has been persisted;
+     * in the other modes the claim is made on the calling thread.
+     */
+    public CompletableFuture<BookingSlotDTO> chooseBookingSlotAsync(long userId, long bookingSlotId) {
+
+        if (bookingMode == BookingMode.INVENTORY) {
+            return chooseFromInventory(userId, bookingSlotId);
+        }
+
+        if (bookingMode != BookingMode.QUEUE) {
+            return CompletableFuture.completedFuture(chooseBookingSlot(userId, bookingSlotId));
+        }
+
+        Locale locale = LocaleContextHolder.getLocale();
+
+        return bookingSlotWriteQueue.submit(bookingSlotId, userId, STUDENT_ROLES)
+                .thenApply(claimedBookingSlot -> {
+                    if (claimedBookingSlot.isEmpty()) {
+                        throw claimFailure(userId, bookingSlotId, locale);
+                    }
+                    log.info("User with ID {} successfully booked on booking slot with ID {}", userId, bookingSlotId);
+                    return booked(claimedBookingSlot.get());
                 });
+    }
 
-        if(user.getRole() != Role.STUDENT && user.getRole() != Role.ADMIN_STUDENT) {
-            log.warn("User with ID {} is not a student", userId);
-            String errorMsg = messageSource.getMessage("message.user.not.student", new Object[]{userId}, LocaleContextHolder.getLocale());
-            throw new BadCredentialsException(errorMsg);
+    /**
+     * Returns the student's slot to the free pool with one conditional update and publishes the change, so that
+     * the inventory evicts the session and waiting students are promoted. Releasing a slot the student doesn't hold,
+     * e.g. when a release is retried, changes nothing and returns the slot as it is.
+     */
+    public BookingSlotDTO releaseBookingSlot(long userId, long bookingSlotId) {
+
+        if (bookingMode == BookingMode.INVENTORY) {
+            // A claim decided in memory has to be persisted before it can be released.
+            bookingSlotInventory.flush();
         }
 
-        if(bookingSlot.isBooked()) {
-            log.warn("Booking slot with ID {} is already booked", bookingSlotId);
-            String errorMsg = messageSource.getMessage("message.booking.slot.already.booked", new Object[]{bookingSlotId}, LocaleContextHolder.getLocale());
-            throw new BadCredentialsException(errorMsg);
+        Optional<BookingSlot> releasedBookingSlot = bookingSlotRepository.release(bookingSlotId, userId);
+
+        if (releasedBookingSlot.isPresent()) {
+            log.info("User with ID {} released booking slot with ID {}", userId, bookingSlotId);
+            applicationEventPublisher.publishEvent(new BookingSlotsChangedEvent(releasedBookingSlot.get().getDefenceSession().getDefenceSessionId()));
+            return BookingSlotDTO.toBookingSlotDTO(releasedBookingSlot.get());
         }
 
-        bookingSlot.setUser(user);
-        bookingSlot.setBooked(true);
+        BookingSlot bookingSlot = bookingSlotRepository.findById(bookingSlotId).orElseThrow(() -> {
+            log.warn("Booking slot with ID {} not found", bookingSlotId);
+            String errorMsg = messageSource.getMessage("message.booking.slot.not.found.with.id", new Object[]{bookingSlotId}, LocaleContextHolder.getLocale());
+            return new BookingSlotNotFoundException(errorMsg);
+        });
 
-        log.info("User with ID {} successfully booked on booking slot with ID {}", userId, bookingSlot);
+        log.info("Booking slot with ID {} is not booked by User with ID {}, nothing to release", bookingSlotId, userId);
 
         return BookingSlotDTO.toBookingSlotDTO(bookingSlot);
     }
@@ -117,6 +188,7 @@ public class BookingSlotService {
         }
 
         bookingSlotRepository.deleteByDefenceSession_DefenceSessionId(defenceSessionId);
+        applicationEventPublisher.publishEvent(new BookingSlotsChangedEvent(defenceSessionId));
         log.info("Removed booking slot with defence session ID: {}", defenceSessionId);
 
     }
@@ -139,31 +211,168 @@ public class BookingSlotService {
                 .collect(Collectors.toList());
     }
 
-    private List<BookingSlot> createBookingSlots(DefenceSession defenceSession, int bookingSlotsCount) {
-        LocalTime startTime = defenceSession.getStartTime();
-        LocalTime endTime = defenceSession.getEndTime();
+    /**
+     * Returns the booking slots changed and deleted since the given version, for clients that mirror the schedule.
+     * A client starts with version 0 and passes the returned version on its next call, right away while more
+     * changes follow. A change may be returned twice, so clients should apply the slots as upserts.
+     *
+     * @param limit The number of changes per page, the configured page size if {@code null}; capped at the maximum.
+     * @throws BookingSlotChangesExpiredException If deletions since the version were pruned; the client has to
+     * start over with version 0.
+     */
+    public BookingSlotChangesDTO getChangesSince(long since, Integer limit) {
+        log.info("Fetching Booking slot changes since version {}", since);
+
+        if (limit != null && limit <= 0) {
+            String errorMsg = messageSource.getMessage("message.illegal.booking.slot.changes.limit", null, LocaleContextHolder.getLocale());
+            throw new IllegalArgumentException(errorMsg);
+        }
 
-        log.info("Start time: {}, End time: {}", startTime, endTime);
+        BookingSlotChangesDTO changes = bookingSlotRepository.findChangesSince(since, Math.min(limit != null ? limit : changesPageSize, changesMaxPageSize));
 
-        Duration sessionDuration = Duration.between(startTime, endTime);
-        long slotDurationInNanos = sessionDuration.toNanos() / bookingSlotsCount;
+        if (since != 0L && since < changes.getMinVersion()) {
+            log.warn("Booking slot changes since version {} expired, the lowest version served is {}", since, changes.getMinVersion());
+            String errorMsg = messageSource.getMessage("message.booking.slot.changes.expired", new Object[]{since, changes.getMinVersion()}, LocaleContextHolder.getLocale());
+            throw new BookingSlotChangesExpiredException(errorMsg);
+        }
 
-        log.info("Slot duration: {} minutes", Duration.ofNanos(slotDurationInNanos).toMinutes());
+        log.info("Found {} changed and {} deleted booking slots since version {}",
+                changes.getBookingSlots().size(), changes.getDeletedBookingSlotIds().size(), since);
 
-        return IntStream.range(0, bookingSlotsCount)
-                .mapToObj(i -> {
-                    LocalTime slotStartTime = startTime.plusNanos(slotDurationInNanos * i);
-                    LocalTime slotEndTime = slotStartTime.plusNanos(slotDurationInNanos);
+        return changes;
+    }
 
-                    BookingSlot bookingSlot = new BookingSlot();
-                    bookingSlot.setStartTime(slotStartTime);
-                    bookingSlot.setEndTime(slotEndTime);
-                    bookingSlot.setBooked(false);
-                    bookingSlot.setDefenceSession(defenceSession);
+    /**
+     * Prunes the tombstones of deleted slots once they are older than the retention. Clients that haven't synced
+     * since are told to start over.
+     */
+    @Scheduled(fixedDelayString = "${application.booking.changes.prune-interval}")
+    public void pruneBookingSlotDeletions() {
+        int pruned = bookingSlotRepository.pruneDeletions(Instant.now().minusMillis(deletionRetention));
+        if (pruned > 0) {
+            log.info("Pruned {} tombstones of deleted booking slots", pruned);
+        }
+    }
 
-                    return bookingSlot;
-                })
-                .collect(Collectors.toList());
+    /**
+     * Claims the slot in the in-memory inventory. A request for an already booked slot is rejected before
+     * the user is looked up, so the losers of a booking rush never reach the database. The winner is only
+     * answered once its claim has been persisted, and gets the reason of the failure if the database rejected it.
+     */
+    private CompletableFuture<BookingSlotDTO> chooseFromInventory(long userId, long bookingSlotId) {
+
+        Locale locale = LocaleContextHolder.getLocale();
+
+        BookingSlotInventory.Slot slot = bookingSlotInventory.find(bookingSlotId);
+
+        if (slot == null) {
+            log.warn("Booking slot with ID {} not found", bookingSlotId);
+            String errorMsg = messageSource.getMessage("message.booking.slot.not.found.with.id", new Object[]{bookingSlotId}, locale);
+            throw new BookingSlotNotFoundException(errorMsg);
+        }
+
+        if (slot.isBooked()) {
+            throw alreadyBooked(bookingSlotId, locale);
+        }
+
+        Role role = userRepository.findRoleByUserId(userId)
+                .orElseThrow(() -> userNotFound(userId, locale));
+
+        if (!STUDENT_ROLES.contains(role)) {
+            throw notStudent(userId, locale);
+        }
+
+        if (bookingPreferenceWindowRepository.existsUnallocatedByBookingSlotId(bookingSlotId)) {
+            throw allocatedByPreferences(bookingSlotId, locale);
+        }
+
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(slot, userId);
+
+        if (claim == null) {
+            throw alreadyBooked(bookingSlotId, locale);
+        }
+
+        return claim.thenApply(isPersisted -> {
+            if (!isPersisted) {
+                throw claimFailure(userId, bookingSlotId, locale);
+            }
+            log.info("User with ID {} successfully booked on booking slot with ID {}", userId, bookingSlotId);
+            return booked(slot.toBookingSlot());
+        });
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private BookingSlotDTO booked(BookingSlot bookingSlot) {
+        BookingSlotDTO bookingSlotDTO = BookingSlotDTO.toBookingSlotDTO(bookingSlot);
+        applicationEventPublisher.publishEvent(new BookingSlotBookedEvent(bookingSlotDTO));
+        return bookingSlotDTO;
+    }
+
+    private RuntimeException generateFailure(long defenceSessionId, Locale locale) {
+        if (!defenceSessionRepository.existsById(defenceSessionId)) {
+            log.warn("Defence session with ID {} not found", defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.defence.session.not.found.with.id", new Object[]{defenceSessionId}, locale);
+            return new DefenceSessionNotFoundException(errorMsg);
+        }
+
+        log.warn("Booking slots for DefenceSession with ID {} already exist!", defenceSessionId);
+        String errorMsg = messageSource.getMessage("message.booking.slots.already.exist.with.defence.session.id", new Object[]{defenceSessionId}, locale);
+        return new DefenceSessionException(errorMsg);
+    }
+
+    private RuntimeException claimFailure(long userId, long bookingSlotId, Locale locale) {
+        Role role = userRepository.findRoleByUserId(userId)
+                .orElseThrow(() -> userNotFound(userId, locale));
+
+        if (!bookingSlotRepository.existsById(bookingSlotId)) {
+            log.warn("Booking slot with ID {} not found", bookingSlotId);
+            String errorMsg = messageSource.getMessage("message.booking.slot.not.found.with.id", new Object[]{bookingSlotId}, locale);
+            return new BookingSlotNotFoundException(errorMsg);
+        }
+
+        if (!STUDENT_ROLES.contains(role)) {
+            return notStudent(userId, locale);
+        }
+
+        if (bookingPreferenceWindowRepository.existsUnallocatedByBookingSlotId(bookingSlotId)) {
+            return allocatedByPreferences(bookingSlotId, locale);
+        }
+
+        return alreadyBooked(bookingSlotId, locale);
+    }
+
+    private UserNotFoundException userNotFound(long userId, Locale locale) {
+        log.warn("User with ID {} not found", userId);
+        String errorMsg = messageSource.getMessage("message.user.not.found.with.id", new Object[]{userId}, locale);
+        return new UserNotFoundException(errorMsg);
+    }
+
+    private BadCredentialsException notStudent(long userId, Locale locale) {
+        log.warn("User with ID {} is not a student", userId);
+        String errorMsg = messageSource.getMessage("message.user.not.student", new Object[]{userId}, locale);
+        return new BadCredentialsException(errorMsg);
+    }
+
+    private BadCredentialsException alreadyBooked(long bookingSlotId, Locale locale) {
+        log.warn("Booking slot with ID {} is already booked", bookingSlotId);
+        String errorMsg = messageSource.getMessage("message.booking.slot.already.booked", new Object[]{bookingSlotId}, locale);
+        return new BadCredentialsException(errorMsg);
+    }
+
+    private BadCredentialsException allocatedByPreferences(long bookingSlotId, Locale locale) {
+        log.warn("Booking slot with ID {} is allocated by preferences", bookingSlotId);
+        String errorMsg = messageSource.getMessage("message.booking.slot.preference.window.open", new Object[]{bookingSlotId}, locale);
+        return new BadCredentialsException(errorMsg);
     }
 
 }
@@ -0,0 +1,196 @@
+package com.courselink.api.service;
+
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.Role;
+import com.courselink.api.repository.BookingSlotRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Routes booking slot claims to one single-writer queue per defence session.
+ * The writer of a session drains everything that queued up while its previous batch was being committed and
+ * applies the whole batch as conditional updates in one transaction (group commit), so concurrent claims for
+ * the same session never wait on each other's row locks and cost one commit per batch instead of one each.
+ * The futures of a batch are completed only after the transaction has committed. If a batch fails, its claims
+ * are retried one by one, so a single failing claim doesn't fail the others. The writer of a session is removed
+ * once its queue has drained.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingSlotWriteQueue {
+
+    private final BookingSlotRepository bookingSlotRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Completes the futures, so that whatever the caller chains on them doesn't run on, and hold up, a writer.
+     */
+    private final Executor applicationTaskExecutor;
+
+    @Value("${application.booking.queue.batch-size}")
+    private int batchSize;
+    @Value("${application.booking.queue.writer-threads}")
+    private int writerThreads;
+    @Value("${application.booking.queue.slot-cache.maximum-size}")
+    private long slotCacheMaximumSize;
+
+    private final Map<Long, SessionWriter> writers = new ConcurrentHashMap<>();
+
+    private Cache<Long, Long> defenceSessionIdsBySlotId;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        int threads = writerThreads > 0 ? writerThreads : Runtime.getRuntime().availableProcessors();
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("booking-writer-")
+        ), "booking.writer");
+        defenceSessionIdsBySlotId = Caffeine.newBuilder()
+                .maximumSize(slotCacheMaximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, defenceSessionIdsBySlotId, "booking.slot-sessions");
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a claim of the slot for the user.
+     *
+     * @return a future completed with the claimed slot, or with an empty optional if the slot doesn't exist,
+     * is already booked or the user has none of the allowed roles; completed exceptionally if the batch failed.
+     */
+    public CompletableFuture<Optional<BookingSlot>> submit(long bookingSlotId, long userId, Set<Role> allowedRoles) {
+        Long defenceSessionId = defenceSessionIdsBySlotId.get(bookingSlotId, id -> bookingSlotRepository.findById(id)
+                .map(bookingSlot -> bookingSlot.getDefenceSession().getDefenceSessionId())
+                .orElse(null));
+        if (defenceSessionId == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        Claim claim = new Claim(bookingSlotId, userId, allowedRoles, new CompletableFuture<>());
+        // Queued under the lock of the session's entry, so a drained writer can't be removed with the claim in it.
+        SessionWriter writer = writers.compute(defenceSessionId, (id, sessionWriter) -> {
+            SessionWriter queuingWriter = sessionWriter != null ? sessionWriter : new SessionWriter(id);
+            queuingWriter.claims.add(claim);
+            return queuingWriter;
+        });
+        writer.schedule();
+        return claim.result();
+    }
+
+    private record Claim(long bookingSlotId, long userId, Set<Role> allowedRoles,
+                         CompletableFuture<Optional<BookingSlot>> result) {
+    }
+
+    private final class SessionWriter {
+
+        private final long defenceSessionId;
+
+        private final Queue<Claim> claims = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private SessionWriter(long defenceSessionId) {
+            this.defenceSessionId = defenceSessionId;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                List<Claim> batch;
+                while (!(batch = nextBatch()).isEmpty()) {
+                    write(batch);
+                }
+            } finally {
+                scheduled.set(false);
+                writers.computeIfPresent(defenceSessionId, (id, writer) -> writer == this && claims.isEmpty() ? null : writer);
+                if (!claims.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private List<Claim> nextBatch() {
+            List<Claim> batch = new ArrayList<>(batchSize);
+            Claim claim;
+            while (batch.size() < batchSize && (claim = claims.poll()) != null) {
+                batch.add(claim);
+            }
+            return batch;
+        }
+
+        private void write(List<Claim> batch) {
+            List<Optional<BookingSlot>> results;
+            try {
+                results = transactionTemplate.execute(status -> batch.stream()
+                        .map(claim -> bookingSlotRepository.claim(claim.bookingSlotId(), claim.userId(), claim.allowedRoles()))
+                        .toList());
+            } catch (RuntimeException e) {
+                if (batch.size() > 1) {
+                    log.warn("Failed to commit {} booking slot claims of DefenceSession with ID {}, retrying them one by one",
+                            batch.size(), defenceSessionId, e);
+                    batch.forEach(claim -> write(List.of(claim)));
+                    return;
+                }
+                log.error("Failed to commit booking slot claim of DefenceSession with ID {}", defenceSessionId, e);
+                applicationTaskExecutor.execute(() -> batch.get(0).result().completeExceptionally(e));
+                return;
+            }
+            log.debug("Committed {} booking slot claims of DefenceSession with ID {}", batch.size(), defenceSessionId);
+            for (int i = 0; i < batch.size(); i++) {
+                Optional<BookingSlot> result = results.get(i);
+                batch.get(i).result().completeAsync(() -> result, applicationTaskExecutor);
+            }
+        }
+
+    }
+
+}
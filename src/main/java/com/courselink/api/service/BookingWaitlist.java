@@ -0,0 +1,242 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.BookingWaitlistEntry;
+import com.courselink.api.event.BookingSlotBookedEvent;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.repository.BookingPreferenceWindowRepository;
+import com.courselink.api.repository.BookingWaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FIFO waitlists of the defence sessions. The waitlists are persisted and mirrored in memory, so the position
+ * of a waiting student and the requests waiting for their promotion are known without a query.
+ * Whenever the booking slots of a session change, the students at the head of its waitlist are promoted
+ * to its free slots and the requests waiting for them are completed. A promotion books the slot through the
+ * active {@link BookingMode}: in {@link BookingMode#INVENTORY} mode it is claimed in the inventory, otherwise
+ * the student is dequeued and booked with one atomic statement. Every promotion is published as a
+ * {@link BookingSlotBookedEvent}, so it doesn't trigger another promotion.
+ * The mirror of a session is loaded from the database on first access and only reflects the changes made
+ * through this instance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingWaitlist {
+
+    private final BookingWaitlistRepository bookingWaitlistRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
+    private final BookingSlotInventory bookingSlotInventory;
+
+    private final BookingPreferenceWindowRepository bookingPreferenceWindowRepository;
+
+    @Value("${application.booking.mode}")
+    private BookingMode bookingMode;
+
+    private final Map<Long, Waitlist> waitlists = new ConcurrentHashMap<>();
+
+    private Counter promotions;
+
+    @PostConstruct
+    void init() {
+        promotions = Counter.builder("booking.waitlist.promotions")
+                .description("Students promoted from a waitlist to a free booking slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appends the user to the waitlist of the defence session; joining again keeps the original position.
+     *
+     * @return the 1-based position of the user on the waitlist.
+     */
+    public int join(long defenceSessionId, long userId) {
+        bookingWaitlistRepository.enqueue(defenceSessionId, userId);
+        return waitlist(defenceSessionId).add(userId);
+    }
+
+    /**
+     * @return {@code true} if the user was waiting.
+     */
+    public boolean leave(long defenceSessionId, long userId) {
+        boolean removed = bookingWaitlistRepository.deleteByDefenceSessionIdAndUserId(defenceSessionId, userId) > 0;
+        waitlist(defenceSessionId).remove(userId);
+        return removed;
+    }
+
+    /**
+     * @return the 1-based position of the user on the waitlist, or 0 if they aren't waiting.
+     */
+    public int positionOf(long defenceSessionId, long userId) {
+        return waitlist(defenceSessionId).positionOf(userId);
+    }
+
+    /**
+     * @return a future completed with the slot the user is promoted to; it is only completed by promotions
+     * made through this instance.
+     */
+    public CompletableFuture<BookingSlot> awaitPromotion(long defenceSessionId, long userId) {
+        return waitlist(defenceSessionId).awaitPromotion(userId);
+    }
+
+    /**
+     * Promotes waiting students to the free slots of the defence session until either runs out.
+     *
+     * @return the slots the students were promoted to.
+     */
+    public List<BookingSlot> promote(long defenceSessionId) {
+        Waitlist waitlist = waitlist(defenceSessionId);
+        List<BookingSlot> promotedBookingSlots = new ArrayList<>();
+        synchronized (waitlist.promotionLock) {
+            if (bookingMode == BookingMode.INVENTORY) {
+                // Claims of students who booked on their own have to be in the database before they are dropped.
+                bookingSlotInventory.flush();
+            }
+            for (Long userId : bookingWaitlistRepository.removeBooked(defenceSessionId)) {
+                waitlist.remove(userId);
+            }
+
+            Optional<BookingSlot> promotedBookingSlot;
+            while ((promotedBookingSlot = promoteNext(defenceSessionId)).isPresent()) {
+                BookingSlot bookingSlot = promotedBookingSlot.get();
+                log.info("Promoted User with ID {} from the waitlist to booking slot with ID {}",
+                        bookingSlot.getUser().getUserId(), bookingSlot.getBookingSlotId());
+                waitlist.promote(bookingSlot);
+                promotions.increment();
+                promotedBookingSlots.add(bookingSlot);
+            }
+        }
+
+        for (BookingSlot bookingSlot : promotedBookingSlots) {
+            applicationEventPublisher.publishEvent(new BookingSlotBookedEvent(BookingSlotDTO.toBookingSlotDTO(bookingSlot)));
+        }
+        return promotedBookingSlots;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingSlotsChanged(BookingSlotsChangedEvent event) {
+        promote(event.getDefenceSessionId());
+    }
+
+    private Optional<BookingSlot> promoteNext(long defenceSessionId) {
+        if (bookingMode != BookingMode.INVENTORY) {
+            return bookingWaitlistRepository.promoteNext(defenceSessionId);
+        }
+        List<BookingWaitlistEntry> bookingWaitlistEntries = bookingWaitlistRepository.findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(defenceSessionId);
+        if (bookingWaitlistEntries.isEmpty()) {
+            return Optional.empty();
+        }
+        long userId = bookingWaitlistEntries.get(0).getUserId();
+        Optional<BookingSlot> claimedBookingSlot = claimFirstFreeSlot(defenceSessionId, userId);
+        claimedBookingSlot.ifPresent(bookingSlot -> bookingWaitlistRepository.deleteByDefenceSessionIdAndUserId(defenceSessionId, userId));
+        return claimedBookingSlot;
+    }
+
+    /**
+     * Claims the earliest free slot of the session in the inventory and persists the claim right away.
+     * Like the atomic promotion, nobody is promoted while booking preferences of the session are being collected.
+     */
+    private Optional<BookingSlot> claimFirstFreeSlot(long defenceSessionId, long userId) {
+        for (BookingSlotInventory.Slot slot : bookingSlotInventory.findFree(defenceSessionId)) {
+            if (bookingPreferenceWindowRepository.existsUnallocatedByBookingSlotId(slot.getBookingSlotId())) {
+                return Optional.empty();
+            }
+            CompletableFuture<Boolean> claim = bookingSlotInventory.claim(slot, userId);
+            if (claim == null) {
+                continue;
+            }
+            bookingSlotInventory.flush();
+            if (claim.join()) {
+                return Optional.of(slot.toBookingSlot());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Waitlist waitlist(long defenceSessionId) {
+        return waitlists.computeIfAbsent(defenceSessionId, id -> {
+            Waitlist waitlist = new Waitlist();
+            for (BookingWaitlistEntry bookingWaitlistEntry : bookingWaitlistRepository.findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(id)) {
+                waitlist.add(bookingWaitlistEntry.getUserId());
+            }
+            return waitlist;
+        });
+    }
+
+    private static final class Waitlist {
+
+        /**
+         * Serializes the promotions of the session on this instance without blocking the queries of the waitlist.
+         */
+        private final Object promotionLock = new Object();
+
+        private final LinkedHashSet<Long> userIds = new LinkedHashSet<>();
+
+        private final Map<Long, List<CompletableFuture<BookingSlot>>> pendingPromotions = new HashMap<>();
+
+        synchronized int add(long userId) {
+            userIds.add(userId);
+            return positionOf(userId);
+        }
+
+        synchronized void remove(long userId) {
+            userIds.remove(userId);
+            pendingPromotions.remove(userId);
+        }
+
+        synchronized int positionOf(long userId) {
+            int position = 1;
+            for (Long waitingUserId : userIds) {
+                if (waitingUserId == userId) {
+                    return position;
+                }
+                position++;
+            }
+            return 0;
+        }
+
+        synchronized CompletableFuture<BookingSlot> awaitPromotion(long userId) {
+            List<CompletableFuture<BookingSlot>> futures = pendingPromotions.computeIfAbsent(userId, id -> new ArrayList<>());
+            futures.removeIf(CompletableFuture::isDone);
+            CompletableFuture<BookingSlot> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        }
+
+        void promote(BookingSlot bookingSlot) {
+            long userId = bookingSlot.getUser().getUserId();
+            List<CompletableFuture<BookingSlot>> futures;
+            synchronized (this) {
+                userIds.remove(userId);
+                futures = pendingPromotions.remove(userId);
+            }
+            if (futures != null) {
+                futures.forEach(future -> future.complete(bookingSlot));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.dto.BookingWaitlistEntryDTO;
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.Role;
+import com.courselink.api.exception.BookingWaitlistEntryNotFoundException;
+import com.courselink.api.exception.DefenceSessionException;
+import com.courselink.api.exception.DefenceSessionNotFoundException;
+import com.courselink.api.exception.UserNotFoundException;
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.DefenceSessionRepository;
+import com.courselink.api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lets students wait for a booking slot of a fully booked defence session. Waiting students are promoted to
+ * slots that free up in the order they joined, and can wait for their promotion with a long-polling request
+ * instead of polling the booking slots.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingWaitlistService {
+
+    private static final Set<Role> STUDENT_ROLES = EnumSet.of(Role.STUDENT, Role.ADMIN_STUDENT);
+
+    private final BookingWaitlist bookingWaitlist;
+
+    private final BookingSlotRepository bookingSlotRepository;
+
+    private final DefenceSessionRepository defenceSessionRepository;
+
+    private final UserRepository userRepository;
+
+    private final MessageSource messageSource;
+
+    @Value("${application.booking.waitlist.promotion-timeout}")
+    private long promotionTimeout;
+
+    /**
+     * Adds the student to the waitlist of the defence session and promotes them right away if a slot is free.
+     */
+    public BookingWaitlistEntryDTO joinWaitlist(long userId, long defenceSessionId) {
+        log.info("User with ID {} joins the waitlist of DefenceSession with ID {}", userId, defenceSessionId);
+
+        Role role = userRepository.findRoleByUserId(userId).orElseThrow(() -> {
+            log.warn("User with ID {} not found", userId);
+            String errorMsg = messageSource.getMessage("message.user.not.found.with.id", new Object[]{userId}, LocaleContextHolder.getLocale());
+            return new UserNotFoundException(errorMsg);
+        });
+
+        if (!STUDENT_ROLES.contains(role)) {
+            log.warn("User with ID {} is not a student", userId);
+            String errorMsg = messageSource.getMessage("message.user.not.student", new Object[]{userId}, LocaleContextHolder.getLocale());
+            throw new BadCredentialsException(errorMsg);
+        }
+
+        if (!defenceSessionRepository.existsById(defenceSessionId)) {
+            log.warn("Defence session with ID {} not found", defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.defence.session.not.found.with.id", new Object[]{defenceSessionId}, LocaleContextHolder.getLocale());
+            throw new DefenceSessionNotFoundException(errorMsg);
+        }
+
+        if (bookingSlotRepository.existsBookedByDefenceSessionIdAndUserId(defenceSessionId, userId)) {
+            log.warn("User with ID {} already booked a slot of DefenceSession with ID {}", userId, defenceSessionId);
+            String errorMsg = messageSource.getMessage("message.booking.waitlist.already.booked", new Object[]{userId, defenceSessionId}, LocaleContextHolder.getLocale());
+            throw new DefenceSessionException(errorMsg);
+        }
+
+        bookingWaitlist.join(defenceSessionId, userId);
+        for (BookingSlot bookingSlot : bookingWaitlist.promote(defenceSessionId)) {
+            if (bookingSlot.getUser().getUserId() == userId) {
+                return toBookingWaitlistEntryDTO(defenceSessionId, userId, 0, bookingSlot);
+            }
+        }
+        int position = bookingWaitlist.positionOf(defenceSessionId, userId);
+        log.info("User with ID {} is waiting at position {} for DefenceSession with ID {}", userId, position, defenceSessionId);
+        return toBookingWaitlistEntryDTO(defenceSessionId, userId, position, null);
+    }
+
+    public void leaveWaitlist(long userId, long defenceSessionId) {
+        log.info("User with ID {} leaves the waitlist of DefenceSession with ID {}", userId, defenceSessionId);
+        if (!bookingWaitlist.leave(defenceSessionId, userId)) {
+            throw entryNotFound(userId, defenceSessionId, LocaleContextHolder.getLocale());
+        }
+    }
+
+    public BookingWaitlistEntryDTO getWaitlistEntry(long userId, long defenceSessionId) {
+        int position = bookingWaitlist.positionOf(defenceSessionId, userId);
+        if (position == 0) {
+            throw entryNotFound(userId, defenceSessionId, LocaleContextHolder.getLocale());
+        }
+        return toBookingWaitlistEntryDTO(defenceSessionId, userId, position, null);
+    }
+
+    /**
+     * Waits until the student is promoted, for at most the promotion timeout.
+     *
+     * @return a result completed with the promoted entry, or with the current position once the timeout elapses.
+     */
+    public DeferredResult<BookingWaitlistEntryDTO> awaitPromotion(long userId, long defenceSessionId) {
+        // The result completes on another thread, so the locale has to be resolved up front.
+        Locale locale = LocaleContextHolder.getLocale();
+        if (bookingWaitlist.positionOf(defenceSessionId, userId) == 0) {
+            throw entryNotFound(userId, defenceSessionId, locale);
+        }
+
+        DeferredResult<BookingWaitlistEntryDTO> result = new DeferredResult<>(promotionTimeout);
+        CompletableFuture<BookingSlot> promotion = bookingWaitlist.awaitPromotion(defenceSessionId, userId);
+        promotion.thenAccept(bookingSlot -> result.setResult(toBookingWaitlistEntryDTO(defenceSessionId, userId, 0, bookingSlot)));
+        result.onTimeout(() -> {
+            int position = bookingWaitlist.positionOf(defenceSessionId, userId);
+            if (position == 0) {
+                result.setErrorResult(entryNotFound(userId, defenceSessionId, locale));
+            } else {
+                result.setResult(toBookingWaitlistEntryDTO(defenceSessionId, userId, position, null));
+            }
+        });
+        result.onCompletion(() -> promotion.cancel(false));
+        return result;
+    }
+
+    private BookingWaitlistEntryNotFoundException entryNotFound(long userId, long defenceSessionId, Locale locale) {
+        log.warn("User with ID {} is not on the waitlist of DefenceSession with ID {}", userId, defenceSessionId);
+        String errorMsg = messageSource.getMessage("message.booking.waitlist.entry.not.found", new Object[]{userId, defenceSessionId}, locale);
+        return new BookingWaitlistEntryNotFoundException(errorMsg);
+    }
+
+    private static BookingWaitlistEntryDTO toBookingWaitlistEntryDTO(long defenceSessionId, long userId, int position, BookingSlot bookingSlot) {
+        return BookingWaitlistEntryDTO.builder()
+                .defenceSessionId(defenceSessionId)
+                .userId(userId)
+                .position(position)
+                .bookingSlot(bookingSlot != null ? BookingSlotDTO.toBookingSlotDTO(bookingSlot) : null)
+                .build();
+    }
+
+}
@@ -0,0 +1,249 @@
+package com.courselink.api.service;
+
+import com.courselink.api.entity.IdempotentResponse;
+import com.courselink.api.exception.IdempotencyKeyException;
+import com.courselink.api.repository.IdempotentResponseRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the response of a request that is retried with the same {@code Idempotency-Key} header instead of
+ * handling it again. Keys are scoped to the authenticated principal, and a key reused for a different request
+ * is rejected. Responses are kept in a size-bounded cache in front of the {@code idempotent_responses} table
+ * and expire after the configured TTL.
+ * A retry that arrives while the first request is still being handled by this instance waits for its outcome.
+ * Only successful responses are stored, so a retry of a failed request is handled again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotentResponseRepository idempotentResponseRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final MessageSource messageSource;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.idempotency.ttl}")
+    private long ttl;
+    @Value("${application.idempotency.cache.maximum-size}")
+    private long cacheMaximumSize;
+
+    private final Map<String, Pending> pendingRequests = new ConcurrentHashMap<>();
+
+    private Cache<String, IdempotentResponse> responses;
+
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotent.responses");
+    }
+
+    /**
+     * Handles the request with {@code action}, or replays the response stored for the idempotency key.
+     *
+     * @param idempotencyKey the {@code Idempotency-Key} header; the action is simply run if it is {@code null}.
+     * @param operation      the name of the operation, e.g. the endpoint.
+     * @param arguments      the arguments of the request, to detect a key reused for a different request.
+     * @param responseType   the type the stored response is read back as.
+     * @throws IdempotencyKeyException if the key is blank, too long or was used for a different request.
+     */
+    public <T> T execute(String idempotencyKey, String operation, Object arguments, Class<T> responseType, Supplier<T> action) {
+        CompletableFuture<T> response = executeAsync(idempotencyKey, operation, arguments, responseType, () -> {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #execute}, for an action that completes asynchronously.
+     */
+    public <T> CompletableFuture<T> executeAsync(String idempotencyKey, String operation, Object arguments, Class<T> responseType,
+                                                 Supplier<CompletableFuture<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+
+        Locale locale = LocaleContextHolder.getLocale();
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            String errorMsg = messageSource.getMessage("message.idempotency.key.invalid", new Object[]{MAX_KEY_LENGTH}, locale);
+            throw new IdempotencyKeyException(errorMsg);
+        }
+
+        String keyHash = hash(principal() + '\n' + idempotencyKey);
+        String requestHash = hash(operation + '\n' + write(arguments));
+
+        IdempotentResponse storedResponse = findStoredResponse(keyHash);
+        if (storedResponse != null) {
+            return CompletableFuture.completedFuture(replay(storedResponse, requestHash, idempotencyKey, responseType, locale));
+        }
+
+        Pending pending = new Pending(requestHash, new CompletableFuture<>());
+        Pending concurrentRequest = pendingRequests.putIfAbsent(keyHash, pending);
+        if (concurrentRequest != null) {
+            if (!concurrentRequest.requestHash().equals(requestHash)) {
+                throw keyReused(idempotencyKey, locale);
+            }
+            log.info("Waiting for the response of a request with the same idempotency key");
+            return concurrentRequest.responseBody().thenApply(responseBody -> read(responseBody, responseType));
+        }
+
+        // The first request may have completed between the lookup and the registration.
+        storedResponse = responses.getIfPresent(keyHash);
+        if (storedResponse != null) {
+            pendingRequests.remove(keyHash, pending);
+            return CompletableFuture.completedFuture(replay(storedResponse, requestHash, idempotencyKey, responseType, locale));
+        }
+
+        CompletableFuture<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            pendingRequests.remove(keyHash, pending);
+            pending.responseBody().completeExceptionally(e);
+            throw e;
+        }
+        return response.whenComplete((value, failure) -> {
+            if (failure == null) {
+                String responseBody = write(value);
+                store(IdempotentResponse.builder()
+                        .keyHash(keyHash)
+                        .requestHash(requestHash)
+                        .responseBody(responseBody)
+                        .createdAt(Instant.now())
+                        .build());
+                pending.responseBody().complete(responseBody);
+            } else {
+                pending.responseBody().completeExceptionally(failure);
+            }
+            pendingRequests.remove(keyHash, pending);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${application.idempotency.cleanup-interval}")
+    public void deleteExpiredResponses() {
+        int deleted = idempotentResponseRepository.deleteAllCreatedBefore(Instant.now().minusMillis(ttl));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotent responses", deleted);
+        }
+    }
+
+    private IdempotentResponse findStoredResponse(String keyHash) {
+        IdempotentResponse storedResponse = responses.getIfPresent(keyHash);
+        if (storedResponse != null) {
+            return storedResponse;
+        }
+        storedResponse = idempotentResponseRepository.findByKeyHashAndCreatedAtAfter(keyHash, Instant.now().minusMillis(ttl))
+                .orElse(null);
+        if (storedResponse != null) {
+            responses.put(keyHash, storedResponse);
+        }
+        return storedResponse;
+    }
+
+    private void store(IdempotentResponse idempotentResponse) {
+        responses.put(idempotentResponse.getKeyHash(), idempotentResponse);
+        try {
+            idempotentResponseRepository.insertIfAbsent(idempotentResponse);
+        } catch (DataAccessException e) {
+            // The request was handled; only replays through other instances are lost.
+            log.error("Failed to persist idempotent response", e);
+        }
+    }
+
+    private <T> T replay(IdempotentResponse storedResponse, String requestHash, String idempotencyKey, Class<T> responseType, Locale locale) {
+        if (!storedResponse.getRequestHash().equals(requestHash)) {
+            throw keyReused(idempotencyKey, locale);
+        }
+        log.info("Replaying the stored response of a request with the same idempotency key");
+        return read(storedResponse.getResponseBody(), responseType);
+    }
+
+    private IdempotencyKeyException keyReused(String idempotencyKey, Locale locale) {
+        log.warn("Idempotency key was reused for a different request");
+        String errorMsg = messageSource.getMessage("message.idempotency.key.reused", new Object[]{idempotencyKey}, locale);
+        return new IdempotencyKeyException(errorMsg);
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T read(String responseBody, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize " + responseType.getSimpleName(), e);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    private record Pending(String requestHash, CompletableFuture<String> responseBody) {
+    }
+
+}
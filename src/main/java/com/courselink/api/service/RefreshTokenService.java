@@ -0,0 +1,139 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.AuthenticationResponseDTO;
+import com.courselink.api.entity.RefreshToken;
+import com.courselink.api.entity.Status;
+import com.courselink.api.entity.User;
+import com.courselink.api.repository.RefreshTokenRepository;
+import com.courselink.api.security.JwtService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ * Only the SHA-256 digest of a refresh token is stored. Every refresh token can be exchanged once; presenting
+ * an already exchanged token is treated as theft and revokes every token descending from the same login.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final JwtService jwtService;
+
+    private final MessageSource messageSource;
+
+    @Value("${application.security.jwt.refresh-token.expiration}")
+    private long refreshTokenExpiration;
+
+    @Transactional
+    public String issueRefreshToken(User user) {
+        log.info("Issuing refresh token for user: {}", user.getUsername());
+        return createRefreshToken(user, UUID.randomUUID());
+    }
+
+    @Transactional(dontRollbackOn = BadCredentialsException.class)
+    public AuthenticationResponseDTO rotate(String presentedRefreshToken) {
+        log.info("Rotating refresh token.");
+
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(presentedRefreshToken))
+                .orElseThrow(() -> {
+                    log.warn("Refresh token not found");
+                    return invalidRefreshToken();
+                });
+
+        if (refreshToken.isRevoked() || refreshToken.isExpired()) {
+            log.warn("Refresh token with ID {} is revoked or expired", refreshToken.getRefreshTokenId());
+            throw invalidRefreshToken();
+        }
+
+        if (refreshTokenRepository.markAsUsed(refreshToken.getRefreshTokenId()) == 0) {
+            log.warn("Refresh token with ID {} was reused, revoking token family {}", refreshToken.getRefreshTokenId(), refreshToken.getFamilyId());
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            throw invalidRefreshToken();
+        }
+
+        User user = refreshToken.getUser();
+
+        if (user.getStatus() == Status.BANNED) {
+            refreshTokenRepository.revokeAllByUserId(user.getUserId());
+            String errorMsg = messageSource.getMessage("message.user.banned", null, LocaleContextHolder.getLocale());
+            throw new BadCredentialsException(errorMsg);
+        }
+
+        String jwt = jwtService.generateToken(user);
+        log.info("Generated JWT token for user: {}", user.getUsername());
+
+        return AuthenticationResponseDTO.builder()
+                .token(jwt)
+                .refreshToken(createRefreshToken(user, refreshToken.getFamilyId()))
+                .build();
+    }
+
+    @Transactional
+    public void revokeAllByUserId(long userId) {
+        int revokedCount = refreshTokenRepository.revokeAllByUserId(userId);
+        log.info("Revoked {} refresh tokens of User with ID: {}", revokedCount, userId);
+    }
+
+    @Transactional
+    @Scheduled(cron = "${application.security.jwt.refresh-token.cleanup-cron}")
+    public void removeExpiredRefreshTokens() {
+        int removedCount = refreshTokenRepository.deleteAllExpiredBefore(Instant.now());
+        log.info("Removed {} expired refresh tokens", removedCount);
+    }
+
+    private String createRefreshToken(User user, UUID familyId) {
+        byte[] randomBytes = new byte[REFRESH_TOKEN_BYTES];
+        secureRandom.nextBytes(randomBytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(Instant.now().plusMillis(refreshTokenExpiration))
+                .isUsed(false)
+                .isRevoked(false)
+                .build());
+
+        return token;
+    }
+
+    private BadCredentialsException invalidRefreshToken() {
+        String errorMsg = messageSource.getMessage("message.refresh.token.invalid", null, LocaleContextHolder.getLocale());
+        return new BadCredentialsException(errorMsg);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+}
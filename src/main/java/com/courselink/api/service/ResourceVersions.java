@@ -0,0 +1,54 @@
+package com.courselink.api.service;
+
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.ResourceVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the versions of the booking slots of each defence session, and of all defence sessions, task categories
+ * and users, to answer conditional GET requests without reading the data. The versions are kept in the database
+ * next to the data, so an ETag changes whenever the data has changed, on every instance and across restarts.
+ * An ETag has to be taken before the data is read: a response read meanwhile then carries an ETag that is already
+ * outdated, rather than new data being hidden behind an ETag that doesn't change anymore.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersions {
+
+    private final BookingSlotRepository bookingSlotRepository;
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    public String bookingSlotsETag(long defenceSessionId) {
+        return bookingSlotRepository.findVersionByDefenceSessionId(defenceSessionId);
+    }
+
+    /**
+     * Defence sessions embed their task category, so their ETag changes with the task categories as well.
+     */
+    public String defenceSessionsETag() {
+        return etag(resourceVersionRepository.findVersionByResource("defence_sessions"),
+                resourceVersionRepository.findVersionByResource("task_categories"));
+    }
+
+    public String taskCategoriesETag() {
+        return etag(resourceVersionRepository.findVersionByResource("task_categories"));
+    }
+
+    public String usersETag() {
+        return etag(resourceVersionRepository.findVersionByResource("users"));
+    }
+
+    private String etag(long... versions) {
+        StringBuilder etag = new StringBuilder();
+        for (long version : versions) {
+            if (!etag.isEmpty()) {
+                etag.append('-');
+            }
+            etag.append(version);
+        }
+        return etag.toString();
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.courselink.api.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Assigns the slots of a defence session to students by their ranked preferences so that the sum of the ranks
+ * the students get is minimal. A student who gets none of their ranked slots costs one more than the worst rank,
+ * so nobody is left out to improve the ranks of others.
+ * <p>
+ * Solved with the auction algorithm: students bid for their best slot by how much it beats their second best,
+ * and every student can always fall back to being unassigned. The benefits are scaled by the number of students
+ * plus one, which makes the result exactly optimal with a minimal bid increment of one.
+ * Students who share no ranked slot, directly or through other students, can't affect each other,
+ * so such groups are auctioned in parallel on a fork/join pool.
+ */
+@Slf4j
+@Component
+public class SlotAllocationSolver {
+
+    public static final int UNASSIGNED = -1;
+
+    @Value("${application.booking.preferences.solver-parallelism}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * @param slotCount the number of slots, identified by the indexes from 0 to {@code slotCount - 1}.
+     * @param rankings  for each student, the distinct indexes of the slots they ranked, most preferred first.
+     * @return for each student, the index of the assigned slot or {@link #UNASSIGNED}.
+     */
+    public int[] solve(int slotCount, int[][] rankings) {
+        int worstRank = 0;
+        for (int[] ranking : rankings) {
+            worstRank = Math.max(worstRank, ranking.length);
+        }
+
+        Auction auction = new Auction(slotCount, rankings, worstRank);
+        List<Auction.Group> groups = auction.groups();
+        log.debug("Auctioning {} slots among {} students in {} independent groups", slotCount, rankings.length, groups.size());
+
+        if (groups.size() == 1) {
+            groups.get(0).compute();
+        } else if (!groups.isEmpty()) {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(groups);
+                }
+            });
+        }
+        return auction.assignments;
+    }
+
+    private static final class Auction {
+
+        private final int[][] rankings;
+
+        private final int worstRank;
+
+        private final long scale;
+
+        private final long[] prices;
+
+        private final int[] owners;
+
+        private final int[] assignments;
+
+        private Auction(int slotCount, int[][] rankings, int worstRank) {
+            this.rankings = rankings;
+            this.worstRank = worstRank;
+            this.scale = rankings.length + 1L;
+            this.prices = new long[slotCount];
+            this.owners = new int[slotCount];
+            this.assignments = new int[rankings.length];
+            Arrays.fill(owners, UNASSIGNED);
+            Arrays.fill(assignments, UNASSIGNED);
+        }
+
+        /**
+         * Splits the students into groups connected by the slots they ranked.
+         */
+        private List<Group> groups() {
+            int[] parents = new int[owners.length];
+            Arrays.setAll(parents, slot -> slot);
+            for (int[] ranking : rankings) {
+                for (int rank = 1; rank < ranking.length; rank++) {
+                    parents[root(parents, ranking[rank])] = root(parents, ranking[0]);
+                }
+            }
+
+            Map<Integer, Group> groups = new HashMap<>();
+            for (int student = 0; student < rankings.length; student++) {
+                if (rankings[student].length > 0) {
+                    groups.computeIfAbsent(root(parents, rankings[student][0]), root -> new Group()).students.add(student);
+                }
+            }
+            return new ArrayList<>(groups.values());
+        }
+
+        private static int root(int[] parents, int slot) {
+            while (parents[slot] != slot) {
+                parents[slot] = parents[parents[slot]];
+                slot = parents[slot];
+            }
+            return slot;
+        }
+
+        /**
+         * Auctions the slots ranked by a group of students. Groups own disjoint slots, so they run concurrently
+         * on the shared arrays without synchronization.
+         */
+        private final class Group extends RecursiveAction {
+
+            private final List<Integer> students = new ArrayList<>();
+
+            @Override
+            protected void compute() {
+                Deque<Integer> bidders = new ArrayDeque<>(students);
+                while (!bidders.isEmpty()) {
+                    int student = bidders.poll();
+                    int[] ranking = rankings[student];
+
+                    int bestSlot = UNASSIGNED;
+                    long bestValue = 0;
+                    long secondBestValue = 0;
+                    for (int rank = 0; rank < ranking.length; rank++) {
+                        long value = (worstRank - rank) * scale - prices[ranking[rank]];
+                        if (value > bestValue) {
+                            secondBestValue = bestValue;
+                            bestValue = value;
+                            bestSlot = ranking[rank];
+                        } else if (value > secondBestValue) {
+                            secondBestValue = value;
+                        }
+                    }
+
+                    if (bestSlot == UNASSIGNED) {
+                        continue;
+                    }
+
+                    prices[bestSlot] += bestValue - secondBestValue + 1;
+                    int outbidStudent = owners[bestSlot];
+                    owners[bestSlot] = student;
+                    assignments[student] = bestSlot;
+                    if (outbidStudent != UNASSIGNED) {
+                        assignments[outbidStudent] = UNASSIGNED;
+                        bidders.add(outbidStudent);
+                    }
+                }
+            }
+
+        }
+
+    }
+
+}
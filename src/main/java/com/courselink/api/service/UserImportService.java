@@ -0,0 +1,235 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.RegistrationRequestDTO;
+import com.courselink.api.dto.UserImportErrorDTO;
+import com.courselink.api.dto.UserImportReportDTO;
+import com.courselink.api.entity.Status;
+import com.courselink.api.entity.User;
+import com.courselink.api.repository.UserRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users in bulk from CSV or NDJSON. Rows are read as a stream and processed in chunks:
+ * each chunk is checked against existing users with two queries, its passwords are hashed in parallel
+ * and the users are written with one batched insert, so a large import costs a few statements per chunk
+ * instead of several per user. Rows that cannot be imported are reported individually.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private final UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final MessageSource messageSource;
+
+    @Value("${application.user-import.chunk-size}")
+    private int chunkSize;
+    @Value("${application.user-import.max-rows}")
+    private int maxRows;
+    @Value("${application.user-import.parallelism}")
+    private int parallelism;
+
+    private ForkJoinPool hashingPool;
+
+    private ObjectReader csvReader;
+
+    private ObjectReader ndjsonReader;
+
+    @PostConstruct
+    void init() {
+        csvReader = new CsvMapper()
+                .readerFor(RegistrationRequestDTO.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ndjsonReader = objectMapper
+                .readerFor(RegistrationRequestDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        hashingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    public UserImportReportDTO importUsers(InputStream inputStream, String contentType) throws IOException {
+        log.info("Importing users from {}", contentType);
+        Locale locale = LocaleContextHolder.getLocale();
+
+        UserImportReportDTO report = new UserImportReportDTO();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<RegistrationRequestDTO> rows = reader(contentType).readValues(inputStream)) {
+            long rowNumber = 0;
+            while (true) {
+                RegistrationRequestDTO row = null;
+                boolean parsed = true;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    parsed = false;
+                }
+
+                if (rowNumber == maxRows) {
+                    log.warn("Import exceeds {} rows, ignoring the remaining rows", maxRows);
+                    report.setTruncated(true);
+                    break;
+                }
+                report.setTotalRows(++rowNumber);
+                if (!parsed) {
+                    rejectRow(report, rowNumber, null, messageSource.getMessage("message.user.import.row.invalid", null, locale));
+                    continue;
+                }
+
+                String error = validate(row, usernames, emails, locale);
+                if (error != null) {
+                    rejectRow(report, rowNumber, row.getUsername(), error);
+                    continue;
+                }
+
+                chunk.add(new ImportRow(rowNumber, row));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, report, locale);
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report, locale);
+        }
+
+        report.getErrors().sort(Comparator.comparingLong(UserImportErrorDTO::getRow));
+        log.info("Imported {} of {} users, {} rows failed, truncated: {}", report.getImportedRows(), report.getTotalRows(), report.getFailedRows(), report.isTruncated());
+        return report;
+    }
+
+    private ObjectReader reader(String contentType) {
+        return contentType != null && contentType.startsWith(CSV_MEDIA_TYPE) ? csvReader : ndjsonReader;
+    }
+
+    private String validate(RegistrationRequestDTO row, Set<String> usernames, Set<String> emails, Locale locale) {
+        Set<ConstraintViolation<RegistrationRequestDTO>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> messageSource.getMessage(violation.getMessage(), null, violation.getMessage(), locale))
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!usernames.add(row.getUsername())) {
+            return messageSource.getMessage("message.user.import.duplicate.username", new Object[]{row.getUsername()}, locale);
+        }
+        if (!emails.add(row.getEmail())) {
+            return messageSource.getMessage("message.user.import.duplicate.email", new Object[]{row.getEmail()}, locale);
+        }
+        return null;
+    }
+
+    private void importChunk(List<ImportRow> chunk, UserImportReportDTO report, Locale locale) {
+        Set<String> existingUsernames = userRepository.findExistingUsernames(chunk.stream().map(row -> row.user().getUsername()).toList());
+        Set<String> existingEmails = userRepository.findExistingEmails(chunk.stream().map(row -> row.user().getEmail()).toList());
+
+        List<ImportRow> newRows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existingUsernames.contains(row.user().getUsername())) {
+                rejectRow(report, row.rowNumber(), row.user().getUsername(),
+                        messageSource.getMessage("message.user.already.exists.with.username", new Object[]{row.user().getUsername()}, locale));
+            } else if (existingEmails.contains(row.user().getEmail())) {
+                rejectRow(report, row.rowNumber(), row.user().getUsername(),
+                        messageSource.getMessage("message.user.already.exists.with.email", new Object[]{row.user().getEmail()}, locale));
+            } else {
+                newRows.add(row);
+            }
+        }
+        if (newRows.isEmpty()) {
+            return;
+        }
+
+        List<User> users = hashPasswords(newRows);
+        int[] insertedRows = userRepository.batchInsertIgnoringConflicts(users);
+
+        for (int i = 0; i < newRows.size(); i++) {
+            if (insertedRows[i] == 0) {
+                rejectRow(report, newRows.get(i).rowNumber(), users.get(i).getUsername(),
+                        messageSource.getMessage("message.user.import.conflict", new Object[]{users.get(i).getUsername()}, locale));
+            } else {
+                report.setImportedRows(report.getImportedRows() + 1);
+            }
+        }
+    }
+
+    private List<User> hashPasswords(List<ImportRow> rows) {
+        try {
+            return hashingPool.submit(() -> rows.parallelStream()
+                    .map(row -> User.builder()
+                            .username(row.user().getUsername())
+                            .email(row.user().getEmail())
+                            .password(passwordEncoder.encode(row.user().getPassword()))
+                            .firstname(row.user().getFirstname())
+                            .lastname(row.user().getLastname())
+                            .role(row.user().getRole())
+                            .status(Status.ACTIVE)
+                            .build())
+                    .toList()
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed during user import", e.getCause());
+        }
+    }
+
+    private void rejectRow(UserImportReportDTO report, long rowNumber, String username, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        report.getErrors().add(new UserImportErrorDTO(rowNumber, username, message));
+    }
+
+    private record ImportRow(long rowNumber, RegistrationRequestDTO user) {
+    }
+
+}
@@ -3,12 +3,15 @@ package com.courselink.api.service;
 import com.courselink.api.dto.UpdateRoleDTO;
 import com.courselink.api.dto.UpdateStatusDTO;
 import com.courselink.api.dto.UserDTO;
+import com.courselink.api.entity.Status;
 import com.courselink.api.entity.User;
+import com.courselink.api.event.UserAuthChangedEvent;
 import com.courselink.api.exception.UserNotFoundException;
 import com.courselink.api.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
@@ -24,6 +27,11 @@ public class UserManagementService {
     private final UserRepository userRepository;
 
     private final MessageSource messageSource;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final RefreshTokenService refreshTokenService;
+
     public List<UserDTO> getAll() {
 
         log.info("Fetching all Users");
@@ -48,7 +56,13 @@ public class UserManagementService {
                     return new UserNotFoundException(errorMsg);
                 });
 
-        user.setStatus(updateStatusDTO.getStatus());
+        if (user.getStatus() != updateStatusDTO.getStatus()) {
+            user.setStatus(updateStatusDTO.getStatus());
+            revokeTokens(user);
+            if (user.getStatus() == Status.BANNED) {
+                refreshTokenService.revokeAllByUserId(user.getUserId());
+            }
+        }
 
         log.info("Updated User with ID: {}", updateStatusDTO.getUserId());
 
@@ -68,11 +82,20 @@ public class UserManagementService {
                     return new UserNotFoundException(errorMsg);
                 });
 
-        user.setRole(updateRoleDTO.getRole());
+        if (user.getRole() != updateRoleDTO.getRole()) {
+            user.setRole(updateRoleDTO.getRole());
+            revokeTokens(user);
+        }
 
         log.info("Updated User with ID: {}", updateRoleDTO.getUserId());
 
         return UserDTO.toUserDTO(user);
     }
 
+    private void revokeTokens(User user) {
+        log.info("Revoking tokens of User with ID: {}", user.getUserId());
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        applicationEventPublisher.publishEvent(new UserAuthChangedEvent(user.getUserId(), user.getUsername()));
+    }
+
 }
@@ -0,0 +1,22 @@
+create sequence api_key_id_seq
+    start with 1 increment by 1;
+
+create table api_keys (
+    api_key_id bigint default nextval('api_key_id_seq') not null,
+    name varchar(255) not null,
+    prefix varchar(16) not null unique,
+    key_hash varchar(64) not null,
+    created_at timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone,
+    is_revoked boolean not null,
+    primary key (api_key_id)
+);
+
+create table api_key_scopes (
+    api_key_id bigint not null,
+    scope varchar(255) not null check (scope in ('STUDENT','TEACHER','ADMIN_TEACHER','ADMIN_STUDENT','ADMIN')),
+    primary key (api_key_id, scope)
+);
+
+alter table if exists api_key_scopes add constraint Fk_api_key_scopes_api_key_id
+    foreign key (api_key_id) references api_keys on delete cascade;
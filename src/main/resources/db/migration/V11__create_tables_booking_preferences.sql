@@ -0,0 +1,36 @@
+create table booking_preference_windows (
+    defence_session_id bigint not null,
+    closes_at timestamp(6) with time zone not null,
+    is_allocated boolean not null,
+    primary key (defence_session_id)
+);
+
+alter table if exists booking_preference_windows add constraint Fk_booking_preference_windows_defence_session_id
+    foreign key (defence_session_id) references defence_sessions on delete cascade;
+
+create index idx_booking_preference_windows_closes_at on booking_preference_windows (closes_at) where is_allocated = false;
+
+create sequence booking_preference_id_seq
+    start with 1 increment by 1;
+
+create table booking_preferences (
+    booking_preference_id bigint default nextval('booking_preference_id_seq') not null,
+    defence_session_id bigint not null,
+    user_id bigint not null,
+    booking_slot_id bigint not null,
+    rank integer not null,
+    submitted_at timestamp(6) with time zone not null,
+    primary key (booking_preference_id),
+    unique (user_id, booking_slot_id)
+);
+
+alter table if exists booking_preferences add constraint Fk_booking_preferences_defence_session_id
+    foreign key (defence_session_id) references defence_sessions on delete cascade;
+
+alter table if exists booking_preferences add constraint Fk_booking_preferences_user_id
+    foreign key (user_id) references users on delete cascade;
+
+alter table if exists booking_preferences add constraint Fk_booking_preferences_booking_slot_id
+    foreign key (booking_slot_id) references booking_slots on delete cascade;
+
+create index idx_booking_preferences_defence_session_id on booking_preferences (defence_session_id);
@@ -0,0 +1,19 @@
+create sequence booking_waitlist_entry_id_seq
+    start with 1 increment by 1;
+
+create table booking_waitlist_entries (
+    booking_waitlist_entry_id bigint default nextval('booking_waitlist_entry_id_seq') not null,
+    defence_session_id bigint not null,
+    user_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (booking_waitlist_entry_id),
+    unique (defence_session_id, user_id)
+);
+
+alter table if exists booking_waitlist_entries add constraint Fk_booking_waitlist_entries_defence_session_id
+    foreign key (defence_session_id) references defence_sessions on delete cascade;
+
+alter table if exists booking_waitlist_entries add constraint Fk_booking_waitlist_entries_user_id
+    foreign key (user_id) references users on delete cascade;
+
+create index idx_booking_waitlist_entries_defence_session_id on booking_waitlist_entries (defence_session_id, booking_waitlist_entry_id);
@@ -0,0 +1,9 @@
+create table idempotent_responses (
+    key_hash varchar(64) not null,
+    request_hash varchar(64) not null,
+    response_body text not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (key_hash)
+);
+
+create index idx_idempotent_responses_created_at on idempotent_responses (created_at);
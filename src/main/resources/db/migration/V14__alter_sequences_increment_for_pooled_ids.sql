@@ -0,0 +1,7 @@
+alter sequence task_category_id_seq increment by 50;
+
+alter sequence defence_session_id_seq increment by 50;
+
+alter sequence refresh_token_id_seq increment by 50;
+
+alter sequence booking_preference_id_seq increment by 50;
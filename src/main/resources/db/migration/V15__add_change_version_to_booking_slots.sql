@@ -0,0 +1,38 @@
+-- The change version of a slot is the ID of the transaction that last wrote it. Unlike a sequence value, it lets
+-- readers tell which changes may still commit: all of them belong to transactions at or above the xmin of a snapshot.
+alter table booking_slots add column change_version bigint default txid_current() not null;
+
+create index idx_booking_slots_change_version on booking_slots (change_version);
+
+create function set_booking_slot_change_version() returns trigger as $$
+begin
+    new.change_version := txid_current();
+    return new;
+end;
+$$ language plpgsql;
+
+create trigger booking_slots_change_version
+    before update on booking_slots
+    for each row execute function set_booking_slot_change_version();
+
+create table booking_slot_deletions (
+    booking_slot_id bigint not null,
+    defence_session_id bigint,
+    change_version bigint not null,
+    primary key (booking_slot_id)
+);
+
+create index idx_booking_slot_deletions_change_version on booking_slot_deletions (change_version);
+
+create function record_booking_slot_deletion() returns trigger as $$
+begin
+    insert into booking_slot_deletions (booking_slot_id, defence_session_id, change_version)
+    values (old.booking_slot_id, old.defence_session_id, txid_current())
+    on conflict (booking_slot_id) do update set change_version = excluded.change_version;
+    return old;
+end;
+$$ language plpgsql;
+
+create trigger booking_slots_deletion
+    after delete on booking_slots
+    for each row execute function record_booking_slot_deletion();
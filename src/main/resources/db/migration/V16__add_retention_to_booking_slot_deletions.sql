@@ -0,0 +1,22 @@
+-- Tombstones are pruned once they are older than the retention. A client whose version is below the lowest version
+-- the feed can still serve completely may have missed a pruned deletion and has to fetch all booking slots again.
+alter table booking_slot_deletions add column deleted_at timestamp(6) with time zone default now() not null;
+
+create index idx_booking_slot_deletions_deleted_at on booking_slot_deletions (deleted_at);
+
+create table booking_slot_change_horizon (
+    id boolean default true not null check (id),
+    min_version bigint not null,
+    primary key (id)
+);
+
+insert into booking_slot_change_horizon (min_version) values (0);
+
+create or replace function record_booking_slot_deletion() returns trigger as $$
+begin
+    insert into booking_slot_deletions (booking_slot_id, defence_session_id, change_version, deleted_at)
+    values (old.booking_slot_id, old.defence_session_id, txid_current(), now())
+    on conflict (booking_slot_id) do update set change_version = excluded.change_version, deleted_at = excluded.deleted_at;
+    return old;
+end;
+$$ language plpgsql;
@@ -0,0 +1,33 @@
+-- The version of a list is counted up by every statement that writes its table, in the writing transaction. The row
+-- lock orders the increments like the commits, so a reader never sees a version that a later commit doesn't raise.
+create table resource_versions (
+    resource varchar(50) not null,
+    version bigint default 0 not null,
+    primary key (resource)
+);
+
+insert into resource_versions (resource) values ('defence_sessions'), ('task_categories'), ('users');
+
+create function increment_resource_version() returns trigger as $$
+begin
+    update resource_versions set version = version + 1 where resource = tg_table_name;
+    return null;
+end;
+$$ language plpgsql;
+
+create trigger defence_sessions_resource_version
+    after insert or update or delete or truncate on defence_sessions
+    for each statement execute function increment_resource_version();
+
+create trigger task_categories_resource_version
+    after insert or update or delete or truncate on task_categories
+    for each statement execute function increment_resource_version();
+
+create trigger users_resource_version
+    after insert or update or delete or truncate on users
+    for each statement execute function increment_resource_version();
+
+-- Lets the ETag of the booking slots of a defence session be read from the indexes alone.
+create index idx_booking_slots_defence_session_id on booking_slots (defence_session_id, change_version);
+
+create index idx_booking_slot_deletions_defence_session_id on booking_slot_deletions (defence_session_id, change_version);
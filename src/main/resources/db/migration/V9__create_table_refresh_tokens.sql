@@ -0,0 +1,20 @@
+create sequence refresh_token_id_seq
+    start with 1 increment by 1;
+
+create table refresh_tokens (
+    refresh_token_id bigint default nextval('refresh_token_id_seq') not null,
+    token_hash varchar(64) not null unique,
+    family_id uuid not null,
+    user_id bigint not null,
+    expires_at timestamp(6) with time zone not null,
+    is_used boolean not null,
+    is_revoked boolean not null,
+    primary key (refresh_token_id)
+);
+
+alter table if exists refresh_tokens add constraint Fk_refresh_tokens_user_id
+    foreign key (user_id) references users on delete cascade;
+
+create index idx_refresh_tokens_user_id on refresh_tokens (user_id);
+
+create index idx_refresh_tokens_family_id on refresh_tokens (family_id);
@@ -6,6 +6,20 @@ truncate table public.booking_slots restart identity cascade;
 
 truncate table public.defence_sessions restart identity cascade;
 
+truncate table public.api_keys restart identity cascade;
+
+truncate table public.booking_preference_windows restart identity cascade;
+
+truncate table public.booking_preferences restart identity cascade;
+
+truncate table public.booking_waitlist_entries restart identity cascade;
+
+truncate table public.idempotent_responses;
+
+truncate table public.booking_slot_deletions;
+
+update public.booking_slot_change_horizon set min_version = 0;
+
 alter sequence user_id_seq restart with 1;
 
 alter sequence task_category_id_seq restart with 1;
@@ -13,3 +27,9 @@ alter sequence task_category_id_seq restart with 1;
 alter sequence booking_slot_id_seq restart with 1;
 
 alter sequence defence_session_id_seq restart with 1;
+
+alter sequence api_key_id_seq restart with 1;
+
+alter sequence booking_preference_id_seq restart with 1;
+
+alter sequence booking_waitlist_entry_id_seq restart with 1;
@@ -1,11 +1,13 @@
-insert into defence_sessions (description, defense_date, start_time, end_time, task_category_id) values
-('Defense of Course Work in Java', '2024-12-10', '10:00:00', '10:30:00', 1),
-('Defense of Thesis in Data Science', '2024-12-11', '09:00:00', '09:45:00', 2),
-('Laboratory Work Defense in Computer Networks', '2024-12-12', '11:00:00', '11:20:00', 3),
-('Practical Work Defense in Physics', '2024-12-13', '14:00:00', '14:30:00', 4),
-('Defense of Course Work in Web Development', '2024-12-14', '09:00:00', '09:30:00', 1),
-('Thesis Defense in Artificial Intelligence', '2024-12-15', '10:00:00', '11:00:00', 2),
-('Laboratory Work Defense in Robotics', '2024-12-16', '11:30:00', '11:50:00', 3),
-('Practical Work Defense in Chemistry', '2024-12-17', '12:00:00', '12:30:00', 4),
-('Defense of Course Work in Database Systems', '2024-12-18', '13:00:00', '13:30:00', 1),
-('Thesis Defense in Machine Learning', '2024-12-19', '14:00:00', '14:45:00', 2);
\ No newline at end of file
+insert into defence_sessions (defence_session_id, description, defense_date, start_time, end_time, task_category_id) values
+(1, 'Defense of Course Work in Java', '2024-12-10', '10:00:00', '10:30:00', 1),
+(2, 'Defense of Thesis in Data Science', '2024-12-11', '09:00:00', '09:45:00', 2),
+(3, 'Laboratory Work Defense in Computer Networks', '2024-12-12', '11:00:00', '11:20:00', 3),
+(4, 'Practical Work Defense in Physics', '2024-12-13', '14:00:00', '14:30:00', 4),
+(5, 'Defense of Course Work in Web Development', '2024-12-14', '09:00:00', '09:30:00', 1),
+(6, 'Thesis Defense in Artificial Intelligence', '2024-12-15', '10:00:00', '11:00:00', 2),
+(7, 'Laboratory Work Defense in Robotics', '2024-12-16', '11:30:00', '11:50:00', 3),
+(8, 'Practical Work Defense in Chemistry', '2024-12-17', '12:00:00', '12:30:00', 4),
+(9, 'Defense of Course Work in Database Systems', '2024-12-18', '13:00:00', '13:30:00', 1),
+(10, 'Thesis Defense in Machine Learning', '2024-12-19', '14:00:00', '14:45:00', 2);
+
+select setval('defence_session_id_seq', (select max(defence_session_id) + 1 from defence_sessions), false);
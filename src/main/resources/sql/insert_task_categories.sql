@@ -1,5 +1,7 @@
-insert into task_categories (task_category_name) values
-('Course Work'),
-('Thesis'),
-('Laboratory Work'),
-('Practical Work');
\ No newline at end of file
+insert into task_categories (task_category_id, task_category_name) values
+(1, 'Course Work'),
+(2, 'Thesis'),
+(3, 'Laboratory Work'),
+(4, 'Practical Work');
+
+select setval('task_category_id_seq', (select max(task_category_id) + 1 from task_categories), false);
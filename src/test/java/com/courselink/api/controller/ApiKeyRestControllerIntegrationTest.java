@@ -0,0 +1,138 @@
+package com.courselink.api.controller;
+
+import com.courselink.api.dto.ApiKeyRequestDTO;
+import com.courselink.api.entity.Role;
+import com.courselink.api.security.ApiKeyAuthenticationFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Set;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Testcontainers
+@SpringBootTest
+@ActiveProfiles("dev")
+@AutoConfigureMockMvc
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql"})
+public class ApiKeyRestControllerIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void createApiKey_shouldReturnKeyOnce() throws Exception {
+        mockMvc.perform(post("/api/api-keys")
+                        .with(user("admin").authorities(() -> "ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(apiKeyRequest(Role.TEACHER))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name", is("LMS integration")))
+                .andExpect(jsonPath("$.key", startsWith("clk_")));
+
+        mockMvc.perform(get("/api/api-keys")
+                        .with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("LMS integration")))
+                .andExpect(jsonPath("$[0].key").doesNotExist());
+    }
+
+    @Test
+    void createApiKey_shouldBeForbidden_forNonAdmin() throws Exception {
+        mockMvc.perform(post("/api/api-keys")
+                        .with(user("teacher").authorities(() -> "TEACHER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(apiKeyRequest(Role.TEACHER))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void apiKey_shouldAuthenticateRequest_withinItsScopes() throws Exception {
+        String key = createKey(Role.TEACHER);
+
+        mockMvc.perform(get("/api/task-categories")
+                        .header(ApiKeyAuthenticationFilter.API_KEY_HEADER, key))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users")
+                        .header(ApiKeyAuthenticationFilter.API_KEY_HEADER, key))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void apiKey_shouldBeRejected_whenInvalid() throws Exception {
+        String key = createKey(Role.TEACHER);
+
+        mockMvc.perform(get("/api/task-categories")
+                        .header(ApiKeyAuthenticationFilter.API_KEY_HEADER, key + "x"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void revokeById_shouldRejectKeyImmediately() throws Exception {
+        String key = createKey(Role.TEACHER);
+
+        mockMvc.perform(delete("/api/api-keys/1")
+                        .with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/task-categories")
+                        .header(ApiKeyAuthenticationFilter.API_KEY_HEADER, key))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void revokeById_shouldReturnNotFound_whenKeyDoesNotExist() throws Exception {
+        mockMvc.perform(delete("/api/api-keys/100")
+                        .with(user("admin").authorities(() -> "ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+
+    private String createKey(Role scope) throws Exception {
+        String response = mockMvc.perform(post("/api/api-keys")
+                        .with(user("admin").authorities(() -> "ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(apiKeyRequest(scope))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("key").asText();
+    }
+
+    private static ApiKeyRequestDTO apiKeyRequest(Role scope) {
+        return ApiKeyRequestDTO.builder()
+                .name("LMS integration")
+                .scopes(Set.of(scope))
+                .build();
+    }
+
+}
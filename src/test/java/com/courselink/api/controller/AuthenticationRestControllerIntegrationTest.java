@@ -2,6 +2,8 @@ package com.courselink.api.controller;
 
 
 import com.courselink.api.dto.AuthenticationRequestDTO;
+import com.courselink.api.dto.AuthenticationResponseDTO;
+import com.courselink.api.dto.RefreshTokenRequestDTO;
 import com.courselink.api.dto.RegistrationRequestDTO;
 import com.courselink.api.entity.Role;
 import com.courselink.api.entity.User;
@@ -15,6 +17,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -34,6 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @Testcontainers
 @SpringBootTest
+@ActiveProfiles("dev")
 @AutoConfigureMockMvc
 @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_users.sql"})
 public class AuthenticationRestControllerIntegrationTest {
@@ -44,6 +48,8 @@ public class AuthenticationRestControllerIntegrationTest {
         registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
         registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
         registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("application.security.rate-limit.ip.capacity", () -> 1000);
+        registry.add("application.security.rate-limit.username.capacity", () -> 1000);
     }
 
     @Autowired
@@ -331,4 +337,73 @@ public class AuthenticationRestControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value(messageSource.getMessage("message.user.invalid.password", new Object[]{username},new Locale(language))));
     }
 
+    @Test
+    void refresh_shouldReturnOkStatus_whenRefreshTokenIsValid() throws Exception {
+
+        RefreshTokenRequestDTO refreshTokenRequestDTO = new RefreshTokenRequestDTO(authenticate("alice.johnson").getRefreshToken());
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenRequestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andExpect(jsonPath("$.refreshToken").isNotEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void refresh_shouldReturnUnprocessableEntityStatus_whenRefreshTokenIsReused(String language) throws Exception {
+
+        RefreshTokenRequestDTO refreshTokenRequestDTO = new RefreshTokenRequestDTO(authenticate("alice.johnson").getRefreshToken());
+
+        String rotatedResponse = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenRequestDTO)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Accept-Language", language)
+                        .content(objectMapper.writeValueAsString(refreshTokenRequestDTO)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value(messageSource.getMessage("message.refresh.token.invalid", null, new Locale(language))));
+
+        RefreshTokenRequestDTO rotatedRefreshTokenRequestDTO = new RefreshTokenRequestDTO(objectMapper.readValue(rotatedResponse, AuthenticationResponseDTO.class).getRefreshToken());
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Accept-Language", language)
+                        .content(objectMapper.writeValueAsString(rotatedRefreshTokenRequestDTO)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value(messageSource.getMessage("message.refresh.token.invalid", null, new Locale(language))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void refresh_shouldReturnUnprocessableEntityStatus_whenRefreshTokenIsUnknown(String language) throws Exception {
+
+        RefreshTokenRequestDTO refreshTokenRequestDTO = new RefreshTokenRequestDTO("Test refresh token");
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Accept-Language", language)
+                        .content(objectMapper.writeValueAsString(refreshTokenRequestDTO)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value(messageSource.getMessage("message.refresh.token.invalid", null, new Locale(language))));
+    }
+
+    private AuthenticationResponseDTO authenticate(String username) throws Exception {
+
+        authenticationRequestDTO.setUsername(username);
+
+        String response = mockMvc.perform(post("/api/auth/authenticate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(authenticationRequestDTO)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readValue(response, AuthenticationResponseDTO.class);
+    }
+
 }
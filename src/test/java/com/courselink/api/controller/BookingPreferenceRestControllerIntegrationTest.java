@@ -0,0 +1,147 @@
+package com.courselink.api.controller;
+
+import com.courselink.api.dto.BookingPreferenceWindowDTO;
+import com.courselink.api.dto.BookingPreferencesDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.oneOf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Testcontainers
+@SpringBootTest
+@ActiveProfiles("dev")
+@AutoConfigureMockMvc
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+public class BookingPreferenceRestControllerIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void openPreferenceWindow_shouldBlockDirectBooking() throws Exception {
+        openWindow(1L);
+
+        mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(user("teacher").authorities(() -> "TEACHER"))
+                        .param("userId", "1")
+                        .param("bookingSlotId", "1"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void openPreferenceWindow_shouldReturnUnprocessableEntity_whenWindowAlreadyExists() throws Exception {
+        openWindow(1L);
+
+        mockMvc.perform(post("/api/booking-preferences/windows")
+                        .with(user("teacher").authorities(() -> "TEACHER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(window(1L))))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void openPreferenceWindow_shouldBeForbidden_forStudent() throws Exception {
+        mockMvc.perform(post("/api/booking-preferences/windows")
+                        .with(user("alice.johnson").authorities(() -> "STUDENT"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(window(1L))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void allocate_shouldAssignSlotsByPreferences() throws Exception {
+        openWindow(1L);
+        submitPreferences(1L, 1L).andExpect(status().isOk());
+        submitPreferences(2L, 1L).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/booking-preferences/windows/1/allocate")
+                        .with(user("teacher").authorities(() -> "TEACHER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].bookingSlotId", is(1)))
+                .andExpect(jsonPath("$[0].userId", oneOf(1, 2)));
+
+        mockMvc.perform(post("/api/booking-preferences/windows/1/allocate")
+                        .with(user("teacher").authorities(() -> "TEACHER")))
+                .andExpect(status().isUnprocessableEntity());
+
+        submitPreferences(3L, 1L).andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void submitPreferences_shouldReturnUnprocessableEntity_whenWindowIsNotOpen() throws Exception {
+        submitPreferences(1L, 1L).andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void submitPreferences_shouldReturnUnprocessableEntity_whenSlotBelongsToAnotherSession() throws Exception {
+        openWindow(1L);
+
+        submitPreferences(1L, 2L).andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void allocate_shouldReturnNotFound_whenWindowDoesNotExist() throws Exception {
+        mockMvc.perform(post("/api/booking-preferences/windows/1/allocate")
+                        .with(user("teacher").authorities(() -> "TEACHER")))
+                .andExpect(status().isNotFound());
+    }
+
+    private void openWindow(long defenceSessionId) throws Exception {
+        mockMvc.perform(post("/api/booking-preferences/windows")
+                        .with(user("teacher").authorities(() -> "TEACHER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(window(defenceSessionId))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.defenceSessionId", is((int) defenceSessionId)));
+    }
+
+    private ResultActions submitPreferences(long userId, long bookingSlotId) throws Exception {
+        return mockMvc.perform(put("/api/booking-preferences")
+                .with(user("student").authorities(() -> "STUDENT"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookingPreferencesDTO(userId, 1L, List.of(bookingSlotId)))));
+    }
+
+    private static BookingPreferenceWindowDTO window(long defenceSessionId) {
+        return BookingPreferenceWindowDTO.builder()
+                .defenceSessionId(defenceSessionId)
+                .closesAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .build();
+    }
+
+}
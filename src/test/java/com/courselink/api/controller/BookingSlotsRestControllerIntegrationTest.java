@@ -1,7 +1,13 @@
 package com.courselink.api.controller;
 
 
+import com.courselink.api.entity.Role;
+import com.courselink.api.repository.UserRepository;
+import com.courselink.api.security.JwtService;
+import com.courselink.api.security.VerifiedToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -10,12 +16,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -23,15 +35,23 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.time.Instant;
 import java.util.Locale;
 
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Testcontainers
 @AutoConfigureMockMvc
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev")
 @Sql(scripts = {"/sql/drop_data.sql"})
 public class BookingSlotsRestControllerIntegrationTest {
     @Container
@@ -51,14 +71,18 @@ public class BookingSlotsRestControllerIntegrationTest {
     MockMvc mockMvc;
     @Autowired
     ObjectMapper objectMapper;
+    @Autowired
+    JwtService jwtService;
+    @Autowired
+    UserRepository userRepository;
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).apply(springSecurity()).build();
     }
 
     @ParameterizedTest
     @ValueSource(ints = {1, 5, 10, 20, 30, 2, 15, 90, 50, 120, 1000})
-    @WithMockUser(username = "teacher", roles = {"TEACHER", "ADMIN_TEACHER"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql"})
     void generateBookingSlots_shouldReturnCreatedStatus(int bookingSlotsCount) throws Exception {
 
@@ -74,7 +98,7 @@ public class BookingSlotsRestControllerIntegrationTest {
     }
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
-    @WithMockUser(username = "teacher", roles = {"TEACHER", "ADMIN_TEACHER"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql"})
     void generateBookingSlots_shouldReturnUnprocessableEntityStatus_whenBookingSlotsCountIsLessThenZeroOrEquals(String language) throws Exception {
 
@@ -95,7 +119,7 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
-    @WithMockUser(username = "teacher", roles = {"TEACHER", "ADMIN_TEACHER"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql"})
     void generateBookingSlots_shouldReturnNotFoundStatus_whenDefenceSessionNotFound(String language) throws Exception {
 
@@ -116,7 +140,7 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
-    @WithMockUser(username = "teacher", roles = {"TEACHER", "ADMIN_TEACHER"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql"})
     void generateBookingSlots_shouldReturnUnprocessableEntityStatus_whenDefenceSessionIdIsAlreadyExists(String language) throws Exception {
 
@@ -145,26 +169,47 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     @ParameterizedTest
     @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L})
-    @WithMockUser(username = "student", roles = {"STUDENT", "ADMIN_STUDENT"})
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
     void chooseBookingSlot_shouldReturnOkStatus(long bookingSlotId) throws Exception {
 
         long userId = 1L;
 
-        mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+        MvcResult mvcResult = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .param("userId", String.valueOf(userId))
+                        .with(student(userId))
                         .param("bookingSlotId", String.valueOf(bookingSlotId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(6));
 
 
     }
 
+    @Test
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void chooseBookingSlot_shouldReturnOkStatus_whenAuthenticatedWithBearerToken() throws Exception {
+
+        MvcResult mvcResult = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(1L))
+                        .param("bookingSlotId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingSlotId").value(1))
+                .andExpect(jsonPath("$.userId").value(1));
+
+    }
+
     @ParameterizedTest
     @Sql("/sql/insert_booking_slots.sql")
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
-    @WithMockUser(username = "student", roles = {"STUDENT", "ADMIN_STUDENT"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
     void chooseBookingSlot_shouldReturnNotFoundStatus_whenUserNotFound(String language) throws Exception {
 
@@ -186,7 +231,7 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
-    @WithMockUser(username = "student", roles = {"STUDENT", "ADMIN_STUDENT"})
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql"})
     void chooseBookingSlot_shouldReturnNotFoundStatus_whenBookingSlotNotFound(String language) throws Exception {
 
@@ -196,7 +241,7 @@ public class BookingSlotsRestControllerIntegrationTest {
         mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("Accept-Language", language)
-                        .param("userId", String.valueOf(userId))
+                        .with(student(userId))
                         .param("bookingSlotId", String.valueOf(bookingSlotId)))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.length()").value(2))
@@ -207,7 +252,7 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
-    @WithMockUser(username = "student", roles = {"STUDENT", "ADMIN_STUDENT"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
     void chooseBookingSlot_shouldReturnUnprocessableEntity_UserIsNotAStudent(String language) throws Exception {
 
@@ -228,7 +273,7 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     @ParameterizedTest
     @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L})
-    @WithMockUser(username = "teacher", roles = {"TEACHER", "ADMIN_TEACHER"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
     void removeBookingSlotByDefenceSessionId_shouldReturnNoContentStatus(long defenceSessionId) throws Exception {
 
@@ -241,7 +286,7 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
-    @WithMockUser(username = "teacher", roles = {"TEACHER", "ADMIN_TEACHER"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql"})
     void removeBookingSlotByDefenceSessionId_shouldReturnNotFoundException_whenDefenceSessionDoesntExist(String language) throws Exception {
 
@@ -259,7 +304,7 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     @ParameterizedTest
     @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L})
-    @WithMockUser(username = "teacher", roles = {"TEACHER", "ADMIN_TEACHER", "STUDENT", "ADMIN_STUDENT"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER", "STUDENT", "ADMIN_STUDENT"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
     void getAllByDefenceSessionId_shouldReturnOkStatus(long defenceSessionId) throws Exception {
 
@@ -271,9 +316,113 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     }
 
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void releaseBookingSlot_shouldFreeSlotIdempotently() throws Exception {
+
+        long bookingSlotId = 1L;
+
+        MvcResult mvcResult = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(student(1L))
+                        .param("bookingSlotId", String.valueOf(bookingSlotId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(put("/api/booking-slots/release-booking-slot")
+                            .with(student(1L))
+                            .param("userId", "1")
+                            .param("bookingSlotId", String.valueOf(bookingSlotId)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.booked").value(false))
+                    .andExpect(jsonPath("$.userId").doesNotExist());
+        }
+
+        mvcResult = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(student(2L))
+                        .param("bookingSlotId", String.valueOf(bookingSlotId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(2));
+
+        mockMvc.perform(put("/api/booking-slots/release-booking-slot")
+                        .with(student(1L))
+                        .param("userId", "1")
+                        .param("bookingSlotId", String.valueOf(bookingSlotId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booked").value(true))
+                .andExpect(jsonPath("$.userId").value(2));
+
+    }
+
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void releaseBookingSlot_shouldReturnNotFoundStatus_whenBookingSlotNotFound() throws Exception {
+
+        mockMvc.perform(put("/api/booking-slots/release-booking-slot")
+                        .with(student(1L))
+                        .param("userId", "1")
+                        .param("bookingSlotId", "100"))
+                .andExpect(status().isNotFound());
+
+    }
+
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void chooseBookingSlot_shouldReturnForbiddenStatus_whenStudentChoosesForAnotherUser() throws Exception {
+
+        mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(student(2L))
+                        .param("userId", "1")
+                        .param("bookingSlotId", "1"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/booking-slots")
+                        .param("defenceSessionId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booked").value(false));
+
+    }
+
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void releaseBookingSlot_shouldReturnForbiddenStatus_whenStudentReleasesSlotOfAnotherUser() throws Exception {
+
+        long bookingSlotId = 1L;
+
+        MvcResult mvcResult = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(student(1L))
+                        .param("bookingSlotId", String.valueOf(bookingSlotId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/booking-slots/release-booking-slot")
+                        .with(student(2L))
+                        .param("userId", "1")
+                        .param("bookingSlotId", String.valueOf(bookingSlotId)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/booking-slots")
+                        .param("defenceSessionId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booked").value(true))
+                .andExpect(jsonPath("$[0].userId").value(1));
+
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
-    @WithMockUser(username = "teacher", roles = {"TEACHER", "ADMIN_TEACHER", "STUDENT", "ADMIN_STUDENT"})
+    @WithMockUser(username = "teacher", authorities = {"TEACHER", "ADMIN_TEACHER", "STUDENT", "ADMIN_STUDENT"})
     @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql"})
     void getAllByDefenceSessionId_shouldReturnNotFoundStatus_whenBookingSlotsNotFound(String language) throws Exception {
 
@@ -290,4 +439,205 @@ public class BookingSlotsRestControllerIntegrationTest {
 
     }
 
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void getAllByDefenceSessionId_shouldReturnNotModifiedStatus_untilSlotOfDefenceSessionIsBooked() throws Exception {
+
+        String firstSessionETag = mockMvc.perform(get("/api/booking-slots")
+                        .param("defenceSessionId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String secondSessionETag = mockMvc.perform(get("/api/booking-slots")
+                        .param("defenceSessionId", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/booking-slots")
+                        .header(HttpHeaders.IF_NONE_MATCH, secondSessionETag)
+                        .param("defenceSessionId", "2"))
+                .andExpect(status().isNotModified());
+
+        MvcResult choice = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(student(1L))
+                        .param("bookingSlotId", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(choice))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/booking-slots")
+                        .header(HttpHeaders.IF_NONE_MATCH, firstSessionETag)
+                        .param("defenceSessionId", "1"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/booking-slots")
+                        .header(HttpHeaders.IF_NONE_MATCH, secondSessionETag)
+                        .param("defenceSessionId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(secondSessionETag)))
+                .andExpect(jsonPath("$[0].booked").value(true));
+
+    }
+
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void getChangesSince_shouldReturnOnlySlotsChangedAfterReturnedVersion() throws Exception {
+
+        MvcResult initialSync = mockMvc.perform(get("/api/booking-slots/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingSlots.length()").value(10))
+                .andExpect(jsonPath("$.deletedBookingSlotIds.length()").value(0))
+                .andReturn();
+        long version = objectMapper.readTree(initialSync.getResponse().getContentAsString()).get("version").asLong();
+
+        MvcResult choice = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(student(1L))
+                        .param("bookingSlotId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(choice))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/booking-slots/changes")
+                        .param("since", String.valueOf(version)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingSlots.length()").value(1))
+                .andExpect(jsonPath("$.bookingSlots[0].bookingSlotId").value(1))
+                .andExpect(jsonPath("$.bookingSlots[0].booked").value(true))
+                .andExpect(jsonPath("$.bookingSlots[0].userId").value(1));
+
+    }
+
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void getChangesSince_shouldPageChanges_whenLimitIsGiven() throws Exception {
+
+        MvcResult firstPage = mockMvc.perform(get("/api/booking-slots/changes")
+                        .param("limit", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingSlots.length()").value(10))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn();
+        long version = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("version").asLong();
+
+        mockMvc.perform(get("/api/booking-slots/changes")
+                        .param("since", String.valueOf(version))
+                        .param("limit", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingSlots.length()").value(0))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+    }
+
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    void getChangesSince_shouldReturnUnprocessableEntityStatus_whenLimitIsNotPositive() throws Exception {
+
+        mockMvc.perform(get("/api/booking-slots/changes")
+                        .param("limit", "0"))
+                .andExpect(status().isUnprocessableEntity());
+
+    }
+
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"},
+            statements = "update booking_slot_change_horizon set min_version = 9223372036854775807")
+    void getChangesSince_shouldReturnGoneStatus_whenVersionWasPruned() throws Exception {
+
+        mockMvc.perform(get("/api/booking-slots/changes")
+                        .param("since", "1"))
+                .andExpect(status().isGone());
+
+        mockMvc.perform(get("/api/booking-slots/changes"))
+                .andExpect(status().isOk());
+
+    }
+
+    @Test
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void streamByDefenceSessionId_shouldPushSlotsAndThenBookedSlot() throws Exception {
+
+        MvcResult stream = mockMvc.perform(get("/api/booking-slots/stream")
+                        .param("defenceSessionId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult choice = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(student(1L))
+                        .param("bookingSlotId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(choice))
+                .andExpect(status().isOk());
+
+        String events = awaitContent(stream, "event:slot\n");
+        assertTrue(events.startsWith("event:slots\n"));
+        String bookedSlot = events.substring(events.indexOf("event:slot\n"));
+        assertTrue(bookedSlot.contains("\"bookingSlotId\":1"));
+        assertTrue(bookedSlot.contains("\"booked\":true"));
+
+    }
+
+    @Test
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+    void streamByDefenceSessionId_shouldCompleteStream_whenAuthenticatedWithBearerToken() throws Exception {
+
+        MvcResult stream = mockMvc.perform(get("/api/booking-slots/stream")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(1L))
+                        .param("defenceSessionId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertTrue(awaitContent(stream, "event:slots\n").startsWith("event:slots\n"));
+
+        MockAsyncContext asyncContext = (MockAsyncContext) stream.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk());
+
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    @WithMockUser(username = "student", authorities = {"STUDENT", "ADMIN_STUDENT"})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql"})
+    void streamByDefenceSessionId_shouldReturnNotFoundStatus_whenDefenceSessionNotFound(String language) throws Exception {
+
+        long defenceSessionId = 100L;
+
+        mockMvc.perform(get("/api/booking-slots/stream")
+                        .header("Accept-Language", language)
+                        .param("defenceSessionId", String.valueOf(defenceSessionId)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.statusCode").value(404))
+                .andExpect(jsonPath("$.message").value(messageSource.getMessage("message.defence.session.not.found.with.id", new Object[]{defenceSessionId}, new Locale(language))));
+
+    }
+
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    private String bearerToken(long userId) {
+        return "Bearer " + jwtService.generateToken(userRepository.findById(userId).orElseThrow());
+    }
+
+    private static RequestPostProcessor student(long userId) {
+        VerifiedToken verifiedToken = new VerifiedToken("student", userId, Role.STUDENT, 0, Instant.now(), Instant.now().plusSeconds(60));
+        return authentication(new UsernamePasswordAuthenticationToken(verifiedToken, null, verifiedToken.getAuthorities()));
+    }
+
 }
@@ -0,0 +1,209 @@
+package com.courselink.api.controller;
+
+import com.courselink.api.entity.Role;
+import com.courselink.api.repository.UserRepository;
+import com.courselink.api.security.JwtService;
+import com.courselink.api.security.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The waitlists are mirrored in memory for the lifetime of the context, so every test uses its own defence session.
+ */
+@Testcontainers
+@SpringBootTest
+@ActiveProfiles("dev")
+@AutoConfigureMockMvc
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+public class BookingWaitlistRestControllerIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    JwtService jwtService;
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void joinWaitlist_shouldPromoteRightAway_whenSlotIsFree() throws Exception {
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .with(student(2L, "bob.smith"))
+                        .param("defenceSessionId", "1"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.position", is(0)))
+                .andExpect(jsonPath("$.bookingSlot.bookingSlotId", is(1)))
+                .andExpect(jsonPath("$.bookingSlot.userId", is(2)));
+
+        mockMvc.perform(get("/api/booking-waitlist")
+                        .with(student(2L, "bob.smith"))
+                        .param("defenceSessionId", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void awaitPromotion_shouldCompleteWhenSlotFreesUp() throws Exception {
+        bookSlot(1L, 2L);
+
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .with(student(3L, "charlie.brown"))
+                        .param("defenceSessionId", "2"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.position", is(1)))
+                .andExpect(jsonPath("$.bookingSlot").doesNotExist());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/booking-waitlist/promotion")
+                        .with(student(3L, "charlie.brown"))
+                        .param("defenceSessionId", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(put("/api/booking-slots/release-booking-slot")
+                        .with(student(1L, "alice.johnson"))
+                        .param("bookingSlotId", "2"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position", is(0)))
+                .andExpect(jsonPath("$.bookingSlot.userId", is(3)));
+    }
+
+    @Test
+    void awaitPromotion_shouldDeliverPromotion_whenAuthenticatedWithBearerToken() throws Exception {
+        bookSlot(1L, 7L);
+        String bearerToken = "Bearer " + jwtService.generateToken(userRepository.findById(9L).orElseThrow());
+
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .param("defenceSessionId", "7"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.position", is(1)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/booking-waitlist/promotion")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .param("defenceSessionId", "7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(put("/api/booking-slots/release-booking-slot")
+                        .with(student(1L, "alice.johnson"))
+                        .param("bookingSlotId", "7"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position", is(0)))
+                .andExpect(jsonPath("$.bookingSlot.userId", is(9)));
+    }
+
+    @Test
+    void joinWaitlist_shouldReturnUnprocessableEntity_whenUserAlreadyBooked() throws Exception {
+        bookSlot(1L, 3L);
+
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .with(student(1L, "alice.johnson"))
+                        .param("defenceSessionId", "3"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void joinWaitlist_shouldReturnNotFound_whenDefenceSessionDoesNotExist() throws Exception {
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .with(student(1L, "alice.johnson"))
+                        .param("defenceSessionId", "100"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void leaveWaitlist_shouldReturnNoContent_thenNotFound() throws Exception {
+        bookSlot(1L, 4L);
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .with(student(7L, "grace.wilson"))
+                        .param("defenceSessionId", "4"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(delete("/api/booking-waitlist")
+                        .with(student(7L, "grace.wilson"))
+                        .param("defenceSessionId", "4"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/booking-waitlist")
+                        .with(student(7L, "grace.wilson"))
+                        .param("defenceSessionId", "4"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void joinWaitlist_shouldBeForbidden_whenStudentActsForAnotherUser() throws Exception {
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .with(student(1L, "alice.johnson"))
+                        .param("userId", "2")
+                        .param("defenceSessionId", "5"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void joinWaitlist_shouldLetTeacherActForStudent() throws Exception {
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .with(user("teacher").authorities(() -> "TEACHER"))
+                        .param("userId", "9")
+                        .param("defenceSessionId", "5"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.bookingSlot.userId", is(9)));
+    }
+
+    @Test
+    void joinWaitlist_shouldReturnUnprocessableEntity_whenTeacherActsForTeacher() throws Exception {
+        mockMvc.perform(post("/api/booking-waitlist")
+                        .with(user("teacher").authorities(() -> "TEACHER"))
+                        .param("userId", "4")
+                        .param("defenceSessionId", "6"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private void bookSlot(long userId, long bookingSlotId) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(put("/api/booking-slots/choose-booking-slot")
+                        .with(student(userId, "student"))
+                        .param("bookingSlotId", String.valueOf(bookingSlotId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor student(long userId, String username) {
+        VerifiedToken verifiedToken = new VerifiedToken(username, userId, Role.STUDENT, 0, Instant.now(), Instant.now().plusSeconds(60));
+        return authentication(new UsernamePasswordAuthenticationToken(verifiedToken, null, verifiedToken.getAuthorities()));
+    }
+
+}
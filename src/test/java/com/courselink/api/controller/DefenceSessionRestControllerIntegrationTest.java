@@ -14,6 +14,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -31,6 +32,7 @@ import java.time.LocalTime;
 import java.util.Locale;
 import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.greaterThan;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -38,6 +40,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Testcontainers
 @AutoConfigureMockMvc
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev")
 @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_defence_sessions.sql"})
 public class DefenceSessionRestControllerIntegrationTest {
 
@@ -103,7 +106,32 @@ public class DefenceSessionRestControllerIntegrationTest {
                 .content(objectMapper.writeValueAsString(defenceSessionDTO)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.length()").value(6))
-                .andExpect(jsonPath("$.defenceSessionId").value(11L));
+                .andExpect(jsonPath("$.defenceSessionId", greaterThan(10)));
+
+    }
+
+    @Test
+    @WithMockUser(username = "teacher", roles = "TEACHER")
+    void createDefenceSession_shouldReplayResponse_whenRetriedWithSameIdempotencyKey() throws Exception {
+
+        String response = mockMvc.perform(post("/api/defence-sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "create-session")
+                .content(objectMapper.writeValueAsString(defenceSessionDTO)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long defenceSessionId = objectMapper.readValue(response, DefenceSessionDTO.class).getDefenceSessionId();
+
+        mockMvc.perform(post("/api/defence-sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "create-session")
+                .content(objectMapper.writeValueAsString(defenceSessionDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.defenceSessionId").value(defenceSessionId));
+
+        mockMvc.perform(get("/api/defence-sessions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(11));
 
     }
 
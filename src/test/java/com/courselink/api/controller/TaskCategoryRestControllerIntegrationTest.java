@@ -12,8 +12,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -28,13 +30,17 @@ import org.testcontainers.utility.DockerImageName;
 import java.util.List;
 import java.util.Locale;
 
+import static org.hamcrest.Matchers.greaterThan;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Testcontainers
 @AutoConfigureMockMvc
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev")
 @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql"})
 public class TaskCategoryRestControllerIntegrationTest {
 
@@ -76,7 +82,7 @@ public class TaskCategoryRestControllerIntegrationTest {
                 .content(objectMapper.writeValueAsString(taskCategoryDTO)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$.taskCategoryId").value(5L))
+                .andExpect(jsonPath("$.taskCategoryId", greaterThan(4)))
                 .andExpect(jsonPath("$.taskCategoryName").value("Test task category name"));
 
     }
@@ -209,6 +215,32 @@ public class TaskCategoryRestControllerIntegrationTest {
 
     }
 
+    @Test
+    @WithMockUser(username = "teacher", roles = "TEACHER")
+    void getAll_shouldReturnNotModifiedStatus_untilTaskCategoryIsCreated() throws Exception {
+
+        String etag = mockMvc.perform(get("/api/task-categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/task-categories")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/task-categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(taskCategoryDTO)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/task-categories")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+
+    }
+
     @ParameterizedTest
     @ValueSource(longs = {1L, 2L, 3L, 4L})
     @WithMockUser(username = "teacher", roles = "TEACHER")
@@ -17,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -31,6 +32,7 @@ import org.testcontainers.utility.DockerImageName;
 import java.util.Locale;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -40,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_users.sql"})
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev")
 public class UserManagementRestControllerIntegrationTest {
     @Container
     private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
@@ -172,5 +175,53 @@ public class UserManagementRestControllerIntegrationTest {
 
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN", "ADMIN_TEACHER", "ADMIN_STUDENT"})
+    void importUsers_shouldImportCsvAndReportRejectedRows() throws Exception {
+
+        String csv = "username,email,password,firstname,lastname,role\n" +
+                "student.import,student.import@university.com,Password1!,Student,Import,STUDENT\n" +
+                "teacher.import,teacher.import@university.com,Password1!,Teacher,Import,TEACHER\n" +
+                "alice.johnson,alice.import@university.com,Password1!,Alice,Johnson,STUDENT\n";
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("text/csv")
+                        .header("Accept-Language", "en")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(3))
+                .andExpect(jsonPath("$.importedRows").value(2))
+                .andExpect(jsonPath("$.failedRows").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value(messageSource.getMessage("message.user.already.exists.with.username", new Object[]{"alice.johnson"}, Locale.ENGLISH)));
+
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(12));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN", "ADMIN_TEACHER", "ADMIN_STUDENT"})
+    void importUsers_shouldImportNdjson() throws Exception {
+
+        String ndjson = "{\"username\":\"student.import\",\"email\":\"student.import@university.com\",\"password\":\"Password1!\",\"firstname\":\"Student\",\"lastname\":\"Import\",\"role\":\"STUDENT\"}\n";
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows").value(1))
+                .andExpect(jsonPath("$.failedRows").value(0));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN", "ADMIN_TEACHER", "ADMIN_STUDENT"})
+    void importUsers_shouldReturnUnsupportedMediaType_whenBodyIsJson() throws Exception {
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
 
 }
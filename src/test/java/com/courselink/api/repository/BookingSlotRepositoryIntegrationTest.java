@@ -1,8 +1,13 @@
 package com.courselink.api.repository;
 
+import com.courselink.api.dto.BookingSlotChangesDTO;
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.entity.BookingPreferenceWindow;
 import com.courselink.api.entity.BookingSlot;
 import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.Role;
 import com.courselink.api.entity.TaskCategory;
+import com.courselink.api.entity.User;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -20,10 +26,21 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -31,6 +48,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @Testcontainers
 @SpringBootTest
+@ActiveProfiles("dev")
 @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql",  "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
 public class BookingSlotRepositoryIntegrationTest {
 
@@ -45,6 +63,10 @@ public class BookingSlotRepositoryIntegrationTest {
 
     @Autowired
     BookingSlotRepository bookingSlotRepository;
+    @Autowired
+    BookingPreferenceWindowRepository bookingPreferenceWindowRepository;
+    @Autowired
+    DataSource dataSource;
 
     BookingSlot bookingSlot;
 
@@ -136,4 +158,300 @@ public class BookingSlotRepositoryIntegrationTest {
         assertEquals(0, bookingSlots.size());
     }
 
+    @Test
+    void claim_shouldBookFreeSlot() {
+        Optional<BookingSlot> claimedBookingSlot = bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT, Role.ADMIN_STUDENT));
+
+        assertTrue(claimedBookingSlot.isPresent());
+        assertEquals(1L, claimedBookingSlot.get().getBookingSlotId());
+        assertEquals(1L, claimedBookingSlot.get().getUser().getUserId());
+        assertEquals(1L, claimedBookingSlot.get().getDefenceSession().getDefenceSessionId());
+        assertTrue(bookingSlotRepository.findById(1L).orElseThrow().isBooked());
+    }
+
+    @Test
+    void claim_shouldReturnStoredTimes_whenTimesHaveFractionalSeconds() {
+        BookingSlot storedBookingSlot = bookingSlotRepository.findById(1L).orElseThrow();
+        storedBookingSlot.setStartTime(LocalTime.of(9, 0, 0, 123000000));
+        storedBookingSlot.setEndTime(LocalTime.of(9, 29, 59, 999000000));
+        bookingSlotRepository.save(storedBookingSlot);
+
+        BookingSlot claimedBookingSlot = bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT)).orElseThrow();
+
+        assertEquals(LocalTime.of(9, 0, 0, 123000000), claimedBookingSlot.getStartTime());
+        assertEquals(LocalTime.of(9, 29, 59, 999000000), claimedBookingSlot.getEndTime());
+    }
+
+    @Test
+    void claim_shouldNotBookSlot_whenSlotIsAlreadyBooked() {
+        assertTrue(bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT)).isPresent());
+
+        assertTrue(bookingSlotRepository.claim(1L, 2L, List.of(Role.STUDENT)).isEmpty());
+    }
+
+    @Test
+    void claim_shouldNotBookSlot_whenUserHasNoAllowedRole() {
+        long teacherId = 4L;
+
+        assertTrue(bookingSlotRepository.claim(1L, teacherId, List.of(Role.STUDENT, Role.ADMIN_STUDENT)).isEmpty());
+        assertFalse(bookingSlotRepository.findById(1L).orElseThrow().isBooked());
+    }
+
+    @Test
+    void claim_shouldNotBookSlot_whenSlotDoesNotExist() {
+        assertTrue(bookingSlotRepository.claim(100L, 1L, List.of(Role.STUDENT)).isEmpty());
+    }
+
+    @Test
+    void claim_shouldNotBookSlot_whenPreferenceWindowIsNotAllocated() {
+        bookingPreferenceWindowRepository.save(BookingPreferenceWindow.builder()
+                .defenceSessionId(1L)
+                .closesAt(Instant.now().plusSeconds(3600))
+                .isAllocated(false)
+                .build());
+
+        assertTrue(bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT)).isEmpty());
+        assertTrue(bookingPreferenceWindowRepository.existsUnallocatedByBookingSlotId(1L));
+
+        assertEquals(1, bookingPreferenceWindowRepository.markAllocated(1L));
+        assertEquals(0, bookingPreferenceWindowRepository.markAllocated(1L));
+        assertTrue(bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT)).isPresent());
+    }
+
+    @Test
+    void claim_shouldLetExactlyOneOfConcurrentClaimsWin() throws Exception {
+        List<Long> studentIds = List.of(1L, 2L, 3L, 7L, 9L);
+        ExecutorService executorService = Executors.newFixedThreadPool(studentIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Optional<BookingSlot>>> claims = new ArrayList<>();
+            for (long studentId : studentIds) {
+                claims.add(executorService.submit(() -> {
+                    start.await();
+                    return bookingSlotRepository.claim(1L, studentId, List.of(Role.STUDENT));
+                }));
+            }
+            start.countDown();
+
+            int wins = 0;
+            for (Future<Optional<BookingSlot>> claim : claims) {
+                if (claim.get(10, TimeUnit.SECONDS).isPresent()) {
+                    wins++;
+                }
+            }
+            assertEquals(1, wins);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void batchClaim_shouldBookOnlyFreeSlots() {
+        assertTrue(bookingSlotRepository.claim(2L, 2L, List.of(Role.STUDENT)).isPresent());
+
+        int[] updatedRows = bookingSlotRepository.batchClaim(List.of(
+                BookingSlot.builder().bookingSlotId(1L).user(User.builder().userId(1L).build()).build(),
+                BookingSlot.builder().bookingSlotId(2L).user(User.builder().userId(3L).build()).build()
+        ));
+
+        assertArrayEquals(new int[]{1, 0}, updatedRows);
+        assertTrue(bookingSlotRepository.findById(1L).orElseThrow().isBooked());
+        assertEquals(2L, bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(2L).get(0).getUser().getUserId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 7, 30, 500})
+    @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_defence_sessions.sql"})
+    void generate_shouldSplitDefenceSessionIntoEqualFreeSlots(int bookingSlotsCount) {
+        List<BookingSlot> bookingSlots = bookingSlotRepository.generate(2L, bookingSlotsCount);
+
+        assertEquals(bookingSlotsCount, bookingSlots.size());
+        assertEquals(LocalTime.of(9, 0), bookingSlots.get(0).getStartTime());
+        long slotNanos = Duration.ofMinutes(45).toNanos() / 1000 / bookingSlotsCount * 1000;
+        for (int i = 0; i < bookingSlots.size(); i++) {
+            BookingSlot generatedBookingSlot = bookingSlots.get(i);
+            assertEquals(LocalTime.of(9, 0).plusNanos(slotNanos * i), generatedBookingSlot.getStartTime());
+            assertEquals(LocalTime.of(9, 0).plusNanos(slotNanos * (i + 1)), generatedBookingSlot.getEndTime());
+            assertFalse(generatedBookingSlot.isBooked());
+            assertEquals(2L, generatedBookingSlot.getDefenceSession().getDefenceSessionId());
+        }
+        assertEquals(bookingSlotsCount, bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(2L).size());
+    }
+
+    @Test
+    void generate_shouldNotInsertSlots_whenDefenceSessionAlreadyHasSlots() {
+        assertTrue(bookingSlotRepository.generate(1L, 5).isEmpty());
+        assertEquals(1, bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(1L).size());
+    }
+
+    @Test
+    void generate_shouldNotInsertSlots_whenDefenceSessionDoesNotExist() {
+        assertTrue(bookingSlotRepository.generate(100L, 5).isEmpty());
+    }
+
+    @Test
+    void release_shouldFreeSlotBookedByUser() {
+        assertTrue(bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT)).isPresent());
+
+        Optional<BookingSlot> releasedBookingSlot = bookingSlotRepository.release(1L, 1L);
+
+        assertTrue(releasedBookingSlot.isPresent());
+        assertFalse(releasedBookingSlot.get().isBooked());
+        assertEquals(1L, releasedBookingSlot.get().getDefenceSession().getDefenceSessionId());
+        BookingSlot bookingSlot = bookingSlotRepository.findById(1L).orElseThrow();
+        assertFalse(bookingSlot.isBooked());
+        assertNull(bookingSlot.getUser());
+        assertTrue(bookingSlotRepository.release(1L, 1L).isEmpty());
+    }
+
+    @Test
+    void release_shouldNotFreeSlot_whenBookedByAnotherUser() {
+        assertTrue(bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT)).isPresent());
+
+        assertTrue(bookingSlotRepository.release(1L, 2L).isEmpty());
+        assertTrue(bookingSlotRepository.findById(1L).orElseThrow().isBooked());
+    }
+
+    @Test
+    void release_shouldKeepSlotConsistent_whenRacingWithRebooking() throws Exception {
+        assertTrue(bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT)).isPresent());
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<Optional<BookingSlot>> release = executorService.submit(() -> {
+                start.await();
+                return bookingSlotRepository.release(1L, 1L);
+            });
+            Future<Optional<BookingSlot>> claim = executorService.submit(() -> {
+                start.await();
+                return bookingSlotRepository.claim(1L, 2L, List.of(Role.STUDENT));
+            });
+            start.countDown();
+
+            assertTrue(release.get(10, TimeUnit.SECONDS).isPresent());
+            boolean rebooked = claim.get(10, TimeUnit.SECONDS).isPresent();
+            BookingSlot bookingSlot = bookingSlotRepository.findById(1L).orElseThrow();
+            assertEquals(rebooked, bookingSlot.isBooked());
+            if (rebooked) {
+                assertEquals(2L, bookingSlot.getUser().getUserId());
+            } else {
+                assertNull(bookingSlot.getUser());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void findChangesSince_shouldReturnAllSlots_whenSinceIsZero() {
+        BookingSlotChangesDTO changes = bookingSlotRepository.findChangesSince(0L, 100);
+
+        assertEquals(10, changes.getBookingSlots().size());
+        assertTrue(changes.getDeletedBookingSlotIds().isEmpty());
+        assertTrue(changes.getVersion() > 0L);
+    }
+
+    @Test
+    void findChangesSince_shouldReturnOnlySlotsChangedAfterVersion() {
+        long version = bookingSlotRepository.findChangesSince(0L, 100).getVersion();
+        assertTrue(bookingSlotRepository.findChangesSince(version, 100).getBookingSlots().isEmpty());
+
+        assertTrue(bookingSlotRepository.claim(3L, 1L, List.of(Role.STUDENT)).isPresent());
+
+        BookingSlotChangesDTO changes = bookingSlotRepository.findChangesSince(version, 100);
+        assertEquals(1, changes.getBookingSlots().size());
+        BookingSlotDTO bookingSlotDTO = changes.getBookingSlots().get(0);
+        assertEquals(3L, bookingSlotDTO.getBookingSlotId());
+        assertTrue(bookingSlotDTO.isBooked());
+        assertEquals(1L, bookingSlotDTO.getUserId());
+        assertTrue(changes.getVersion() > version);
+    }
+
+    @Test
+    void findChangesSince_shouldReturnDeletedSlotIds() {
+        long version = bookingSlotRepository.findChangesSince(0L, 100).getVersion();
+
+        bookingSlotRepository.deleteByDefenceSession_DefenceSessionId(2L);
+
+        BookingSlotChangesDTO changes = bookingSlotRepository.findChangesSince(version, 100);
+        assertTrue(changes.getBookingSlots().isEmpty());
+        assertEquals(List.of(2L), changes.getDeletedBookingSlotIds());
+    }
+
+    @Test
+    void findChangesSince_shouldPageChanges_whenLimitIsReached() {
+        long version = bookingSlotRepository.findChangesSince(0L, 100).getVersion();
+
+        assertTrue(bookingSlotRepository.claim(3L, 1L, List.of(Role.STUDENT)).isPresent());
+        assertTrue(bookingSlotRepository.claim(4L, 2L, List.of(Role.STUDENT)).isPresent());
+
+        BookingSlotChangesDTO firstPage = bookingSlotRepository.findChangesSince(version, 1);
+        assertTrue(firstPage.isHasMore());
+        assertEquals(1, firstPage.getBookingSlots().size());
+        assertEquals(3L, firstPage.getBookingSlots().get(0).getBookingSlotId());
+
+        BookingSlotChangesDTO secondPage = bookingSlotRepository.findChangesSince(firstPage.getVersion(), 1);
+        assertFalse(secondPage.isHasMore());
+        assertEquals(1, secondPage.getBookingSlots().size());
+        assertEquals(4L, secondPage.getBookingSlots().get(0).getBookingSlotId());
+        assertTrue(secondPage.getVersion() > firstPage.getVersion());
+    }
+
+    @Test
+    void findChangesSince_shouldPageChanges_whenFewChangesAreBelowRunningTransaction() throws Exception {
+        long version = bookingSlotRepository.findChangesSince(0L, 100).getVersion();
+        assertTrue(bookingSlotRepository.claim(3L, 1L, List.of(Role.STUDENT)).isPresent());
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("select txid_current()");
+            }
+            assertTrue(bookingSlotRepository.claim(4L, 2L, List.of(Role.STUDENT)).isPresent());
+            assertTrue(bookingSlotRepository.claim(5L, 3L, List.of(Role.STUDENT)).isPresent());
+            assertTrue(bookingSlotRepository.claim(6L, 7L, List.of(Role.STUDENT)).isPresent());
+
+            BookingSlotChangesDTO changes = bookingSlotRepository.findChangesSince(version, 2);
+            assertFalse(changes.isHasMore());
+            assertEquals(List.of(3L, 4L), changes.getBookingSlots().stream().map(BookingSlotDTO::getBookingSlotId).toList());
+            connection.rollback();
+        }
+    }
+
+    @Test
+    void findVersionByDefenceSessionId_shouldChange_whenEarlierTransactionCommitsLater() throws Exception {
+        String version = bookingSlotRepository.findVersionByDefenceSessionId(1L);
+        assertEquals(version, bookingSlotRepository.findVersionByDefenceSessionId(1L));
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into booking_slots (start_time, end_time, is_booked, defence_session_id) " +
+                        "values ('15:00:00', '15:30:00', false, 1)");
+            }
+            assertTrue(bookingSlotRepository.claim(1L, 1L, List.of(Role.STUDENT)).isPresent());
+
+            String claimedVersion = bookingSlotRepository.findVersionByDefenceSessionId(1L);
+            assertNotEquals(version, claimedVersion);
+
+            connection.commit();
+            assertNotEquals(claimedVersion, bookingSlotRepository.findVersionByDefenceSessionId(1L));
+        }
+    }
+
+    @Test
+    void pruneDeletions_shouldRaiseMinVersion_whenTombstonesArePruned() {
+        long version = bookingSlotRepository.findChangesSince(0L, 100).getVersion();
+        bookingSlotRepository.deleteByDefenceSession_DefenceSessionId(2L);
+        long currentVersion = bookingSlotRepository.findChangesSince(version, 100).getVersion();
+
+        assertEquals(0, bookingSlotRepository.pruneDeletions(Instant.now().minus(Duration.ofDays(1))));
+        assertEquals(1, bookingSlotRepository.pruneDeletions(Instant.now().plus(Duration.ofDays(1))));
+
+        BookingSlotChangesDTO changes = bookingSlotRepository.findChangesSince(currentVersion, 100);
+        assertTrue(changes.getMinVersion() > version);
+        assertTrue(changes.getMinVersion() <= currentVersion);
+        assertTrue(changes.getDeletedBookingSlotIds().isEmpty());
+    }
+
 }
@@ -0,0 +1,117 @@
+package com.courselink.api.repository;
+
+import com.courselink.api.entity.BookingPreferenceWindow;
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.BookingWaitlistEntry;
+import com.courselink.api.entity.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest
+@ActiveProfiles("dev")
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql", "/sql/insert_users.sql", "/sql/insert_defence_sessions.sql", "/sql/insert_booking_slots.sql"})
+public class BookingWaitlistRepositoryIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    BookingWaitlistRepository bookingWaitlistRepository;
+    @Autowired
+    BookingSlotRepository bookingSlotRepository;
+    @Autowired
+    BookingPreferenceWindowRepository bookingPreferenceWindowRepository;
+
+    @Test
+    void enqueue_shouldKeepOriginalPosition_whenUserJoinsAgain() {
+        assertTrue(bookingWaitlistRepository.enqueue(1L, 2L));
+        assertTrue(bookingWaitlistRepository.enqueue(1L, 3L));
+        assertFalse(bookingWaitlistRepository.enqueue(1L, 2L));
+
+        assertEquals(List.of(2L, 3L), bookingWaitlistRepository.findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(1L).stream()
+                .map(BookingWaitlistEntry::getUserId)
+                .toList());
+    }
+
+    @Test
+    void promoteNext_shouldBookFreeSlotForFirstWaitingUser() {
+        bookingWaitlistRepository.enqueue(1L, 3L);
+        bookingWaitlistRepository.enqueue(1L, 2L);
+
+        Optional<BookingSlot> promoted = bookingWaitlistRepository.promoteNext(1L);
+
+        assertTrue(promoted.isPresent());
+        assertEquals(1L, promoted.get().getBookingSlotId());
+        assertEquals(3L, promoted.get().getUser().getUserId());
+        BookingSlot bookingSlot = bookingSlotRepository.findById(1L).orElseThrow();
+        assertTrue(bookingSlot.isBooked());
+        assertEquals(3L, bookingSlot.getUser().getUserId());
+        assertTrue(bookingWaitlistRepository.promoteNext(1L).isEmpty());
+        assertEquals(1, bookingWaitlistRepository.findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(1L).size());
+    }
+
+    @Test
+    void promoteNext_shouldReturnStoredTimes_whenTimesHaveFractionalSeconds() {
+        BookingSlot storedBookingSlot = bookingSlotRepository.findById(1L).orElseThrow();
+        storedBookingSlot.setStartTime(LocalTime.of(9, 0, 0, 123000000));
+        storedBookingSlot.setEndTime(LocalTime.of(9, 29, 59, 999000000));
+        bookingSlotRepository.save(storedBookingSlot);
+        bookingWaitlistRepository.enqueue(1L, 2L);
+
+        BookingSlot promotedBookingSlot = bookingWaitlistRepository.promoteNext(1L).orElseThrow();
+
+        assertEquals(LocalTime.of(9, 0, 0, 123000000), promotedBookingSlot.getStartTime());
+        assertEquals(LocalTime.of(9, 29, 59, 999000000), promotedBookingSlot.getEndTime());
+    }
+
+    @Test
+    void promoteNext_shouldNotPromote_whenPreferenceWindowIsNotAllocated() {
+        bookingPreferenceWindowRepository.save(BookingPreferenceWindow.builder()
+                .defenceSessionId(1L)
+                .closesAt(Instant.now().plus(1, ChronoUnit.DAYS))
+                .isAllocated(false)
+                .build());
+        bookingWaitlistRepository.enqueue(1L, 2L);
+
+        assertTrue(bookingWaitlistRepository.promoteNext(1L).isEmpty());
+        assertFalse(bookingSlotRepository.findById(1L).orElseThrow().isBooked());
+    }
+
+    @Test
+    void removeBooked_shouldRemoveUsersWhoAlreadyBooked() {
+        bookingWaitlistRepository.enqueue(1L, 2L);
+        bookingWaitlistRepository.enqueue(1L, 3L);
+        assertTrue(bookingSlotRepository.claim(1L, 2L, EnumSet.of(Role.STUDENT)).isPresent());
+
+        assertEquals(List.of(2L), bookingWaitlistRepository.removeBooked(1L));
+        assertEquals(List.of(3L), bookingWaitlistRepository.findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(1L).stream()
+                .map(BookingWaitlistEntry::getUserId)
+                .toList());
+    }
+
+}
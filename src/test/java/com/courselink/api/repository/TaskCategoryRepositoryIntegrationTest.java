@@ -8,6 +8,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -23,6 +24,7 @@ import static org.junit.Assert.*;
 
 @Testcontainers
 @SpringBootTest
+@ActiveProfiles("dev")
 @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_task_categories.sql"})
 public class TaskCategoryRepositoryIntegrationTest {
     @Container
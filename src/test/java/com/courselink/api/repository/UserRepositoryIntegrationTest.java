@@ -3,6 +3,7 @@ package com.courselink.api.repository;
 import com.courselink.api.entity.Role;
 import com.courselink.api.entity.Status;
 import com.courselink.api.entity.User;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -10,6 +11,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -24,6 +26,7 @@ import static org.junit.Assert.*;
 
 @Testcontainers
 @SpringBootTest
+@ActiveProfiles("dev")
 @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_users.sql"})
 public class UserRepositoryIntegrationTest {
 
@@ -190,5 +193,61 @@ public class UserRepositoryIntegrationTest {
         assertFalse(isUserExists);
     }
 
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L})
+    void findSecurityVersionByUserId_shouldReturnInitialVersion(long userId) {
+        Optional<Integer> securityVersion = userRepository.findSecurityVersionByUserId(userId);
+        assertTrue(securityVersion.isPresent());
+        assertEquals(0, securityVersion.get().intValue());
+    }
+
+    @Test
+    void findSecurityVersionByUserId_shouldReturnEmptyOptional_whenUserNotFound() {
+        long userId = 100L;
+        Optional<Integer> securityVersion = userRepository.findSecurityVersionByUserId(userId);
+        assertTrue(securityVersion.isEmpty());
+    }
+
+    @Test
+    void updatePasswordIfUnchanged_shouldReplacePassword_whenCurrentPasswordMatches() {
+        long userId = 1L;
+        String currentPassword = userRepository.findById(userId).orElseThrow().getPassword();
+        assertEquals(1, userRepository.updatePasswordIfUnchanged(userId, currentPassword, "Test rehashed password"));
+        assertEquals("Test rehashed password", userRepository.findById(userId).orElseThrow().getPassword());
+    }
+
+    @Test
+    void updatePasswordIfUnchanged_shouldNotReplacePassword_whenPasswordWasChanged() {
+        long userId = 1L;
+        String currentPassword = userRepository.findById(userId).orElseThrow().getPassword();
+        assertEquals(0, userRepository.updatePasswordIfUnchanged(userId, "Test outdated password", "Test rehashed password"));
+        assertEquals(currentPassword, userRepository.findById(userId).orElseThrow().getPassword());
+    }
+
+    @Test
+    void insertUser_shouldPersistUserAndReturnGeneratedId() {
+        long userId = userRepository.insertUser(user);
+        Optional<User> optionalUser = userRepository.findById(userId);
+        assertTrue(optionalUser.isPresent());
+        assertEquals(user.getUsername(), optionalUser.get().getUsername());
+        assertEquals(0, optionalUser.get().getSecurityVersion());
+        assertEquals(userRepository.count(), 11);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"alice.johnson", "bob.smith", "charlie.brown"})
+    void insertUser_shouldReportUsernameConstraint_whenUsernameIsNotUnique(String username) {
+        user.setUsername(username);
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> userRepository.insertUser(user));
+        assertEquals("users_username_key", ((ConstraintViolationException) exception.getCause()).getConstraintName());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"alice.johnson@student.university.com", "bob.smith@student.university.com"})
+    void insertUser_shouldReportEmailConstraint_whenEmailIsNotUnique(String email) {
+        user.setEmail(email);
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> userRepository.insertUser(user));
+        assertEquals("users_email_key", ((ConstraintViolationException) exception.getCause()).getConstraintName());
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ActingUserResolverTest {
+
+    @Mock
+    MessageSource messageSource;
+
+    ActingUserResolver actingUserResolver;
+
+    @BeforeEach
+    void setUp() {
+        actingUserResolver = new ActingUserResolver(messageSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resolve_shouldReturnCaller_whenNoUserIsRequested() {
+        authenticate(1L, Role.STUDENT);
+
+        assertEquals(1L, actingUserResolver.resolve(null));
+    }
+
+    @Test
+    void resolve_shouldReturnCaller_whenCallerIsRequested() {
+        authenticate(1L, Role.STUDENT);
+
+        assertEquals(1L, actingUserResolver.resolve(1L));
+    }
+
+    @Test
+    void resolve_shouldRefuseStudent_whenAnotherUserIsRequested() {
+        authenticate(2L, Role.ADMIN_STUDENT);
+        when(messageSource.getMessage(eq("message.acting.user.forbidden"), any(), any())).thenReturn("forbidden");
+
+        AccessDeniedException exception = assertThrows(AccessDeniedException.class, () -> actingUserResolver.resolve(1L));
+
+        assertEquals("forbidden", exception.getMessage());
+    }
+
+    @Test
+    void resolve_shouldLetTeacherActForAnotherUser() {
+        authenticate(4L, Role.TEACHER);
+
+        assertEquals(1L, actingUserResolver.resolve(1L));
+    }
+
+    @Test
+    void resolve_shouldRefuse_whenCallerIsNotAUserAndNoUserIsRequested() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new ApiKeyPrincipal(1L, "importer", Set.of(Role.TEACHER)), null, List.of()));
+
+        assertThrows(AccessDeniedException.class, () -> actingUserResolver.resolve(null));
+    }
+
+    private void authenticate(long userId, Role role) {
+        VerifiedToken verifiedToken = new VerifiedToken("user", userId, role, 0, Instant.now(), Instant.now().plusSeconds(60));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(verifiedToken, null, verifiedToken.getAuthorities()));
+    }
+
+}
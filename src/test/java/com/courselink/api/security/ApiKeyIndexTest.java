@@ -0,0 +1,153 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.ApiKey;
+import com.courselink.api.entity.Role;
+import com.courselink.api.repository.ApiKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ApiKeyIndexTest {
+    @InjectMocks
+    ApiKeyIndex apiKeyIndex;
+    @Mock
+    ApiKeyRepository apiKeyRepository;
+    String key;
+    ApiKey apiKey;
+
+    @BeforeEach
+    void setUp() {
+        key = apiKeyIndex.generateKey();
+        apiKey = ApiKey.builder()
+                .apiKeyId(1L)
+                .name("LMS integration")
+                .prefix(ApiKeyIndex.prefixOf(key))
+                .keyHash(ApiKeyIndex.hash(key))
+                .scopes(Set.of(Role.TEACHER))
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    void generateKey_shouldHaveLookupPrefix() {
+        assertTrue(key.startsWith(ApiKeyIndex.KEY_MARKER + "_"));
+        assertEquals(12, ApiKeyIndex.prefixOf(key).length());
+        assertNotEquals(ApiKeyIndex.prefixOf(key), ApiKeyIndex.prefixOf(apiKeyIndex.generateKey()));
+    }
+
+    @Test
+    void verify_shouldReturnPrincipal_whenKeyIsValid() {
+        apiKeyIndex.put(apiKey);
+
+        ApiKeyPrincipal principal = apiKeyIndex.verify(key);
+
+        assertNotNull(principal);
+        assertEquals(1L, principal.getApiKeyId());
+        assertEquals("LMS integration", principal.getName());
+        assertEquals(Set.of(Role.TEACHER), principal.getScopes());
+        assertEquals("TEACHER", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void verify_shouldReturnNull_whenSecretDoesNotMatch() {
+        apiKeyIndex.put(apiKey);
+        String forgedKey = key.substring(0, key.length() - 1) + (key.endsWith("A") ? "B" : "A");
+
+        assertNull(apiKeyIndex.verify(forgedKey));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "clk", "clk_", "clk_0123456789ab", "xyz_0123456789ab_secret", "clk_0123456789abcd_secret"})
+    void verify_shouldReturnNull_whenKeyIsMalformed(String malformedKey) {
+        assertNull(apiKeyIndex.verify(malformedKey));
+    }
+
+    @Test
+    void verify_shouldReturnNull_whenKeyIsExpired() {
+        apiKey.setExpiresAt(Instant.now().minus(1, ChronoUnit.MINUTES));
+        apiKeyIndex.put(apiKey);
+
+        assertNull(apiKeyIndex.verify(key));
+    }
+
+    @Test
+    void verify_shouldReturnNull_whenKeyIsRemoved() {
+        apiKeyIndex.put(apiKey);
+        apiKeyIndex.remove(apiKey.getPrefix());
+
+        assertNull(apiKeyIndex.verify(key));
+    }
+
+    @Test
+    void reload_shouldReplaceIndexWithActiveKeys() {
+        apiKeyIndex.put(apiKey);
+        String otherKey = apiKeyIndex.generateKey();
+        ApiKey otherApiKey = ApiKey.builder()
+                .apiKeyId(2L)
+                .name("Reporting")
+                .prefix(ApiKeyIndex.prefixOf(otherKey))
+                .keyHash(ApiKeyIndex.hash(otherKey))
+                .scopes(Set.of(Role.STUDENT))
+                .createdAt(Instant.now())
+                .build();
+        when(apiKeyRepository.findAllActive()).thenReturn(List.of(otherApiKey));
+
+        apiKeyIndex.reload();
+
+        assertNull(apiKeyIndex.verify(key));
+        assertEquals(2L, apiKeyIndex.verify(otherKey).getApiKeyId());
+    }
+
+    @Test
+    void reload_shouldKeepKeyRevoked_whenRevokedWhileLoading() {
+        apiKeyIndex.put(apiKey);
+        when(apiKeyRepository.findAllActive()).thenAnswer(invocation -> {
+            apiKeyIndex.remove(apiKey.getPrefix());
+            return List.of(apiKey);
+        });
+
+        apiKeyIndex.reload();
+
+        assertNull(apiKeyIndex.verify(key));
+    }
+
+    @Test
+    void reload_shouldKeepKey_whenCreatedWhileLoading() {
+        when(apiKeyRepository.findAllActive()).thenAnswer(invocation -> {
+            apiKeyIndex.put(apiKey);
+            return List.of();
+        });
+
+        apiKeyIndex.reload();
+
+        assertEquals(1L, apiKeyIndex.verify(key).getApiKeyId());
+    }
+
+    @Test
+    void reload_shouldNotReapplyChanges_ofEarlierReload() {
+        when(apiKeyRepository.findAllActive()).thenAnswer(invocation -> {
+            apiKeyIndex.put(apiKey);
+            return List.of();
+        }).thenReturn(List.of());
+
+        apiKeyIndex.reload();
+        apiKeyIndex.reload();
+
+        assertNull(apiKeyIndex.verify(key));
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.courselink.api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthRateLimitFilterTest {
+
+    @Mock
+    MessageSource messageSource;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    AuthRateLimitFilter authRateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        authRateLimitFilter = new AuthRateLimitFilter(objectMapper, messageSource);
+        ReflectionTestUtils.setField(authRateLimitFilter, "stripes", 1024);
+        ReflectionTestUtils.setField(authRateLimitFilter, "ipCapacity", 3);
+        ReflectionTestUtils.setField(authRateLimitFilter, "ipRefillInterval", 60_000L);
+        ReflectionTestUtils.setField(authRateLimitFilter, "usernameCapacity", 1);
+        ReflectionTestUtils.setField(authRateLimitFilter, "usernameRefillInterval", 60_000L);
+        ReflectionTestUtils.setField(authRateLimitFilter, "maxBodySize", 256);
+        authRateLimitFilter.init();
+    }
+
+    @Test
+    void doFilter_shouldPassBodyToController_whenUnderLimit() throws Exception {
+
+        MockHttpServletRequest request = request("/api/auth/authenticate", "127.0.0.1", "alice.johnson");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        authRateLimitFilter.doFilter(request, response, filterChain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(filterChain.getRequest());
+        assertEquals("alice.johnson", objectMapper.readTree(filterChain.getRequest().getInputStream()).path("username").asText());
+    }
+
+    @Test
+    void doFilter_shouldRejectRequest_whenUsernameLimitIsExceeded() throws Exception {
+
+        when(messageSource.getMessage(eq("message.too.many.requests"), any(), any())).thenReturn("Too many requests");
+
+        authRateLimitFilter.doFilter(request("/api/auth/authenticate", "10.0.0.1", "alice.johnson"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        authRateLimitFilter.doFilter(request("/api/auth/authenticate", "10.0.0.2", "Alice.Johnson"), response, filterChain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("60", response.getHeader("Retry-After"));
+        assertEquals("Too many requests", objectMapper.readTree(response.getContentAsString()).path("message").asText());
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void doFilter_shouldRejectRequest_whenIpLimitIsExceeded() throws Exception {
+
+        when(messageSource.getMessage(eq("message.too.many.requests"), any(), any())).thenReturn("Too many requests");
+
+        for (int i = 0; i < 3; i++) {
+            authRateLimitFilter.doFilter(request("/api/auth/register", "127.0.0.1", "user" + i), new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        authRateLimitFilter.doFilter(request("/api/auth/register", "127.0.0.1", "user3"), response, filterChain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("60", response.getHeader("Retry-After"));
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void doFilter_shouldNotLimitOtherEndpoints() throws Exception {
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain filterChain = new MockFilterChain();
+            authRateLimitFilter.doFilter(request("/api/auth/refresh", "127.0.0.1", "alice.johnson"), response, filterChain);
+
+            assertEquals(200, response.getStatus());
+            assertNotNull(filterChain.getRequest());
+        }
+
+        verify(messageSource, never()).getMessage(any(), any(), any());
+    }
+
+    @Test
+    void doFilter_shouldOnlyLimitIp_whenBodyIsNotJson() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/authenticate");
+        request.setRemoteAddr("127.0.0.1");
+        request.setContent("not json".getBytes(StandardCharsets.UTF_8));
+        MockFilterChain filterChain = new MockFilterChain();
+
+        authRateLimitFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    void doFilter_shouldRejectRequest_whenBodyIsTooLarge() throws Exception {
+
+        when(messageSource.getMessage(eq("message.request.body.too.large"), any(), any())).thenReturn("Request body is too large");
+
+        MockHttpServletRequest request = request("/api/auth/register", "127.0.0.1", "a".repeat(300));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        authRateLimitFilter.doFilter(request, response, filterChain);
+
+        assertEquals(413, response.getStatus());
+        assertEquals("Request body is too large", objectMapper.readTree(response.getContentAsString()).path("message").asText());
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void doFilter_shouldRejectRequest_whenUndeclaredBodyIsTooLarge() throws Exception {
+
+        when(messageSource.getMessage(eq("message.request.body.too.large"), any(), any())).thenReturn("Request body is too large");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/authenticate") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setRemoteAddr("127.0.0.1");
+        request.setContent(new byte[257]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        authRateLimitFilter.doFilter(request, response, filterChain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(filterChain.getRequest());
+    }
+
+    private MockHttpServletRequest request(String path, String remoteAddress, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddress);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"Test password\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.courselink.api.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void calibrate_shouldUseMinimumStrength_whenTargetIsBelowMeasuredLatency() {
+
+        CalibratedBCryptPasswordEncoder encoder = CalibratedBCryptPasswordEncoder.calibrate(0, 4, 6);
+
+        assertEquals(4, encoder.getStrength());
+    }
+
+    @Test
+    void calibrate_shouldUseMaximumStrength_whenTargetIsAboveMeasuredLatency() {
+
+        CalibratedBCryptPasswordEncoder encoder = CalibratedBCryptPasswordEncoder.calibrate(60_000, 4, 6);
+
+        assertEquals(6, encoder.getStrength());
+    }
+
+    @Test
+    void calibrate_shouldThrowException_whenBoundsAreInvalid() {
+
+        assertThrows(IllegalArgumentException.class, () -> CalibratedBCryptPasswordEncoder.calibrate(250, 8, 6));
+        assertThrows(IllegalArgumentException.class, () -> CalibratedBCryptPasswordEncoder.calibrate(250, 3, 6));
+    }
+
+    @Test
+    void upgradeEncoding_shouldRequireUpgrade_onlyWhenStrengthIsLower() {
+
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Test password")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("Test password")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("Test password")));
+    }
+
+    @Test
+    void upgradeEncoding_shouldRequireUpgrade_whenHashIsNotBCrypt() {
+
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding("Test encoded password"));
+        assertFalse(encoder.upgradeEncoding(""));
+    }
+
+    @Test
+    void matches_shouldVerifyHashesOfAnyStrength() {
+
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.matches("Test password", new BCryptPasswordEncoder(4).encode("Test password")));
+        assertFalse(encoder.matches("Wrong password", new BCryptPasswordEncoder(4).encode("Test password")));
+    }
+
+}
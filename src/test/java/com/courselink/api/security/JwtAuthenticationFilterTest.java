@@ -0,0 +1,97 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    @Mock
+    VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    SecurityVersionCache securityVersionCache;
+
+    @Spy
+    RequestAttributeSecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+    @InjectMocks
+    JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldRejectRequest_whenTokenIsInvalid() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/defence-sessions");
+        request.addHeader("Authorization", "Bearer invalid");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        when(verifiedTokenCache.verify("invalid")).thenThrow(new MalformedJwtException("Unknown role claim: SUPERUSER"));
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(filterChain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(securityVersionCache);
+    }
+
+    @Test
+    void doFilter_shouldPassRequestOn_whenNoTokenIsPresent() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/defence-sessions");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(filterChain.getRequest());
+        verifyNoInteractions(verifiedTokenCache, securityVersionCache);
+    }
+
+    @Test
+    void doFilter_shouldSaveAuthenticationForAsyncDispatches_whenTokenIsValid() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/booking-slots/choose-booking-slot");
+        request.addHeader("Authorization", "Bearer valid");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        VerifiedToken verifiedToken = new VerifiedToken("user", 1L, Role.STUDENT, 0, Instant.now(), Instant.now().plusSeconds(60));
+
+        when(verifiedTokenCache.verify("valid")).thenReturn(verifiedToken);
+        when(securityVersionCache.isCurrent(1L, 0)).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        Authentication authentication = securityContextRepository.loadDeferredContext(request).get().getAuthentication();
+        assertNotNull(authentication);
+        assertSame(verifiedToken, authentication.getPrincipal());
+        assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(filterChain.getRequest());
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.Status;
+import com.courselink.api.entity.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+
+    static final String CURRENT_KEY_ID = "current";
+    static final String CURRENT_PRIVATE_KEY = "MIGHAgEAMBMGByqGSM49AgEGCCqGSM49AwEHBG0wawIBAQQggz1MMQ/uJRumHBaz0p/TnNlAIxulcbQg1qRJ00sOCTGhRANCAARxCbInGG4HvtRXCjC+0oTrInxBgKOLWS5JNe8elJbf9CCDrwdK/9EmE/Mxb+AuK2tjSivg17H9Wmkca5ny8gir";
+    static final String CURRENT_PUBLIC_KEY = "MFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcDQgAEcQmyJxhuB77UVwowvtKE6yJ8QYCji1kuSTXvHpSW3/Qgg68HSv/RJhPzMW/gLitrY0or4Nex/VppHGuZ8vIIqw==";
+    static final String PREVIOUS_KEY_ID = "previous";
+    static final String PREVIOUS_PRIVATE_KEY = "MIGHAgEAMBMGByqGSM49AgEGCCqGSM49AwEHBG0wawIBAQQgWCIzFKn1obSlpvPQ+DAPvmSJE2SjylQLULILuFvJoSChRANCAARarkMdCFNdoWe129Ug/6irEay8QI6/Gzku8xiz6CcWNSgrkszYJY5Yag5EX2qyO0J8QZwI8nAHgPrIWOEzZrCH";
+    static final String PREVIOUS_PUBLIC_KEY = "MFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcDQgAEWq5DHQhTXaFntdvVIP+oqxGsvECOvxs5LvMYs+gnFjUoK5LM2CWOWGoORF9qsjtCfEGcCPJwB4D6yFjhM2awhw==";
+
+    JwtService jwtService;
+
+    User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = jwtService(CURRENT_KEY_ID, Map.of(
+                CURRENT_KEY_ID, keyPair(CURRENT_PRIVATE_KEY, CURRENT_PUBLIC_KEY),
+                PREVIOUS_KEY_ID, keyPair(null, PREVIOUS_PUBLIC_KEY)
+        ));
+
+        user = User.builder()
+                .userId(1L)
+                .username("Test username")
+                .role(Role.STUDENT)
+                .status(Status.ACTIVE)
+                .build();
+    }
+
+    @Test
+    void verify_shouldReturnVerifiedToken_whenTokenIsValid() {
+
+        String token = jwtService.generateToken(user);
+
+        VerifiedToken verifiedToken = jwtService.verify(token);
+
+        assertEquals(user.getUsername(), verifiedToken.getUsername());
+        assertEquals(user.getUserId(), verifiedToken.getUserId());
+        assertEquals(user.getRole(), verifiedToken.getRole());
+        assertEquals(user.getSecurityVersion(), verifiedToken.getSecurityVersion());
+        assertTrue(verifiedToken.hasUserClaims());
+        assertNotNull(verifiedToken.getIssuedAt());
+        assertFalse(verifiedToken.isExpired());
+        assertTrue(jwtService.isTokenValid(verifiedToken, user));
+    }
+
+    @Test
+    void verify_shouldThrowException_whenTokenIsTampered() {
+
+        String token = jwtService.generateToken(user);
+        String tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tamperedToken));
+    }
+
+    @Test
+    void verify_shouldThrowException_whenTokenIsExpired() {
+
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1_000L);
+
+        String token = jwtService.generateToken(user);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+    }
+
+    @Test
+    void verify_shouldThrowException_whenRoleIsUnknown() {
+
+        String token = jwtService.generateToken(Map.of(
+                VerifiedToken.USER_ID_CLAIM, user.getUserId(),
+                VerifiedToken.ROLE_CLAIM, "SUPERUSER",
+                VerifiedToken.SECURITY_VERSION_CLAIM, user.getSecurityVersion()
+        ), user);
+
+        assertThrows(JwtException.class, () -> jwtService.verify(token));
+    }
+
+    @Test
+    void isTokenValid_shouldReturnFalse_whenUsernameDiffers() {
+
+        VerifiedToken verifiedToken = jwtService.verify(jwtService.generateToken(user));
+
+        User anotherUser = User.builder()
+                .username("Another username")
+                .role(Role.STUDENT)
+                .build();
+
+        assertFalse(jwtService.isTokenValid(verifiedToken, anotherUser));
+    }
+
+    @Test
+    void generateToken_shouldSignWithActiveKey() {
+
+        String token = jwtService.generateToken(user);
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+
+        assertTrue(header.contains("\"alg\":\"ES256\""));
+        assertTrue(header.contains("\"kid\":\"" + CURRENT_KEY_ID + "\""));
+    }
+
+    @Test
+    void verify_shouldAcceptToken_whenSignedWithRotatedOutKey() {
+
+        JwtService previousJwtService = jwtService(PREVIOUS_KEY_ID, Map.of(
+                PREVIOUS_KEY_ID, keyPair(PREVIOUS_PRIVATE_KEY, PREVIOUS_PUBLIC_KEY)
+        ));
+
+        VerifiedToken verifiedToken = jwtService.verify(previousJwtService.generateToken(user));
+
+        assertEquals(user.getUsername(), verifiedToken.getUsername());
+    }
+
+    @Test
+    void verify_shouldThrowException_whenKeyIdIsUnknown() {
+
+        JwtService previousJwtService = jwtService(PREVIOUS_KEY_ID, Map.of(
+                PREVIOUS_KEY_ID, keyPair(PREVIOUS_PRIVATE_KEY, PREVIOUS_PUBLIC_KEY)
+        ));
+
+        String token = jwtService.generateToken(user);
+
+        assertThrows(JwtException.class, () -> previousJwtService.verify(token));
+    }
+
+    @Test
+    void verify_shouldThrowException_whenTokenIsSignedWithSharedSecret() {
+
+        String token = Jwts.builder()
+                .setSubject(user.getUsername())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000L))
+                .setHeaderParam(JwsHeader.KEY_ID, CURRENT_KEY_ID)
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.verify(token));
+    }
+
+    @Test
+    void getJwkSet_shouldPublishPublicKeysOnly() {
+
+        List<?> keys = (List<?>) jwtService.getJwkSet().get("keys");
+
+        assertEquals(2, keys.size());
+        for (Object key : keys) {
+            Map<?, ?> jwk = (Map<?, ?>) key;
+            assertEquals("EC", jwk.get("kty"));
+            assertEquals("P-256", jwk.get("crv"));
+            assertEquals("ES256", jwk.get("alg"));
+            assertEquals("sig", jwk.get("use"));
+            assertFalse(jwk.containsKey("d"));
+        }
+    }
+
+    @Test
+    void init_shouldThrowException_whenActiveKeyHasNoPrivateKey() {
+
+        assertThrows(IllegalStateException.class, () -> jwtService(PREVIOUS_KEY_ID, Map.of(
+                PREVIOUS_KEY_ID, keyPair(null, PREVIOUS_PUBLIC_KEY)
+        )));
+    }
+
+    static JwtService jwtService(String activeKeyId, Map<String, JwtSigningKeys.KeyPair> keys) {
+        JwtSigningKeys jwtSigningKeys = new JwtSigningKeys();
+        jwtSigningKeys.setActiveKeyId(activeKeyId);
+        jwtSigningKeys.setKeys(keys);
+
+        JwtService jwtService = new JwtService(jwtSigningKeys);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    static JwtSigningKeys.KeyPair keyPair(String privateKey, String publicKey) {
+        JwtSigningKeys.KeyPair keyPair = new JwtSigningKeys.KeyPair();
+        keyPair.setPrivateKey(privateKey);
+        keyPair.setPublicKey(publicKey);
+        return keyPair;
+    }
+
+}
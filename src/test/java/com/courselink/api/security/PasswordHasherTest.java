@@ -0,0 +1,124 @@
+package com.courselink.api.security;
+
+import com.courselink.api.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordHasherTest {
+
+    @Mock
+    PasswordEncoder passwordEncoder;
+    @Mock
+    MessageSource messageSource;
+
+    PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        passwordHasher = new PasswordHasher(passwordEncoder, messageSource, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(passwordHasher, "poolSize", 1);
+        ReflectionTestUtils.setField(passwordHasher, "queueCapacity", 1);
+        ReflectionTestUtils.setField(passwordHasher, "timeout", 5_000L);
+        passwordHasher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void matches_shouldDelegateToPasswordEncoder() {
+
+        when(passwordEncoder.matches("Test password", "Test encoded password")).thenReturn(true);
+
+        assertTrue(passwordHasher.matches("Test password", "Test encoded password"));
+
+        verify(passwordEncoder, times(1)).matches("Test password", "Test encoded password");
+    }
+
+    @Test
+    void encode_shouldDelegateToPasswordEncoder() {
+
+        when(passwordEncoder.encode("Test password")).thenReturn("Test encoded password");
+
+        assertEquals("Test encoded password", passwordHasher.encode("Test password"));
+    }
+
+    @Test
+    void matches_shouldPropagateEncoderException() {
+
+        when(passwordEncoder.matches(any(), any())).thenThrow(new IllegalArgumentException("Invalid hash"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> passwordHasher.matches("Test password", "Test encoded password"));
+        assertEquals("Invalid hash", exception.getMessage());
+    }
+
+    @Test
+    void matches_shouldThrowException_whenPoolIsSaturated() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(passwordEncoder.matches(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        when(messageSource.getMessage(eq("message.password.hashing.unavailable"), any(), any())).thenReturn("Overloaded");
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHasher.matches("First", "Hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHasher.matches("Second", "Hash"));
+        while (((ThreadPoolExecutor) ReflectionTestUtils.getField(passwordHasher, "executor")).getQueue().isEmpty()) {
+            Thread.onSpinWait();
+        }
+
+        PasswordHashingUnavailableException exception = assertThrows(PasswordHashingUnavailableException.class, () -> passwordHasher.matches("Third", "Hash"));
+        assertEquals("Overloaded", exception.getMessage());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encodeAsync_shouldEncodeOnHashingPool() throws Exception {
+
+        when(passwordEncoder.encode("Test password")).thenAnswer(invocation -> Thread.currentThread().getName());
+
+        assertTrue(passwordHasher.encodeAsync("Test password").get(5, TimeUnit.SECONDS).startsWith("password-hasher-"));
+    }
+
+    @Test
+    void matches_shouldThrowException_whenHashingTimesOut() {
+
+        ReflectionTestUtils.setField(passwordHasher, "timeout", 50L);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(passwordEncoder.matches(any(), any())).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> passwordHasher.matches("Test password", "Hash"));
+
+        release.countDown();
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.courselink.api.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long REFILL_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    AtomicLong clock;
+
+    RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(123_456_789L);
+        rateLimiter = new RateLimiter(1024, 3, REFILL_INTERVAL, clock::get);
+    }
+
+    @Test
+    void tryAcquire_shouldAllowBurstUpToCapacity() {
+
+        assertEquals(0, rateLimiter.tryAcquire("Test key"));
+        assertEquals(0, rateLimiter.tryAcquire("Test key"));
+        assertEquals(0, rateLimiter.tryAcquire("Test key"));
+
+        assertEquals(REFILL_INTERVAL, rateLimiter.tryAcquire("Test key"));
+    }
+
+    @Test
+    void tryAcquire_shouldAllowRequestAgain_afterRefillInterval() {
+
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("Test key");
+        }
+        clock.addAndGet(REFILL_INTERVAL / 2);
+
+        assertEquals(REFILL_INTERVAL / 2, rateLimiter.tryAcquire("Test key"));
+
+        clock.addAndGet(REFILL_INTERVAL / 2);
+
+        assertEquals(0, rateLimiter.tryAcquire("Test key"));
+        assertEquals(REFILL_INTERVAL, rateLimiter.tryAcquire("Test key"));
+    }
+
+    @Test
+    void tryAcquire_shouldNotCountRejectedRequests() {
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("Test key");
+        }
+        clock.addAndGet(REFILL_INTERVAL);
+
+        assertEquals(0, rateLimiter.tryAcquire("Test key"));
+    }
+
+    @Test
+    void tryAcquire_shouldLimitEachKeySeparately() {
+
+        rateLimiter = new RateLimiter(1, 1, REFILL_INTERVAL, clock::get);
+        RateLimiter other = new RateLimiter(1 << 16, 1, REFILL_INTERVAL, clock::get);
+
+        assertEquals(0, other.tryAcquire("first"));
+        assertEquals(0, other.tryAcquire("second"));
+
+        assertEquals(0, rateLimiter.tryAcquire("first"));
+        assertTrue(rateLimiter.tryAcquire("second") > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldNotExceedCapacity_whenCalledConcurrently() throws Exception {
+
+        rateLimiter = new RateLimiter(1024, 100, REFILL_INTERVAL, clock::get);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (rateLimiter.tryAcquire("Test key") == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenCapacityIsNotPositive() {
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1024, 0, REFILL_INTERVAL, clock::get));
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.courselink.api.security;
+
+import com.courselink.api.entity.Role;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VerifiedTokenCacheTest {
+
+    @Mock
+    JwtService jwtService;
+
+    VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(verifiedTokenCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maximumTtl", 600_000L);
+        verifiedTokenCache.init();
+    }
+
+    @Test
+    void verify_shouldVerifySignatureOnlyOnce_whenTokenIsRepeated() {
+
+        String token = "Test token";
+        VerifiedToken verifiedToken = new VerifiedToken("Test username", 1L, Role.STUDENT, 0, Instant.now(), Instant.now().plus(1, ChronoUnit.HOURS));
+
+        when(jwtService.verify(token)).thenReturn(verifiedToken);
+
+        assertSame(verifiedToken, verifiedTokenCache.verify(token));
+        assertSame(verifiedToken, verifiedTokenCache.verify(token));
+
+        assertEquals(1, verifiedTokenCache.stats().hitCount());
+        assertEquals(1, verifiedTokenCache.stats().missCount());
+
+        verify(jwtService, times(1)).verify(token);
+    }
+
+    @Test
+    void verify_shouldNotCacheToken_whenVerificationFails() {
+
+        String token = "Test token";
+
+        when(jwtService.verify(token)).thenThrow(new ExpiredJwtException(null, null, "Expired"));
+
+        assertThrows(ExpiredJwtException.class, () -> verifiedTokenCache.verify(token));
+        assertThrows(ExpiredJwtException.class, () -> verifiedTokenCache.verify(token));
+
+        verify(jwtService, times(2)).verify(token);
+    }
+
+}
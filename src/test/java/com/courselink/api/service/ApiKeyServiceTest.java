@@ -0,0 +1,109 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.ApiKeyDTO;
+import com.courselink.api.dto.ApiKeyRequestDTO;
+import com.courselink.api.entity.ApiKey;
+import com.courselink.api.entity.Role;
+import com.courselink.api.exception.ApiKeyNotFoundException;
+import com.courselink.api.repository.ApiKeyRepository;
+import com.courselink.api.security.ApiKeyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ApiKeyServiceTest {
+    @InjectMocks
+    ApiKeyService apiKeyService;
+    @Mock
+    ApiKeyRepository apiKeyRepository;
+    @Mock
+    ApiKeyIndex apiKeyIndex;
+    @Spy
+    MessageSource messageSource;
+    ApiKey apiKey;
+
+    @BeforeEach
+    void setUp() {
+        apiKey = ApiKey.builder()
+                .apiKeyId(1L)
+                .name("LMS integration")
+                .prefix("0123456789ab")
+                .keyHash("Test key hash")
+                .scopes(Set.of(Role.TEACHER))
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    void createApiKey_shouldStoreOnlyKeyHash_andReturnKeyOnce() {
+        String key = "clk_0123456789ab_secret";
+        ApiKeyRequestDTO apiKeyRequestDTO = ApiKeyRequestDTO.builder()
+                .name("LMS integration")
+                .scopes(Set.of(Role.TEACHER))
+                .build();
+        when(apiKeyIndex.generateKey()).thenReturn(key);
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ApiKeyDTO result = apiKeyService.createApiKey(apiKeyRequestDTO);
+
+        ArgumentCaptor<ApiKey> apiKeyCaptor = ArgumentCaptor.forClass(ApiKey.class);
+        verify(apiKeyRepository).save(apiKeyCaptor.capture());
+        ApiKey savedApiKey = apiKeyCaptor.getValue();
+        assertEquals("0123456789ab", savedApiKey.getPrefix());
+        assertEquals(ApiKeyIndex.hash(key), savedApiKey.getKeyHash());
+        assertNotEquals(key, savedApiKey.getKeyHash());
+        assertEquals(Set.of(Role.TEACHER), savedApiKey.getScopes());
+        assertFalse(savedApiKey.isRevoked());
+        verify(apiKeyIndex).put(savedApiKey);
+        assertEquals(key, result.getKey());
+        assertEquals("0123456789ab", result.getPrefix());
+    }
+
+    @Test
+    void getAll_shouldNotExposeKeys() {
+        when(apiKeyRepository.findAll()).thenReturn(List.of(apiKey));
+
+        List<ApiKeyDTO> result = apiKeyService.getAll();
+
+        assertEquals(1, result.size());
+        assertEquals("LMS integration", result.get(0).getName());
+        assertNull(result.get(0).getKey());
+    }
+
+    @Test
+    void revokeById_shouldRevokeAndRemoveFromIndex() {
+        when(apiKeyRepository.findById(1L)).thenReturn(Optional.of(apiKey));
+
+        apiKeyService.revokeById(1L);
+
+        verify(apiKeyRepository).revoke(1L);
+        verify(apiKeyIndex).remove("0123456789ab");
+    }
+
+    @Test
+    void revokeById_shouldThrowApiKeyNotFoundException_whenKeyDoesNotExist() {
+        when(apiKeyRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ApiKeyNotFoundException.class, () -> apiKeyService.revokeById(1L));
+
+        verify(apiKeyRepository, never()).revoke(anyLong());
+        verifyNoInteractions(apiKeyIndex);
+    }
+
+}
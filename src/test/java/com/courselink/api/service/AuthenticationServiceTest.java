@@ -3,12 +3,16 @@ package com.courselink.api.service;
 
 import com.courselink.api.dto.AuthenticationRequestDTO;
 import com.courselink.api.dto.AuthenticationResponseDTO;
+import com.courselink.api.dto.RefreshTokenRequestDTO;
 import com.courselink.api.dto.RegistrationRequestDTO;
 import com.courselink.api.entity.Role;
 import com.courselink.api.entity.Status;
 import com.courselink.api.entity.User;
+import com.courselink.api.exception.PasswordHashingUnavailableException;
 import com.courselink.api.repository.UserRepository;
 import com.courselink.api.security.JwtService;
+import com.courselink.api.security.PasswordHasher;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,18 +24,19 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,13 +47,13 @@ public class AuthenticationServiceTest {
     @Mock
     UserRepository userRepository;
     @Mock
-    PasswordEncoder passwordEncoder;
+    PasswordHasher passwordHasher;
     @Mock
     JwtService jwtService;
     @Spy
     MessageSource messageSource;
     @Mock
-    AuthenticationManager authenticationManager;
+    RefreshTokenService refreshTokenService;
     RegistrationRequestDTO registrationRequestDTO;
     AuthenticationRequestDTO authenticationRequestDTO;
     User user;
@@ -77,13 +82,13 @@ public class AuthenticationServiceTest {
                 .password(password)
                 .build();
 
-        when(passwordEncoder.encode(registrationRequestDTO.getPassword()))
+        when(passwordHasher.encode(registrationRequestDTO.getPassword()))
                 .thenReturn("Test Encoded password");
 
         user = User.builder()
                 .username(registrationRequestDTO.getUsername())
                 .email(registrationRequestDTO.getEmail())
-                .password(passwordEncoder.encode(password))
+                .password(passwordHasher.encode(password))
                 .firstname(registrationRequestDTO.getFirstname())
                 .lastname(registrationRequestDTO.getLastname())
                 .role(registrationRequestDTO.getRole())
@@ -95,22 +100,23 @@ public class AuthenticationServiceTest {
     void register_shouldReturnAuthenticationResponse() {
 
         String token = "Test token";
+        String refreshToken = "Test refresh token";
 
-        when(userRepository.existsByUsername(registrationRequestDTO.getUsername())).thenReturn(false);
-        when(userRepository.existsByEmail(registrationRequestDTO.getEmail())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.insertUser(any(User.class))).thenReturn(1L);
         when(jwtService.generateToken(any(User.class))).thenReturn(token);
+        when(refreshTokenService.issueRefreshToken(any(User.class))).thenReturn(refreshToken);
 
         AuthenticationResponseDTO response = authenticationService.register(registrationRequestDTO);
 
         assertNotNull(response);
         assertEquals(token, response.getToken());
+        assertEquals(refreshToken, response.getRefreshToken());
 
-        verify(userRepository).existsByUsername(registrationRequestDTO.getUsername());
-        verify(userRepository).existsByEmail(registrationRequestDTO.getEmail());
-        verify(passwordEncoder, times(2)).encode(registrationRequestDTO.getPassword());
-        verify(userRepository).save(any(User.class));
-        verify(jwtService).generateToken(any(User.class));
+        verify(passwordHasher, times(2)).encode(registrationRequestDTO.getPassword());
+        verify(userRepository).insertUser(any(User.class));
+        verify(userRepository, never()).existsByUsername(registrationRequestDTO.getUsername());
+        verify(userRepository, never()).existsByEmail(registrationRequestDTO.getEmail());
+        verify(jwtService).generateToken(argThat((User registeredUser) -> registeredUser.getUserId() == 1L));
 
     }
 
@@ -118,17 +124,15 @@ public class AuthenticationServiceTest {
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
     void register_shouldThrowException_whenUsernameExists(String language) {
 
-        when(userRepository.existsByUsername(registrationRequestDTO.getUsername()))
-                .thenReturn(true);
+        when(userRepository.insertUser(any(User.class)))
+                .thenThrow(uniqueConstraintViolation("users_username_key"));
 
         BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> authenticationService.register(registrationRequestDTO));
         assertEquals(messageSource.getMessage("message.user.already.exists.with.username", new Object[]{registrationRequestDTO.getUsername()}, Locale.forLanguageTag(language)), exception.getMessage());
 
-        verify(userRepository).existsByUsername(registrationRequestDTO.getUsername());
-        verify(userRepository , never()).existsByEmail(registrationRequestDTO.getEmail());
-        verify(passwordEncoder, times(1)).encode(registrationRequestDTO.getPassword());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository).insertUser(any(User.class));
         verify(jwtService, never()).generateToken(any(User.class));
+        verify(refreshTokenService, never()).issueRefreshToken(any(User.class));
 
     }
 
@@ -136,44 +140,49 @@ public class AuthenticationServiceTest {
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
     void register_shouldThrowException_whenEmailExists(String language) {
 
-        when(userRepository.existsByUsername(registrationRequestDTO.getUsername()))
-                .thenReturn(false);
-
-        when(userRepository.existsByEmail(registrationRequestDTO.getEmail()))
-                .thenReturn(true);
+        when(userRepository.insertUser(any(User.class)))
+                .thenThrow(uniqueConstraintViolation("users_email_key"));
 
         BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> authenticationService.register(registrationRequestDTO));
         assertEquals(messageSource.getMessage("message.user.already.exists.with.email", new Object[]{registrationRequestDTO.getEmail()}, Locale.forLanguageTag(language)), exception.getMessage());
 
-        verify(userRepository).existsByUsername(registrationRequestDTO.getUsername());
-        verify(userRepository ).existsByEmail(registrationRequestDTO.getEmail());
-        verify(passwordEncoder, times(1)).encode(registrationRequestDTO.getPassword());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository).insertUser(any(User.class));
+        verify(jwtService, never()).generateToken(any(User.class));
+        verify(refreshTokenService, never()).issueRefreshToken(any(User.class));
+    }
+
+    @Test
+    void register_shouldRethrowException_whenOtherConstraintIsViolated() {
+
+        DataIntegrityViolationException violation = uniqueConstraintViolation("users_role_check");
+        when(userRepository.insertUser(any(User.class))).thenThrow(violation);
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> authenticationService.register(registrationRequestDTO));
+        assertSame(violation, exception);
+
         verify(jwtService, never()).generateToken(any(User.class));
     }
 
     @Test
     void authenticate_shouldReturnAuthenticationResponse_whenCredentialsAreCorrect() {
         String token = "Test token";
+        String refreshToken = "Test refresh token";
 
         when(userRepository.findByUsername(authenticationRequestDTO.getUsername())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(authenticationRequestDTO.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHasher.matches(authenticationRequestDTO.getPassword(), user.getPassword())).thenReturn(true);
         when(jwtService.generateToken(user)).thenReturn(token);
-
-        Authentication authentication = mock(Authentication.class);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
+        when(refreshTokenService.issueRefreshToken(user)).thenReturn(refreshToken);
 
         AuthenticationResponseDTO response = authenticationService.authenticate(authenticationRequestDTO);
 
         assertNotNull(response);
         assertEquals(token, response.getToken());
+        assertEquals(refreshToken, response.getRefreshToken());
 
         verify(userRepository).findByUsername(authenticationRequestDTO.getUsername());
-        verify(passwordEncoder).matches(authenticationRequestDTO.getPassword(), user.getPassword());
-        verify(passwordEncoder, times(1)).encode(authenticationRequestDTO.getPassword());
+        verify(passwordHasher).matches(authenticationRequestDTO.getPassword(), user.getPassword());
+        verify(passwordHasher, times(1)).encode(authenticationRequestDTO.getPassword());
         verify(jwtService).generateToken(user);
-        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
     }
 
     @ParameterizedTest
@@ -185,10 +194,9 @@ public class AuthenticationServiceTest {
         assertEquals(messageSource.getMessage("message.user.not.found.with.username", new Object[]{authenticationRequestDTO.getUsername()}, new Locale(language)), exception.getMessage());
 
         verify(userRepository).findByUsername(authenticationRequestDTO.getUsername());
-        verify(passwordEncoder,never()).matches(authenticationRequestDTO.getPassword(), user.getPassword());
-        verify(passwordEncoder, times(1)).encode(authenticationRequestDTO.getPassword());
+        verify(passwordHasher,never()).matches(authenticationRequestDTO.getPassword(), user.getPassword());
+        verify(passwordHasher, times(1)).encode(authenticationRequestDTO.getPassword());
         verify(jwtService, never()).generateToken(user);
-        verify(authenticationManager, never()).authenticate(any(UsernamePasswordAuthenticationToken.class));
     }
 
     @ParameterizedTest
@@ -202,10 +210,9 @@ public class AuthenticationServiceTest {
         assertEquals(messageSource.getMessage("message.user.banned", null, new Locale(language)), exception.getMessage());
 
         verify(userRepository).findByUsername(authenticationRequestDTO.getUsername());
-        verify(passwordEncoder,never()).matches(authenticationRequestDTO.getPassword(), user.getPassword());
-        verify(passwordEncoder, times(1)).encode(authenticationRequestDTO.getPassword());
+        verify(passwordHasher,never()).matches(authenticationRequestDTO.getPassword(), user.getPassword());
+        verify(passwordHasher, times(1)).encode(authenticationRequestDTO.getPassword());
         verify(jwtService, never()).generateToken(user);
-        verify(authenticationManager, never()).authenticate(any(UsernamePasswordAuthenticationToken.class));
     }
 
     @ParameterizedTest
@@ -213,16 +220,94 @@ public class AuthenticationServiceTest {
     void authenticate_shouldThrowException_whenPasswordIsInvalid(String language) {
 
         when(userRepository.findByUsername(authenticationRequestDTO.getUsername())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(authenticationRequestDTO.getPassword(), user.getPassword())).thenReturn(false);
+        when(passwordHasher.matches(authenticationRequestDTO.getPassword(), user.getPassword())).thenReturn(false);
 
         BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> authenticationService.authenticate(authenticationRequestDTO));
         assertEquals(messageSource.getMessage("message.user.invalid.password", new Object[]{authenticationRequestDTO.getPassword()}, new Locale(language)), exception.getMessage());
 
         verify(userRepository).findByUsername(authenticationRequestDTO.getUsername());
-        verify(passwordEncoder).matches(authenticationRequestDTO.getPassword(), user.getPassword());
-        verify(passwordEncoder, times(1)).encode(authenticationRequestDTO.getPassword());
+        verify(passwordHasher).matches(authenticationRequestDTO.getPassword(), user.getPassword());
+        verify(passwordHasher, times(1)).encode(authenticationRequestDTO.getPassword());
         verify(jwtService, never()).generateToken(user);
-        verify(authenticationManager, never()).authenticate(any(UsernamePasswordAuthenticationToken.class));
+    }
+
+    @Test
+    void authenticate_shouldRehashPassword_whenEncodingIsOutdated() {
+        user.setUserId(1L);
+
+        when(userRepository.findByUsername(authenticationRequestDTO.getUsername())).thenReturn(Optional.of(user));
+        when(passwordHasher.matches(authenticationRequestDTO.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHasher.upgradeEncoding(user.getPassword())).thenReturn(true);
+        when(passwordHasher.encodeAsync(authenticationRequestDTO.getPassword())).thenReturn(CompletableFuture.completedFuture("Test rehashed password"));
+
+        authenticationService.authenticate(authenticationRequestDTO);
+
+        verify(userRepository).updatePasswordIfUnchanged(user.getUserId(), "Test Encoded password", "Test rehashed password");
+    }
+
+    @Test
+    void authenticate_shouldNotRehashPassword_whenEncodingIsCurrent() {
+
+        when(userRepository.findByUsername(authenticationRequestDTO.getUsername())).thenReturn(Optional.of(user));
+        when(passwordHasher.matches(authenticationRequestDTO.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHasher.upgradeEncoding(user.getPassword())).thenReturn(false);
+
+        authenticationService.authenticate(authenticationRequestDTO);
+
+        verify(passwordHasher, never()).encodeAsync(any());
+        verify(userRepository, never()).updatePasswordIfUnchanged(anyLong(), any(), any());
+    }
+
+    @Test
+    void authenticate_shouldSucceed_whenRehashIsRejected() {
+        String token = "Test token";
+        user.setUserId(1L);
+
+        when(userRepository.findByUsername(authenticationRequestDTO.getUsername())).thenReturn(Optional.of(user));
+        when(passwordHasher.matches(authenticationRequestDTO.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHasher.upgradeEncoding(user.getPassword())).thenReturn(true);
+        when(passwordHasher.encodeAsync(authenticationRequestDTO.getPassword())).thenReturn(CompletableFuture.failedFuture(new PasswordHashingUnavailableException("Overloaded")));
+        when(jwtService.generateToken(user)).thenReturn(token);
+
+        AuthenticationResponseDTO response = authenticationService.authenticate(authenticationRequestDTO);
+
+        assertEquals(token, response.getToken());
+
+        verify(userRepository, never()).updatePasswordIfUnchanged(anyLong(), any(), any());
+    }
+
+    @Test
+    void authenticate_shouldThrowException_whenPasswordHashingIsUnavailable() {
+
+        when(userRepository.findByUsername(authenticationRequestDTO.getUsername())).thenReturn(Optional.of(user));
+        when(passwordHasher.matches(authenticationRequestDTO.getPassword(), user.getPassword()))
+                .thenThrow(new PasswordHashingUnavailableException("Overloaded"));
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> authenticationService.authenticate(authenticationRequestDTO));
+
+        verify(passwordHasher, times(1)).matches(authenticationRequestDTO.getPassword(), user.getPassword());
+        verify(jwtService, never()).generateToken(user);
+        verify(refreshTokenService, never()).issueRefreshToken(user);
+    }
+
+    @Test
+    void refresh_shouldReturnAuthenticationResponse() {
+
+        RefreshTokenRequestDTO refreshTokenRequestDTO = new RefreshTokenRequestDTO("Test refresh token");
+        AuthenticationResponseDTO expectedResponse = new AuthenticationResponseDTO("Test token", "Test rotated refresh token");
+
+        when(refreshTokenService.rotate(refreshTokenRequestDTO.getRefreshToken())).thenReturn(expectedResponse);
+
+        AuthenticationResponseDTO response = authenticationService.refresh(refreshTokenRequestDTO);
+
+        assertEquals(expectedResponse, response);
+
+        verify(refreshTokenService).rotate(refreshTokenRequestDTO.getRefreshToken());
+    }
+
+    private static DataIntegrityViolationException uniqueConstraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("duplicate key value"), constraintName));
     }
 
 }
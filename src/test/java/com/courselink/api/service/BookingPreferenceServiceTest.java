@@ -0,0 +1,333 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.BookingPreferenceWindowDTO;
+import com.courselink.api.dto.BookingPreferencesDTO;
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.entity.*;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.exception.BookingSlotNotFoundException;
+import com.courselink.api.exception.DefenceSessionException;
+import com.courselink.api.exception.DefenceSessionNotFoundException;
+import com.courselink.api.exception.UserNotFoundException;
+import com.courselink.api.repository.BookingPreferenceRepository;
+import com.courselink.api.repository.BookingPreferenceWindowRepository;
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.DefenceSessionRepository;
+import com.courselink.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingPreferenceServiceTest {
+    @InjectMocks
+    BookingPreferenceService bookingPreferenceService;
+    @Mock
+    BookingPreferenceWindowRepository bookingPreferenceWindowRepository;
+    @Mock
+    BookingPreferenceRepository bookingPreferenceRepository;
+    @Mock
+    BookingSlotRepository bookingSlotRepository;
+    @Mock
+    DefenceSessionRepository defenceSessionRepository;
+    @Mock
+    UserRepository userRepository;
+    @Spy
+    SlotAllocationSolver slotAllocationSolver;
+    @Mock
+    TransactionTemplate transactionTemplate;
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+    @Spy
+    MessageSource messageSource;
+
+    long defenceSessionId = 1L;
+    BookingPreferenceWindow bookingPreferenceWindow;
+    List<BookingSlot> bookingSlots;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingPreferenceService, "maxRankedSlots", 3);
+        ReflectionTestUtils.setField(slotAllocationSolver, "parallelism", 1);
+        slotAllocationSolver.init();
+
+        bookingPreferenceWindow = BookingPreferenceWindow.builder()
+                .defenceSessionId(defenceSessionId)
+                .closesAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .isAllocated(false)
+                .build();
+
+        DefenceSession defenceSession = DefenceSession.builder().defenceSessionId(defenceSessionId).build();
+        bookingSlots = List.of(
+                BookingSlot.builder().bookingSlotId(10L).startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(9, 30)).defenceSession(defenceSession).build(),
+                BookingSlot.builder().bookingSlotId(11L).startTime(LocalTime.of(9, 30)).endTime(LocalTime.of(10, 0)).defenceSession(defenceSession).build(),
+                BookingSlot.builder().bookingSlotId(12L).startTime(LocalTime.of(10, 0)).endTime(LocalTime.of(10, 30)).defenceSession(defenceSession).build()
+        );
+    }
+
+    @Test
+    void openPreferenceWindow_shouldSaveWindow() {
+        BookingPreferenceWindowDTO bookingPreferenceWindowDTO = BookingPreferenceWindowDTO.toBookingPreferenceWindowDTO(bookingPreferenceWindow);
+
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(true);
+        when(bookingSlotRepository.existsByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(true);
+        when(bookingPreferenceWindowRepository.existsById(defenceSessionId)).thenReturn(false);
+        when(bookingPreferenceWindowRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookingPreferenceWindowDTO openedWindow = bookingPreferenceService.openPreferenceWindow(bookingPreferenceWindowDTO);
+
+        assertEquals(defenceSessionId, openedWindow.getDefenceSessionId());
+        assertEquals(bookingPreferenceWindow.getClosesAt(), openedWindow.getClosesAt());
+        assertFalse(openedWindow.isAllocated());
+    }
+
+    @Test
+    void openPreferenceWindow_shouldThrowException_whenDefenceSessionNotFound() {
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(false);
+
+        assertThrows(DefenceSessionNotFoundException.class, () -> bookingPreferenceService.openPreferenceWindow(
+                BookingPreferenceWindowDTO.toBookingPreferenceWindowDTO(bookingPreferenceWindow)));
+
+        verify(bookingPreferenceWindowRepository, never()).save(any());
+    }
+
+    @Test
+    void openPreferenceWindow_shouldThrowException_whenDefenceSessionHasNoBookingSlots() {
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(true);
+        when(bookingSlotRepository.existsByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(false);
+
+        assertThrows(BookingSlotNotFoundException.class, () -> bookingPreferenceService.openPreferenceWindow(
+                BookingPreferenceWindowDTO.toBookingPreferenceWindowDTO(bookingPreferenceWindow)));
+
+        verify(bookingPreferenceWindowRepository, never()).save(any());
+    }
+
+    @Test
+    void openPreferenceWindow_shouldThrowException_whenWindowAlreadyExists() {
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(true);
+        when(bookingSlotRepository.existsByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(true);
+        when(bookingPreferenceWindowRepository.existsById(defenceSessionId)).thenReturn(true);
+
+        assertThrows(DefenceSessionException.class, () -> bookingPreferenceService.openPreferenceWindow(
+                BookingPreferenceWindowDTO.toBookingPreferenceWindowDTO(bookingPreferenceWindow)));
+
+        verify(bookingPreferenceWindowRepository, never()).save(any());
+    }
+
+    @Test
+    void submitPreferences_shouldReplaceRankingOfStudent() {
+        long userId = 5L;
+
+        runTransactionsInline();
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.STUDENT));
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.of(bookingPreferenceWindow));
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(bookingSlots);
+
+        bookingPreferenceService.submitPreferences(new BookingPreferencesDTO(userId, defenceSessionId, List.of(12L, 10L)));
+
+        ArgumentCaptor<List<BookingPreference>> bookingPreferences = ArgumentCaptor.forClass(List.class);
+        verify(bookingPreferenceRepository).deleteByDefenceSessionIdAndUserId(defenceSessionId, userId);
+        verify(bookingPreferenceRepository).saveAll(bookingPreferences.capture());
+        assertEquals(List.of(12L, 10L), bookingPreferences.getValue().stream().map(BookingPreference::getBookingSlotId).toList());
+        assertEquals(List.of(0, 1), bookingPreferences.getValue().stream().map(BookingPreference::getRank).toList());
+    }
+
+    @Test
+    void submitPreferences_shouldThrowException_whenUserNotFound() {
+        when(userRepository.findRoleByUserId(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> bookingPreferenceService.submitPreferences(
+                new BookingPreferencesDTO(5L, defenceSessionId, List.of(10L))));
+    }
+
+    @Test
+    void submitPreferences_shouldThrowException_whenUserIsNotAStudent() {
+        when(userRepository.findRoleByUserId(anyLong())).thenReturn(Optional.of(Role.TEACHER));
+
+        assertThrows(BadCredentialsException.class, () -> bookingPreferenceService.submitPreferences(
+                new BookingPreferencesDTO(5L, defenceSessionId, List.of(10L))));
+    }
+
+    @Test
+    void submitPreferences_shouldThrowException_whenWindowIsClosed() {
+        bookingPreferenceWindow.setClosesAt(Instant.now().minusSeconds(1));
+
+        when(userRepository.findRoleByUserId(anyLong())).thenReturn(Optional.of(Role.STUDENT));
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.of(bookingPreferenceWindow));
+
+        assertThrows(DefenceSessionException.class, () -> bookingPreferenceService.submitPreferences(
+                new BookingPreferencesDTO(5L, defenceSessionId, List.of(10L))));
+
+        verify(bookingPreferenceRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void submitPreferences_shouldThrowException_whenTooManySlotsAreRanked() {
+        when(userRepository.findRoleByUserId(anyLong())).thenReturn(Optional.of(Role.STUDENT));
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.of(bookingPreferenceWindow));
+
+        assertThrows(IllegalArgumentException.class, () -> bookingPreferenceService.submitPreferences(
+                new BookingPreferencesDTO(5L, defenceSessionId, List.of(10L, 11L, 12L, 13L))));
+
+        verify(bookingPreferenceRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void submitPreferences_shouldThrowException_whenSlotBelongsToAnotherSession() {
+        when(userRepository.findRoleByUserId(anyLong())).thenReturn(Optional.of(Role.STUDENT));
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.of(bookingPreferenceWindow));
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(bookingSlots);
+
+        assertThrows(IllegalArgumentException.class, () -> bookingPreferenceService.submitPreferences(
+                new BookingPreferencesDTO(5L, defenceSessionId, List.of(10L, 20L))));
+
+        verify(bookingPreferenceRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void submitPreferences_shouldThrowException_whenSlotIsRankedTwice() {
+        when(userRepository.findRoleByUserId(anyLong())).thenReturn(Optional.of(Role.STUDENT));
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.of(bookingPreferenceWindow));
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(bookingSlots);
+
+        assertThrows(IllegalArgumentException.class, () -> bookingPreferenceService.submitPreferences(
+                new BookingPreferencesDTO(5L, defenceSessionId, List.of(10L, 10L))));
+
+        verify(bookingPreferenceRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void allocate_shouldAssignSlotsByPreferencesAndLeftoversInSubmissionOrder() {
+        runTransactionsInline();
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.of(bookingPreferenceWindow));
+        when(bookingPreferenceWindowRepository.markAllocated(defenceSessionId)).thenReturn(1);
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(bookingSlots);
+        when(bookingPreferenceRepository.findAllInSubmissionOrder(defenceSessionId)).thenReturn(List.of(
+                preference(1L, 10L, 0),
+                preference(1L, 11L, 1),
+                preference(2L, 10L, 0),
+                preference(3L, 10L, 0)
+        ));
+        when(bookingSlotRepository.batchClaim(any())).thenAnswer(invocation -> new int[]{1, 1, 1});
+
+        List<BookingSlotDTO> allocatedBookingSlots = bookingPreferenceService.allocate(defenceSessionId);
+
+        assertEquals(3, allocatedBookingSlots.size());
+        assertEquals(11L, bookingSlotOf(allocatedBookingSlots, 1L));
+        assertEquals(Set.of(10L, 12L), Set.of(bookingSlotOf(allocatedBookingSlots, 2L), bookingSlotOf(allocatedBookingSlots, 3L)));
+        assertTrue(allocatedBookingSlots.stream().allMatch(BookingSlotDTO::isBooked));
+        verify(bookingSlotRepository).batchClaim(any());
+        verify(applicationEventPublisher).publishEvent(argThat((BookingSlotsChangedEvent event) -> event.getDefenceSessionId() == defenceSessionId));
+    }
+
+    @Test
+    void allocate_shouldSkipStudentsWhoAlreadyBookedASlot() {
+        runTransactionsInline();
+        BookingSlot bookedBookingSlot = bookingSlots.get(0);
+        bookedBookingSlot.setBooked(true);
+        bookedBookingSlot.setUser(User.builder().userId(1L).build());
+
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.of(bookingPreferenceWindow));
+        when(bookingPreferenceWindowRepository.markAllocated(defenceSessionId)).thenReturn(1);
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(bookingSlots);
+        when(bookingPreferenceRepository.findAllInSubmissionOrder(defenceSessionId)).thenReturn(List.of(
+                preference(1L, 11L, 0),
+                preference(2L, 10L, 0),
+                preference(2L, 11L, 1)
+        ));
+        when(bookingSlotRepository.batchClaim(any())).thenAnswer(invocation -> new int[]{1});
+
+        List<BookingSlotDTO> allocatedBookingSlots = bookingPreferenceService.allocate(defenceSessionId);
+
+        assertEquals(1, allocatedBookingSlots.size());
+        assertEquals(2L, allocatedBookingSlots.get(0).getUserId());
+        assertEquals(11L, allocatedBookingSlots.get(0).getBookingSlotId());
+    }
+
+    @Test
+    void allocate_shouldThrowException_whenWindowNotFound() {
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.empty());
+
+        assertThrows(DefenceSessionNotFoundException.class, () -> bookingPreferenceService.allocate(defenceSessionId));
+
+        verify(bookingSlotRepository, never()).batchClaim(any());
+    }
+
+    @Test
+    void allocate_shouldThrowException_whenWindowIsAlreadyAllocated() {
+        runTransactionsInline();
+        when(bookingPreferenceWindowRepository.findById(defenceSessionId)).thenReturn(Optional.of(bookingPreferenceWindow));
+        when(bookingPreferenceWindowRepository.markAllocated(defenceSessionId)).thenReturn(0);
+
+        assertThrows(DefenceSessionException.class, () -> bookingPreferenceService.allocate(defenceSessionId));
+
+        verify(bookingSlotRepository, never()).batchClaim(any());
+    }
+
+    @Test
+    void allocateClosedWindows_shouldAllocateEveryDueWindow() {
+        runTransactionsInline();
+        when(bookingPreferenceWindowRepository.findAllDueForAllocation(any())).thenReturn(List.of(bookingPreferenceWindow));
+        when(bookingPreferenceWindowRepository.markAllocated(defenceSessionId)).thenReturn(1);
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(bookingSlots);
+        when(bookingPreferenceRepository.findAllInSubmissionOrder(defenceSessionId)).thenReturn(List.of(preference(1L, 12L, 0)));
+        when(bookingSlotRepository.batchClaim(any())).thenAnswer(invocation -> new int[]{1});
+
+        bookingPreferenceService.allocateClosedWindows();
+
+        verify(bookingPreferenceWindowRepository).markAllocated(defenceSessionId);
+        verify(bookingSlotRepository).batchClaim(any());
+    }
+
+    private void runTransactionsInline() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private BookingPreference preference(long userId, long bookingSlotId, int rank) {
+        return BookingPreference.builder()
+                .defenceSessionId(defenceSessionId)
+                .userId(userId)
+                .bookingSlotId(bookingSlotId)
+                .rank(rank)
+                .submittedAt(Instant.now())
+                .build();
+    }
+
+    private static long bookingSlotOf(List<BookingSlotDTO> bookingSlots, long userId) {
+        return bookingSlots.stream()
+                .filter(bookingSlot -> bookingSlot.getUserId() == userId)
+                .findFirst()
+                .orElseThrow()
+                .getBookingSlotId();
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.event.BookingSlotBookedEvent;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.exception.DefenceSessionNotFoundException;
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.DefenceSessionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingSlotBroadcasterTest {
+    @Mock
+    BookingSlotRepository bookingSlotRepository;
+    @Mock
+    DefenceSessionRepository defenceSessionRepository;
+    @Spy
+    MessageSource messageSource;
+
+    BookingSlotBroadcaster bookingSlotBroadcaster;
+    SimpleMeterRegistry meterRegistry;
+    Map<Long, RecordingEmitter> emitters;
+    CountDownLatch sendAllowed;
+    BookingSlot bookingSlot;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emitters = new ConcurrentHashMap<>();
+        sendAllowed = new CountDownLatch(0);
+        bookingSlotBroadcaster = new BookingSlotBroadcaster(bookingSlotRepository, defenceSessionRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), messageSource, meterRegistry) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter(sendAllowed);
+                emitters.put((long) emitters.size() + 1, emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(bookingSlotBroadcaster, "bufferSize", 2);
+        ReflectionTestUtils.setField(bookingSlotBroadcaster, "timeout", 0L);
+        ReflectionTestUtils.setField(bookingSlotBroadcaster, "senderThreads", 2);
+        bookingSlotBroadcaster.init();
+
+        bookingSlot = BookingSlot.builder()
+                .bookingSlotId(3L)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .isBooked(false)
+                .defenceSession(DefenceSession.builder().defenceSessionId(1L).build())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingSlotBroadcaster.shutdown();
+    }
+
+    @Test
+    void subscribe_shouldSendAllSlotsOfDefenceSessionFirst() throws InterruptedException {
+        givenDefenceSessionHasSlots(1L);
+
+        bookingSlotBroadcaster.subscribe(1L);
+
+        String event = emitters.get(1L).next();
+        assertTrue(event.startsWith("event:slots\n"));
+        assertTrue(event.contains("\"bookingSlotId\":3"));
+    }
+
+    @Test
+    void subscribe_shouldThrowDefenceSessionNotFoundException_whenDefenceSessionDoesNotExist() {
+        when(defenceSessionRepository.existsById(100L)).thenReturn(false);
+
+        assertThrows(DefenceSessionNotFoundException.class, () -> bookingSlotBroadcaster.subscribe(100L));
+        assertTrue(emitters.isEmpty());
+    }
+
+    @Test
+    void onBookingSlotBooked_shouldPushSlotToSubscribersOfItsDefenceSessionOnly() throws InterruptedException {
+        givenDefenceSessionHasSlots(1L);
+        givenDefenceSessionHasSlots(2L);
+        bookingSlotBroadcaster.subscribe(1L);
+        bookingSlotBroadcaster.subscribe(2L);
+        emitters.get(1L).next();
+        emitters.get(2L).next();
+
+        bookingSlotBroadcaster.onBookingSlotBooked(new BookingSlotBookedEvent(BookingSlotDTO.builder()
+                .bookingSlotId(3L)
+                .isBooked(true)
+                .userId(7L)
+                .defenceSessionId(1L)
+                .build()));
+
+        String event = emitters.get(1L).next();
+        assertTrue(event.startsWith("event:slot\n"));
+        assertTrue(event.contains("\"userId\":7"));
+        assertNull(emitters.get(2L).events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void onBookingSlotsChanged_shouldReadSlotsOnceForAllSubscribers() throws InterruptedException {
+        givenDefenceSessionHasSlots(1L);
+        bookingSlotBroadcaster.subscribe(1L);
+        bookingSlotBroadcaster.subscribe(1L);
+        emitters.get(1L).next();
+        emitters.get(2L).next();
+
+        bookingSlotBroadcaster.onBookingSlotsChanged(new BookingSlotsChangedEvent(1L));
+
+        assertTrue(emitters.get(1L).next().startsWith("event:slots\n"));
+        assertTrue(emitters.get(2L).next().startsWith("event:slots\n"));
+        verify(bookingSlotRepository, times(3)).findAllByDefenceSession_DefenceSessionId(1L);
+    }
+
+    @Test
+    void onBookingSlotsChanged_shouldNotReadSlots_whenNobodySubscribed() {
+        bookingSlotBroadcaster.onBookingSlotsChanged(new BookingSlotsChangedEvent(1L));
+
+        verify(bookingSlotRepository, never()).findAllByDefenceSession_DefenceSessionId(anyLong());
+    }
+
+    @Test
+    void onBookingSlotBooked_shouldDisconnectSubscriber_whenItsBufferOverflows() throws InterruptedException {
+        givenDefenceSessionHasSlots(1L);
+        sendAllowed = new CountDownLatch(1);
+        bookingSlotBroadcaster.subscribe(1L);
+        RecordingEmitter slowEmitter = emitters.get(1L);
+        assertTrue(slowEmitter.sending.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 3; i++) {
+            bookingSlotBroadcaster.onBookingSlotBooked(new BookingSlotBookedEvent(BookingSlotDTO.toBookingSlotDTO(bookingSlot)));
+        }
+
+        assertEquals(1.0, meterRegistry.get("booking.stream.evictions").counter().count());
+        assertEquals(0.0, meterRegistry.get("booking.stream.subscribers").gauge().value());
+        sendAllowed.countDown();
+    }
+
+    private void givenDefenceSessionHasSlots(long defenceSessionId) {
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(true);
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(List.of(bookingSlot));
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        final CountDownLatch sendAllowed;
+
+        RecordingEmitter(CountDownLatch sendAllowed) {
+            this.sendAllowed = sendAllowed;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                sendAllowed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(builder.build().stream()
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            return event;
+        }
+
+    }
+
+}
@@ -0,0 +1,288 @@
+package com.courselink.api.service;
+
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.User;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.repository.BookingSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingSlotInventoryTest {
+    @Mock
+    BookingSlotRepository bookingSlotRepository;
+    BookingSlotInventory bookingSlotInventory;
+    DefenceSession defenceSession;
+    BookingSlot freeBookingSlot;
+    BookingSlot bookedBookingSlot;
+
+    @BeforeEach
+    void setUp() {
+        bookingSlotInventory = new BookingSlotInventory(bookingSlotRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bookingSlotInventory, "batchSize", 2);
+        ReflectionTestUtils.setField(bookingSlotInventory, "maxAttempts", 3);
+        bookingSlotInventory.init();
+
+        defenceSession = DefenceSession.builder().defenceSessionId(1L).build();
+        freeBookingSlot = BookingSlot.builder()
+                .bookingSlotId(1L)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .isBooked(false)
+                .defenceSession(defenceSession)
+                .build();
+        bookedBookingSlot = BookingSlot.builder()
+                .bookingSlotId(2L)
+                .startTime(LocalTime.of(9, 30))
+                .endTime(LocalTime.of(10, 0))
+                .isBooked(true)
+                .user(User.builder().userId(7L).build())
+                .defenceSession(defenceSession)
+                .build();
+    }
+
+    @Test
+    void find_shouldLoadWholeDefenceSessionOnce() {
+        when(bookingSlotRepository.findById(1L)).thenReturn(Optional.of(freeBookingSlot));
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(1L)).thenReturn(List.of(freeBookingSlot, bookedBookingSlot));
+
+        BookingSlotInventory.Slot freeSlot = bookingSlotInventory.find(1L);
+        BookingSlotInventory.Slot bookedSlot = bookingSlotInventory.find(2L);
+
+        assertFalse(freeSlot.isBooked());
+        assertTrue(bookedSlot.isBooked());
+        assertEquals(7L, bookedSlot.toBookingSlot().getUser().getUserId());
+        verify(bookingSlotRepository, times(1)).findById(anyLong());
+        verify(bookingSlotRepository, times(1)).findAllByDefenceSession_DefenceSessionId(1L);
+    }
+
+    @Test
+    void find_shouldReturnNull_whenSlotDoesNotExist() {
+        when(bookingSlotRepository.findById(100L)).thenReturn(Optional.empty());
+
+        assertNull(bookingSlotInventory.find(100L));
+    }
+
+    @Test
+    void findFree_shouldReturnFreeSlotsEarliestFirst() {
+        BookingSlot earlierFreeBookingSlot = BookingSlot.builder()
+                .bookingSlotId(3L)
+                .startTime(LocalTime.of(8, 30))
+                .endTime(LocalTime.of(9, 0))
+                .isBooked(false)
+                .defenceSession(defenceSession)
+                .build();
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(1L)).thenReturn(List.of(freeBookingSlot, bookedBookingSlot, earlierFreeBookingSlot));
+
+        List<BookingSlotInventory.Slot> freeSlots = bookingSlotInventory.findFree(1L);
+
+        assertEquals(List.of(3L, 1L), freeSlots.stream().map(BookingSlotInventory.Slot::getBookingSlotId).toList());
+    }
+
+    @Test
+    void claim_shouldLetExactlyOneOfConcurrentClaimsWin() throws Exception {
+        BookingSlotInventory.Slot slot = loadFreeSlot();
+        int claimers = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(claimers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<CompletableFuture<Boolean>>> claims = new ArrayList<>();
+            for (long userId = 1; userId <= claimers; userId++) {
+                long claimerId = userId;
+                claims.add(executorService.submit(() -> {
+                    start.await();
+                    return bookingSlotInventory.claim(slot, claimerId);
+                }));
+            }
+            start.countDown();
+
+            List<CompletableFuture<Boolean>> wonClaims = new ArrayList<>();
+            for (Future<CompletableFuture<Boolean>> claim : claims) {
+                CompletableFuture<Boolean> wonClaim = claim.get(10, TimeUnit.SECONDS);
+                if (wonClaim != null) {
+                    wonClaims.add(wonClaim);
+                }
+            }
+            assertEquals(1, wonClaims.size());
+            assertTrue(slot.isBooked());
+            assertFalse(wonClaims.get(0).isDone());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldPersistClaimsInBatches() {
+        BookingSlotInventory.Slot slot = loadFreeSlot();
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(slot, 3L);
+        when(bookingSlotRepository.batchClaim(anyList())).thenReturn(new int[]{1});
+
+        bookingSlotInventory.flush();
+
+        assertTrue(claim.join());
+        ArgumentCaptor<List<BookingSlot>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(bookingSlotRepository).batchClaim(batchCaptor.capture());
+        assertEquals(1, batchCaptor.getValue().size());
+        assertEquals(1L, batchCaptor.getValue().get(0).getBookingSlotId());
+        assertEquals(3L, batchCaptor.getValue().get(0).getUser().getUserId());
+
+        bookingSlotInventory.flush();
+        verifyNoMoreInteractions(bookingSlotRepository);
+    }
+
+    @Test
+    void flush_shouldRetryClaims_whenPersistingFails() {
+        BookingSlotInventory.Slot slot = loadFreeSlot();
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(slot, 3L);
+        when(bookingSlotRepository.batchClaim(anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+
+        bookingSlotInventory.flush();
+        assertFalse(claim.isDone());
+        bookingSlotInventory.flush();
+
+        assertTrue(claim.join());
+        verify(bookingSlotRepository, times(2)).batchClaim(anyList());
+    }
+
+    @Test
+    void flush_shouldRetryOnlyFailingClaim_whenBatchFails() {
+        BookingSlot secondFreeBookingSlot = BookingSlot.builder()
+                .bookingSlotId(3L)
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(10, 30))
+                .isBooked(false)
+                .defenceSession(defenceSession)
+                .build();
+        when(bookingSlotRepository.findById(1L)).thenReturn(Optional.of(freeBookingSlot));
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(1L)).thenReturn(List.of(freeBookingSlot, secondFreeBookingSlot));
+        CompletableFuture<Boolean> failingClaim = bookingSlotInventory.claim(bookingSlotInventory.find(1L), 3L);
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(bookingSlotInventory.find(3L), 4L);
+        doThrow(new QueryTimeoutException("timeout")).when(bookingSlotRepository).batchClaim(argThat(batch -> batch.size() == 2));
+        doThrow(new QueryTimeoutException("timeout")).when(bookingSlotRepository)
+                .batchClaim(argThat(batch -> batch.size() == 1 && batch.get(0).getBookingSlotId() == 1L));
+        doReturn(new int[]{1}).when(bookingSlotRepository)
+                .batchClaim(argThat(batch -> batch.size() == 1 && batch.get(0).getBookingSlotId() == 3L));
+
+        bookingSlotInventory.flush();
+
+        assertTrue(claim.join());
+        assertFalse(failingClaim.isDone());
+    }
+
+    @Test
+    void flush_shouldFailClaimAndReloadDefenceSession_whenAttemptsAreUsedUp() {
+        BookingSlotInventory.Slot slot = loadFreeSlot();
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(slot, 3L);
+        when(bookingSlotRepository.batchClaim(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        bookingSlotInventory.flush();
+        bookingSlotInventory.flush();
+        assertFalse(claim.isDone());
+        bookingSlotInventory.flush();
+
+        CompletionException exception = assertThrows(CompletionException.class, claim::join);
+        assertInstanceOf(QueryTimeoutException.class, exception.getCause());
+        verify(bookingSlotRepository, times(3)).batchClaim(anyList());
+        assertNotSame(slot, bookingSlotInventory.find(1L));
+
+        bookingSlotInventory.flush();
+        verify(bookingSlotRepository, times(3)).batchClaim(anyList());
+    }
+
+    @Test
+    void flush_shouldRejectClaimAndReloadDefenceSession_whenDatabaseRejectsClaim() {
+        BookingSlotInventory.Slot slot = loadFreeSlot();
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(slot, 3L);
+        when(bookingSlotRepository.batchClaim(anyList())).thenReturn(new int[]{0});
+
+        bookingSlotInventory.flush();
+
+        assertFalse(claim.join());
+        assertNotSame(slot, bookingSlotInventory.find(1L));
+        verify(bookingSlotRepository, times(2)).findAllByDefenceSession_DefenceSessionId(1L);
+    }
+
+    @Test
+    void claim_shouldBeCheckedByDatabase_whenSlotWasEvictedMeanwhile() {
+        BookingSlotInventory.Slot staleSlot = loadFreeSlot();
+        bookingSlotInventory.onBookingSlotsChanged(new BookingSlotsChangedEvent(1L));
+        BookingSlotInventory.Slot reloadedSlot = bookingSlotInventory.find(1L);
+
+        CompletableFuture<Boolean> staleClaim = bookingSlotInventory.claim(staleSlot, 3L);
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(reloadedSlot, 4L);
+        when(bookingSlotRepository.batchClaim(anyList())).thenReturn(new int[]{1, 0});
+
+        bookingSlotInventory.flush();
+
+        assertTrue(staleClaim.join());
+        assertFalse(claim.join());
+    }
+
+    @Test
+    void shutdown_shouldFailClaims_thatCouldNotBePersisted() {
+        BookingSlotInventory.Slot slot = loadFreeSlot();
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(slot, 3L);
+        when(bookingSlotRepository.batchClaim(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        bookingSlotInventory.shutdown();
+
+        assertTrue(claim.isCompletedExceptionally());
+    }
+
+    @Test
+    void onBookingSlotsChanged_shouldReloadDefenceSession() {
+        BookingSlotInventory.Slot slot = loadFreeSlot();
+
+        bookingSlotInventory.onBookingSlotsChanged(new BookingSlotsChangedEvent(1L));
+
+        assertNotSame(slot, bookingSlotInventory.find(1L));
+        verify(bookingSlotRepository, times(2)).findAllByDefenceSession_DefenceSessionId(1L);
+    }
+
+    @Test
+    void onBookingSlotsChanged_shouldPersistPendingClaimsBeforeReloading() {
+        BookingSlotInventory.Slot slot = loadFreeSlot();
+        CompletableFuture<Boolean> claim = bookingSlotInventory.claim(slot, 3L);
+        when(bookingSlotRepository.batchClaim(anyList())).thenReturn(new int[]{1});
+
+        bookingSlotInventory.onBookingSlotsChanged(new BookingSlotsChangedEvent(1L));
+
+        assertTrue(claim.join());
+        verify(bookingSlotRepository).batchClaim(anyList());
+    }
+
+    private BookingSlotInventory.Slot loadFreeSlot() {
+        when(bookingSlotRepository.findById(1L)).thenReturn(Optional.of(freeBookingSlot));
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(1L)).thenReturn(List.of(freeBookingSlot));
+        return bookingSlotInventory.find(1L);
+    }
+
+}
@@ -1,11 +1,16 @@
 package com.courselink.api.service;
 
+import com.courselink.api.dto.BookingSlotChangesDTO;
 import com.courselink.api.dto.BookingSlotDTO;
 import com.courselink.api.entity.*;
+import com.courselink.api.event.BookingSlotBookedEvent;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.exception.BookingSlotChangesExpiredException;
 import com.courselink.api.exception.BookingSlotNotFoundException;
 import com.courselink.api.exception.DefenceSessionException;
 import com.courselink.api.exception.DefenceSessionNotFoundException;
 import com.courselink.api.exception.UserNotFoundException;
+import com.courselink.api.repository.BookingPreferenceWindowRepository;
 import com.courselink.api.repository.BookingSlotRepository;
 import com.courselink.api.repository.DefenceSessionRepository;
 import com.courselink.api.repository.UserRepository;
@@ -13,25 +18,31 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,10 +53,18 @@ public class BookingSlotServiceTest {
     BookingSlotRepository bookingSlotRepository;
     @Mock
     DefenceSessionRepository defenceSessionRepository;
+    @Mock
+    BookingPreferenceWindowRepository bookingPreferenceWindowRepository;
     @Spy
     MessageSource messageSource;
     @Mock
     UserRepository userRepository;
+    @Mock
+    BookingSlotInventory bookingSlotInventory;
+    @Mock
+    BookingSlotWriteQueue bookingSlotWriteQueue;
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
 
     DefenceSession defenceSession;
     BookingSlot bookingSlot;
@@ -83,30 +102,28 @@ public class BookingSlotServiceTest {
                 .role(Role.STUDENT)
                 .build();
 
+        ReflectionTestUtils.setField(bookingSlotService, "changesPageSize", 1000);
+        ReflectionTestUtils.setField(bookingSlotService, "changesMaxPageSize", 10000);
     }
-    @ParameterizedTest
-    @ValueSource(ints = {1, 5, 10, 20, 30, 2, 15, 90, 50, 120, 1000})
-    void generateBookingSlots_shouldReturnBookingSlotsList(int bookingSlotsCount) {
+    @Test
+    void generateBookingSlots_shouldReturnBookingSlotsList() {
 
         long defenceSessionId = 1L;
+        int bookingSlotsCount = 2;
 
-        when(defenceSessionRepository.findById(defenceSessionId)).thenReturn(Optional.of(defenceSession));
-        when(bookingSlotRepository.existsByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(false);
+        BookingSlot secondBookingSlot = BookingSlot.builder()
+                .bookingSlotId(2L)
+                .startTime(LocalTime.of(13, 15))
+                .endTime(LocalTime.of(13, 30))
+                .defenceSession(defenceSession)
+                .build();
+        when(bookingSlotRepository.generate(defenceSessionId, bookingSlotsCount)).thenReturn(List.of(bookingSlot, secondBookingSlot));
 
         List<BookingSlotDTO> bookingSlots = bookingSlotService.generateBookingSlots(defenceSessionId, bookingSlotsCount);
 
-        assertEquals(bookingSlotsCount, bookingSlots.size());
-        assertEquals(defenceSession.getStartTime(), bookingSlots.get(0).getStartTime());
-
-        Duration duration = Duration.between(bookingSlots.get(0).getStartTime(), bookingSlots.get(0).getEndTime());
-        for (int i = 1; i < bookingSlots.size(); i++) {
-            assertEquals(duration, Duration.between(bookingSlots.get(i).getStartTime(), bookingSlots.get(i).getEndTime()));
-        }
-        assertEquals(defenceSession.getEndTime(), bookingSlots.get(bookingSlots.size() - 1).getEndTime());
-
-        verify(defenceSessionRepository).findById(defenceSessionId);
-        verify(bookingSlotRepository).existsByDefenceSession_DefenceSessionId(defenceSessionId);
-        verify(bookingSlotRepository).saveAll(any());
+        assertEquals(List.of(BookingSlotDTO.toBookingSlotDTO(bookingSlot), BookingSlotDTO.toBookingSlotDTO(secondBookingSlot)), bookingSlots);
+        verify(applicationEventPublisher).publishEvent(argThat((BookingSlotsChangedEvent event) -> event.getDefenceSessionId() == defenceSessionId));
+        verifyNoInteractions(defenceSessionRepository);
     }
 
     @ParameterizedTest
@@ -118,9 +135,8 @@ public class BookingSlotServiceTest {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> bookingSlotService.generateBookingSlots(defenceSessionId, -100));
         assertEquals(messageSource.getMessage("message.illegal.booking.slot.count", null, new Locale(language)), exception.getMessage());
 
-        verify(defenceSessionRepository, never()).findById(defenceSessionId);
-        verify(bookingSlotRepository, never()).existsByDefenceSession_DefenceSessionId(defenceSessionId);
-        verify(bookingSlotRepository, never()).saveAll(any());
+        verify(bookingSlotRepository, never()).generate(anyLong(), anyInt());
+        verifyNoInteractions(defenceSessionRepository);
 
     }
 
@@ -131,15 +147,13 @@ public class BookingSlotServiceTest {
         long defenceSessionId = 100L;
         int bookingSlotsCount = 1;
 
-        when(defenceSessionRepository.findById(defenceSessionId))
-                .thenReturn(Optional.empty());
+        when(bookingSlotRepository.generate(defenceSessionId, bookingSlotsCount)).thenReturn(List.of());
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(false);
 
         DefenceSessionNotFoundException exception = assertThrows(DefenceSessionNotFoundException.class, () -> bookingSlotService.generateBookingSlots(defenceSessionId, bookingSlotsCount));
         assertEquals(messageSource.getMessage("message.defence.session.not.found.with.id", new Object[]{defenceSessionId}, new Locale(language)), exception.getMessage());
 
-        verify(defenceSessionRepository).findById(defenceSessionId);
-        verify(bookingSlotRepository, never()).existsByDefenceSession_DefenceSessionId(defenceSessionId);
-        verify(bookingSlotRepository, never()).saveAll(any());
+        verify(applicationEventPublisher, never()).publishEvent(any());
 
     }
 
@@ -150,32 +164,28 @@ public class BookingSlotServiceTest {
         long defenceSessionId = 5L;
         int bookingSlotsCount = 1;
 
-        when(defenceSessionRepository.findById(defenceSessionId)).thenReturn(Optional.of(defenceSession));
-
-        when(bookingSlotRepository.existsByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(true);
+        when(bookingSlotRepository.generate(defenceSessionId, bookingSlotsCount)).thenReturn(List.of());
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(true);
 
         DefenceSessionException exception = assertThrows(DefenceSessionException.class, () -> bookingSlotService.generateBookingSlots(defenceSessionId, bookingSlotsCount));
         assertEquals(messageSource.getMessage("message.booking.slots.already.exist.with.defence.session.id", new Object[]{defenceSessionId}, new Locale(language)), exception.getMessage());
 
-        verify(defenceSessionRepository).findById(defenceSessionId);
-        verify(bookingSlotRepository).existsByDefenceSession_DefenceSessionId(defenceSessionId);
-        verify(bookingSlotRepository, never()).saveAll(any());
+        verify(applicationEventPublisher, never()).publishEvent(any());
 
     }
 
-    @ParameterizedTest
-    @EnumSource(value = Role.class, names = {"ADMIN_STUDENT", "STUDENT"})
-    void chooseBookingSlot_shouldReturnBookingSlotDTO(Role role) {
+    @Test
+    void chooseBookingSlot_shouldReturnBookingSlotDTO() {
 
         long userId = 1L;
         long bookingSlotId = 1L;
 
-        user.setRole(role);
-
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        user.setUserId(userId);
+        bookingSlot.setBookingSlotId(bookingSlotId);
+        bookingSlot.setUser(user);
+        bookingSlot.setBooked(true);
 
-        when(bookingSlotRepository.findById(bookingSlotId))
+        when(bookingSlotRepository.claim(eq(bookingSlotId), eq(userId), argThat(roles -> roles.contains(Role.STUDENT) && roles.contains(Role.ADMIN_STUDENT))))
                 .thenReturn(Optional.of(bookingSlot));
 
         BookingSlotDTO updatedBookingSlotDTO = bookingSlotService.chooseBookingSlot(userId, bookingSlotId);
@@ -184,8 +194,9 @@ public class BookingSlotServiceTest {
         assertTrue(updatedBookingSlotDTO.isBooked());
         assertEquals(updatedBookingSlotDTO.getUserId(), user.getUserId());
 
-        verify(userRepository).findById(userId);
-        verify(bookingSlotRepository).findById(bookingSlotId);
+        verify(bookingSlotRepository, never()).findById(bookingSlotId);
+        verifyNoInteractions(userRepository);
+        verify(applicationEventPublisher).publishEvent(argThat((BookingSlotBookedEvent event) -> event.getBookingSlot().equals(updatedBookingSlotDTO)));
 
     }
     @ParameterizedTest
@@ -195,15 +206,18 @@ public class BookingSlotServiceTest {
         long userId = 100L;
         long bookingSlotId = 1L;
 
-        when(userRepository.findById(userId))
+        when(bookingSlotRepository.claim(eq(bookingSlotId), eq(userId), any()))
+                .thenReturn(Optional.empty());
+
+        when(userRepository.findRoleByUserId(userId))
                 .thenReturn(Optional.empty());
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class, () -> bookingSlotService.chooseBookingSlot(userId, bookingSlotId));
 
         assertEquals(messageSource.getMessage("message.user.not.found.with.id", new Object[]{userId},new Locale(language)), exception.getMessage());
 
-        verify(userRepository).findById(userId);
-        verify(bookingSlotRepository,never()).findById(bookingSlotId);
+        verify(userRepository).findRoleByUserId(userId);
+        verify(bookingSlotRepository,never()).existsById(bookingSlotId);
 
     }
 
@@ -214,18 +228,21 @@ public class BookingSlotServiceTest {
         long userId = 1L;
         long bookingSlotId = 100L;
 
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-
-        when(bookingSlotRepository.findById(bookingSlotId))
+        when(bookingSlotRepository.claim(eq(bookingSlotId), eq(userId), any()))
                 .thenReturn(Optional.empty());
 
+        when(userRepository.findRoleByUserId(userId))
+                .thenReturn(Optional.of(Role.STUDENT));
+
+        when(bookingSlotRepository.existsById(bookingSlotId))
+                .thenReturn(false);
+
         BookingSlotNotFoundException exception = assertThrows(BookingSlotNotFoundException.class, () -> bookingSlotService.chooseBookingSlot(userId, bookingSlotId));
 
         assertEquals(messageSource.getMessage("message.booking.slot.not.found.with.id", new Object[]{bookingSlotId}, new Locale(language)), exception.getMessage());
 
-        verify(userRepository).findById(userId);
-        verify(bookingSlotRepository).findById(bookingSlotId);
+        verify(userRepository).findRoleByUserId(userId);
+        verify(bookingSlotRepository).existsById(bookingSlotId);
 
     }
 
@@ -236,20 +253,21 @@ public class BookingSlotServiceTest {
         long userId = 1L;
         long bookingSlotId = 1L;
 
-        user.setRole(Role.ADMIN);
+        when(bookingSlotRepository.claim(eq(bookingSlotId), eq(userId), any()))
+                .thenReturn(Optional.empty());
 
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userRepository.findRoleByUserId(userId))
+                .thenReturn(Optional.of(Role.ADMIN));
 
-        when(bookingSlotRepository.findById(bookingSlotId))
-                .thenReturn(Optional.of(bookingSlot));
+        when(bookingSlotRepository.existsById(bookingSlotId))
+                .thenReturn(true);
 
         BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> bookingSlotService.chooseBookingSlot(userId, bookingSlotId));
 
         assertEquals(messageSource.getMessage("message.user.not.student", new Object[]{userId}, new Locale(language)), exception.getMessage());
 
-        verify(userRepository).findById(userId);
-        verify(bookingSlotRepository).findById(bookingSlotId);
+        verify(userRepository).findRoleByUserId(userId);
+        verify(bookingSlotRepository).existsById(bookingSlotId);
 
     }
 
@@ -260,20 +278,290 @@ public class BookingSlotServiceTest {
         long userId = 1L;
         long bookingSlotId = 1L;
 
-        bookingSlot.setBooked(true);
+        when(bookingSlotRepository.claim(eq(bookingSlotId), eq(userId), any()))
+                .thenReturn(Optional.empty());
 
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userRepository.findRoleByUserId(userId))
+                .thenReturn(Optional.of(Role.STUDENT));
 
-        when(bookingSlotRepository.findById(bookingSlotId))
-                .thenReturn(Optional.of(bookingSlot));
+        when(bookingSlotRepository.existsById(bookingSlotId))
+                .thenReturn(true);
 
         BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> bookingSlotService.chooseBookingSlot(userId, bookingSlotId));
 
         assertEquals(messageSource.getMessage("message.booking.slot.already.booked", new Object[]{bookingSlotId}, new Locale(language)), exception.getMessage());
 
-        verify(userRepository).findById(userId);
-        verify(bookingSlotRepository).findById(bookingSlotId);
+        verify(userRepository).findRoleByUserId(userId);
+        verify(bookingSlotRepository).existsById(bookingSlotId);
+
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void chooseBookingSlot_shouldThrowException_whenBookingSlotIsAllocatedByPreferences(String language) {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        when(bookingSlotRepository.claim(eq(bookingSlotId), eq(userId), any()))
+                .thenReturn(Optional.empty());
+
+        when(userRepository.findRoleByUserId(userId))
+                .thenReturn(Optional.of(Role.STUDENT));
+
+        when(bookingSlotRepository.existsById(bookingSlotId))
+                .thenReturn(true);
+
+        when(bookingPreferenceWindowRepository.existsUnallocatedByBookingSlotId(bookingSlotId))
+                .thenReturn(true);
+
+        BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> bookingSlotService.chooseBookingSlot(userId, bookingSlotId));
+
+        assertEquals(messageSource.getMessage("message.booking.slot.preference.window.open", new Object[]{bookingSlotId}, new Locale(language)), exception.getMessage());
+
+        verify(bookingPreferenceWindowRepository).existsUnallocatedByBookingSlotId(bookingSlotId);
+
+    }
+
+    @Test
+    void chooseBookingSlot_shouldClaimSlotInInventory_whenInventoryModeIsEnabled() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        ReflectionTestUtils.setField(bookingSlotService, "bookingMode", BookingMode.INVENTORY);
+        BookingSlotInventory.Slot slot = mock(BookingSlotInventory.Slot.class);
+        user.setUserId(userId);
+        bookingSlot.setUser(user);
+        bookingSlot.setBooked(true);
+
+        when(bookingSlotInventory.find(bookingSlotId)).thenReturn(slot);
+        when(slot.isBooked()).thenReturn(false);
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.STUDENT));
+        when(bookingSlotInventory.claim(slot, userId)).thenReturn(CompletableFuture.completedFuture(true));
+        when(slot.toBookingSlot()).thenReturn(bookingSlot);
+
+        BookingSlotDTO bookingSlotDTO = bookingSlotService.chooseBookingSlot(userId, bookingSlotId);
+
+        assertTrue(bookingSlotDTO.isBooked());
+        assertEquals(userId, bookingSlotDTO.getUserId());
+        verify(bookingSlotRepository, never()).claim(anyLong(), anyLong(), any());
+
+    }
+
+    @Test
+    void chooseBookingSlot_shouldRejectBookedSlotWithoutDatabase_whenInventoryModeIsEnabled() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        ReflectionTestUtils.setField(bookingSlotService, "bookingMode", BookingMode.INVENTORY);
+        BookingSlotInventory.Slot slot = mock(BookingSlotInventory.Slot.class);
+
+        when(bookingSlotInventory.find(bookingSlotId)).thenReturn(slot);
+        when(slot.isBooked()).thenReturn(true);
+
+        assertThrows(BadCredentialsException.class, () -> bookingSlotService.chooseBookingSlot(userId, bookingSlotId));
+
+        verifyNoInteractions(userRepository, bookingSlotRepository);
+        verify(bookingSlotInventory, never()).claim(any(), anyLong());
+
+    }
+
+    @Test
+    void chooseBookingSlot_shouldThrowException_whenInventoryClaimIsLost() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        ReflectionTestUtils.setField(bookingSlotService, "bookingMode", BookingMode.INVENTORY);
+        BookingSlotInventory.Slot slot = mock(BookingSlotInventory.Slot.class);
+
+        when(bookingSlotInventory.find(bookingSlotId)).thenReturn(slot);
+        when(slot.isBooked()).thenReturn(false);
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.ADMIN_STUDENT));
+        when(bookingSlotInventory.claim(slot, userId)).thenReturn(null);
+
+        assertThrows(BadCredentialsException.class, () -> bookingSlotService.chooseBookingSlot(userId, bookingSlotId));
+
+        verify(bookingSlotRepository, never()).existsById(anyLong());
+
+    }
+
+    @Test
+    void chooseBookingSlotAsync_shouldFail_whenDatabaseRejectsInventoryClaim() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        ReflectionTestUtils.setField(bookingSlotService, "bookingMode", BookingMode.INVENTORY);
+        BookingSlotInventory.Slot slot = mock(BookingSlotInventory.Slot.class);
+        CompletableFuture<Boolean> claim = new CompletableFuture<>();
+
+        when(bookingSlotInventory.find(bookingSlotId)).thenReturn(slot);
+        when(slot.isBooked()).thenReturn(false);
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.STUDENT));
+        when(bookingSlotInventory.claim(slot, userId)).thenReturn(claim);
+        when(bookingSlotRepository.existsById(bookingSlotId)).thenReturn(false);
+
+        CompletableFuture<BookingSlotDTO> booking = bookingSlotService.chooseBookingSlotAsync(userId, bookingSlotId);
+
+        assertFalse(booking.isDone());
+        verify(applicationEventPublisher, never()).publishEvent(any());
+
+        claim.complete(false);
+
+        CompletionException exception = assertThrows(CompletionException.class, booking::join);
+        assertInstanceOf(BookingSlotNotFoundException.class, exception.getCause());
+        verify(applicationEventPublisher, never()).publishEvent(any());
+
+    }
+
+    @Test
+    void chooseBookingSlot_shouldThrowException_whenSlotIsNotInInventory() {
+
+        ReflectionTestUtils.setField(bookingSlotService, "bookingMode", BookingMode.INVENTORY);
+
+        when(bookingSlotInventory.find(100L)).thenReturn(null);
+
+        assertThrows(BookingSlotNotFoundException.class, () -> bookingSlotService.chooseBookingSlot(1L, 100L));
+
+        verifyNoInteractions(userRepository);
+
+    }
+
+    @Test
+    void chooseBookingSlotAsync_shouldClaimOnCallingThread_whenQueueModeIsDisabled() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        user.setUserId(userId);
+        bookingSlot.setUser(user);
+        bookingSlot.setBooked(true);
+
+        when(bookingSlotRepository.claim(eq(bookingSlotId), eq(userId), any()))
+                .thenReturn(Optional.of(bookingSlot));
+
+        CompletableFuture<BookingSlotDTO> bookingSlotDTO = bookingSlotService.chooseBookingSlotAsync(userId, bookingSlotId);
+
+        assertTrue(bookingSlotDTO.isDone());
+        assertEquals(userId, bookingSlotDTO.join().getUserId());
+        verifyNoInteractions(bookingSlotWriteQueue);
+
+    }
+
+    @Test
+    void chooseBookingSlotAsync_shouldSubmitClaimToWriteQueue_whenQueueModeIsEnabled() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        ReflectionTestUtils.setField(bookingSlotService, "bookingMode", BookingMode.QUEUE);
+        user.setUserId(userId);
+        bookingSlot.setUser(user);
+        bookingSlot.setBooked(true);
+
+        when(bookingSlotWriteQueue.submit(eq(bookingSlotId), eq(userId), any()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(bookingSlot)));
+
+        BookingSlotDTO bookingSlotDTO = bookingSlotService.chooseBookingSlotAsync(userId, bookingSlotId).join();
+
+        assertTrue(bookingSlotDTO.isBooked());
+        assertEquals(userId, bookingSlotDTO.getUserId());
+        verify(bookingSlotRepository, never()).claim(anyLong(), anyLong(), any());
+
+    }
+
+    @Test
+    void chooseBookingSlotAsync_shouldCompleteExceptionally_whenQueuedClaimIsLost() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        ReflectionTestUtils.setField(bookingSlotService, "bookingMode", BookingMode.QUEUE);
+
+        when(bookingSlotWriteQueue.submit(eq(bookingSlotId), eq(userId), any()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.STUDENT));
+        when(bookingSlotRepository.existsById(bookingSlotId)).thenReturn(true);
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> bookingSlotService.chooseBookingSlotAsync(userId, bookingSlotId).join());
+
+        assertInstanceOf(BadCredentialsException.class, exception.getCause());
+
+    }
+
+    @Test
+    void releaseBookingSlot_shouldFreeSlotAndPublishEvent() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        bookingSlot.setBookingSlotId(bookingSlotId);
+
+        when(bookingSlotRepository.release(bookingSlotId, userId)).thenReturn(Optional.of(bookingSlot));
+
+        BookingSlotDTO bookingSlotDTO = bookingSlotService.releaseBookingSlot(userId, bookingSlotId);
+
+        assertFalse(bookingSlotDTO.isBooked());
+        assertNull(bookingSlotDTO.getUserId());
+        verify(applicationEventPublisher).publishEvent(argThat((BookingSlotsChangedEvent event) -> event.getDefenceSessionId() == defenceSession.getDefenceSessionId()));
+        verifyNoInteractions(bookingSlotInventory);
+
+    }
+
+    @Test
+    void releaseBookingSlot_shouldReturnSlotUnchanged_whenUserDoesNotHoldIt() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        bookingSlot.setBookingSlotId(bookingSlotId);
+        bookingSlot.setBooked(true);
+        bookingSlot.setUser(User.builder().userId(2L).build());
+
+        when(bookingSlotRepository.release(bookingSlotId, userId)).thenReturn(Optional.empty());
+        when(bookingSlotRepository.findById(bookingSlotId)).thenReturn(Optional.of(bookingSlot));
+
+        BookingSlotDTO bookingSlotDTO = bookingSlotService.releaseBookingSlot(userId, bookingSlotId);
+
+        assertTrue(bookingSlotDTO.isBooked());
+        assertEquals(2L, bookingSlotDTO.getUserId());
+        verify(applicationEventPublisher, never()).publishEvent(any());
+
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void releaseBookingSlot_shouldThrowException_whenBookingSlotNotFound(String language) {
+
+        long userId = 1L;
+        long bookingSlotId = 100L;
+
+        when(bookingSlotRepository.release(bookingSlotId, userId)).thenReturn(Optional.empty());
+        when(bookingSlotRepository.findById(bookingSlotId)).thenReturn(Optional.empty());
+
+        BookingSlotNotFoundException exception = assertThrows(BookingSlotNotFoundException.class, () -> bookingSlotService.releaseBookingSlot(userId, bookingSlotId));
+
+        assertEquals(messageSource.getMessage("message.booking.slot.not.found.with.id", new Object[]{bookingSlotId}, new Locale(language)), exception.getMessage());
+
+    }
+
+    @Test
+    void releaseBookingSlot_shouldPersistInventoryClaimsFirst_whenInventoryModeIsEnabled() {
+
+        long userId = 1L;
+        long bookingSlotId = 1L;
+
+        ReflectionTestUtils.setField(bookingSlotService, "bookingMode", BookingMode.INVENTORY);
+        when(bookingSlotRepository.release(bookingSlotId, userId)).thenReturn(Optional.of(bookingSlot));
+
+        bookingSlotService.releaseBookingSlot(userId, bookingSlotId);
+
+        InOrder inOrder = inOrder(bookingSlotInventory, bookingSlotRepository);
+        inOrder.verify(bookingSlotInventory).flush();
+        inOrder.verify(bookingSlotRepository).release(bookingSlotId, userId);
 
     }
 
@@ -290,6 +578,7 @@ public class BookingSlotServiceTest {
 
         verify(bookingSlotRepository).existsByDefenceSession_DefenceSessionId(defenceSessionId);
         verify(bookingSlotRepository).deleteByDefenceSession_DefenceSessionId(defenceSessionId);
+        verify(applicationEventPublisher).publishEvent(argThat((BookingSlotsChangedEvent event) -> event.getDefenceSessionId() == defenceSessionId));
 
     }
 
@@ -341,6 +630,95 @@ public class BookingSlotServiceTest {
 
     }
 
+    @Test
+    void getChangesSince_shouldReturnChangesFromRepository() {
+
+        BookingSlotChangesDTO changes = BookingSlotChangesDTO.builder()
+                .version(42L)
+                .bookingSlots(List.of(BookingSlotDTO.toBookingSlotDTO(bookingSlot)))
+                .deletedBookingSlotIds(List.of(5L))
+                .build();
+
+        when(bookingSlotRepository.findChangesSince(40L, 1000)).thenReturn(changes);
 
+        BookingSlotChangesDTO result = bookingSlotService.getChangesSince(40L, null);
+
+        assertEquals(changes, result);
+        verifyNoInteractions(bookingSlotInventory);
+
+    }
+
+    @Test
+    void getChangesSince_shouldCapLimit_whenLimitExceedsMaxPageSize() {
+
+        BookingSlotChangesDTO changes = BookingSlotChangesDTO.builder()
+                .version(42L)
+                .bookingSlots(Collections.emptyList())
+                .deletedBookingSlotIds(Collections.emptyList())
+                .build();
+
+        when(bookingSlotRepository.findChangesSince(40L, 10000)).thenReturn(changes);
+
+        assertEquals(changes, bookingSlotService.getChangesSince(40L, 50000));
+
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void getChangesSince_shouldThrowException_whenLimitIsLessThenOneOrEquals(String language) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> bookingSlotService.getChangesSince(40L, 0));
+        assertEquals(messageSource.getMessage("message.illegal.booking.slot.changes.limit", null, new Locale(language)), exception.getMessage());
+
+        verify(bookingSlotRepository, never()).findChangesSince(anyLong(), anyInt());
+
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void getChangesSince_shouldThrowException_whenVersionWasPruned(String language) {
+
+        BookingSlotChangesDTO changes = BookingSlotChangesDTO.builder()
+                .version(42L)
+                .minVersion(41L)
+                .bookingSlots(Collections.emptyList())
+                .deletedBookingSlotIds(Collections.emptyList())
+                .build();
+
+        when(bookingSlotRepository.findChangesSince(40L, 1000)).thenReturn(changes);
+
+        BookingSlotChangesExpiredException exception = assertThrows(BookingSlotChangesExpiredException.class, () -> bookingSlotService.getChangesSince(40L, null));
+        assertEquals(messageSource.getMessage("message.booking.slot.changes.expired", new Object[]{40L, 41L}, new Locale(language)), exception.getMessage());
+
+    }
+
+    @Test
+    void getChangesSince_shouldReturnChanges_whenSinceIsZeroAndDeletionsWerePruned() {
+
+        BookingSlotChangesDTO changes = BookingSlotChangesDTO.builder()
+                .version(42L)
+                .minVersion(41L)
+                .bookingSlots(List.of(BookingSlotDTO.toBookingSlotDTO(bookingSlot)))
+                .deletedBookingSlotIds(Collections.emptyList())
+                .build();
+
+        when(bookingSlotRepository.findChangesSince(0L, 1000)).thenReturn(changes);
+
+        assertEquals(changes, bookingSlotService.getChangesSince(0L, null));
+
+    }
+
+    @Test
+    void pruneBookingSlotDeletions_shouldPruneTombstonesOlderThenRetention() {
+
+        ReflectionTestUtils.setField(bookingSlotService, "deletionRetention", 60000L);
+        Instant before = Instant.now().minusMillis(60000L);
+
+        bookingSlotService.pruneBookingSlotDeletions();
+
+        verify(bookingSlotRepository).pruneDeletions(argThat((Instant deletedBefore) -> !deletedBefore.isBefore(before)
+                && !deletedBefore.isAfter(Instant.now().minusMillis(60000L))));
+
+    }
 
 }
@@ -0,0 +1,182 @@
+package com.courselink.api.service;
+
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.Role;
+import com.courselink.api.repository.BookingSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BookingSlotWriteQueueTest {
+    private static final Set<Role> STUDENT_ROLES = Set.of(Role.STUDENT);
+    @Mock
+    BookingSlotRepository bookingSlotRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    BookingSlotWriteQueue bookingSlotWriteQueue;
+
+    @BeforeEach
+    void setUp() {
+        bookingSlotWriteQueue = new BookingSlotWriteQueue(bookingSlotRepository, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), Runnable::run);
+        ReflectionTestUtils.setField(bookingSlotWriteQueue, "batchSize", 64);
+        ReflectionTestUtils.setField(bookingSlotWriteQueue, "writerThreads", 2);
+        ReflectionTestUtils.setField(bookingSlotWriteQueue, "slotCacheMaximumSize", 1000L);
+        bookingSlotWriteQueue.init();
+
+        DefenceSession defenceSession = DefenceSession.builder().defenceSessionId(1L).build();
+        when(bookingSlotRepository.findById(anyLong())).thenAnswer(invocation -> {
+            long bookingSlotId = invocation.getArgument(0);
+            return bookingSlotId < 100
+                    ? Optional.of(BookingSlot.builder().bookingSlotId(bookingSlotId).defenceSession(defenceSession).build())
+                    : Optional.empty();
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bookingSlotWriteQueue.shutdown();
+    }
+
+    @Test
+    void submit_shouldCompleteWithClaimedSlot() throws Exception {
+        BookingSlot claimedBookingSlot = BookingSlot.builder().bookingSlotId(1L).isBooked(true).build();
+        when(bookingSlotRepository.claim(1L, 5L, STUDENT_ROLES)).thenReturn(Optional.of(claimedBookingSlot));
+
+        Optional<BookingSlot> result = bookingSlotWriteQueue.submit(1L, 5L, STUDENT_ROLES).get(10, TimeUnit.SECONDS);
+
+        assertSame(claimedBookingSlot, result.orElseThrow());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void submit_shouldCompleteWithEmpty_whenSlotDoesNotExist() throws Exception {
+        assertTrue(bookingSlotWriteQueue.submit(100L, 5L, STUDENT_ROLES).get(10, TimeUnit.SECONDS).isEmpty());
+
+        verify(bookingSlotRepository, never()).claim(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void submit_shouldCommitQueuedClaimsOfSessionTogether_withSingleWriter() throws Exception {
+        CountDownLatch firstClaimStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstClaim = new CountDownLatch(1);
+        AtomicInteger concurrentWriters = new AtomicInteger();
+        AtomicBoolean overlappingWriters = new AtomicBoolean();
+        when(bookingSlotRepository.claim(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            if (concurrentWriters.incrementAndGet() > 1) {
+                overlappingWriters.set(true);
+            }
+            try {
+                if (invocation.<Long>getArgument(1) == 0L) {
+                    firstClaimStarted.countDown();
+                    releaseFirstClaim.await(10, TimeUnit.SECONDS);
+                }
+                return Optional.empty();
+            } finally {
+                concurrentWriters.decrementAndGet();
+            }
+        });
+
+        List<CompletableFuture<Optional<BookingSlot>>> results = new ArrayList<>();
+        results.add(bookingSlotWriteQueue.submit(1L, 0L, STUDENT_ROLES));
+        assertTrue(firstClaimStarted.await(10, TimeUnit.SECONDS));
+        for (long userId = 1; userId <= 10; userId++) {
+            results.add(bookingSlotWriteQueue.submit(1L, userId, STUDENT_ROLES));
+        }
+        releaseFirstClaim.countDown();
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertFalse(overlappingWriters.get());
+        verify(bookingSlotRepository, times(11)).claim(anyLong(), anyLong(), any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void submit_shouldCompleteExceptionally_whenBatchFails() {
+        when(bookingSlotRepository.claim(anyLong(), anyLong(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        CompletableFuture<Optional<BookingSlot>> result = bookingSlotWriteQueue.submit(1L, 5L, STUDENT_ROLES);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(QueryTimeoutException.class, exception.getCause());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void submit_shouldRetryClaimsOneByOne_whenBatchFails() throws Exception {
+        CountDownLatch firstClaimStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstClaim = new CountDownLatch(1);
+        BookingSlot claimedBookingSlot = BookingSlot.builder().bookingSlotId(2L).isBooked(true).build();
+        when(bookingSlotRepository.claim(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            long userId = invocation.getArgument(1);
+            if (userId == 0L) {
+                firstClaimStarted.countDown();
+                releaseFirstClaim.await(10, TimeUnit.SECONDS);
+                return Optional.empty();
+            }
+            if (userId == 1L) {
+                throw new QueryTimeoutException("timeout");
+            }
+            return Optional.of(claimedBookingSlot);
+        });
+
+        CompletableFuture<Optional<BookingSlot>> first = bookingSlotWriteQueue.submit(1L, 0L, STUDENT_ROLES);
+        assertTrue(firstClaimStarted.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Optional<BookingSlot>> failing = bookingSlotWriteQueue.submit(1L, 1L, STUDENT_ROLES);
+        CompletableFuture<Optional<BookingSlot>> succeeding = bookingSlotWriteQueue.submit(2L, 2L, STUDENT_ROLES);
+        releaseFirstClaim.countDown();
+
+        assertTrue(first.get(10, TimeUnit.SECONDS).isEmpty());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failing.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(QueryTimeoutException.class, exception.getCause());
+        assertSame(claimedBookingSlot, succeeding.get(10, TimeUnit.SECONDS).orElseThrow());
+    }
+
+    @Test
+    void submit_shouldRemoveWriter_onceItsQueueHasDrained() throws Exception {
+        when(bookingSlotRepository.claim(anyLong(), anyLong(), any())).thenReturn(Optional.empty());
+
+        bookingSlotWriteQueue.submit(1L, 5L, STUDENT_ROLES).get(10, TimeUnit.SECONDS);
+
+        Map<?, ?> writers = (Map<?, ?>) ReflectionTestUtils.getField(bookingSlotWriteQueue, "writers");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!writers.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(writers.isEmpty());
+
+        assertTrue(bookingSlotWriteQueue.submit(1L, 6L, STUDENT_ROLES).get(10, TimeUnit.SECONDS).isEmpty());
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.BookingWaitlistEntryDTO;
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.User;
+import com.courselink.api.exception.BookingWaitlistEntryNotFoundException;
+import com.courselink.api.exception.DefenceSessionException;
+import com.courselink.api.exception.DefenceSessionNotFoundException;
+import com.courselink.api.exception.UserNotFoundException;
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.DefenceSessionRepository;
+import com.courselink.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingWaitlistServiceTest {
+    @InjectMocks
+    BookingWaitlistService bookingWaitlistService;
+    @Mock
+    BookingWaitlist bookingWaitlist;
+    @Mock
+    BookingSlotRepository bookingSlotRepository;
+    @Mock
+    DefenceSessionRepository defenceSessionRepository;
+    @Mock
+    UserRepository userRepository;
+    @Spy
+    MessageSource messageSource;
+
+    long userId = 1L;
+    long defenceSessionId = 2L;
+    BookingSlot bookingSlot;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingWaitlistService, "promotionTimeout", 1000L);
+
+        bookingSlot = BookingSlot.builder()
+                .bookingSlotId(3L)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .isBooked(true)
+                .user(User.builder().userId(userId).build())
+                .defenceSession(DefenceSession.builder().defenceSessionId(defenceSessionId).build())
+                .build();
+    }
+
+    @Test
+    void joinWaitlist_shouldReturnPosition_whenNoSlotIsFree() {
+        givenStudentCanJoin();
+        when(bookingWaitlist.promote(defenceSessionId)).thenReturn(List.of());
+        when(bookingWaitlist.positionOf(defenceSessionId, userId)).thenReturn(4);
+
+        BookingWaitlistEntryDTO entry = bookingWaitlistService.joinWaitlist(userId, defenceSessionId);
+
+        assertEquals(4, entry.getPosition());
+        assertNull(entry.getBookingSlot());
+        verify(bookingWaitlist).join(defenceSessionId, userId);
+    }
+
+    @Test
+    void joinWaitlist_shouldReturnBookingSlot_whenPromotedRightAway() {
+        givenStudentCanJoin();
+        when(bookingWaitlist.promote(defenceSessionId)).thenReturn(List.of(bookingSlot));
+
+        BookingWaitlistEntryDTO entry = bookingWaitlistService.joinWaitlist(userId, defenceSessionId);
+
+        assertEquals(0, entry.getPosition());
+        assertEquals(3L, entry.getBookingSlot().getBookingSlotId());
+        assertEquals(userId, entry.getBookingSlot().getUserId());
+    }
+
+    @Test
+    void joinWaitlist_shouldThrowUserNotFoundException_whenUserDoesNotExist() {
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> bookingWaitlistService.joinWaitlist(userId, defenceSessionId));
+        verifyNoInteractions(bookingWaitlist);
+    }
+
+    @Test
+    void joinWaitlist_shouldThrowBadCredentialsException_whenUserIsNotStudent() {
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.TEACHER));
+
+        assertThrows(BadCredentialsException.class, () -> bookingWaitlistService.joinWaitlist(userId, defenceSessionId));
+        verifyNoInteractions(bookingWaitlist);
+    }
+
+    @Test
+    void joinWaitlist_shouldThrowDefenceSessionNotFoundException_whenDefenceSessionDoesNotExist() {
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.STUDENT));
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(false);
+
+        assertThrows(DefenceSessionNotFoundException.class, () -> bookingWaitlistService.joinWaitlist(userId, defenceSessionId));
+        verifyNoInteractions(bookingWaitlist);
+    }
+
+    @Test
+    void joinWaitlist_shouldThrowDefenceSessionException_whenUserAlreadyBooked() {
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.STUDENT));
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(true);
+        when(bookingSlotRepository.existsBookedByDefenceSessionIdAndUserId(defenceSessionId, userId)).thenReturn(true);
+
+        assertThrows(DefenceSessionException.class, () -> bookingWaitlistService.joinWaitlist(userId, defenceSessionId));
+        verifyNoInteractions(bookingWaitlist);
+    }
+
+    @Test
+    void leaveWaitlist_shouldThrowBookingWaitlistEntryNotFoundException_whenUserIsNotWaiting() {
+        when(bookingWaitlist.leave(defenceSessionId, userId)).thenReturn(false);
+
+        assertThrows(BookingWaitlistEntryNotFoundException.class, () -> bookingWaitlistService.leaveWaitlist(userId, defenceSessionId));
+    }
+
+    @Test
+    void getWaitlistEntry_shouldReturnPosition() {
+        when(bookingWaitlist.positionOf(defenceSessionId, userId)).thenReturn(2);
+
+        assertEquals(2, bookingWaitlistService.getWaitlistEntry(userId, defenceSessionId).getPosition());
+    }
+
+    @Test
+    void awaitPromotion_shouldCompleteWithBookingSlot_whenUserIsPromoted() {
+        CompletableFuture<BookingSlot> promotion = new CompletableFuture<>();
+        when(bookingWaitlist.positionOf(defenceSessionId, userId)).thenReturn(1);
+        when(bookingWaitlist.awaitPromotion(defenceSessionId, userId)).thenReturn(promotion);
+
+        DeferredResult<BookingWaitlistEntryDTO> result = bookingWaitlistService.awaitPromotion(userId, defenceSessionId);
+        assertFalse(result.hasResult());
+
+        promotion.complete(bookingSlot);
+
+        BookingWaitlistEntryDTO entry = (BookingWaitlistEntryDTO) result.getResult();
+        assertEquals(0, entry.getPosition());
+        assertEquals(3L, entry.getBookingSlot().getBookingSlotId());
+    }
+
+    @Test
+    void awaitPromotion_shouldThrowBookingWaitlistEntryNotFoundException_whenUserIsNotWaiting() {
+        when(bookingWaitlist.positionOf(defenceSessionId, userId)).thenReturn(0);
+
+        assertThrows(BookingWaitlistEntryNotFoundException.class, () -> bookingWaitlistService.awaitPromotion(userId, defenceSessionId));
+        verify(bookingWaitlist, never()).awaitPromotion(anyLong(), anyLong());
+    }
+
+    private void givenStudentCanJoin() {
+        when(userRepository.findRoleByUserId(userId)).thenReturn(Optional.of(Role.STUDENT));
+        when(defenceSessionRepository.existsById(defenceSessionId)).thenReturn(true);
+        when(bookingSlotRepository.existsBookedByDefenceSessionIdAndUserId(defenceSessionId, userId)).thenReturn(false);
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.courselink.api.service;
+
+import com.courselink.api.entity.BookingSlot;
+import com.courselink.api.entity.BookingWaitlistEntry;
+import com.courselink.api.entity.DefenceSession;
+import com.courselink.api.entity.User;
+import com.courselink.api.event.BookingSlotBookedEvent;
+import com.courselink.api.event.BookingSlotsChangedEvent;
+import com.courselink.api.repository.BookingPreferenceWindowRepository;
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.BookingWaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingWaitlistTest {
+    @Mock
+    BookingWaitlistRepository bookingWaitlistRepository;
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    BookingSlotRepository bookingSlotRepository;
+    @Mock
+    BookingPreferenceWindowRepository bookingPreferenceWindowRepository;
+    BookingSlotInventory bookingSlotInventory;
+    BookingWaitlist bookingWaitlist;
+
+    long defenceSessionId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        bookingSlotInventory = new BookingSlotInventory(bookingSlotRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bookingSlotInventory, "batchSize", 10);
+        ReflectionTestUtils.setField(bookingSlotInventory, "maxAttempts", 3);
+        bookingSlotInventory.init();
+        bookingWaitlist = new BookingWaitlist(bookingWaitlistRepository, applicationEventPublisher, new SimpleMeterRegistry(),
+                bookingSlotInventory, bookingPreferenceWindowRepository);
+        ReflectionTestUtils.setField(bookingWaitlist, "bookingMode", BookingMode.DIRECT);
+        bookingWaitlist.init();
+    }
+
+    @Test
+    void join_shouldAppendToPersistedWaitlist() {
+        when(bookingWaitlistRepository.findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(defenceSessionId))
+                .thenReturn(List.of(entry(5L), entry(6L)));
+
+        assertEquals(3, bookingWaitlist.join(defenceSessionId, 7L));
+        assertEquals(2, bookingWaitlist.join(defenceSessionId, 6L));
+        assertEquals(1, bookingWaitlist.positionOf(defenceSessionId, 5L));
+        assertEquals(0, bookingWaitlist.positionOf(defenceSessionId, 8L));
+        verify(bookingWaitlistRepository).enqueue(defenceSessionId, 7L);
+        verify(bookingWaitlistRepository, times(1)).findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(defenceSessionId);
+    }
+
+    @Test
+    void leave_shouldRemoveUserFromWaitlist() {
+        when(bookingWaitlistRepository.deleteByDefenceSessionIdAndUserId(defenceSessionId, 5L)).thenReturn(1, 0);
+        bookingWaitlist.join(defenceSessionId, 5L);
+        bookingWaitlist.join(defenceSessionId, 6L);
+
+        assertTrue(bookingWaitlist.leave(defenceSessionId, 5L));
+        assertFalse(bookingWaitlist.leave(defenceSessionId, 5L));
+        assertEquals(1, bookingWaitlist.positionOf(defenceSessionId, 6L));
+    }
+
+    @Test
+    void promote_shouldCompletePendingPromotionsAndPublishEvent() {
+        BookingSlot bookingSlot = bookingSlot(10L, 5L);
+        when(bookingWaitlistRepository.removeBooked(defenceSessionId)).thenReturn(List.of());
+        when(bookingWaitlistRepository.promoteNext(defenceSessionId)).thenReturn(Optional.of(bookingSlot), Optional.empty());
+        bookingWaitlist.join(defenceSessionId, 5L);
+        bookingWaitlist.join(defenceSessionId, 6L);
+        CompletableFuture<BookingSlot> promotion = bookingWaitlist.awaitPromotion(defenceSessionId, 5L);
+
+        List<BookingSlot> promoted = bookingWaitlist.promote(defenceSessionId);
+
+        assertEquals(List.of(bookingSlot), promoted);
+        assertSame(bookingSlot, promotion.getNow(null));
+        assertEquals(0, bookingWaitlist.positionOf(defenceSessionId, 5L));
+        assertEquals(1, bookingWaitlist.positionOf(defenceSessionId, 6L));
+        verify(applicationEventPublisher).publishEvent(argThat((BookingSlotBookedEvent event) ->
+                event.getBookingSlot().getBookingSlotId() == 10L && event.getBookingSlot().getUserId() == 5L));
+        verify(applicationEventPublisher, never()).publishEvent(isA(BookingSlotsChangedEvent.class));
+    }
+
+    @Test
+    void promote_shouldClaimEarliestFreeSlotsInInventory_whenBookingModeIsInventory() {
+        ReflectionTestUtils.setField(bookingWaitlist, "bookingMode", BookingMode.INVENTORY);
+        BookingSlot laterFreeSlot = freeBookingSlot(11L, LocalTime.of(10, 0));
+        BookingSlot earlierFreeSlot = freeBookingSlot(12L, LocalTime.of(9, 0));
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(List.of(laterFreeSlot, earlierFreeSlot));
+        when(bookingSlotRepository.batchClaim(anyList())).thenReturn(new int[]{1});
+        when(bookingWaitlistRepository.removeBooked(defenceSessionId)).thenReturn(List.of());
+        when(bookingWaitlistRepository.findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(defenceSessionId))
+                .thenReturn(List.of(), List.of(entry(5L), entry(6L), entry(7L)), List.of(entry(6L), entry(7L)), List.of(entry(7L)));
+        bookingWaitlist.join(defenceSessionId, 5L);
+        bookingWaitlist.join(defenceSessionId, 6L);
+        bookingWaitlist.join(defenceSessionId, 7L);
+        CompletableFuture<BookingSlot> promotion = bookingWaitlist.awaitPromotion(defenceSessionId, 5L);
+
+        List<BookingSlot> promoted = bookingWaitlist.promote(defenceSessionId);
+
+        assertEquals(List.of(12L, 11L), promoted.stream().map(BookingSlot::getBookingSlotId).toList());
+        assertEquals(12L, promotion.getNow(null).getBookingSlotId());
+        assertTrue(bookingSlotInventory.find(11L).isBooked());
+        assertEquals(1, bookingWaitlist.positionOf(defenceSessionId, 7L));
+        verify(bookingWaitlistRepository, never()).promoteNext(anyLong());
+        verify(bookingWaitlistRepository).deleteByDefenceSessionIdAndUserId(defenceSessionId, 5L);
+        verify(bookingWaitlistRepository).deleteByDefenceSessionIdAndUserId(defenceSessionId, 6L);
+        verify(applicationEventPublisher, times(2)).publishEvent(isA(BookingSlotBookedEvent.class));
+    }
+
+    @Test
+    void promote_shouldNotClaimInventorySlots_whilePreferencesAreCollected() {
+        ReflectionTestUtils.setField(bookingWaitlist, "bookingMode", BookingMode.INVENTORY);
+        when(bookingSlotRepository.findAllByDefenceSession_DefenceSessionId(defenceSessionId)).thenReturn(List.of(freeBookingSlot(11L, LocalTime.of(9, 0))));
+        when(bookingPreferenceWindowRepository.existsUnallocatedByBookingSlotId(11L)).thenReturn(true);
+        when(bookingWaitlistRepository.removeBooked(defenceSessionId)).thenReturn(List.of());
+        when(bookingWaitlistRepository.findAllByDefenceSessionIdOrderByBookingWaitlistEntryId(defenceSessionId)).thenReturn(List.of(entry(5L)));
+
+        assertTrue(bookingWaitlist.promote(defenceSessionId).isEmpty());
+        assertFalse(bookingSlotInventory.find(11L).isBooked());
+        verify(bookingSlotRepository, never()).batchClaim(anyList());
+    }
+
+    @Test
+    void promote_shouldNotPublishEvent_whenNothingIsPromoted() {
+        when(bookingWaitlistRepository.removeBooked(defenceSessionId)).thenReturn(List.of());
+        when(bookingWaitlistRepository.promoteNext(defenceSessionId)).thenReturn(Optional.empty());
+
+        assertTrue(bookingWaitlist.promote(defenceSessionId).isEmpty());
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void promote_shouldDropUsersWhoBookedOnTheirOwn() {
+        when(bookingWaitlistRepository.removeBooked(defenceSessionId)).thenReturn(List.of(5L));
+        when(bookingWaitlistRepository.promoteNext(defenceSessionId)).thenReturn(Optional.empty());
+        bookingWaitlist.join(defenceSessionId, 5L);
+        bookingWaitlist.join(defenceSessionId, 6L);
+
+        bookingWaitlist.onBookingSlotsChanged(new BookingSlotsChangedEvent(defenceSessionId));
+
+        assertEquals(0, bookingWaitlist.positionOf(defenceSessionId, 5L));
+        assertEquals(1, bookingWaitlist.positionOf(defenceSessionId, 6L));
+    }
+
+    private BookingWaitlistEntry entry(long userId) {
+        return BookingWaitlistEntry.builder()
+                .defenceSessionId(defenceSessionId)
+                .userId(userId)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private BookingSlot freeBookingSlot(long bookingSlotId, LocalTime startTime) {
+        return BookingSlot.builder()
+                .bookingSlotId(bookingSlotId)
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(30))
+                .isBooked(false)
+                .defenceSession(DefenceSession.builder().defenceSessionId(defenceSessionId).build())
+                .build();
+    }
+
+    private BookingSlot bookingSlot(long bookingSlotId, long userId) {
+        return BookingSlot.builder()
+                .bookingSlotId(bookingSlotId)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .isBooked(true)
+                .user(User.builder().userId(userId).build())
+                .defenceSession(DefenceSession.builder().defenceSessionId(defenceSessionId).build())
+                .build();
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.BookingSlotDTO;
+import com.courselink.api.entity.IdempotentResponse;
+import com.courselink.api.exception.IdempotencyKeyException;
+import com.courselink.api.repository.IdempotentResponseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+    @Mock
+    IdempotentResponseRepository idempotentResponseRepository;
+    @Mock
+    MessageSource messageSource;
+    IdempotencyService idempotencyService;
+    BookingSlotDTO bookingSlotDTO;
+    AtomicInteger invocations;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotentResponseRepository, new ObjectMapper().registerModule(new JavaTimeModule()),
+                messageSource, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(idempotencyService, "ttl", 60_000L);
+        ReflectionTestUtils.setField(idempotencyService, "cacheMaximumSize", 100L);
+        idempotencyService.init();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice.johnson", null, List.of()));
+
+        bookingSlotDTO = BookingSlotDTO.builder()
+                .bookingSlotId(1L)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .isBooked(true)
+                .userId(1L)
+                .defenceSessionId(1L)
+                .build();
+        invocations = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void execute_shouldRunAction_whenNoKeyIsGiven() {
+        idempotencyService.execute(null, "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+        idempotencyService.execute(null, "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+
+        assertEquals(2, invocations.get());
+        verifyNoInteractions(idempotentResponseRepository);
+    }
+
+    @Test
+    void execute_shouldReplayResponse_whenRequestIsRetried() {
+        BookingSlotDTO first = idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+        BookingSlotDTO retry = idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+
+        assertEquals(1, invocations.get());
+        assertEquals(first, retry);
+        assertEquals(bookingSlotDTO, retry);
+        verify(idempotentResponseRepository).insertIfAbsent(any());
+    }
+
+    @Test
+    void execute_shouldReplayPersistedResponse_whenItIsNotCached() {
+        idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+        ArgumentCaptor<IdempotentResponse> responseCaptor = ArgumentCaptor.forClass(IdempotentResponse.class);
+        verify(idempotentResponseRepository).insertIfAbsent(responseCaptor.capture());
+
+        idempotencyService.init();
+        when(idempotentResponseRepository.findByKeyHashAndCreatedAtAfter(eq(responseCaptor.getValue().getKeyHash()), any(Instant.class)))
+                .thenReturn(Optional.of(responseCaptor.getValue()));
+
+        BookingSlotDTO retry = idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+
+        assertEquals(1, invocations.get());
+        assertEquals(bookingSlotDTO, retry);
+    }
+
+    @Test
+    void execute_shouldScopeKeysToPrincipal() {
+        idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("bob.smith", null, List.of()));
+
+        idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    void execute_shouldThrowIdempotencyKeyException_whenKeyIsReusedForDifferentRequest() {
+        idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 2L), BookingSlotDTO.class, this::chooseBookingSlot));
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void execute_shouldThrowIdempotencyKeyException_whenKeyIsBlank() {
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute(" ", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot));
+        assertEquals(0, invocations.get());
+    }
+
+    @Test
+    void execute_shouldRunActionAgain_whenFirstRequestFailed() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, () -> {
+            invocations.incrementAndGet();
+            throw new IllegalStateException("failed");
+        }));
+
+        idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+
+        assertEquals(2, invocations.get());
+        verify(idempotentResponseRepository, times(1)).insertIfAbsent(any());
+    }
+
+    @Test
+    void execute_shouldReturnResponse_whenPersistingFails() {
+        when(idempotentResponseRepository.insertIfAbsent(any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        BookingSlotDTO response = idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+        BookingSlotDTO retry = idempotencyService.execute("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, this::chooseBookingSlot);
+
+        assertEquals(bookingSlotDTO, response);
+        assertEquals(bookingSlotDTO, retry);
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void executeAsync_shouldWaitForPendingRequest_whenRequestIsRetriedConcurrently() {
+        CompletableFuture<BookingSlotDTO> firstResponse = new CompletableFuture<>();
+
+        CompletableFuture<BookingSlotDTO> first = idempotencyService.executeAsync("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class, () -> {
+            invocations.incrementAndGet();
+            return firstResponse;
+        });
+        CompletableFuture<BookingSlotDTO> retry = idempotencyService.executeAsync("key", "choose-booking-slot", List.of(1L, 1L), BookingSlotDTO.class,
+                () -> CompletableFuture.completedFuture(chooseBookingSlot()));
+
+        assertFalse(retry.isDone());
+        firstResponse.complete(bookingSlotDTO);
+
+        assertEquals(bookingSlotDTO, first.join());
+        assertEquals(bookingSlotDTO, retry.join());
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void deleteExpiredResponses_shouldDeleteResponsesOlderThanTtl() {
+        Instant before = Instant.now();
+
+        idempotencyService.deleteExpiredResponses();
+
+        ArgumentCaptor<Instant> cutoffCaptor = ArgumentCaptor.forClass(Instant.class);
+        verify(idempotentResponseRepository).deleteAllCreatedBefore(cutoffCaptor.capture());
+        assertFalse(cutoffCaptor.getValue().isAfter(before.minusMillis(60_000L).plusSeconds(1)));
+    }
+
+    private BookingSlotDTO chooseBookingSlot() {
+        invocations.incrementAndGet();
+        return bookingSlotDTO;
+    }
+
+}
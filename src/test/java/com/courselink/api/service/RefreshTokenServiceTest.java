@@ -0,0 +1,175 @@
+package com.courselink.api.service;
+
+import com.courselink.api.dto.AuthenticationResponseDTO;
+import com.courselink.api.entity.RefreshToken;
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.Status;
+import com.courselink.api.entity.User;
+import com.courselink.api.repository.RefreshTokenRepository;
+import com.courselink.api.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+    @InjectMocks
+    RefreshTokenService refreshTokenService;
+    @Mock
+    RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    JwtService jwtService;
+    @Spy
+    MessageSource messageSource;
+    User user;
+    RefreshToken refreshToken;
+
+    @BeforeEach
+    void setUp() {
+
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenExpiration", 604800000L);
+
+        user = User.builder()
+                .userId(1L)
+                .username("Test username")
+                .role(Role.STUDENT)
+                .status(Status.ACTIVE)
+                .build();
+
+        refreshToken = RefreshToken.builder()
+                .refreshTokenId(1L)
+                .tokenHash("Test token hash")
+                .familyId(UUID.randomUUID())
+                .user(user)
+                .expiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
+                .build();
+    }
+
+    @Test
+    void issueRefreshToken_shouldStoreOnlyTokenHash() {
+
+        String token = refreshTokenService.issueRefreshToken(user);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+
+        assertNotNull(token);
+        assertEquals(64, captor.getValue().getTokenHash().length());
+        assertNotEquals(token, captor.getValue().getTokenHash());
+        assertEquals(user, captor.getValue().getUser());
+        assertFalse(captor.getValue().isUsed());
+    }
+
+    @Test
+    void rotate_shouldReturnNewTokensInSameFamily() {
+
+        String token = "Test token";
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.markAsUsed(refreshToken.getRefreshTokenId())).thenReturn(1);
+        when(jwtService.generateToken(user)).thenReturn(token);
+
+        AuthenticationResponseDTO response = refreshTokenService.rotate("Test refresh token");
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+
+        assertEquals(token, response.getToken());
+        assertNotNull(response.getRefreshToken());
+        assertEquals(refreshToken.getFamilyId(), captor.getValue().getFamilyId());
+
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void rotate_shouldThrowException_whenRefreshTokenNotFound(String language) {
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("Test refresh token"));
+        assertEquals(messageSource.getMessage("message.refresh.token.invalid", null, new Locale(language)), exception.getMessage());
+
+        verify(refreshTokenRepository, never()).markAsUsed(anyLong());
+        verify(jwtService, never()).generateToken(any(User.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void rotate_shouldRevokeFamily_whenRefreshTokenIsReused(String language) {
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.markAsUsed(refreshToken.getRefreshTokenId())).thenReturn(0);
+
+        BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("Test refresh token"));
+        assertEquals(messageSource.getMessage("message.refresh.token.invalid", null, new Locale(language)), exception.getMessage());
+
+        verify(refreshTokenRepository).revokeFamily(refreshToken.getFamilyId());
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+        verify(jwtService, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void rotate_shouldThrowException_whenRefreshTokenIsRevoked() {
+
+        refreshToken.setRevoked(true);
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("Test refresh token"));
+
+        verify(refreshTokenRepository, never()).markAsUsed(anyLong());
+        verify(jwtService, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void rotate_shouldThrowException_whenRefreshTokenIsExpired() {
+
+        refreshToken.setExpiresAt(Instant.now().minus(1, ChronoUnit.MINUTES));
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("Test refresh token"));
+
+        verify(refreshTokenRepository, never()).markAsUsed(anyLong());
+        verify(jwtService, never()).generateToken(any(User.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
+    void rotate_shouldRevokeAllRefreshTokens_whenUserIsBanned(String language) {
+
+        user.setStatus(Status.BANNED);
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.markAsUsed(refreshToken.getRefreshTokenId())).thenReturn(1);
+
+        BadCredentialsException exception = assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("Test refresh token"));
+        assertEquals(messageSource.getMessage("message.user.banned", null, new Locale(language)), exception.getMessage());
+
+        verify(refreshTokenRepository).revokeAllByUserId(user.getUserId());
+        verify(jwtService, never()).generateToken(any(User.class));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.courselink.api.service;
+
+import com.courselink.api.repository.BookingSlotRepository;
+import com.courselink.api.repository.ResourceVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ResourceVersionsTest {
+
+    @Mock
+    BookingSlotRepository bookingSlotRepository;
+    @Mock
+    ResourceVersionRepository resourceVersionRepository;
+    @InjectMocks
+    ResourceVersions resourceVersions;
+
+    @Test
+    void bookingSlotsETag_shouldBeVersionOfDefenceSession() {
+        when(bookingSlotRepository.findVersionByDefenceSessionId(1L)).thenReturn("1042");
+
+        assertEquals("1042", resourceVersions.bookingSlotsETag(1L));
+    }
+
+    @Test
+    void defenceSessionsETag_shouldChange_whenTaskCategoriesChange() {
+        when(resourceVersionRepository.findVersionByResource("defence_sessions")).thenReturn(3L);
+        when(resourceVersionRepository.findVersionByResource("task_categories")).thenReturn(5L, 6L);
+
+        String etag = resourceVersions.defenceSessionsETag();
+
+        assertEquals("3-5", etag);
+        assertNotEquals(etag, resourceVersions.defenceSessionsETag());
+    }
+
+    @Test
+    void taskCategoriesETag_shouldBeVersionOfTaskCategories() {
+        when(resourceVersionRepository.findVersionByResource("task_categories")).thenReturn(5L);
+
+        assertEquals("5", resourceVersions.taskCategoriesETag());
+    }
+
+    @Test
+    void usersETag_shouldBeVersionOfUsers() {
+        when(resourceVersionRepository.findVersionByResource("users")).thenReturn(7L);
+
+        assertEquals("7", resourceVersions.usersETag());
+    }
+
+}
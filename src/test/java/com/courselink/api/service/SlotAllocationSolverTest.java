@@ -0,0 +1,137 @@
+package com.courselink.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlotAllocationSolverTest {
+
+    SlotAllocationSolver slotAllocationSolver;
+
+    @BeforeEach
+    void setUp() {
+        slotAllocationSolver = new SlotAllocationSolver();
+        ReflectionTestUtils.setField(slotAllocationSolver, "parallelism", 2);
+        slotAllocationSolver.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slotAllocationSolver.shutdown();
+    }
+
+    @Test
+    void solve_shouldGiveEveryStudentTheirFirstChoice_whenChoicesDontCollide() {
+        int[] assignments = slotAllocationSolver.solve(3, new int[][]{{2, 0}, {0, 1}, {1, 2}});
+
+        assertArrayEquals(new int[]{2, 0, 1}, assignments);
+    }
+
+    @Test
+    void solve_shouldMinimiseTotalRank_whenChoicesCollide() {
+        int[] assignments = slotAllocationSolver.solve(2, new int[][]{{0, 1}, {0}});
+
+        assertArrayEquals(new int[]{1, 0}, assignments);
+    }
+
+    @Test
+    void solve_shouldLeaveStudentUnassigned_whenRankedSlotsAreTaken() {
+        int[] assignments = slotAllocationSolver.solve(2, new int[][]{{0}, {0}, {}});
+
+        assertEquals(1, Arrays.stream(assignments).filter(slot -> slot == 0).count());
+        assertEquals(2, Arrays.stream(assignments).filter(slot -> slot == SlotAllocationSolver.UNASSIGNED).count());
+    }
+
+    @Test
+    void solve_shouldReturnNoAssignments_whenThereAreNoStudents() {
+        assertEquals(0, slotAllocationSolver.solve(5, new int[0][]).length);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L})
+    void solve_shouldFindOptimalAllocation(long seed) {
+        Random random = new Random(seed);
+        int studentCount = 1 + random.nextInt(7);
+        int slotCount = 1 + random.nextInt(7);
+        int[][] rankings = randomRankings(random, studentCount, slotCount, 1 + random.nextInt(4));
+
+        int[] assignments = slotAllocationSolver.solve(slotCount, rankings);
+
+        assertEquals(studentCount, assignments.length);
+        assertEquals(studentCount, Arrays.stream(assignments).filter(slot -> slot == SlotAllocationSolver.UNASSIGNED).count()
+                + Arrays.stream(assignments).filter(slot -> slot != SlotAllocationSolver.UNASSIGNED).distinct().count());
+        assertEquals(optimalCost(rankings, slotCount, 0, new boolean[slotCount]), cost(rankings, assignments));
+    }
+
+    @Test
+    void solve_shouldAllocateThousandsOfStudents() {
+        int[][] rankings = randomRankings(new Random(42), 5000, 5000, 10);
+
+        int[] assignments = assertTimeoutPreemptively(java.time.Duration.ofSeconds(10),
+                () -> slotAllocationSolver.solve(5000, rankings));
+
+        assertEquals(Arrays.stream(assignments).filter(slot -> slot != SlotAllocationSolver.UNASSIGNED).count(),
+                Arrays.stream(assignments).filter(slot -> slot != SlotAllocationSolver.UNASSIGNED).distinct().count());
+    }
+
+    private static int[][] randomRankings(Random random, int studentCount, int slotCount, int rankedSlots) {
+        int[][] rankings = new int[studentCount][];
+        for (int student = 0; student < studentCount; student++) {
+            Set<Integer> ranking = new LinkedHashSet<>();
+            int size = random.nextInt(Math.min(rankedSlots, slotCount) + 1);
+            while (ranking.size() < size) {
+                ranking.add(random.nextInt(slotCount));
+            }
+            rankings[student] = ranking.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return rankings;
+    }
+
+    private static int worstRank(int[][] rankings) {
+        return Arrays.stream(rankings).mapToInt(ranking -> ranking.length).max().orElse(0);
+    }
+
+    private static long cost(int[][] rankings, int[] assignments) {
+        long cost = 0;
+        for (int student = 0; student < rankings.length; student++) {
+            cost += rankOf(rankings[student], assignments[student], worstRank(rankings));
+        }
+        return cost;
+    }
+
+    private static int rankOf(int[] ranking, int slot, int worstRank) {
+        for (int rank = 0; rank < ranking.length; rank++) {
+            if (ranking[rank] == slot) {
+                return rank;
+            }
+        }
+        return worstRank;
+    }
+
+    private static long optimalCost(int[][] rankings, int slotCount, int student, boolean[] taken) {
+        if (student == rankings.length) {
+            return 0;
+        }
+        long best = worstRank(rankings) + optimalCost(rankings, slotCount, student + 1, taken);
+        int[] ranking = rankings[student];
+        for (int rank = 0; rank < ranking.length; rank++) {
+            if (!taken[ranking[rank]]) {
+                taken[ranking[rank]] = true;
+                best = Math.min(best, rank + optimalCost(rankings, slotCount, student + 1, taken));
+                taken[ranking[rank]] = false;
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,253 @@
+package com.courselink.api.service;
+
+import com.courselink.api.config.MessageConfig;
+import com.courselink.api.dto.UserImportErrorDTO;
+import com.courselink.api.dto.UserImportReportDTO;
+import com.courselink.api.entity.Role;
+import com.courselink.api.entity.Status;
+import com.courselink.api.entity.User;
+import com.courselink.api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    static final String CSV_HEADER = "username,email,password,firstname,lastname,role\n";
+
+    @Mock
+    UserRepository userRepository;
+    @Mock
+    PasswordEncoder passwordEncoder;
+
+    UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        userImportService = new UserImportService(
+                userRepository,
+                passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                new MessageConfig().messageSource()
+        );
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(userImportService, "maxRows", 100);
+        ReflectionTestUtils.setField(userImportService, "parallelism", 2);
+        userImportService.init();
+
+        lenient().when(passwordEncoder.encode(any())).thenAnswer(invocation -> "encoded:" + invocation.getArgument(0));
+        lenient().when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        lenient().when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        lenient().when(userRepository.batchInsertIgnoringConflicts(anyList())).thenAnswer(invocation -> {
+            int[] insertedRows = new int[invocation.<List<User>>getArgument(0).size()];
+            Arrays.fill(insertedRows, 1);
+            return insertedRows;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    void importUsers_shouldInsertCsvRowsInChunks() throws IOException {
+
+        String csv = CSV_HEADER +
+                "student.one,student.one@university.com,Password1!,Student,One,STUDENT\n" +
+                "student.two,student.two@university.com,Password2!,Student,Two,STUDENT\n" +
+                "teacher.one,teacher.one@university.com,Password3!,Teacher,One,TEACHER\n";
+
+        UserImportReportDTO report = importUsers(csv, UserImportService.CSV_MEDIA_TYPE);
+
+        assertEquals(3, report.getTotalRows());
+        assertFalse(report.isTruncated());
+        assertEquals(3, report.getImportedRows());
+        assertEquals(0, report.getFailedRows());
+        assertTrue(report.getErrors().isEmpty());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(2)).batchInsertIgnoringConflicts(captor.capture());
+
+        List<User> firstChunk = captor.getAllValues().get(0);
+        assertEquals(2, firstChunk.size());
+        assertEquals("student.one", firstChunk.get(0).getUsername());
+        assertEquals("encoded:Password1!", firstChunk.get(0).getPassword());
+        assertEquals(Role.STUDENT, firstChunk.get(0).getRole());
+        assertEquals(Status.ACTIVE, firstChunk.get(0).getStatus());
+        assertEquals(Role.TEACHER, captor.getAllValues().get(1).get(0).getRole());
+    }
+
+    @Test
+    void importUsers_shouldInsertNdjsonRows() throws IOException {
+
+        String ndjson =
+                "{\"username\":\"student.one\",\"email\":\"student.one@university.com\",\"password\":\"Password1!\",\"firstname\":\"Student\",\"lastname\":\"One\",\"role\":\"STUDENT\"}\n" +
+                "{\"username\":\"teacher.one\",\"email\":\"teacher.one@university.com\",\"password\":\"Password3!\",\"firstname\":\"Teacher\",\"lastname\":\"One\",\"role\":\"TEACHER\"}\n";
+
+        UserImportReportDTO report = importUsers(ndjson, UserImportService.NDJSON_MEDIA_TYPE);
+
+        assertEquals(2, report.getTotalRows());
+        assertEquals(2, report.getImportedRows());
+        verify(passwordEncoder, times(2)).encode(any());
+    }
+
+    @Test
+    void importUsers_shouldReportInvalidRows_andImportTheRest() throws IOException {
+
+        String csv = CSV_HEADER +
+                "student.one,student.one@university.com,weak,Student,One,STUDENT\n" +
+                "student.two,student.two@university.com,Password2!,Student,Two,ADMIN\n" +
+                "student.three,student.three@university.com,Password3!,Student,Three,STUDENT\n";
+
+        UserImportReportDTO report = importUsers(csv, UserImportService.CSV_MEDIA_TYPE);
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(1, report.getImportedRows());
+        assertEquals(2, report.getFailedRows());
+        assertEquals(List.of(1L, 2L), report.getErrors().stream().map(UserImportErrorDTO::getRow).toList());
+        assertEquals("student.one", report.getErrors().get(0).getUsername());
+        assertTrue(report.getErrors().get(0).getMessage().contains("Password should have at least 8 characters!"));
+
+        verify(passwordEncoder, never()).encode("weak");
+    }
+
+    @Test
+    void importUsers_shouldReportDuplicatesWithinImport() throws IOException {
+
+        String csv = CSV_HEADER +
+                "student.one,student.one@university.com,Password1!,Student,One,STUDENT\n" +
+                "student.one,other.one@university.com,Password1!,Student,One,STUDENT\n" +
+                "student.two,student.one@university.com,Password1!,Student,Two,STUDENT\n";
+
+        UserImportReportDTO report = importUsers(csv, UserImportService.CSV_MEDIA_TYPE);
+
+        assertEquals(1, report.getImportedRows());
+        assertEquals(2, report.getFailedRows());
+        assertEquals("Username student.one appears more than once in the import", report.getErrors().get(0).getMessage());
+        assertEquals("Email student.one@university.com appears more than once in the import", report.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void importUsers_shouldReportExistingUsers_withoutHashingTheirPasswords() throws IOException {
+
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("alice.johnson"));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("bob.smith@student.university.com"));
+
+        String csv = CSV_HEADER +
+                "alice.johnson,alice.new@university.com,Password1!,Alice,Johnson,STUDENT\n" +
+                "bob.smith.new,bob.smith@student.university.com,Password2!,Bob,Smith,STUDENT\n";
+
+        UserImportReportDTO report = importUsers(csv, UserImportService.CSV_MEDIA_TYPE);
+
+        assertEquals(0, report.getImportedRows());
+        assertEquals(2, report.getFailedRows());
+        assertEquals("User with username alice.johnson already exists!", report.getErrors().get(0).getMessage());
+        assertEquals("User with email bob.smith@student.university.com already exists!", report.getErrors().get(1).getMessage());
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).batchInsertIgnoringConflicts(anyList());
+    }
+
+    @Test
+    void importUsers_shouldReportRowsSkippedByConcurrentRegistration() throws IOException {
+
+        when(userRepository.batchInsertIgnoringConflicts(anyList())).thenReturn(new int[]{1, 0});
+
+        String csv = CSV_HEADER +
+                "student.one,student.one@university.com,Password1!,Student,One,STUDENT\n" +
+                "student.two,student.two@university.com,Password2!,Student,Two,STUDENT\n";
+
+        UserImportReportDTO report = importUsers(csv, UserImportService.CSV_MEDIA_TYPE);
+
+        assertEquals(1, report.getImportedRows());
+        assertEquals(1, report.getFailedRows());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals("student.two", report.getErrors().get(0).getUsername());
+    }
+
+    @Test
+    void importUsers_shouldReportMalformedNdjsonRow_andContinue() throws IOException {
+
+        String ndjson =
+                "{\"username\":\"student.one\",\"email\":\"student.one@university.com\",\"password\":\"Password1!\",\"firstname\":\"Student\",\"lastname\":\"One\",\"role\":\"STUDENT\"}\n" +
+                "{\"username\":\"student.two\",\"role\":\"UNKNOWN\"}\n" +
+                "{\"username\":\"teacher.one\",\"email\":\"teacher.one@university.com\",\"password\":\"Password3!\",\"firstname\":\"Teacher\",\"lastname\":\"One\",\"role\":\"TEACHER\"}\n";
+
+        UserImportReportDTO report = importUsers(ndjson, UserImportService.NDJSON_MEDIA_TYPE);
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(2, report.getImportedRows());
+        assertEquals(1, report.getFailedRows());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals("Row could not be parsed", report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void importUsers_shouldStop_whenMaxRowsIsExceeded() throws IOException {
+
+        ReflectionTestUtils.setField(userImportService, "maxRows", 1);
+
+        String csv = CSV_HEADER +
+                "student.one,student.one@university.com,Password1!,Student,One,STUDENT\n" +
+                "student.two,student.two@university.com,Password2!,Student,Two,STUDENT\n" +
+                "student.three,student.three@university.com,Password3!,Student,Three,STUDENT\n";
+
+        UserImportReportDTO report = importUsers(csv, UserImportService.CSV_MEDIA_TYPE);
+
+        assertEquals(1, report.getTotalRows());
+        assertEquals(1, report.getImportedRows());
+        assertEquals(0, report.getFailedRows());
+        assertTrue(report.isTruncated());
+        assertTrue(report.getErrors().isEmpty());
+    }
+
+    @Test
+    void importUsers_shouldNotFlagTruncation_whenInputHasExactlyMaxRows() throws IOException {
+
+        ReflectionTestUtils.setField(userImportService, "maxRows", 2);
+
+        String csv = CSV_HEADER +
+                "student.one,student.one@university.com,Password1!,Student,One,STUDENT\n" +
+                "student.two,student.two@university.com,Password2!,Student,Two,STUDENT\n";
+
+        UserImportReportDTO report = importUsers(csv, UserImportService.CSV_MEDIA_TYPE);
+
+        assertEquals(2, report.getTotalRows());
+        assertEquals(2, report.getImportedRows());
+        assertFalse(report.isTruncated());
+    }
+
+    private UserImportReportDTO importUsers(String body, String contentType) throws IOException {
+        return userImportService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType);
+    }
+
+}
@@ -7,6 +7,7 @@ import com.courselink.api.dto.UserDTO;
 import com.courselink.api.entity.Role;
 import com.courselink.api.entity.Status;
 import com.courselink.api.entity.User;
+import com.courselink.api.event.UserAuthChangedEvent;
 import com.courselink.api.exception.UserNotFoundException;
 import com.courselink.api.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +20,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 
 import java.util.List;
@@ -26,6 +28,8 @@ import java.util.Locale;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +41,10 @@ public class UserManagementServiceTest {
     UserRepository userRepository;
     @Spy
     MessageSource messageSource;
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    RefreshTokenService refreshTokenService;
     UpdateStatusDTO updateStatusDTO;
     UpdateRoleDTO updateRoleDTO;
     User user;
@@ -105,6 +113,36 @@ public class UserManagementServiceTest {
         verify(userRepository).findById(updateStatusDTO.getUserId());
     }
 
+    @Test
+    void updateStatus_shouldRevokeTokens_whenStatusChanges() {
+
+        updateStatusDTO.setStatus(Status.BANNED);
+
+        when(userRepository.findById(updateStatusDTO.getUserId()))
+                .thenReturn(Optional.of(user));
+
+        userManagementService.updateStatus(updateStatusDTO);
+
+        assertEquals(1, user.getSecurityVersion());
+
+        verify(applicationEventPublisher).publishEvent(any(UserAuthChangedEvent.class));
+        verify(refreshTokenService).revokeAllByUserId(user.getUserId());
+    }
+
+    @Test
+    void updateStatus_shouldNotRevokeTokens_whenStatusIsUnchanged() {
+
+        when(userRepository.findById(updateStatusDTO.getUserId()))
+                .thenReturn(Optional.of(user));
+
+        userManagementService.updateStatus(updateStatusDTO);
+
+        assertEquals(0, user.getSecurityVersion());
+
+        verify(applicationEventPublisher, never()).publishEvent(any(UserAuthChangedEvent.class));
+        verify(refreshTokenService, never()).revokeAllByUserId(user.getUserId());
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
     void updateStatus_shouldThrowException_whenUserNotFound(String language) {
@@ -135,6 +173,19 @@ public class UserManagementServiceTest {
         verify(userRepository).findById(updateStatusDTO.getUserId());
     }
 
+    @Test
+    void updateRole_shouldRevokeTokens_whenRoleChanges() {
+
+        when(userRepository.findById(updateRoleDTO.getUserId()))
+                .thenReturn(Optional.of(user));
+
+        userManagementService.updateRole(updateRoleDTO);
+
+        assertEquals(1, user.getSecurityVersion());
+
+        verify(applicationEventPublisher).publishEvent(any(UserAuthChangedEvent.class));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"uk", "en", "de", "pl", "ru"})
     void updateRole_shouldThrowException_whenUserNotFound(String language) {